@@ -175,4 +175,13 @@ public class KafkaResources {
     public static String zookeeperMetricsAndLogConfigMapName(String clusterName) {
         return clusterName + "-zookeeper-config";
     }
+
+    /**
+     * Returns the name of the {@code ConfigMap} with the state of the partition rebalance of a {@code Kafka} cluster of the given name.
+     * @param clusterName  The {@code metadata.name} of the {@code Kafka} resource.
+     * @return The name of the corresponding rebalance {@code ConfigMap}.
+     */
+    public static String kafkaRebalanceConfigMapName(String clusterName) {
+        return clusterName + "-kafka-rebalance";
+    }
 }
@@ -13,6 +13,7 @@ import io.strimzi.crdgenerator.annotations.Description;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -52,11 +53,32 @@ public abstract class Storage implements Serializable {
         this.additionalProperties.put(name, value);
     }
 
+    /**
+     * Whether the persistent volume claims of the given storage are deleted with the cluster.
+     * For a JBOD storage, this is the case only if the claims of all its persistent volumes are deleted.
+     */
     public static boolean deleteClaim(Storage storage) {
+        if (storage instanceof JbodStorage) {
+            List<SingleVolumeStorage> volumes = ((JbodStorage) storage).getVolumes();
+            return volumes != null
+                    && volumes.stream().anyMatch(volume -> volume instanceof PersistentClaimStorage)
+                    && volumes.stream().allMatch(volume -> !(volume instanceof PersistentClaimStorage) || deleteClaim(volume));
+        }
         return storage instanceof PersistentClaimStorage
                 && ((PersistentClaimStorage) storage).isDeleteClaim();
     }
 
+    /**
+     * Whether the given storage has persistent volume claims.
+     */
+    public static boolean isPersistent(Storage storage) {
+        if (storage instanceof JbodStorage) {
+            List<SingleVolumeStorage> volumes = ((JbodStorage) storage).getVolumes();
+            return volumes != null && volumes.stream().anyMatch(volume -> volume instanceof PersistentClaimStorage);
+        }
+        return storage instanceof PersistentClaimStorage;
+    }
+
     public static String storageClass(Storage storage) {
         return storage instanceof PersistentClaimStorage ?
                 ((PersistentClaimStorage) storage).getStorageClass() : null;
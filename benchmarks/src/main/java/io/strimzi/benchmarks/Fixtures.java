@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.benchmarks;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.PodSecurityContext;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetStatusBuilder;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.KafkaListeners;
+import io.strimzi.api.kafka.model.KafkaListenersBuilder;
+import io.strimzi.api.kafka.model.PersistentClaimStorageBuilder;
+import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.topic.Topic;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Realistic inputs shared by the benchmarks.
+ */
+final class Fixtures {
+
+    static final String NAMESPACE = "bench";
+    static final String CLUSTER = "my-cluster";
+
+    static final KafkaVersion.Lookup VERSIONS = new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap());
+
+    private Fixtures() { }
+
+    /**
+     * A Kafka resource with all the listeners (with authentication), rack awareness, persistent storage,
+     * metrics and a typical set of broker configuration options.
+     */
+    static Kafka kafka(int replicas) {
+        return kafka(replicas, brokerConfig());
+    }
+
+    static Kafka kafka(int replicas, Map<String, Object> brokerConfig) {
+        KafkaListeners listeners = new KafkaListenersBuilder()
+                .withNewPlain()
+                    .withNewKafkaListenerAuthenticationScramSha512Authentication()
+                    .endKafkaListenerAuthenticationScramSha512Authentication()
+                .endPlain()
+                .withNewTls()
+                    .withNewKafkaListenerAuthenticationTlsAuth()
+                    .endKafkaListenerAuthenticationTlsAuth()
+                .endTls()
+                .withNewKafkaListenerExternalRouteExternal()
+                    .withNewKafkaListenerAuthenticationTlsAuth()
+                    .endKafkaListenerAuthenticationTlsAuth()
+                .endKafkaListenerExternalRouteExternal()
+                .build();
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("lowercaseOutputName", true);
+        metrics.put("rules", emptyMap());
+
+        return new KafkaBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(CLUSTER)
+                    .withLabels(singletonMap("app", "benchmark"))
+                .endMetadata()
+                .withNewSpec()
+                    .withNewKafka()
+                        .withReplicas(replicas)
+                        .withListeners(listeners)
+                        .withNewRack()
+                            .withTopologyKey("failure-domain.beta.kubernetes.io/zone")
+                        .endRack()
+                        .withStorage(new PersistentClaimStorageBuilder()
+                                .withSize("1Ti")
+                                .withStorageClass("fast")
+                                .withDeleteClaim(false)
+                                .build())
+                        .withConfig(brokerConfig)
+                        .withMetrics(metrics)
+                    .endKafka()
+                    .withNewZookeeper()
+                        .withReplicas(3)
+                        .withNewPersistentClaimStorageStorage()
+                            .withSize("100Gi")
+                        .endPersistentClaimStorageStorage()
+                    .endZookeeper()
+                .endSpec()
+                .build();
+    }
+
+    static Map<String, Object> brokerConfig() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("auto.create.topics.enable", false);
+        config.put("default.replication.factor", 3);
+        config.put("min.insync.replicas", 2);
+        config.put("num.partitions", 12);
+        config.put("offsets.topic.replication.factor", 3);
+        config.put("transaction.state.log.replication.factor", 3);
+        config.put("transaction.state.log.min.isr", 2);
+        config.put("log.retention.hours", 168);
+        config.put("log.segment.bytes", 1073741824);
+        config.put("log.retention.check.interval.ms", 300000);
+        config.put("num.network.threads", 8);
+        config.put("num.io.threads", 16);
+        config.put("num.recovery.threads.per.data.dir", 2);
+        config.put("socket.send.buffer.bytes", 1048576);
+        config.put("socket.receive.buffer.bytes", 1048576);
+        config.put("socket.request.max.bytes", 104857600);
+        config.put("replica.fetch.max.bytes", 10485760);
+        config.put("message.max.bytes", 10485760);
+        config.put("compression.type", "producer");
+        config.put("unclean.leader.election.enable", false);
+        return config;
+    }
+
+    /**
+     * Broker configuration in the properties format, as it is passed around in the environment of the pods.
+     */
+    static String brokerConfigProperties(int entries) {
+        StringBuilder sb = new StringBuilder("# Generated configuration\n");
+        Object[] keys = brokerConfig().keySet().toArray();
+        Object[] values = brokerConfig().values().toArray();
+        for (int i = 0; i < entries; i++) {
+            int j = i % keys.length;
+            if (j == 0) {
+                sb.append("# listener ").append(i).append('\n');
+                sb.append("listener.name.external-").append(i).append(".ssl.keystore.location=/tmp/kafka/\\\n");
+                sb.append("    cluster.keystore.p12\n");
+            }
+            sb.append(keys[j]).append('.').append(i).append('=').append(values[j]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Adds the defaults which Kubernetes fills in to the given StatefulSet, so that it looks like the one
+     * returned by the API server and the diff has to go through the ignorable paths.
+     */
+    static StatefulSet asReturnedByServer(StatefulSet sts) {
+        StatefulSet result = new StatefulSetBuilder(sts)
+                .editSpec()
+                    .withRevisionHistoryLimit(10)
+                .endSpec()
+                .withStatus(new StatefulSetStatusBuilder()
+                        .withReplicas(sts.getSpec().getReplicas())
+                        .withReadyReplicas(sts.getSpec().getReplicas())
+                        .withCurrentRevision(CLUSTER + "-kafka-5b6f8bcdf4")
+                        .withUpdateRevision(CLUSTER + "-kafka-5b6f8bcdf4")
+                        .withObservedGeneration(7L)
+                        .build())
+                .build();
+        result.getSpec().getTemplate().getSpec().setDnsPolicy("ClusterFirst");
+        result.getSpec().getTemplate().getSpec().setRestartPolicy("Always");
+        result.getSpec().getTemplate().getSpec().setSchedulerName("default-scheduler");
+        result.getSpec().getTemplate().getSpec().setSecurityContext(new PodSecurityContext());
+        for (Container container : result.getSpec().getTemplate().getSpec().getContainers()) {
+            container.setImagePullPolicy("IfNotPresent");
+            container.setTerminationMessagePath("/dev/termination-log");
+            container.setTerminationMessagePolicy("File");
+        }
+        for (Volume volume : result.getSpec().getTemplate().getSpec().getVolumes()) {
+            if (volume.getSecret() != null) {
+                volume.getSecret().setDefaultMode(420);
+            } else if (volume.getConfigMap() != null) {
+                volume.getConfigMap().setDefaultMode(420);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A topic with the given number of config overrides.
+     */
+    static Topic topic(String name, int partitions, int configEntries) {
+        Map<String, String> config = new HashMap<>();
+        for (int i = 0; i < configEntries; i++) {
+            config.put("config.entry." + i, "value-" + i);
+        }
+        return new Topic.Builder(name, partitions, (short) 3, config).build();
+    }
+}
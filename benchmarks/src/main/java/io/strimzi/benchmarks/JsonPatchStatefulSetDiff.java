@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.zjsonpatch.JsonDiff;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+import static java.util.Arrays.asList;
+
+/**
+ * The StatefulSet diff as it used to be done: build the JSON patch between the two StatefulSets and match
+ * the path of each operation against the ignorable paths as regular expressions.
+ * Kept as the baseline for {@link StatefulSetDiffBenchmark}.
+ */
+final class JsonPatchStatefulSetDiff {
+
+    private static final List<Pattern> IGNORABLE_PATHS = asList(
+            "/spec/revisionHistoryLimit",
+            "/spec/template/metadata/annotations",
+            "/spec/template/spec/initContainers/[0-9]+/imagePullPolicy",
+            "/spec/template/spec/initContainers/[0-9]+/resources",
+            "/spec/template/spec/initContainers/[0-9]+/terminationMessagePath",
+            "/spec/template/spec/initContainers/[0-9]+/terminationMessagePolicy",
+            "/spec/template/spec/initContainers/[0-9]+/env/[0-9]+/valueFrom/fieldRef/apiVersion",
+            "/spec/template/spec/initContainers/[0-9]+/env/[0-9]+/value",
+            "/spec/template/spec/containers/[0-9]+/env/[0-9]+/valueFrom/fieldRef/apiVersion",
+            "/spec/template/spec/containers/[0-9]+/imagePullPolicy",
+            "/spec/template/spec/containers/[0-9]+/livenessProbe/failureThreshold",
+            "/spec/template/spec/containers/[0-9]+/livenessProbe/periodSeconds",
+            "/spec/template/spec/containers/[0-9]+/livenessProbe/successThreshold",
+            "/spec/template/spec/containers/[0-9]+/readinessProbe/failureThreshold",
+            "/spec/template/spec/containers/[0-9]+/readinessProbe/periodSeconds",
+            "/spec/template/spec/containers/[0-9]+/readinessProbe/successThreshold",
+            "/spec/template/spec/containers/[0-9]+/resources",
+            "/spec/template/spec/containers/[0-9]+/terminationMessagePath",
+            "/spec/template/spec/containers/[0-9]+/terminationMessagePolicy",
+            "/spec/template/spec/dnsPolicy",
+            "/spec/template/spec/restartPolicy",
+            "/spec/template/spec/schedulerName",
+            "/spec/template/spec/securityContext",
+            "/spec/template/spec/terminationGracePeriodSeconds",
+            "/spec/template/spec/volumes/[0-9]+/configMap/defaultMode",
+            "/spec/template/spec/volumes/[0-9]+/secret/defaultMode",
+            "/spec/volumeClaimTemplates/[0-9]+/status",
+            "/spec/volumeClaimTemplates/[0-9]+/spec/volumeMode",
+            "/spec/volumeClaimTemplates/[0-9]+/spec/dataSource",
+            "/spec/template/spec/serviceAccount",
+            "/status").stream().map(Pattern::compile).collect(Collectors.toList());
+
+    private JsonPatchStatefulSetDiff() { }
+
+    /**
+     * @return The number of differences which aren't ignorable.
+     */
+    static int diff(StatefulSet current, StatefulSet desired) {
+        JsonNode diff = JsonDiff.asJson(patchMapper().valueToTree(current), patchMapper().valueToTree(desired));
+        int num = 0;
+        outer: for (JsonNode d : diff) {
+            String pathValue = d.get("path").asText();
+            for (Pattern pattern : IGNORABLE_PATHS) {
+                if (pattern.matcher(pathValue).matches()) {
+                    continue outer;
+                }
+            }
+            num++;
+        }
+        return num;
+    }
+}
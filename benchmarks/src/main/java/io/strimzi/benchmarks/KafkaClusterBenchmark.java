@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.benchmarks;
+
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the generation of the Kafka brokers model and StatefulSet, which happens in every reconciliation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class KafkaClusterBenchmark {
+
+    @Param({"3", "30", "100"})
+    public int replicas;
+
+    private Kafka kafka;
+    private KafkaCluster kafkaCluster;
+
+    @Setup
+    public void setup() {
+        kafka = Fixtures.kafka(replicas);
+        kafkaCluster = KafkaCluster.fromCrd(kafka, Fixtures.VERSIONS);
+    }
+
+    @Benchmark
+    public KafkaCluster fromCrd() {
+        return KafkaCluster.fromCrd(kafka, Fixtures.VERSIONS);
+    }
+
+    @Benchmark
+    public StatefulSet generateStatefulSet() {
+        return kafkaCluster.generateStatefulSet(false);
+    }
+
+    @Benchmark
+    public StatefulSet generateStatefulSetOpenShift() {
+        return kafkaCluster.generateStatefulSet(true);
+    }
+}
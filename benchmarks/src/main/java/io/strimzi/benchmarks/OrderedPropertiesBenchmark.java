@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.benchmarks;
+
+import io.strimzi.operator.cluster.model.OrderedProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing and writing configuration in the properties format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class OrderedPropertiesBenchmark {
+
+    @Param({"20", "200"})
+    public int entries;
+
+    private String properties;
+    private OrderedProperties parsed;
+
+    @Setup
+    public void setup() {
+        properties = Fixtures.brokerConfigProperties(entries);
+        parsed = new OrderedProperties().addStringPairs(properties);
+    }
+
+    @Benchmark
+    public OrderedProperties parse() {
+        return new OrderedProperties().addStringPairs(properties);
+    }
+
+    @Benchmark
+    public String write() {
+        return parsed.asPairs();
+    }
+}
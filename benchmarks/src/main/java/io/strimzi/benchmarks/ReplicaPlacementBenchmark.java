@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.benchmarks;
+
+import io.strimzi.operator.topic.ReplicaPlacement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the rack-aware replica placement of the topic operator for a topic with 10k partitions:
+ * assigning the replicas of a new topic and increasing the replication factor of an existing one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ReplicaPlacementBenchmark {
+
+    @Param({"6", "30"})
+    public int brokers;
+
+    @Param({"3"})
+    public int racks;
+
+    @Param({"10000"})
+    public int partitions;
+
+    private Map<Integer, String> brokerRacks;
+    private Map<Integer, List<Integer>> current;
+
+    @Setup
+    public void setup() {
+        brokerRacks = new HashMap<>();
+        for (int broker = 0; broker < brokers; broker++) {
+            brokerRacks.put(broker, "rack-" + broker % racks);
+        }
+        current = ReplicaPlacement.assign(brokerRacks, partitions, 2, 0);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> assign() {
+        return ReplicaPlacement.assign(brokerRacks, partitions, 3, 0);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> increaseReplicationFactor() {
+        return ReplicaPlacement.reassign(brokerRacks, current, 3);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.benchmarks;
+
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.operator.resource.StatefulSetDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks diffing the StatefulSet returned by the API server against the desired one,
+ * both when only server-side defaults differ (the steady state) and when the broker configuration changed.
+ * The {@code jsonPatch*} benchmarks measure the former approach of building a JSON patch, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class StatefulSetDiffBenchmark {
+
+    @Param({"3", "30", "100"})
+    public int replicas;
+
+    private StatefulSet current;
+    private StatefulSet desired;
+    private StatefulSet changed;
+
+    @Setup
+    public void setup() {
+        current = Fixtures.asReturnedByServer(KafkaCluster.fromCrd(Fixtures.kafka(replicas), Fixtures.VERSIONS).generateStatefulSet(false));
+        desired = KafkaCluster.fromCrd(Fixtures.kafka(replicas), Fixtures.VERSIONS).generateStatefulSet(false);
+        Map<String, Object> config = Fixtures.brokerConfig();
+        config.put("num.io.threads", 32);
+        changed = KafkaCluster.fromCrd(Fixtures.kafka(replicas, config), Fixtures.VERSIONS).generateStatefulSet(false);
+    }
+
+    @Benchmark
+    public StatefulSetDiff unchanged() {
+        return new StatefulSetDiff(current, desired);
+    }
+
+    @Benchmark
+    public StatefulSetDiff changedConfig() {
+        return new StatefulSetDiff(current, changed);
+    }
+
+    @Benchmark
+    public int jsonPatchUnchanged() {
+        return JsonPatchStatefulSetDiff.diff(current, desired);
+    }
+
+    @Benchmark
+    public int jsonPatchChangedConfig() {
+        return JsonPatchStatefulSetDiff.diff(current, changed);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.benchmarks;
+
+import io.strimzi.api.kafka.model.KafkaTopic;
+import io.strimzi.operator.topic.LabelPredicate;
+import io.strimzi.operator.topic.Topic;
+import io.strimzi.operator.topic.TopicDiff;
+import io.strimzi.operator.topic.TopicSerialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the topic operator's per-topic work: diffing topics and converting them
+ * between the KafkaTopic resource, the JSON or binary encoding stored in ZooKeeper and the Topic model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class TopicBenchmark {
+
+    @Param({"0", "10", "50"})
+    public int configEntries;
+
+    private Topic topic;
+    private Topic changed;
+    private byte[] json;
+    private byte[] binary;
+    private LabelPredicate resourcePredicate;
+    private KafkaTopic resource;
+
+    @Setup
+    public void setup() {
+        topic = Fixtures.topic("my-topic", 12, configEntries);
+        changed = new Topic.Builder(topic)
+                .withNumPartitions(24)
+                .withConfigEntry("retention.ms", "3600000")
+                .build();
+        json = TopicSerialization.toJson(topic);
+        binary = TopicSerialization.toBinary(topic);
+        resourcePredicate = new LabelPredicate("strimzi.io/kind", "topic");
+        resource = TopicSerialization.toTopicResource(topic, resourcePredicate);
+    }
+
+    @Benchmark
+    public TopicDiff diff() {
+        return TopicDiff.diff(topic, changed);
+    }
+
+    @Benchmark
+    public TopicDiff diffUnchanged() {
+        return TopicDiff.diff(topic, topic);
+    }
+
+    @Benchmark
+    public byte[] toJson() {
+        return TopicSerialization.toJson(topic);
+    }
+
+    @Benchmark
+    public Topic fromJson() {
+        return TopicSerialization.fromJson(json);
+    }
+
+    @Benchmark
+    public byte[] toBinary() {
+        return TopicSerialization.toBinary(topic);
+    }
+
+    @Benchmark
+    public Topic fromBinary() {
+        return TopicSerialization.fromZkData(binary);
+    }
+
+    @Benchmark
+    public KafkaTopic toTopicResource() {
+        return TopicSerialization.toTopicResource(topic, resourcePredicate);
+    }
+
+    @Benchmark
+    public Topic fromTopicResource() {
+        return TopicSerialization.fromTopicResource(resource);
+    }
+}
@@ -0,0 +1,4 @@
+package io.strimzi.benchmarks.generated;
+public class KafkaClusterBenchmark_jmhType extends KafkaClusterBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.strimzi.benchmarks.generated;
+public class OrderedPropertiesBenchmark_jmhType extends OrderedPropertiesBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.strimzi.benchmarks.generated;
+public class ReplicaPlacementBenchmark_jmhType extends ReplicaPlacementBenchmark_jmhType_B3 {
+}
+
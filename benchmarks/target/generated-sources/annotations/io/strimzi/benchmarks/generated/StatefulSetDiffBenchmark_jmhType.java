@@ -0,0 +1,4 @@
+package io.strimzi.benchmarks.generated;
+public class StatefulSetDiffBenchmark_jmhType extends StatefulSetDiffBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.strimzi.benchmarks.generated;
+public class TopicBenchmark_jmhType extends TopicBenchmark_jmhType_B3 {
+}
+
@@ -49,6 +49,24 @@ public interface CertManager {
      */
     void generateCsr(File keyFile, File csrFile, Subject sbj) throws IOException;
 
+    /**
+     * Generate a new private key
+     *
+     * @param keyFile path to the file which will contain the private key
+     * @throws IOException
+     */
+    void generateKey(File keyFile) throws IOException;
+
+    /**
+     * Generate a certificate sign request using an already existing private key
+     *
+     * @param keyFile path to the file containing the existing private key
+     * @param csrFile path to the file which will contain the certificate sign request
+     * @param sbj subject information
+     * @throws IOException
+     */
+    void generateCsrWithExistingKey(File keyFile, File csrFile, Subject sbj) throws IOException;
+
     /**
      * Generate a certificate signed by a Certificate Authority
      *
@@ -31,6 +31,11 @@ public class OpenSslCertManager implements CertManager {
 
     private static final Logger log = LogManager.getLogger(OpenSslCertManager.class);
 
+    /**
+     * Size of the RSA keys generated by {@link #generateKey(File)}, matching the OpenSSL default used by {@code req -new}
+     */
+    public static final int KEY_SIZE = 2048;
+
     public OpenSslCertManager() {}
 
     @Override
@@ -172,6 +177,29 @@ public class OpenSslCertManager implements CertManager {
         List<String> cmd = new ArrayList<>(asList("openssl", "req", "-new", "-batch", "-nodes",
                 "-keyout", keyFile.getAbsolutePath(), "-out", csrFile.getAbsolutePath()));
 
+        generateCsr(cmd, sbj);
+    }
+
+    @Override
+    public void generateKey(File keyFile) throws IOException {
+
+        List<String> cmd = new ArrayList<>(asList("openssl", "genpkey", "-algorithm", "RSA",
+                "-pkeyopt", "rsa_keygen_bits:" + KEY_SIZE, "-out", keyFile.getAbsolutePath()));
+
+        exec(cmd);
+    }
+
+    @Override
+    public void generateCsrWithExistingKey(File keyFile, File csrFile, Subject sbj) throws IOException {
+
+        List<String> cmd = new ArrayList<>(asList("openssl", "req", "-new", "-batch",
+                "-key", keyFile.getAbsolutePath(), "-out", csrFile.getAbsolutePath()));
+
+        generateCsr(cmd, sbj);
+    }
+
+    private void generateCsr(List<String> cmd, Subject sbj) throws IOException {
+
         File sna = null;
         File openSslConf = null;
         if (sbj != null) {
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link CertManager} which keeps a pool of pre-generated private keys, so that generating
+ * a certificate sign request (and so a signed certificate) doesn't have to wait for the
+ * key generation, which is by far the most expensive part of issuing a certificate.
+ * The pool is refilled by a low priority background thread as keys are taken from it.
+ * When the pool is empty the key is generated on the calling thread as usual.
+ * All the other operations are delegated to the wrapped {@link CertManager}.
+ */
+public class PooledKeyCertManager implements CertManager {
+
+    private static final Logger log = LogManager.getLogger(PooledKeyCertManager.class);
+
+    private final CertManager delegate;
+    private final BlockingQueue<byte[]> pool;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile Thread refiller;
+
+    /**
+     * Constructor
+     *
+     * @param delegate CertManager used for generating the keys and for all the other operations
+     * @param depth maximum number of pre-generated keys kept in the pool
+     */
+    public PooledKeyCertManager(CertManager delegate, int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("The pool depth has to be greater than 0");
+        }
+        this.delegate = delegate;
+        this.pool = new ArrayBlockingQueue<>(depth);
+    }
+
+    /**
+     * Starts the background thread filling the pool
+     */
+    public synchronized void start() {
+        if (refiller == null) {
+            refiller = new Thread(this::refill, "key-pool-refiller");
+            refiller.setDaemon(true);
+            refiller.setPriority(Thread.MIN_PRIORITY);
+            refiller.start();
+        }
+    }
+
+    /**
+     * Stops the background thread filling the pool
+     */
+    public synchronized void stop() {
+        if (refiller != null) {
+            refiller.interrupt();
+            refiller = null;
+        }
+    }
+
+    private void refill() {
+        log.debug("Starting to fill the key pool up to {} keys", pool.remainingCapacity() + pool.size());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                byte[] key = generateKey();
+                // blocks while the pool is full, so new keys are only generated when some were taken
+                pool.put(key);
+                log.trace("Key pool contains {} keys", pool.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to generate a key for the key pool", e);
+                try {
+                    Thread.sleep(1_000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        log.debug("Stopped filling the key pool");
+    }
+
+    private byte[] generateKey() throws IOException {
+        File keyFile = File.createTempFile("pool-", ".key");
+        try {
+            delegate.generateKey(keyFile);
+            return Files.readAllBytes(keyFile.toPath());
+        } finally {
+            if (!keyFile.delete()) {
+                log.warn("{} cannot be deleted", keyFile.getName());
+            }
+        }
+    }
+
+    /**
+     * @return number of certificate sign requests which used a pre-generated key
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of certificate sign requests which had to generate a new key because the pool was empty
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of pre-generated keys currently available in the pool
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    @Override
+    public void generateCsr(File keyFile, File csrFile, Subject sbj) throws IOException {
+        byte[] key = pool.poll();
+        if (key != null) {
+            hits.incrementAndGet();
+            Files.write(keyFile.toPath(), key);
+            delegate.generateCsrWithExistingKey(keyFile, csrFile, sbj);
+        } else {
+            misses.incrementAndGet();
+            log.debug("Key pool is empty, generating the key on demand");
+            delegate.generateCsr(keyFile, csrFile, sbj);
+        }
+    }
+
+    @Override
+    public void generateKey(File keyFile) throws IOException {
+        delegate.generateKey(keyFile);
+    }
+
+    @Override
+    public void generateCsrWithExistingKey(File keyFile, File csrFile, Subject sbj) throws IOException {
+        delegate.generateCsrWithExistingKey(keyFile, csrFile, sbj);
+    }
+
+    @Override
+    public void generateSelfSignedCert(File keyFile, File certFile, Subject sbj, int days) throws IOException {
+        delegate.generateSelfSignedCert(keyFile, certFile, sbj, days);
+    }
+
+    @Override
+    public void generateSelfSignedCert(File keyFile, File certFile, int days) throws IOException {
+        delegate.generateSelfSignedCert(keyFile, certFile, days);
+    }
+
+    @Override
+    public void renewSelfSignedCert(File keyFile, File certFile, Subject sbj, int days) throws IOException {
+        delegate.renewSelfSignedCert(keyFile, certFile, sbj, days);
+    }
+
+    @Override
+    public void generateCert(File csrFile, File caKey, File caCert, File crtFile, int days) throws IOException {
+        delegate.generateCert(csrFile, caKey, caCert, crtFile, days);
+    }
+
+    @Override
+    public void generateCert(File csrFile, File caKey, File caCert, File crtFile, Subject sbj, int days) throws IOException {
+        delegate.generateCert(csrFile, caKey, caCert, crtFile, sbj, days);
+    }
+
+    @Override
+    public void generateCert(File csrFile, byte[] caKey, byte[] caCert, File crtFile, int days) throws IOException {
+        delegate.generateCert(csrFile, caKey, caCert, crtFile, days);
+    }
+
+    @Override
+    public void generateCert(File csrFile, byte[] caKey, byte[] caCert, File crtFile, Subject sbj, int days) throws IOException {
+        delegate.generateCert(csrFile, caKey, caCert, crtFile, sbj, days);
+    }
+}
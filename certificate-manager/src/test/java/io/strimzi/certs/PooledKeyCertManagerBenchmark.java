@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Measures how long it takes to issue the certificates for a bulk of users (1000 by default),
+ * with and without a pool of pre-generated keys. The pool is filled before the measurement, which is what
+ * happens when the User Operator is idle before a bulk of KafkaUsers is created.
+ * Run it with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.strimzi.certs.PooledKeyCertManagerBenchmark -Dexec.args="1000 1000"}.
+ */
+public class PooledKeyCertManagerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : users;
+
+        File caKey = File.createTempFile("ca-key-", ".key");
+        File caCert = File.createTempFile("ca-crt-", ".crt");
+        OpenSslCertManager certManager = new OpenSslCertManager();
+        certManager.generateSelfSignedCert(caKey, caCert, 365);
+
+        long plainNs = issue(certManager, caKey, caCert, users);
+        report("no key pool", users, plainNs);
+
+        PooledKeyCertManager pooled = new PooledKeyCertManager(certManager, depth);
+        pooled.start();
+        while (pooled.size() < depth) {
+            Thread.sleep(100);
+        }
+        long pooledNs = issue(pooled, caKey, caCert, users);
+        pooled.stop();
+        report("key pool of depth " + depth, users, pooledNs);
+        System.out.printf("key pool hits: %d, misses: %d%n", pooled.hits(), pooled.misses());
+
+        caKey.delete();
+        caCert.delete();
+    }
+
+    private static long issue(CertManager certManager, File caKey, File caCert, int users) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < users; i++) {
+            File key = File.createTempFile("key-", ".key");
+            File csr = File.createTempFile("csr-", ".csr");
+            File cert = File.createTempFile("crt-", ".crt");
+
+            Subject sbj = new Subject();
+            sbj.setCommonName("user-" + i);
+            certManager.generateCsr(key, csr, sbj);
+            certManager.generateCert(csr, caKey, caCert, cert, sbj, 365);
+
+            key.delete();
+            csr.delete();
+            cert.delete();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, int users, long ns) {
+        double seconds = ns / 1_000_000_000.0;
+        System.out.printf("%s: issued %d user certificates in %.1f s (%.1f users/s)%n", name, users, seconds, users / seconds);
+    }
+}
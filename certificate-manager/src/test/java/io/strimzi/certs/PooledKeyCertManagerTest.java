@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import io.strimzi.test.TestUtils;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PooledKeyCertManagerTest {
+
+    private PooledKeyCertManager pooled;
+
+    @BeforeClass
+    public static void before() {
+        TestUtils.assumeLinux();
+    }
+
+    @After
+    public void after() {
+        if (pooled != null) {
+            pooled.stop();
+        }
+    }
+
+    @Test
+    public void testCsrUsesPooledKey() throws Exception {
+        pooled = new PooledKeyCertManager(new OpenSslCertManager(), 2);
+        pooled.start();
+        TestUtils.waitFor("key pool to be filled", 100, 60_000, () -> pooled.size() == 2);
+
+        File caKey = File.createTempFile("ca-key-", ".key");
+        File caCert = File.createTempFile("ca-crt-", ".crt");
+        File key = File.createTempFile("key-", ".key");
+        File csr = File.createTempFile("csr-", ".csr");
+        File cert = File.createTempFile("crt-", ".crt");
+
+        Subject sbj = new Subject();
+        sbj.setCommonName("MyCommonName");
+
+        pooled.generateSelfSignedCert(caKey, caCert, 365);
+        pooled.generateCsr(key, csr, sbj);
+        pooled.generateCert(csr, caKey, caCert, cert, 365);
+
+        assertEquals(1, pooled.hits());
+        assertEquals(0, pooled.misses());
+
+        CertificateFactory cf = CertificateFactory.getInstance("X.509");
+        Certificate c = cf.generateCertificate(new FileInputStream(cert));
+        Certificate ca = cf.generateCertificate(new FileInputStream(caCert));
+        c.verify(ca.getPublicKey());
+
+        caKey.delete();
+        caCert.delete();
+        key.delete();
+        csr.delete();
+        cert.delete();
+    }
+
+    @Test
+    public void testCsrGeneratesKeyWhenPoolIsEmpty() throws Exception {
+        // the refiller is not started, so the pool stays empty
+        pooled = new PooledKeyCertManager(new OpenSslCertManager(), 2);
+
+        File key = File.createTempFile("key-", ".key");
+        File csr = File.createTempFile("csr-", ".csr");
+
+        Subject sbj = new Subject();
+        sbj.setCommonName("MyCommonName");
+
+        pooled.generateCsr(key, csr, sbj);
+
+        assertEquals(0, pooled.hits());
+        assertEquals(1, pooled.misses());
+        assertTrue(key.length() > 0);
+        assertTrue(csr.length() > 0);
+
+        key.delete();
+        csr.delete();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDepth() {
+        new PooledKeyCertManager(new OpenSslCertManager(), 0);
+    }
+}
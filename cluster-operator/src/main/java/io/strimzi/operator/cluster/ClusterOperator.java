@@ -12,6 +12,9 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
+import io.strimzi.operator.common.OperatorMetrics;
+import io.strimzi.operator.common.ReconciliationTracer;
+import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.http.HttpServer;
@@ -19,14 +22,28 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import static java.util.Collections.singleton;
 
 /**
- * An "operator" for managing assemblies of various types <em>in a particular namespace</em>.
+ * <p>An "operator" for managing assemblies of various types <em>in a particular namespace</em>.
  * The Cluster Operator's multiple namespace support is achieved by deploying multiple
- * {@link ClusterOperator}'s in Vertx.
+ * {@link ClusterOperator}'s in Vertx.</p>
+ *
+ * <p>Alternatively, a single {@link ClusterOperator} can manage the assemblies in several (or all) namespaces,
+ * using a single cluster-wide watch per kind, shared by all the namespaces.</p>
+ *
+ * <p>The periodic reconciliation of each namespace starts at a random offset within the reconciliation interval,
+ * so that the namespaces are not all reconciled at the same time.
+ * When all the namespaces are managed, they are only known once listed, so a single timer lists the assemblies
+ * of all the namespaces and each namespace is reconciled at its own offset after that.</p>
  */
 public class ClusterOperator extends AbstractVerticle {
 
@@ -40,11 +57,15 @@ public class ClusterOperator extends AbstractVerticle {
 
     private final KubernetesClient client;
     private final String namespace;
+    private final Set<String> namespaces;
+    private final Predicate<String> namespaceFilter;
     private final long reconciliationInterval;
 
     private final Map<String, Watch> watchByKind = new ConcurrentHashMap();
 
-    private long reconcileTimer;
+    private final Map<String, Long> reconcileTimers = new ConcurrentHashMap<>();
+    /** The offset of the periodic reconciliation of each namespace, when all the namespaces are reconciled together */
+    private final Map<String, Long> namespaceOffsets = new ConcurrentHashMap<>();
     private final KafkaAssemblyOperator kafkaAssemblyOperator;
     private final KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator;
     private final KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator;
@@ -57,8 +78,40 @@ public class ClusterOperator extends AbstractVerticle {
                            KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator,
                            KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator,
                            KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator) {
-        log.info("Creating ClusterOperator for namespace {}", namespace);
+        this(namespace, singleton(namespace), ns -> true, reconciliationInterval, client, kafkaAssemblyOperator,
+                kafkaConnectAssemblyOperator, kafkaConnectS2IAssemblyOperator, kafkaMirrorMakerAssemblyOperator);
+    }
+
+    /**
+     * Creates a ClusterOperator which watches the given namespaces with cluster-wide watches.
+     * @param namespaces The namespaces, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE} for all the namespaces.
+     */
+    public ClusterOperator(Set<String> namespaces,
+                           long reconciliationInterval,
+                           KubernetesClient client,
+                           KafkaAssemblyOperator kafkaAssemblyOperator,
+                           KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator,
+                           KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator,
+                           KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator) {
+        this(AbstractWatchableResourceOperator.ANY_NAMESPACE, namespaces,
+                namespaces.contains(AbstractWatchableResourceOperator.ANY_NAMESPACE) ? ns -> true : namespaces::contains,
+                reconciliationInterval, client, kafkaAssemblyOperator,
+                kafkaConnectAssemblyOperator, kafkaConnectS2IAssemblyOperator, kafkaMirrorMakerAssemblyOperator);
+    }
+
+    private ClusterOperator(String namespace,
+                            Set<String> namespaces,
+                            Predicate<String> namespaceFilter,
+                            long reconciliationInterval,
+                            KubernetesClient client,
+                            KafkaAssemblyOperator kafkaAssemblyOperator,
+                            KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator,
+                            KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator,
+                            KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator) {
+        log.info("Creating ClusterOperator for namespaces {}", namespaces);
         this.namespace = namespace;
+        this.namespaces = namespaces;
+        this.namespaceFilter = namespaceFilter;
         this.reconciliationInterval = reconciliationInterval;
         this.client = client;
         this.kafkaAssemblyOperator = kafkaAssemblyOperator;
@@ -72,10 +125,10 @@ public class ClusterOperator extends AbstractVerticle {
             @Override
             public void accept(KubernetesClientException e) {
                 if (e != null) {
-                    log.error("Watcher closed with exception in namespace {}", namespace, e);
-                    op.createWatch(namespace, this);
+                    log.error("Watcher closed with exception in namespaces {}", namespaces, e);
+                    op.createWatch(namespace, namespaceFilter, this);
                 } else {
-                    log.info("Watcher closed in namespace {}", namespace);
+                    log.info("Watcher closed in namespaces {}", namespaces);
                 }
             }
         };
@@ -85,26 +138,26 @@ public class ClusterOperator extends AbstractVerticle {
 
     @Override
     public void start(Future<Void> start) {
-        log.info("Starting ClusterOperator for namespace {}", namespace);
+        log.info("Starting ClusterOperator for namespaces {}", namespaces);
 
         // Configure the executor here, but it is used only in other places
         getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
 
-        kafkaAssemblyOperator.createWatch(namespace, recreateWatch(kafkaAssemblyOperator))
+        kafkaAssemblyOperator.createWatch(namespace, namespaceFilter, recreateWatch(kafkaAssemblyOperator))
             .compose(w -> {
                 log.info("Started operator for {} kind", "Kafka");
                 watchByKind.put("Kafka", w);
-                return kafkaMirrorMakerAssemblyOperator.createWatch(namespace, recreateWatch(kafkaMirrorMakerAssemblyOperator));
+                return kafkaMirrorMakerAssemblyOperator.createWatch(namespace, namespaceFilter, recreateWatch(kafkaMirrorMakerAssemblyOperator));
             }).compose(w -> {
                 log.info("Started operator for {} kind", "KafkaMirrorMaker");
                 watchByKind.put("KafkaMirrorMaker", w);
-                return kafkaConnectAssemblyOperator.createWatch(namespace, recreateWatch(kafkaConnectAssemblyOperator));
+                return kafkaConnectAssemblyOperator.createWatch(namespace, namespaceFilter, recreateWatch(kafkaConnectAssemblyOperator));
             }).compose(w -> {
                 log.info("Started operator for {} kind", "KafkaConnect");
                 watchByKind.put("KafkaConnect", w);
                 if (kafkaConnectS2IAssemblyOperator != null) {
                     // only on OS
-                    return kafkaConnectS2IAssemblyOperator.createWatch(namespace, recreateWatch(kafkaConnectS2IAssemblyOperator));
+                    return kafkaConnectS2IAssemblyOperator.createWatch(namespace, namespaceFilter, recreateWatch(kafkaConnectS2IAssemblyOperator));
                 } else {
                     return Future.succeededFuture(null);
                 }
@@ -113,11 +166,12 @@ public class ClusterOperator extends AbstractVerticle {
                     log.info("Started operator for {} kind", "KafkaConnectS2I");
                     watchByKind.put("KafkaS2IConnect", w);
                 }
-                log.info("Setting up periodical reconciliation for namespace {}", namespace);
-                this.reconcileTimer = vertx.setPeriodic(this.reconciliationInterval, res2 -> {
-                    log.info("Triggering periodic reconciliation for namespace {}...", namespace);
-                    reconcileAll("timer");
-                });
+                for (String ns : namespaces) {
+                    // With all the namespaces, each namespace is delayed by its own offset instead
+                    long offset = AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(ns) ? 0 : randomOffset(ns);
+                    log.info("Setting up periodical reconciliation for namespace {}, starting in {}ms", ns, offset);
+                    schedulePeriodicReconciliation(ns, offset);
+                }
                 return startHealthServer().map((Void) null);
             }).compose(start::complete, start);
     }
@@ -125,8 +179,11 @@ public class ClusterOperator extends AbstractVerticle {
 
     @Override
     public void stop(Future<Void> stop) {
-        log.info("Stopping ClusterOperator for namespace {}", namespace);
-        vertx.cancelTimer(reconcileTimer);
+        log.info("Stopping ClusterOperator for namespaces {}", namespaces);
+        for (Long timer : reconcileTimers.values()) {
+            vertx.cancelTimer(timer);
+        }
+        reconcileTimers.clear();
         for (Watch watch : watchByKind.values()) {
             if (watch != null) {
                 watch.close();
@@ -138,16 +195,45 @@ public class ClusterOperator extends AbstractVerticle {
         stop.complete();
     }
 
+    /**
+     * Schedules the periodic reconciliation of the given namespace, with the first one after the given delay.
+     */
+    private void schedulePeriodicReconciliation(String ns, long delay) {
+        reconcileTimers.put(ns, vertx.setTimer(Math.max(1, delay), id -> {
+            if (reconcileTimers.remove(ns, id)) {
+                log.info("Triggering periodic reconciliation for namespace {}...", ns);
+                reconcileAll("timer", ns);
+                schedulePeriodicReconciliation(ns, reconciliationInterval);
+            }
+        }));
+    }
+
+    /**
+     * The offset within the reconciliation interval of the periodic reconciliation of the given namespace.
+     */
+    private long randomOffset(String ns) {
+        return ThreadLocalRandom.current().nextLong(reconciliationInterval);
+    }
+
+    /**
+     * The delay of the periodic reconciliation of the given namespace after the assemblies of all the namespaces
+     * have been listed, which is the same for all the kinds and all the intervals.
+     */
+    long namespaceDelay(String ns) {
+        return namespaceOffsets.computeIfAbsent(ns, this::randomOffset);
+    }
+
     /**
       Periodical reconciliation (in case we lost some event)
      */
-    private void reconcileAll(String trigger) {
-        kafkaAssemblyOperator.reconcileAll(trigger, namespace);
-        kafkaMirrorMakerAssemblyOperator.reconcileAll(trigger, namespace);
-        kafkaConnectAssemblyOperator.reconcileAll(trigger, namespace);
+    private void reconcileAll(String trigger, String ns) {
+        ToLongFunction<String> delay = AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(ns) ? this::namespaceDelay : n -> 0L;
+        kafkaAssemblyOperator.reconcileAll(trigger, ns, delay);
+        kafkaMirrorMakerAssemblyOperator.reconcileAll(trigger, ns, delay);
+        kafkaConnectAssemblyOperator.reconcileAll(trigger, ns, delay);
 
         if (kafkaConnectS2IAssemblyOperator != null) {
-            kafkaConnectS2IAssemblyOperator.reconcileAll(trigger, namespace);
+            kafkaConnectS2IAssemblyOperator.reconcileAll(trigger, ns, delay);
         }
     }
 
@@ -163,6 +249,10 @@ public class ClusterOperator extends AbstractVerticle {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
                         request.response().setStatusCode(200).end();
+                    } else if (request.path().equals(OperatorMetrics.METRICS_PATH)) {
+                        OperatorMetrics.handleRequest(request);
+                    } else if (request.path().equals(ReconciliationTracer.TRACES_PATH)) {
+                        ReconciliationTracer.handleRequest(request);
                     }
                 })
                 .listen(HEALTH_SERVER_PORT, ar -> {
@@ -7,6 +7,7 @@ package io.strimzi.operator.cluster;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.ModelUtils;
 import io.strimzi.operator.common.InvalidConfigurationException;
+import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -15,6 +16,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.unmodifiableSet;
 
 /**
@@ -28,6 +30,7 @@ public class ClusterOperatorConfig {
     public static final String STRIMZI_FULL_RECONCILIATION_INTERVAL_MS = "STRIMZI_FULL_RECONCILIATION_INTERVAL_MS";
     public static final String STRIMZI_OPERATION_TIMEOUT_MS = "STRIMZI_OPERATION_TIMEOUT_MS";
     public static final String STRIMZI_CREATE_CLUSTER_ROLES = "STRIMZI_CREATE_CLUSTER_ROLES";
+    public static final String STRIMZI_SHARED_WATCHES = "STRIMZI_SHARED_WATCHES";
     public static final String STRIMZI_KAFKA_IMAGES = "STRIMZI_KAFKA_IMAGES";
     public static final String STRIMZI_KAFKA_CONNECT_IMAGES = "STRIMZI_KAFKA_CONNECT_IMAGES";
     public static final String STRIMZI_KAFKA_CONNECT_S2I_IMAGES = "STRIMZI_KAFKA_CONNECT_S2I_IMAGES";
@@ -36,27 +39,46 @@ public class ClusterOperatorConfig {
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final long DEFAULT_OPERATION_TIMEOUT_MS = 300_000;
     public static final boolean DEFAULT_CREATE_CLUSTER_ROLES = false;
+    public static final boolean DEFAULT_SHARED_WATCHES = false;
 
     private final Set<String> namespaces;
     private final long reconciliationIntervalMs;
     private final long operationTimeoutMs;
     private final boolean createClusterRoles;
+    private final boolean sharedWatches;
     private final KafkaVersion.Lookup versions;
 
     /**
      * Constructor
      *
-     * @param namespaces namespace in which the operator will run and create resources
+     * @param namespaces namespace in which the operator will run and create resources, {@code *} for all namespaces
      * @param reconciliationIntervalMs    specify every how many milliseconds the reconciliation runs
      * @param operationTimeoutMs    timeout for internal operations specified in milliseconds
      * @param createClusterRoles true to create the cluster roles
      * @param versions The configured Kafka versions
      */
     public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions) {
-        this.namespaces = unmodifiableSet(new HashSet<>(namespaces));
+        this(namespaces, reconciliationIntervalMs, operationTimeoutMs, createClusterRoles, DEFAULT_SHARED_WATCHES, versions);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param namespaces namespace in which the operator will run and create resources, {@code *} for all namespaces
+     * @param reconciliationIntervalMs    specify every how many milliseconds the reconciliation runs
+     * @param operationTimeoutMs    timeout for internal operations specified in milliseconds
+     * @param createClusterRoles true to create the cluster roles
+     * @param sharedWatches true to watch all the namespaces with cluster-wide watches, rather than with watches per namespace
+     * @param versions The configured Kafka versions
+     */
+    public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, boolean sharedWatches, KafkaVersion.Lookup versions) {
+        this.namespaces = namespaces.contains(AbstractWatchableResourceOperator.ANY_NAMESPACE) ?
+                singleton(AbstractWatchableResourceOperator.ANY_NAMESPACE) :
+                unmodifiableSet(new HashSet<>(namespaces));
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.operationTimeoutMs = operationTimeoutMs;
         this.createClusterRoles = createClusterRoles;
+        this.sharedWatches = sharedWatches;
         this.versions = versions;
     }
 
@@ -94,6 +116,12 @@ public class ClusterOperatorConfig {
             createClusterRoles = Boolean.parseBoolean(createClusterRolesEnvVar);
         }
 
+        boolean sharedWatches = DEFAULT_SHARED_WATCHES;
+        String sharedWatchesEnvVar = map.get(ClusterOperatorConfig.STRIMZI_SHARED_WATCHES);
+        if (sharedWatchesEnvVar != null) {
+            sharedWatches = Boolean.parseBoolean(sharedWatchesEnvVar);
+        }
+
         KafkaVersion.Lookup lookup = new KafkaVersion.Lookup(
                 ModelUtils.parseImageMap(map.get(STRIMZI_KAFKA_IMAGES)),
                 ModelUtils.parseImageMap(map.get(STRIMZI_KAFKA_CONNECT_IMAGES)),
@@ -112,7 +140,7 @@ public class ClusterOperatorConfig {
             }
         }
 
-        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup);
+        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, sharedWatches, lookup);
     }
 
 
@@ -144,6 +172,14 @@ public class ClusterOperatorConfig {
         return createClusterRoles;
     }
 
+    /**
+     * @return  Whether the namespaces are watched with cluster-wide watches shared by all the namespaces,
+     * either because {@link #STRIMZI_SHARED_WATCHES} was set or because all the namespaces are watched.
+     */
+    public boolean isSharedWatches() {
+        return sharedWatches || namespaces.contains(AbstractWatchableResourceOperator.ANY_NAMESPACE);
+    }
+
     public KafkaVersion.Lookup versions() {
         return versions;
     }
@@ -155,6 +191,7 @@ public class ClusterOperatorConfig {
                 ",reconciliationIntervalMs=" + reconciliationIntervalMs +
                 ",operationTimeoutMs=" + operationTimeoutMs +
                 ",createClusterRoles=" + createClusterRoles +
+                ",sharedWatches=" + sharedWatches +
                 ",versions=" + versions +
                 ")";
     }
@@ -26,6 +26,7 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperato
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.operator.resource.BuildConfigOperator;
 import io.strimzi.operator.common.operator.resource.ClusterRoleOperator;
 import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
@@ -70,7 +71,7 @@ public class Main {
     public static void main(String[] args) {
         log.info("ClusterOperator {} is starting", Main.class.getPackage().getImplementationVersion());
         ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(System.getenv());
-        Vertx vertx = Vertx.vertx();
+        Vertx vertx = Vertx.vertx(OperatorMetrics.vertxOptions());
         KubernetesClient client = new DefaultKubernetesClient();
 
         maybeCreateClusterRoles(vertx, config, client).setHandler(crs -> {
@@ -126,11 +127,19 @@ public class Main {
         KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator =
                 new KafkaMirrorMakerAssemblyOperator(vertx, isOpenShift, certManager, kmmo, secretOperations, configMapOperations, networkPolicyOperator, deploymentOperations, serviceOperations, podDisruptionBudgetOperator, config.versions());
 
+        // The operators live as long as the process, and are shared by the verticles of all the namespaces
+        kafkaClusterOperations.registerMetrics();
+        kafkaConnectClusterOperations.registerMetrics();
+        if (kafkaConnectS2IClusterOperations != null) {
+            kafkaConnectS2IClusterOperations.registerMetrics();
+        }
+        kafkaMirrorMakerAssemblyOperator.registerMetrics();
+
         List<Future> futures = new ArrayList<>();
-        for (String namespace : config.getNamespaces()) {
+        if (config.isSharedWatches()) {
             Future<String> fut = Future.future();
             futures.add(fut);
-            ClusterOperator operator = new ClusterOperator(namespace,
+            ClusterOperator operator = new ClusterOperator(config.getNamespaces(),
                     config.getReconciliationIntervalMs(),
                     client,
                     kafkaClusterOperations,
@@ -140,13 +149,35 @@ public class Main {
             vertx.deployVerticle(operator,
                 res -> {
                     if (res.succeeded()) {
-                        log.info("Cluster Operator verticle started in namespace {}", namespace);
+                        log.info("Cluster Operator verticle started with shared watches for namespaces {}", config.getNamespaces());
                     } else {
-                        log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
+                        log.error("Cluster Operator verticle with shared watches for namespaces {} failed to start", config.getNamespaces(), res.cause());
                         System.exit(1);
                     }
                     fut.completer().handle(res);
                 });
+        } else {
+            for (String namespace : config.getNamespaces()) {
+                Future<String> fut = Future.future();
+                futures.add(fut);
+                ClusterOperator operator = new ClusterOperator(namespace,
+                        config.getReconciliationIntervalMs(),
+                        client,
+                        kafkaClusterOperations,
+                        kafkaConnectClusterOperations,
+                        kafkaConnectS2IClusterOperations,
+                        kafkaMirrorMakerAssemblyOperator);
+                vertx.deployVerticle(operator,
+                    res -> {
+                        if (res.succeeded()) {
+                            log.info("Cluster Operator verticle started in namespace {}", namespace);
+                        } else {
+                            log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
+                            System.exit(1);
+                        }
+                        fut.completer().handle(res);
+                    });
+            }
         }
         return CompositeFuture.join(futures);
     }
@@ -67,11 +67,13 @@ import org.apache.logging.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -91,6 +93,7 @@ public abstract class AbstractModel {
     public static final String ANCILLARY_CM_KEY_LOG_CONFIG = "log4j.properties";
     public static final String ENV_VAR_DYNAMIC_HEAP_FRACTION = "DYNAMIC_HEAP_FRACTION";
     public static final String ENV_VAR_KAFKA_HEAP_OPTS = "KAFKA_HEAP_OPTS";
+    public static final String ENV_VAR_STRIMZI_KAFKA_GC_OPTS = "STRIMZI_KAFKA_GC_OPTS";
     public static final String ENV_VAR_KAFKA_JVM_PERFORMANCE_OPTS = "KAFKA_JVM_PERFORMANCE_OPTS";
     public static final String ENV_VAR_DYNAMIC_HEAP_MAX = "DYNAMIC_HEAP_MAX";
     public static final String NETWORK_POLICY_KEY_SUFFIX = "-network-policy";
@@ -101,6 +104,9 @@ public abstract class AbstractModel {
     @Deprecated
     private static final String ANNO_CO_STRIMZI_IO_DELETE_CLAIM = "cluster.operator.strimzi.io/delete-claim";
 
+    /** The default logging properties, by the name of the resource they were read from. */
+    private static final Map<String, Properties> DEFAULT_LOGGING_PROPERTIES = new ConcurrentHashMap<>();
+
     protected static final String DEFAULT_KAFKA_GC_LOG_ENABLED = String.valueOf(true);
     protected static final String DEFAULT_STRIMZI_GC_LOG_ENABED = String.valueOf(true);
 
@@ -290,21 +296,27 @@ public abstract class AbstractModel {
 
     /**
      * Takes resource file containing default log4j properties and returns it as a Properties.
+     * The resource is only read once per JVM, the caller gets a copy which it is free to modify.
      * @param defaultConfigResourceFileName name of file, where default log4j properties are stored
      * @return
      */
     protected Properties getDefaultLoggingProperties(String defaultConfigResourceFileName) throws IOException {
-        Properties defaultSettings = new Properties();
-        InputStream is = null;
-        try {
-            is = AbstractModel.class.getResourceAsStream("/" + defaultConfigResourceFileName);
-            defaultSettings.load(is);
-        } finally {
-            if (is != null) {
-                is.close();
+        Properties defaultSettings = DEFAULT_LOGGING_PROPERTIES.get(defaultConfigResourceFileName);
+        if (defaultSettings == null) {
+            defaultSettings = new Properties();
+            InputStream is = null;
+            try {
+                is = AbstractModel.class.getResourceAsStream("/" + defaultConfigResourceFileName);
+                defaultSettings.load(is);
+            } finally {
+                if (is != null) {
+                    is.close();
+                }
             }
+            DEFAULT_LOGGING_PROPERTIES.putIfAbsent(defaultConfigResourceFileName, defaultSettings);
         }
-        return defaultSettings;
+        // A clone keeps the order of the entries, and so the generated file, the same as a freshly loaded copy
+        return (Properties) defaultSettings.clone();
     }
 
     /**
@@ -506,7 +518,27 @@ public abstract class AbstractModel {
     }
 
     public static String getPersistentVolumeClaimName(String name, int podId) {
-        return VOLUME_NAME + "-" + name + "-" + podId;
+        return getPersistentVolumeClaimName(VOLUME_NAME, name, podId);
+    }
+
+    /**
+     * Returns the name of the persistent volume claim created from the volume claim template with the given name
+     * for the given pod of a StatefulSet.
+     */
+    public static String getPersistentVolumeClaimName(String volumeName, String name, int podId) {
+        return volumeName + "-" + name + "-" + podId;
+    }
+
+    /**
+     * Returns the names of the persistent volume claims of the given pod of a StatefulSet,
+     * one for each of its volume claim templates.
+     */
+    public static List<String> getPersistentVolumeClaimNames(StatefulSet ss, int podId) {
+        List<String> names = new ArrayList<>();
+        for (PersistentVolumeClaim template : ss.getSpec().getVolumeClaimTemplates()) {
+            names.add(getPersistentVolumeClaimName(template.getMetadata().getName(), ss.getMetadata().getName(), podId));
+        }
+        return names;
     }
 
     public String getPodName(int podId) {
@@ -596,7 +628,10 @@ public abstract class AbstractModel {
     }
 
     protected PersistentVolumeClaim createPersistentVolumeClaim(String name) {
-        PersistentClaimStorage storage = (PersistentClaimStorage) this.storage;
+        return createPersistentVolumeClaim(name, (PersistentClaimStorage) this.storage);
+    }
+
+    protected PersistentVolumeClaim createPersistentVolumeClaim(String name, PersistentClaimStorage storage) {
         Map<String, Quantity> requests = new HashMap<>();
         requests.put("storage", new Quantity(storage.getSize(), null));
         LabelSelector selector = null;
@@ -760,15 +795,13 @@ public abstract class AbstractModel {
 
         annotations = new HashMap<>(annotations);
 
-        annotations.put(ANNO_STRIMZI_IO_DELETE_CLAIM,
-                String.valueOf(storage instanceof PersistentClaimStorage
-                        && ((PersistentClaimStorage) storage).isDeleteClaim()));
+        annotations.put(ANNO_STRIMZI_IO_DELETE_CLAIM, String.valueOf(Storage.deleteClaim(storage)));
 
         PodSecurityContext securityContext = templateSecurityContext;
 
         // if a persistent volume claim is requested and the running cluster is a Kubernetes one and we have no user configured PodSecurityContext
         // we set the security context
-        if (this.storage instanceof PersistentClaimStorage && !isOpenShift && securityContext == null) {
+        if (Storage.isPersistent(this.storage) && !isOpenShift && securityContext == null) {
             securityContext = new PodSecurityContextBuilder()
                     .withFsGroup(AbstractModel.DEFAULT_FS_GROUPID)
                     .build();
@@ -911,10 +944,13 @@ public abstract class AbstractModel {
 
     /**
      * Adds KAFKA_HEAP_OPTS variable to the EnvVar list if any heap related options were specified.
+     * Without an explicit -Xmx, the heap (and possibly the direct memory) is sized from the memory limit
+     * of the container according to the given sizing.
      *
      * @param envVars List of Environment Variables
+     * @param sizing How the memory limit is shared between the heap, the direct memory and the rest of the container
      */
-    protected void heapOptions(List<EnvVar> envVars, double dynamicHeapFraction, long dynamicHeapMaxBytes) {
+    protected void heapOptions(List<EnvVar> envVars, JvmSizing sizing) {
         StringBuilder kafkaHeapOpts = new StringBuilder();
         String xms = jvmOptions != null ? jvmOptions.getXms() : null;
 
@@ -930,12 +966,23 @@ public abstract class AbstractModel {
             Resources resources = getResources();
             CpuMemory cpuMemory = resources == null ? null : resources.getLimits();
 
-            // Delegate to the container to figure out only when CGroup memory limits are defined to prevent allocating
+            // Size the heap only when CGroup memory limits are defined to prevent allocating
             // too much memory on the kubelet.
             if (cpuMemory != null && cpuMemory.getMemory() != null) {
-                envVars.add(buildEnvVar(ENV_VAR_DYNAMIC_HEAP_FRACTION, Double.toString(dynamicHeapFraction)));
-                if (dynamicHeapMaxBytes > 0) {
-                    envVars.add(buildEnvVar(ENV_VAR_DYNAMIC_HEAP_MAX, Long.toString(dynamicHeapMaxBytes)));
+                long memoryLimit = cpuMemory.memoryAsLong();
+                String heap = JvmSizing.formatJvmSize(sizing.heapBytes(memoryLimit));
+                if (xms == null) {
+                    kafkaHeapOpts.append("-Xms").append(heap);
+                } else if (JvmSizing.parseJvmSize("-Xms", xms) > JvmSizing.parseJvmSize("-Xmx", heap)) {
+                    // The JVM doesn't start with an -Xmx smaller than the -Xms
+                    heap = xms;
+                }
+                kafkaHeapOpts.append(' ').append("-Xmx").append(heap);
+
+                long directMemory = sizing.directMemoryBytes(memoryLimit);
+                Map<String, String> xx = jvmOptions != null ? jvmOptions.getXx() : null;
+                if (directMemory > 0 && (xx == null || !xx.containsKey("MaxDirectMemorySize"))) {
+                    kafkaHeapOpts.append(' ').append("-XX:MaxDirectMemorySize=").append(JvmSizing.formatJvmSize(directMemory));
                 }
             // When no memory limit, `Xms`, and `Xmx` are defined then set a default `Xms` and
             // leave `Xmx` undefined.
@@ -950,6 +997,35 @@ public abstract class AbstractModel {
         }
     }
 
+    /**
+     * Adds STRIMZI_KAFKA_GC_OPTS variable to the EnvVar list with the number of GC threads matching the CPU limit
+     * of the container, since the JVM counts the CPUs of the node instead.
+     * The options which the user sets in -XX are left to them.
+     *
+     * @param envVars List of Environment Variables
+     */
+    protected void gcOptions(List<EnvVar> envVars) {
+        Resources resources = getResources();
+        CpuMemory cpuMemory = resources == null ? null : resources.getLimits();
+        if (cpuMemory == null || cpuMemory.getMilliCpu() == null) {
+            return;
+        }
+        int cpus = Math.max(1, (cpuMemory.milliCpuAsInt() + 999) / 1000);
+        Map<String, String> xx = jvmOptions != null ? jvmOptions.getXx() : null;
+
+        List<String> gcOpts = new ArrayList<>(2);
+        if (xx == null || !xx.containsKey("ParallelGCThreads")) {
+            gcOpts.add("-XX:ParallelGCThreads=" + cpus);
+        }
+        if (xx == null || !xx.containsKey("ConcGCThreads")) {
+            gcOpts.add("-XX:ConcGCThreads=" + Math.max(1, (cpus + 3) / 4));
+        }
+
+        if (!gcOpts.isEmpty()) {
+            envVars.add(buildEnvVar(ENV_VAR_STRIMZI_KAFKA_GC_OPTS, String.join(" ", gcOpts)));
+        }
+    }
+
     /**
      * Adds KAFKA_JVM_PERFORMANCE_OPTS variable to the EnvVar list if any performance related options were specified.
      *
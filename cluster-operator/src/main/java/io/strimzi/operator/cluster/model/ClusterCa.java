@@ -133,7 +133,11 @@ public class ClusterCa extends Ca {
             podNum -> ZookeeperCluster.zookeeperPodName(cluster, podNum));
     }
 
-    public Map<String, CertAndKey> generateBrokerCerts(Kafka kafka, String externalBootstrapAddress, Map<Integer, String> externalAddresses) throws IOException {
+    /**
+     * Generates the certificates of the given number of brokers, which may differ from the replicas in the Kafka
+     * resource while a scale down waits for the partitions to be moved off the brokers.
+     */
+    public Map<String, CertAndKey> generateBrokerCerts(Kafka kafka, int replicas, String externalBootstrapAddress, Map<Integer, String> externalAddresses) throws IOException {
         String cluster = kafka.getMetadata().getName();
         String namespace = kafka.getMetadata().getNamespace();
         Function<Integer, Subject> subjectFn = i -> {
@@ -170,7 +174,7 @@ public class ClusterCa extends Ca {
         };
         log.debug("{}: Reconciling kafka broker certificates", this);
         return maybeCopyOrGenerateCerts(
-            kafka.getSpec().getKafka().getReplicas(),
+            replicas,
             subjectFn,
             brokersSecret,
             podNum -> KafkaCluster.kafkaPodName(cluster, podNum));
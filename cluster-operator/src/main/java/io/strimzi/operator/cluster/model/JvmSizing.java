@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.strimzi.api.kafka.model.CpuMemory;
+import io.strimzi.api.kafka.model.JvmOptions;
+import io.strimzi.api.kafka.model.Resources;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How the memory limit of a component's container is shared between the JVM heap, the JVM direct memory
+ * and the rest of the container, when the user doesn't set the heap size explicitly.
+ * <p>
+ * Kafka brokers read and write their logs through the operating system page cache, so {@link #KAFKA} keeps
+ * at least half of the memory limit out of the JVM: the heap gets 40% of the limit (up to 5 GiB)
+ * and the direct memory 10% of it (up to 1 GiB).
+ * ZooKeeper keeps its data in the heap, so it gets 75% of the limit (up to 2 GiB).
+ * Kafka Connect and Kafka Mirror Maker don't rely on the page cache, so their heap gets 75% of the limit,
+ * which leaves the rest for the metaspace, the thread stacks and the direct buffers.
+ */
+public class JvmSizing {
+
+    private static final Logger log = LogManager.getLogger(JvmSizing.class.getName());
+
+    private static final long MIB = 1024L * 1024L;
+    private static final long GIB = 1024L * MIB;
+
+    /** The smallest heap the JVM starts with. */
+    private static final long MIN_HEAP_BYTES = 2L * MIB;
+
+    // The sizes accepted by -Xms and -Xmx: a number of bytes with an optional k, m, g or t suffix
+    private static final Pattern JVM_SIZE = Pattern.compile("([0-9]+)([kKmMgGtT]?)");
+
+    public static final JvmSizing KAFKA = new JvmSizing("Kafka", 0.4, 5L * GIB, 0.1, 1L * GIB, 0.5);
+    public static final JvmSizing ZOOKEEPER = new JvmSizing("Zookeeper", 0.75, 2L * GIB, 0.0, 0L, 0.0);
+    public static final JvmSizing KAFKA_CONNECT = new JvmSizing("Kafka Connect", 0.75, 0L, 0.0, 0L, 0.0);
+    public static final JvmSizing KAFKA_MIRROR_MAKER = new JvmSizing("Kafka Mirror Maker", 0.75, 0L, 0.0, 0L, 0.0);
+
+    private final String component;
+    private final double heapFraction;
+    private final long maxHeapBytes;
+    private final double directMemoryFraction;
+    private final long maxDirectMemoryBytes;
+    private final double pageCacheFraction;
+
+    /**
+     * Constructor
+     *
+     * @param component The name of the component, for the error messages
+     * @param heapFraction The fraction of the memory limit given to the heap
+     * @param maxHeapBytes The maximum size of the heap, or 0 for no maximum
+     * @param directMemoryFraction The fraction of the memory limit given to the direct memory,
+     *                             or 0 to leave the direct memory to the JVM defaults
+     * @param maxDirectMemoryBytes The maximum size of the direct memory, or 0 for no maximum
+     * @param pageCacheFraction The fraction of the memory limit which is kept out of the JVM for the page cache
+     */
+    JvmSizing(String component, double heapFraction, long maxHeapBytes,
+              double directMemoryFraction, long maxDirectMemoryBytes, double pageCacheFraction) {
+        this.component = component;
+        this.heapFraction = heapFraction;
+        this.maxHeapBytes = maxHeapBytes;
+        this.directMemoryFraction = directMemoryFraction;
+        this.maxDirectMemoryBytes = maxDirectMemoryBytes;
+        this.pageCacheFraction = pageCacheFraction;
+    }
+
+    /**
+     * Returns the heap size for the given memory limit.
+     */
+    long heapBytes(long memoryLimitBytes) {
+        return fraction(memoryLimitBytes, heapFraction, maxHeapBytes);
+    }
+
+    /**
+     * Returns the direct memory size for the given memory limit, or 0 if it is left to the JVM defaults.
+     */
+    long directMemoryBytes(long memoryLimitBytes) {
+        return fraction(memoryLimitBytes, directMemoryFraction, maxDirectMemoryBytes);
+    }
+
+    private static long fraction(long memoryLimitBytes, double fraction, long max) {
+        long bytes = (long) (memoryLimitBytes * fraction);
+        return max > 0 ? Math.min(bytes, max) : bytes;
+    }
+
+    /**
+     * Validates the heap sizes set by the user against each other and against the memory limit of the container.
+     *
+     * @param jvmOptions The JVM options of the component, or null
+     * @param resources The resources of the component, or null
+     * @throws InvalidResourceException if the sizes can't be parsed, if -Xms is greater than -Xmx
+     * or if the heap doesn't fit in the memory limit.
+     */
+    public void validate(JvmOptions jvmOptions, Resources resources) {
+        long xms = jvmOptions != null ? parseJvmSize("-Xms", jvmOptions.getXms()) : 0;
+        long xmx = jvmOptions != null ? parseJvmSize("-Xmx", jvmOptions.getXmx()) : 0;
+        if (xms > 0 && xmx > 0 && xms > xmx) {
+            throw new InvalidResourceException("The " + component + " -Xms " + jvmOptions.getXms()
+                    + " is greater than its -Xmx " + jvmOptions.getXmx());
+        }
+
+        CpuMemory limits = resources != null ? resources.getLimits() : null;
+        long memoryLimit = limits != null ? limits.memoryAsLong() : 0;
+        if (memoryLimit > 0) {
+            long heap = Math.max(xms, xmx);
+            if (heap >= memoryLimit) {
+                throw new InvalidResourceException("The " + component + " heap of " + heap
+                        + " bytes doesn't fit in its memory limit of " + memoryLimit + " bytes");
+            } else if (heap > memoryLimit * (1 - pageCacheFraction)) {
+                // Without -Xmx, the heap can grow up to the -Xms when it is greater than the computed heap
+                log.warn("The {} heap of {} bytes leaves less than {}% of the memory limit of {} bytes to the page cache",
+                        component, heap, (int) (pageCacheFraction * 100), memoryLimit);
+            } else if (heap == 0 && heapBytes(memoryLimit) < MIN_HEAP_BYTES) {
+                log.warn("The {} memory limit of {} bytes is too small for the heap of the JVM", component, memoryLimit);
+            }
+        }
+    }
+
+    /**
+     * Parses a size given to -Xms or -Xmx.
+     *
+     * @return The size in bytes, or 0 if it's null.
+     * @throws InvalidResourceException if the size is not valid.
+     */
+    static long parseJvmSize(String option, String size) {
+        if (size == null) {
+            return 0;
+        }
+        Matcher matcher = JVM_SIZE.matcher(size);
+        if (!matcher.matches()) {
+            throw new InvalidResourceException("Invalid " + option + " " + size);
+        }
+        long bytes = Long.parseLong(matcher.group(1));
+        switch (matcher.group(2).toLowerCase(Locale.ENGLISH)) {
+            case "t":
+                return bytes * 1024L * GIB;
+            case "g":
+                return bytes * GIB;
+            case "m":
+                return bytes * MIB;
+            case "k":
+                return bytes * 1024L;
+            default:
+                return bytes;
+        }
+    }
+
+    /**
+     * Formats the given number of bytes as a JVM size, in MiB when they are at least 1 MiB.
+     */
+    static String formatJvmSize(long bytes) {
+        return bytes >= MIB ? (bytes / MIB) + "m" : Long.toString(bytes);
+    }
+}
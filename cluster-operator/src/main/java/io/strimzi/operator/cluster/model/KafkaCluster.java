@@ -6,6 +6,7 @@ package io.strimzi.operator.cluster.model;
 
 import io.fabric8.kubernetes.api.model.Affinity;
 import io.fabric8.kubernetes.api.model.AffinityBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.ContainerBuilder;
 import io.fabric8.kubernetes.api.model.ContainerPort;
@@ -36,6 +37,7 @@ import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteBuilder;
 import io.strimzi.api.kafka.model.EphemeralStorage;
 import io.strimzi.api.kafka.model.InlineLogging;
+import io.strimzi.api.kafka.model.JbodStorage;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaAuthorization;
 import io.strimzi.api.kafka.model.KafkaAuthorizationSimple;
@@ -49,6 +51,8 @@ import io.strimzi.api.kafka.model.KafkaResources;
 import io.strimzi.api.kafka.model.Logging;
 import io.strimzi.api.kafka.model.PersistentClaimStorage;
 import io.strimzi.api.kafka.model.Rack;
+import io.strimzi.api.kafka.model.SingleVolumeStorage;
+import io.strimzi.api.kafka.model.Storage;
 import io.strimzi.api.kafka.model.TlsSidecar;
 import io.strimzi.api.kafka.model.template.KafkaClusterTemplate;
 import io.strimzi.certs.CertAndKey;
@@ -60,8 +64,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
@@ -95,6 +101,7 @@ public class KafkaCluster extends AbstractModel {
     private static final String ENV_VAR_KAFKA_METRICS_ENABLED = "KAFKA_METRICS_ENABLED";
 
     public static final String ENV_VAR_KAFKA_CONFIGURATION = "KAFKA_CONFIGURATION";
+    public static final String ENV_VAR_KAFKA_DATA_DIRS = "KAFKA_DATA_DIRS";
 
     protected static final int CLIENT_PORT = 9092;
     protected static final String CLIENT_PORT_NAME = "clients";
@@ -108,7 +115,7 @@ public class KafkaCluster extends AbstractModel {
     protected static final int EXTERNAL_PORT = 9094;
     protected static final String EXTERNAL_PORT_NAME = "external";
 
-    protected static final String KAFKA_NAME = "kafka";
+    public static final String KAFKA_NAME = "kafka";
     protected static final String CLUSTER_CA_CERTS_VOLUME = "cluster-ca";
     protected static final String BROKER_CERTS_VOLUME = "broker-certs";
     protected static final String CLIENT_CA_CERTS_VOLUME = "client-ca-cert";
@@ -277,6 +284,7 @@ public class KafkaCluster extends AbstractModel {
         Logging logging = kafkaClusterSpec.getLogging();
         result.setLogging(logging == null ? new InlineLogging() : logging);
         result.setGcLoggingEnabled(kafkaClusterSpec.getJvmOptions() == null ? true : kafkaClusterSpec.getJvmOptions().isGcLoggingEnabled());
+        JvmSizing.KAFKA.validate(kafkaClusterSpec.getJvmOptions(), kafkaClusterSpec.getResources());
         result.setJvmOptions(kafkaClusterSpec.getJvmOptions());
         result.setConfiguration(new KafkaConfiguration(kafkaClusterSpec.getConfig().entrySet()));
         Map<String, Object> metrics = kafkaClusterSpec.getMetrics();
@@ -284,12 +292,7 @@ public class KafkaCluster extends AbstractModel {
             result.setMetricsEnabled(true);
             result.setMetricsConfig(metrics.entrySet());
         }
-        if (kafkaClusterSpec.getStorage() instanceof PersistentClaimStorage) {
-            PersistentClaimStorage persistentClaimStorage = (PersistentClaimStorage) kafkaClusterSpec.getStorage();
-            if (persistentClaimStorage.getSize() == null || persistentClaimStorage.getSize().isEmpty()) {
-                throw new InvalidResourceException("The size is mandatory for a persistent-claim storage");
-            }
-        }
+        validateStorage(kafkaClusterSpec.getStorage());
         result.setStorage(kafkaClusterSpec.getStorage());
         result.setUserAffinity(kafkaClusterSpec.getAffinity());
         result.setResources(kafkaClusterSpec.getResources());
@@ -368,7 +371,7 @@ public class KafkaCluster extends AbstractModel {
         log.debug("Generating certificates");
 
         try {
-            brokerCerts = clusterCa.generateBrokerCerts(kafka, externalBootstrapDnsName, externalDnsNames);
+            brokerCerts = clusterCa.generateBrokerCerts(kafka, replicas, externalBootstrapDnsName, externalDnsNames);
         } catch (IOException e) {
             log.warn("Error while generating certificates", e);
         }
@@ -583,6 +586,17 @@ public class KafkaCluster extends AbstractModel {
                 isOpenShift);
     }
 
+    /**
+     * Generates the ConfigMap with the state of the partition rebalance of the cluster
+     * (see {@link io.strimzi.operator.cluster.operator.resource.KafkaRebalanceOperator}).
+     *
+     * @param data The state of the rebalance
+     * @return The generated ConfigMap
+     */
+    public ConfigMap generateRebalanceConfigMap(Map<String, String> data) {
+        return createConfigMap(KafkaResources.kafkaRebalanceConfigMapName(cluster), data);
+    }
+
     /**
      * Generate the Secret containing the Kafka brokers certificates signed by the cluster CA certificate used for TLS based
      * internal communication with Zookeeper.
@@ -624,10 +638,64 @@ public class KafkaCluster extends AbstractModel {
         return portList;
     }
 
+    /**
+     * Validates the storage of the brokers: the persistent volumes must have a size and
+     * the volumes of a JBOD storage must have distinct ids.
+     */
+    private static void validateStorage(Storage storage) {
+        if (storage instanceof PersistentClaimStorage) {
+            PersistentClaimStorage persistentClaimStorage = (PersistentClaimStorage) storage;
+            if (persistentClaimStorage.getSize() == null || persistentClaimStorage.getSize().isEmpty()) {
+                throw new InvalidResourceException("The size is mandatory for a persistent-claim storage");
+            }
+        } else if (storage instanceof JbodStorage) {
+            List<SingleVolumeStorage> volumes = ((JbodStorage) storage).getVolumes();
+            if (volumes == null || volumes.isEmpty()) {
+                throw new InvalidResourceException("A jbod storage needs at least one volume");
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (SingleVolumeStorage volume : volumes) {
+                if (volume.getId() == null) {
+                    throw new InvalidResourceException("The id is mandatory for the volumes of a jbod storage");
+                } else if (!ids.add(volume.getId())) {
+                    throw new InvalidResourceException("The volumes of a jbod storage must have distinct ids, but " + volume.getId() + " is repeated");
+                }
+                validateStorage(volume);
+            }
+        }
+    }
+
+    /**
+     * Returns the volumes of the brokers' data: a single volume, or one for each volume of a JBOD storage.
+     */
+    private List<SingleVolumeStorage> getDataVolumes() {
+        if (storage instanceof JbodStorage) {
+            return ((JbodStorage) storage).getVolumes();
+        } else {
+            return Collections.singletonList((SingleVolumeStorage) storage);
+        }
+    }
+
+    /**
+     * Returns the name of the Pod volume for the given data volume.
+     */
+    private String getDataVolumeName(SingleVolumeStorage volume) {
+        return storage instanceof JbodStorage ? VOLUME_NAME + "-" + volume.getId() : VOLUME_NAME;
+    }
+
+    /**
+     * Returns the path the given data volume is mounted on.
+     */
+    private String getDataVolumeMountPath(SingleVolumeStorage volume) {
+        return storage instanceof JbodStorage ? mountPath + "/" + getDataVolumeName(volume) : mountPath;
+    }
+
     private List<Volume> getVolumes(boolean isOpenShift) {
         List<Volume> volumeList = new ArrayList<>();
-        if (storage instanceof EphemeralStorage) {
-            volumeList.add(createEmptyDirVolume(VOLUME_NAME));
+        for (SingleVolumeStorage volume : getDataVolumes()) {
+            if (volume instanceof EphemeralStorage) {
+                volumeList.add(createEmptyDirVolume(getDataVolumeName(volume)));
+            }
         }
 
         if (rack != null || isExposedWithNodePort()) {
@@ -643,15 +711,19 @@ public class KafkaCluster extends AbstractModel {
 
     private List<PersistentVolumeClaim> getVolumeClaims() {
         List<PersistentVolumeClaim> pvcList = new ArrayList<>();
-        if (storage instanceof PersistentClaimStorage) {
-            pvcList.add(createPersistentVolumeClaim(VOLUME_NAME));
+        for (SingleVolumeStorage volume : getDataVolumes()) {
+            if (volume instanceof PersistentClaimStorage) {
+                pvcList.add(createPersistentVolumeClaim(getDataVolumeName(volume), (PersistentClaimStorage) volume));
+            }
         }
         return pvcList;
     }
 
     private List<VolumeMount> getVolumeMounts() {
         List<VolumeMount> volumeMountList = new ArrayList<>();
-        volumeMountList.add(createVolumeMount(VOLUME_NAME, mountPath));
+        for (SingleVolumeStorage volume : getDataVolumes()) {
+            volumeMountList.add(createVolumeMount(getDataVolumeName(volume), getDataVolumeMountPath(volume)));
+        }
 
         volumeMountList.add(createVolumeMount(CLUSTER_CA_CERTS_VOLUME, CLUSTER_CA_CERTS_VOLUME_MOUNT));
         volumeMountList.add(createVolumeMount(BROKER_CERTS_VOLUME, BROKER_CERTS_VOLUME_MOUNT));
@@ -779,13 +851,21 @@ public class KafkaCluster extends AbstractModel {
         varList.add(buildEnvVar(ENV_VAR_KAFKA_METRICS_ENABLED, String.valueOf(isMetricsEnabled)));
         varList.add(buildEnvVar(ENV_VAR_STRIMZI_KAFKA_GC_LOG_ENABLED, String.valueOf(gcLoggingEnabled)));
 
-        heapOptions(varList, 0.5, 5L * 1024L * 1024L * 1024L);
+        heapOptions(varList, JvmSizing.KAFKA);
+        gcOptions(varList);
         jvmPerformanceOptions(varList);
 
         if (configuration != null && !configuration.getConfiguration().isEmpty()) {
             varList.add(buildEnvVar(ENV_VAR_KAFKA_CONFIGURATION, configuration.getConfiguration()));
         }
 
+        if (storage instanceof JbodStorage) {
+            // One log directory on each volume, so that the partitions are spread over all of them
+            varList.add(buildEnvVar(ENV_VAR_KAFKA_DATA_DIRS, getDataVolumes().stream()
+                    .map(this::getDataVolumeMountPath)
+                    .collect(Collectors.joining(","))));
+        }
+
         if (listeners != null)  {
             if (listeners.getPlain() != null)   {
                 varList.add(buildEnvVar(ENV_VAR_KAFKA_CLIENT_ENABLED, "TRUE"));
@@ -7,8 +7,11 @@ package io.strimzi.operator.cluster.model;
 
 import io.strimzi.api.kafka.model.KafkaClusterSpec;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -23,6 +26,42 @@ public class KafkaConfiguration extends AbstractConfiguration {
 
     private static final List<String> FORBIDDEN_OPTIONS;
 
+    /**
+     * How a change to a broker configuration option is applied to running brokers.
+     */
+    public enum UpdateMode {
+        /** The brokers have to be restarted for the change to be applied. */
+        READ_ONLY,
+        /** The option can be updated dynamically as a cluster-wide default for all the brokers. */
+        CLUSTER_WIDE
+    }
+
+    /**
+     * The options which Kafka 2.0 brokers can update dynamically as a cluster-wide default.
+     * The options they can update only per broker (listener and security options) are all forbidden
+     * in the user configuration, so they are never updated dynamically.
+     * The hours and minutes variants of the log roll and retention options (such as {@code log.retention.hours})
+     * are read-only, only their milliseconds variants are dynamic.
+     */
+    private static final Set<String> CLUSTER_WIDE_OPTIONS = new HashSet<>(asList(
+            // Log configuration, used as the default of the topic configuration
+            "log.segment.bytes", "log.roll.ms", "log.roll.jitter.ms",
+            "log.index.size.max.bytes", "log.flush.interval.messages", "log.flush.interval.ms",
+            "log.retention.bytes", "log.retention.ms",
+            "log.index.interval.bytes", "log.cleaner.delete.retention.ms", "log.cleaner.min.compaction.lag.ms",
+            "log.segment.delete.delay.ms", "log.cleanup.policy", "log.cleaner.min.cleanable.ratio",
+            "log.preallocate", "log.message.timestamp.type", "log.message.timestamp.difference.max.ms",
+            "log.message.downconversion.enable", "message.max.bytes", "compression.type",
+            "unclean.leader.election.enable", "min.insync.replicas",
+            // Log cleaner
+            "log.cleaner.threads", "log.cleaner.io.max.bytes.per.second", "log.cleaner.dedupe.buffer.size",
+            "log.cleaner.io.buffer.size", "log.cleaner.io.buffer.load.factor", "log.cleaner.backoff.ms",
+            // Thread pools
+            "num.io.threads", "num.network.threads", "num.replica.fetchers", "num.recovery.threads.per.data.dir",
+            "background.threads",
+            // Metrics
+            "metric.reporters"));
+
     static {
         FORBIDDEN_OPTIONS = asList(KafkaClusterSpec.FORBIDDEN_PREFIXES.split(", "));
     }
@@ -60,4 +99,51 @@ public class KafkaConfiguration extends AbstractConfiguration {
     public static KafkaConfiguration unvalidated(String string) {
         return new KafkaConfiguration(string, emptyList());
     }
+
+    /**
+     * Returns how a change to the given option is applied to running brokers.
+     * @param option The option.
+     * @return The update mode of the option.
+     */
+    public static UpdateMode updateMode(String option) {
+        return CLUSTER_WIDE_OPTIONS.contains(option) ? UpdateMode.CLUSTER_WIDE : UpdateMode.READ_ONLY;
+    }
+
+    /**
+     * Returns the options of this configuration with the given update mode, in the order of the configuration.
+     * @param mode The update mode.
+     * @return The options.
+     */
+    public Map<String, String> options(UpdateMode mode) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : asOrderedProperties().asMap().entrySet()) {
+            if (updateMode(entry.getKey()) == mode) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the given configuration differs from this one only in options which can be updated dynamically,
+     * so that the brokers don't have to be restarted for it to be applied.
+     * @param other The other configuration.
+     * @return Whether the configurations have the same read-only options.
+     */
+    public boolean hasSameReadOnlyOptions(KafkaConfiguration other) {
+        return options(UpdateMode.READ_ONLY).equals(other.options(UpdateMode.READ_ONLY));
+    }
+
+    /**
+     * Returns a configuration with the read-only options of this configuration and
+     * the dynamically updatable options of the given one.
+     * @param other The configuration to take the dynamically updatable options from.
+     * @return The configuration.
+     */
+    public KafkaConfiguration withDynamicOptionsOf(KafkaConfiguration other) {
+        KafkaConfiguration result = unvalidated("");
+        options(UpdateMode.READ_ONLY).forEach(result::setConfigOption);
+        other.options(UpdateMode.CLUSTER_WIDE).forEach(result::setConfigOption);
+        return result;
+    }
 }
@@ -350,7 +350,8 @@ public class KafkaMirrorMakerCluster extends AbstractModel {
         }
         varList.add(buildEnvVar(ENV_VAR_STRIMZI_KAFKA_GC_LOG_ENABLED, String.valueOf(gcLoggingEnabled)));
 
-        heapOptions(varList, 1.0, 0L);
+        heapOptions(varList, JvmSizing.KAFKA_MIRROR_MAKER);
+        gcOptions(varList);
         jvmPerformanceOptions(varList);
 
         /** consumer */
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import static io.strimzi.operator.cluster.model.KafkaVersion.compareDottedVersions;
+
+/**
+ * Plans the rolling updates of the brokers needed by a {@link KafkaUpgrade}, given the version the
+ * brokers currently run and their current {@code inter.broker.protocol.version}.
+ * <p>
+ * At most one roll has to be dedicated to the upgrade: the one which pins the {@code inter.broker.protocol.version}
+ * to the lower of the two versions, so that brokers running the old and the new binaries can talk to each other.
+ * The final roll, which changes the binaries of a downgrade or unpins the protocol of an upgrade, results
+ * in the same StatefulSet as the Kafka resource, so it can be merged with the other changes which
+ * restart the pods (such as CA certificate renewals or a change of the ancillary ConfigMap).
+ */
+public class KafkaUpgradePlan {
+
+    private final KafkaUpgrade upgrade;
+    private final boolean started;
+    private final String pinnedProtocolVersion;
+
+    /**
+     * @param upgrade The upgrade.
+     * @param currentVersion The version of the binaries the brokers currently run.
+     * @param currentProtocolVersion The current {@code inter.broker.protocol.version}, or null if it is not set.
+     */
+    public KafkaUpgradePlan(KafkaUpgrade upgrade, KafkaVersion currentVersion, String currentProtocolVersion) {
+        this.upgrade = upgrade;
+        this.started = !currentVersion.equals(upgrade.from());
+        if (upgrade.isNoop() || started) {
+            this.pinnedProtocolVersion = null;
+        } else if (upgrade.isUpgrade()) {
+            this.pinnedProtocolVersion = currentProtocolVersion == null && upgrade.requiresProtocolChange()
+                    ? upgrade.from().protocolVersion() : null;
+        } else {
+            this.pinnedProtocolVersion = currentProtocolVersion == null
+                    || compareDottedVersions(currentProtocolVersion, upgrade.to().protocolVersion()) > 0
+                    ? upgrade.to().protocolVersion() : null;
+        }
+    }
+
+    /** The upgrade. */
+    public KafkaUpgrade upgrade() {
+        return upgrade;
+    }
+
+    /** true if some of the brokers already run the binaries of {@link KafkaUpgrade#to()}. */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * true if the brokers first need a dedicated roll which pins the {@code inter.broker.protocol.version}
+     * to {@link #pinnedProtocolVersion()}.
+     */
+    public boolean requiresProtocolPinningRoll() {
+        return pinnedProtocolVersion != null;
+    }
+
+    /** The {@code inter.broker.protocol.version} set by the dedicated roll, or null if there's no such roll. */
+    public String pinnedProtocolVersion() {
+        return pinnedProtocolVersion;
+    }
+
+    /** The number of rolls of the brokers still needed by the upgrade, including the final one. */
+    public int rolls() {
+        if (upgrade.isNoop()) {
+            return 0;
+        }
+        return requiresProtocolPinningRoll() ? 2 : 1;
+    }
+
+    @Override
+    public String toString() {
+        return upgrade + (started ? " (started)" : "") + ": " + rolls() + " roll(s)"
+                + (requiresProtocolPinningRoll() ? ", pinning " + KafkaConfiguration.INTERBROKER_PROTOCOL_VERSION
+                        + " to " + pinnedProtocolVersion : "");
+    }
+}
@@ -191,6 +191,7 @@ public class ZookeeperCluster extends AbstractModel {
         zk.setStorage(zookeeperClusterSpec.getStorage());
         zk.setConfiguration(new ZookeeperConfiguration(zookeeperClusterSpec.getConfig().entrySet()));
         zk.setResources(zookeeperClusterSpec.getResources());
+        JvmSizing.ZOOKEEPER.validate(zookeeperClusterSpec.getJvmOptions(), zookeeperClusterSpec.getResources());
         zk.setJvmOptions(zookeeperClusterSpec.getJvmOptions());
         zk.setUserAffinity(zookeeperClusterSpec.getAffinity());
         zk.setTolerations(zookeeperClusterSpec.getTolerations());
@@ -402,7 +403,8 @@ public class ZookeeperCluster extends AbstractModel {
         varList.add(buildEnvVar(ENV_VAR_ZOOKEEPER_METRICS_ENABLED, String.valueOf(isMetricsEnabled)));
         varList.add(buildEnvVar(ENV_VAR_STRIMZI_KAFKA_GC_LOG_ENABLED, String.valueOf(gcLoggingEnabled)));
 
-        heapOptions(varList, 0.75, 2L * 1024L * 1024L * 1024L);
+        heapOptions(varList, JvmSizing.ZOOKEEPER);
+        gcOptions(varList);
         jvmPerformanceOptions(varList);
         varList.add(buildEnvVar(ENV_VAR_ZOOKEEPER_CONFIGURATION, configuration.getConfiguration()));
         return varList;
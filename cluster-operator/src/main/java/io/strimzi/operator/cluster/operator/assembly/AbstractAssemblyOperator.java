@@ -4,7 +4,6 @@
  */
 package io.strimzi.operator.cluster.operator.assembly;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.Doneable;
 import io.fabric8.kubernetes.api.model.HasMetadata;
@@ -15,10 +14,13 @@ import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.Resource;
-import io.fabric8.zjsonpatch.JsonDiff;
 import io.strimzi.certs.CertManager;
 import io.strimzi.operator.cluster.InvalidConfigParameterException;
 import io.strimzi.operator.cluster.model.InvalidResourceException;
+import io.strimzi.operator.cluster.operator.resource.JsonTreeDiff;
+import io.strimzi.operator.common.OperatorMetrics;
+import io.strimzi.operator.common.ReconciliationTrace;
+import io.strimzi.operator.common.ReconciliationTracer;
 import io.strimzi.operator.common.Reconciliation;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.ResourceType;
@@ -34,11 +36,19 @@ import io.vertx.core.shareddata.Lock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
 
@@ -68,6 +78,9 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
     protected final NetworkPolicyOperator networkPolicyOperator;
     protected final PodDisruptionBudgetOperator podDisruptionBudgetOperator;
     private final String kind;
+    private final AtomicInteger pendingReconciliations = new AtomicInteger();
+    // The resourceVersion of the last event received by the watch in each namespace
+    private final Map<String, String> watchResourceVersions = new ConcurrentHashMap<>();
 
     /**
      * @param vertx The Vertx instance
@@ -92,6 +105,16 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
         this.podDisruptionBudgetOperator = podDisruptionBudgetOperator;
     }
 
+    /**
+     * Registers the gauges of this operator. To be called once by the owner of the operator, for the operator
+     * which lives as long as the process: a gauge is registered only once for a name and tags,
+     * so the gauges of the operators created later would keep reporting the first one.
+     */
+    public void registerMetrics() {
+        OperatorMetrics.gauge("reconciliations.pending", "Reconciliations waiting for the lock of their assembly",
+                pendingReconciliations, AtomicInteger::get, "kind", kind);
+    }
+
     /**
      * Gets the name of the lock to be used for operating on the given {@code assemblyType}, {@code namespace} and
      * cluster {@code name}
@@ -144,10 +167,17 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
         String namespace = reconciliation.namespace();
         String assemblyName = reconciliation.name();
         final String lockName = getLockName(assemblyType, namespace, assemblyName);
+        final long lockStart = System.nanoTime();
+        pendingReconciliations.incrementAndGet();
         vertx.sharedData().getLockWithTimeout(lockName, LOCK_TIMEOUT_MS, res -> {
+            pendingReconciliations.decrementAndGet();
+            OperatorMetrics.lockWait(kind, res.succeeded(), lockStart);
             if (res.succeeded()) {
                 log.debug("{}: Lock {} acquired", reconciliation, lockName);
                 Lock lock = res.result();
+                long reconcileStart = System.nanoTime();
+                ReconciliationTrace trace = ReconciliationTracer.start(reconciliation, lockStart);
+                trace.span("lockWait", null, null, lockStart, true);
 
                 try {
                     // get CustomResource and related resources for the specific cluster
@@ -159,6 +189,8 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
                             .setHandler(createResult -> {
                                 lock.release();
                                 log.debug("{}: Lock {} released", reconciliation, lockName);
+                                OperatorMetrics.reconciliation(kind, createResult.succeeded(), reconcileStart);
+                                ReconciliationTracer.end(trace, createResult.succeeded());
                                 if (createResult.failed()) {
                                     if (createResult.cause() instanceof InvalidResourceException) {
                                         log.error(createResult.cause().getMessage());
@@ -174,6 +206,8 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
                         delete(reconciliation).setHandler(deleteResult -> {
                             lock.release();
                             log.debug("{}: Lock {} released", reconciliation, lockName);
+                            OperatorMetrics.reconciliation(kind, deleteResult.succeeded(), reconcileStart);
+                            ReconciliationTracer.end(trace, deleteResult.succeeded());
                             if (deleteResult.succeeded())   {
                                 log.info("{}: Assembly {} deleted", reconciliation, assemblyName);
                             } else {
@@ -185,10 +219,15 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
                 } catch (Throwable ex) {
                     lock.release();
                     log.debug("{}: Lock {} released", reconciliation, lockName);
+                    OperatorMetrics.reconciliation(kind, false, reconcileStart);
+                    ReconciliationTracer.end(trace, false);
                     handler.handle(Future.failedFuture(ex));
                 }
             } else {
                 log.debug("{}: Failed to acquire lock {}.", reconciliation, lockName);
+                ReconciliationTrace trace = ReconciliationTracer.start(reconciliation, lockStart);
+                trace.span("lockWait", null, null, lockStart, false);
+                ReconciliationTracer.end(trace, false);
             }
         });
     }
@@ -203,42 +242,76 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
      * </ul>
      *
      * @param trigger A description of the triggering event (timer or watch), used for logging
-     * @param namespace The namespace
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE} for all the namespaces
      */
     public final CountDownLatch reconcileAll(String trigger, String namespace) {
+        return reconcileAll(trigger, namespace, ns -> 0L);
+    }
+
+    /**
+     * Like {@link #reconcileAll(String, String)}, but the assemblies of each namespace are reconciled after the
+     * given delay, so that the namespaces listed together are not all reconciled at the same time.
+     *
+     * @param trigger A description of the triggering event (timer or watch), used for logging
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE} for all the namespaces
+     * @param delay The delay in milliseconds before the assemblies of the given namespace are reconciled
+     */
+    public final CountDownLatch reconcileAll(String trigger, String namespace, ToLongFunction<String> delay) {
+
+        // the names of the assemblies, by namespace
+        Map<String, Set<String>> desiredNames = new HashMap<>();
 
         // get ConfigMaps with kind=cluster&type=kafka (or connect, or connect-s2i) for the corresponding cluster type
         List<T> desiredResources = resourceOperator.list(namespace, Labels.EMPTY);
-        Set<String> desiredNames = desiredResources.stream().map(cm -> cm.getMetadata().getName()).collect(Collectors.toSet());
+        for (T resource : desiredResources) {
+            desiredNames.computeIfAbsent(namespaceOf(namespace, resource), ns -> new HashSet<>()).add(resource.getMetadata().getName());
+        }
         log.debug("reconcileAll({}, {}): desired resources with labels {}: {}", assemblyType, trigger, Labels.EMPTY, desiredNames);
 
         // get resources with kind=cluster&type=kafka (or connect, or connect-s2i)
         Labels resourceSelector = Labels.EMPTY.withKind(assemblyType.name);
         List<? extends HasMetadata> resources = getResources(namespace, resourceSelector);
         // now extract the cluster name from those
-        Set<String> resourceNames = resources.stream()
-                .filter(r -> !r.getKind().equals(kind)) // exclude desired resource
-                .map(Labels::cluster)
-                .collect(Collectors.toSet());
-        log.debug("reconcileAll({}, {}): Other resources with labels {}: {}", assemblyType, trigger, resourceSelector, resourceNames);
-
-        desiredNames.addAll(resourceNames);
+        for (HasMetadata resource : resources) {
+            if (!resource.getKind().equals(kind)) { // exclude desired resource
+                desiredNames.computeIfAbsent(namespaceOf(namespace, resource), ns -> new HashSet<>()).add(Labels.cluster(resource));
+            }
+        }
+        log.debug("reconcileAll({}, {}): desired resources and other resources with labels {}: {}", assemblyType, trigger, resourceSelector, desiredNames);
 
         // We use a latch so that callers (specifically, test callers) know when the reconciliation is complete
         // Using futures would be more complex for no benefit
-        CountDownLatch latch = new CountDownLatch(desiredNames.size());
+        CountDownLatch latch = new CountDownLatch(desiredNames.values().stream().mapToInt(Set::size).sum());
 
-        for (String name: desiredNames) {
-            Reconciliation reconciliation = new Reconciliation(trigger, assemblyType, namespace, name);
-            reconcileAssembly(reconciliation, result -> {
-                handleResult(reconciliation, result);
-                latch.countDown();
-            });
-        }
+        desiredNames.forEach((ns, names) -> {
+            Handler<Long> reconcileNamespace = ignored -> {
+                for (String name : names) {
+                    Reconciliation reconciliation = new Reconciliation(trigger, assemblyType, ns, name);
+                    reconcileAssembly(reconciliation, result -> {
+                        handleResult(reconciliation, result);
+                        latch.countDown();
+                    });
+                }
+            };
+            long nsDelay = delay.applyAsLong(ns);
+            if (nsDelay > 0) {
+                log.debug("reconcileAll({}, {}): reconciling namespace {} in {}ms", assemblyType, trigger, ns, nsDelay);
+                vertx.setTimer(nsDelay, reconcileNamespace);
+            } else {
+                reconcileNamespace.handle(null);
+            }
+        });
 
         return latch;
     }
 
+    /**
+     * The namespace of the given resource, which was listed or watched in the given namespace.
+     */
+    private static String namespaceOf(String namespace, HasMetadata resource) {
+        return AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace) ? resource.getMetadata().getNamespace() : namespace;
+    }
+
     /**
      * Gets all the assembly resources (for all assemblies) in the given namespace.
      * Assembly resources (e.g. the {@code KafkaAssembly} resource) may be included in the result.
@@ -248,35 +321,66 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
     protected abstract List<HasMetadata> getResources(String namespace, Labels selector);
 
     public Future<Watch> createWatch(String namespace, Consumer<KubernetesClientException> onClose) {
+        return createWatch(namespace, ns -> true, onClose);
+    }
+
+    /**
+     * Watches the assembly resources in the given namespace and reconciles the assemblies when they change.
+     * A watch created again in the same namespace after the previous one was closed resumes from the last event
+     * received, rather than reconciling every assembly again, unless the API server no longer has that event.
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE} to use a single
+     *                  watch for the assemblies in all the namespaces.
+     * @param namespaceFilter Which namespaces the events are reconciled for, the events in the other namespaces are ignored.
+     * @param onClose Called when the watch is closed.
+     * @return A future which completes with the watch.
+     */
+    public Future<Watch> createWatch(String namespace, Predicate<String> namespaceFilter, Consumer<KubernetesClientException> onClose) {
         Future<Watch> result = Future.future();
         vertx.<Watch>executeBlocking(
             future -> {
-                Watch watch = resourceOperator.watch(namespace, new Watcher<T>() {
+                String resourceVersion = watchResourceVersions.get(namespace);
+                if (resourceVersion != null) {
+                    log.info("Resuming the watch of {} in namespace {} from resourceVersion {}", kind, namespace, resourceVersion);
+                }
+                Watch watch = resourceOperator.watch(namespace, resourceVersion, new Watcher<T>() {
                     @Override
                     public void eventReceived(Action action, T cm) {
                         String name = cm.getMetadata().getName();
+                        if (cm.getMetadata().getResourceVersion() != null) {
+                            watchResourceVersions.put(namespace, cm.getMetadata().getResourceVersion());
+                        }
+                        String resourceNamespace = namespaceOf(namespace, cm);
+                        if (!namespaceFilter.test(resourceNamespace)) {
+                            log.debug("Ignoring {} {} in namespace {} which was {}", kind, name, resourceNamespace, action);
+                            return;
+                        }
                         switch (action) {
                             case ADDED:
                             case DELETED:
                             case MODIFIED:
-                                Reconciliation reconciliation = new Reconciliation("watch", assemblyType, namespace, name);
-                                log.info("{}: {} {} in namespace {} was {}", reconciliation, kind, name, namespace, action);
+                                Reconciliation reconciliation = new Reconciliation("watch", assemblyType, resourceNamespace, name);
+                                log.info("{}: {} {} in namespace {} was {}", reconciliation, kind, name, resourceNamespace, action);
                                 reconcileAssembly(reconciliation, result -> {
                                     handleResult(reconciliation, result);
                                 });
                                 break;
                             case ERROR:
-                                log.error("Failed {} {} in namespace{} ", kind, name, namespace);
-                                reconcileAll("watch error", namespace);
+                                log.error("Failed {} {} in namespace{} ", kind, name, resourceNamespace);
+                                reconcileAll("watch error", resourceNamespace);
                                 break;
                             default:
-                                log.error("Unknown action: {} in namespace {}", name, namespace);
-                                reconcileAll("watch unknown", namespace);
+                                log.error("Unknown action: {} in namespace {}", name, resourceNamespace);
+                                reconcileAll("watch unknown", resourceNamespace);
                         }
                     }
 
                     @Override
                     public void onClose(KubernetesClientException e) {
+                        if (e != null && e.getCode() == HttpURLConnection.HTTP_GONE) {
+                            // The events since the last resourceVersion are gone, so the next watch has to list everything again
+                            log.info("The resourceVersion of the watch of {} in namespace {} is too old", kind, namespace);
+                            watchResourceVersions.remove(namespace);
+                        }
                         onClose.accept(e);
                     }
                 });
@@ -312,13 +416,15 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
             // Metrics were added or deleted. We want rolling update
             return false;
         }
-        JsonNode diff = JsonDiff.asJson(patchMapper().valueToTree(current), patchMapper().valueToTree(desired));
-        boolean onlyMetricsSettingChanged = false;
-        for (JsonNode d : diff) {
-            if (d.get("path").asText().equals("/data/metrics-config.yml") && d.get("op").asText().equals("replace")) {
-                onlyMetricsSettingChanged = true;
-            }
-        }
-        return onlyMetricsSettingChanged && diff.size() == 1;
+        AtomicInteger diffs = new AtomicInteger();
+        AtomicBoolean metricsSettingChanged = new AtomicBoolean();
+        JsonTreeDiff.diff(patchMapper().valueToTree(current), patchMapper().valueToTree(desired), JsonTreeDiff.Paths.NONE,
+            (path, currentValue, desiredValue, ignorable) -> {
+                diffs.incrementAndGet();
+                if (path.equals("/data/metrics-config.yml") && currentValue != null && desiredValue != null) {
+                    metricsSettingChanged.set(true);
+                }
+            });
+        return metricsSettingChanged.get() && diffs.get() == 1;
     }
 }
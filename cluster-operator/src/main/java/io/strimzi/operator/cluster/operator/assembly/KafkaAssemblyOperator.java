@@ -5,7 +5,9 @@
 package io.strimzi.operator.cluster.operator.assembly;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
 import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.LoadBalancerIngress;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
 import io.fabric8.kubernetes.api.model.Pod;
@@ -23,6 +25,8 @@ import io.strimzi.api.kafka.model.CertificateAuthority;
 import io.strimzi.api.kafka.model.DoneableKafka;
 import io.strimzi.api.kafka.model.ExternalLogging;
 import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.api.kafka.model.Logging;
 import io.strimzi.certs.CertManager;
 import io.strimzi.operator.cluster.ClusterOperator;
 import io.strimzi.operator.cluster.KafkaUpgradeException;
@@ -36,16 +40,22 @@ import io.strimzi.operator.cluster.model.EntityUserOperator;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.cluster.model.KafkaConfiguration;
 import io.strimzi.operator.cluster.model.KafkaUpgrade;
+import io.strimzi.operator.cluster.model.KafkaUpgradePlan;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.ModelUtils;
 import io.strimzi.operator.cluster.model.TopicOperator;
 import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.cluster.operator.resource.KafkaBrokerConfigOperator;
+import io.strimzi.operator.cluster.operator.resource.KafkaRebalanceOperator;
 import io.strimzi.operator.cluster.operator.resource.KafkaSetOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
 import io.strimzi.operator.cluster.operator.resource.StatefulSetOperator;
 import io.strimzi.operator.cluster.operator.resource.ZookeeperSetOperator;
 import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.ReconciliationTrace;
+import io.strimzi.operator.common.ReconciliationTracer;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.resource.ClusterRoleBindingOperator;
@@ -57,24 +67,27 @@ import io.strimzi.operator.common.operator.resource.RoleBindingOperator;
 import io.strimzi.operator.common.operator.resource.RouteOperator;
 import io.strimzi.operator.common.operator.resource.ServiceAccountOperator;
 import io.strimzi.operator.common.operator.resource.ServiceOperator;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.quartz.CronExpression;
 
-import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
-import java.util.TimeZone;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -84,8 +97,9 @@ import static io.strimzi.operator.cluster.model.KafkaCluster.ANNO_STRIMZI_IO_TO_
 import static io.strimzi.operator.cluster.model.KafkaCluster.ENV_VAR_KAFKA_CONFIGURATION;
 import static io.strimzi.operator.cluster.model.KafkaConfiguration.INTERBROKER_PROTOCOL_VERSION;
 import static io.strimzi.operator.cluster.model.KafkaConfiguration.LOG_MESSAGE_FORMAT_VERSION;
-import static io.strimzi.operator.cluster.model.KafkaVersion.compareDottedVersions;
 import static io.strimzi.operator.cluster.model.TopicOperator.ANNO_STRIMZI_IO_LOGGING;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 
 /**
  * <p>Assembly operator for a "Kafka" assembly, which manages:</p>
@@ -101,6 +115,11 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
     public static final String ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE = Annotations.STRIMZI_DOMAIN + "/manual-rolling-update";
     @Deprecated
     public static final String ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE = "operator.strimzi.io/manual-rolling-update";
+    /** Whether the partitions are rebalanced across the brokers when the Kafka cluster is scaled (see {@link KafkaRebalanceOperator}). */
+    public static final String ANNO_STRIMZI_IO_REBALANCE = Annotations.STRIMZI_DOMAIN + "/rebalance";
+    /** The replication throttle of the rebalance, in bytes per second. */
+    public static final String ANNO_STRIMZI_IO_REBALANCE_THROTTLE = Annotations.STRIMZI_DOMAIN + "/rebalance-throttle";
+    static final int DEFAULT_REBALANCE_THROTTLE = 50_000_000;
 
     private final long operationTimeoutMs;
 
@@ -114,9 +133,32 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
     private final ServiceAccountOperator serviceAccountOperator;
     private final RoleBindingOperator roleBindingOperator;
     private final ClusterRoleBindingOperator clusterRoleBindingOperator;
+    private final KafkaBrokerConfigOperator kafkaBrokerConfigOperations;
+    private final KafkaRebalanceOperator kafkaRebalanceOperations;
 
     private final KafkaVersion.Lookup versions;
 
+    private final ModelCache<Description<ZookeeperCluster>> zkDescriptions = new ModelCache<>();
+    private final ModelCache<Description<KafkaCluster>> kafkaDescriptions = new ModelCache<>();
+    private final ModelCache<TopicOperator> topicOperators = new ModelCache<>();
+    private final ModelCache<EntityOperator> entityOperators = new ModelCache<>();
+    private final ModelCache<MaintenanceTimeWindows> maintenanceTimeWindows = new ModelCache<>();
+    // The timers of the reconciliations scheduled for the opening of a maintenance time window, by namespace/name
+    /* test */ final Map<String, Long> maintenanceTimeWindowTimers = new ConcurrentHashMap<>();
+
+    /**
+     * A model generated from the Kafka resource, together with its metrics and logging ConfigMap.
+     */
+    private static class Description<M extends AbstractModel> {
+        private final M model;
+        private final ConfigMap metricsAndLogsConfigMap;
+
+        Description(M model, ConfigMap metricsAndLogsConfigMap) {
+            this.model = model;
+            this.metricsAndLogsConfigMap = metricsAndLogsConfigMap;
+        }
+    }
+
     /**
      * @param vertx The Vertx instance
      * @param isOpenShift Whether we're running with OpenShift
@@ -138,6 +180,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         this.serviceAccountOperator = supplier.serviceAccountOperator;
         this.roleBindingOperator = supplier.roleBindingOperator;
         this.clusterRoleBindingOperator = supplier.clusterRoleBindingOperator;
+        this.kafkaBrokerConfigOperations = supplier.kafkaBrokerConfigOperations;
+        this.kafkaRebalanceOperations = supplier.kafkaRebalanceOperations;
         this.versions = versions;
     }
 
@@ -148,76 +192,97 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             log.error("{} spec cannot be null", kafkaAssembly.getMetadata().getName());
             return Future.failedFuture("Spec cannot be null");
         }
-        createReconciliationState(reconciliation, kafkaAssembly)
-                .reconcileCas()
+        Future.succeededFuture(createReconciliationState(reconciliation, kafkaAssembly))
+                .compose(step("reconcileCas", ReconciliationState::reconcileCas))
                 // Roll everything if a new CA is added to the trust store.
-                .compose(state -> state.rollingUpdateForNewCaKey())
-                .compose(state -> state.clusterOperatorSecret())
-                .compose(state -> state.zkManualPodCleaning())
-                .compose(state -> state.zkManualRollingUpdate())
-                .compose(state -> state.getZookeeperDescription())
-                .compose(state -> state.zkScaleUpStep())
-                .compose(state -> state.zkScaleDown())
-                .compose(state -> state.zkService())
-                .compose(state -> state.zkHeadlessService())
-                .compose(state -> state.zkAncillaryCm())
-                .compose(state -> state.zkNodesSecret())
-                .compose(state -> state.zkNetPolicy())
-                .compose(state -> state.zkPodDisruptionBudget())
-                .compose(state -> state.zkStatefulSet())
-                .compose(state -> state.zkScaleUp())
-                .compose(state -> state.zkRollingUpdate(this::dateSupplier))
-                .compose(state -> state.zkServiceEndpointReadiness())
-                .compose(state -> state.zkHeadlessServiceEndpointReadiness())
-                .compose(state -> state.kafkaUpgrade())
-                .compose(state -> state.kafkaManualPodCleaning())
-                .compose(state -> state.kafkaManualRollingUpdate())
-                .compose(state -> state.getKafkaClusterDescription())
-                .compose(state -> state.kafkaInitServiceAccount())
-                .compose(state -> state.kafkaInitClusterRoleBinding())
-                .compose(state -> state.kafkaScaleDown())
-                .compose(state -> state.kafkaService())
-                .compose(state -> state.kafkaHeadlessService())
-                .compose(state -> state.kafkaExternalBootstrapService())
-                .compose(state -> state.kafkaReplicaServices())
-                .compose(state -> state.kafkaBootstrapRoute())
-                .compose(state -> state.kafkaReplicaRoutes())
-                .compose(state -> state.kafkaExternalBootstrapServiceReady())
-                .compose(state -> state.kafkaReplicaServicesReady())
-                .compose(state -> state.kafkaBootstrapRouteReady())
-                .compose(state -> state.kafkaReplicaRoutesReady())
-                .compose(state -> state.kafkaGenerateCertificates())
-                .compose(state -> state.kafkaAncillaryCm())
-                .compose(state -> state.kafkaBrokersSecret())
-                .compose(state -> state.kafkaNetPolicy())
-                .compose(state -> state.kafkaPodDisruptionBudget())
-                .compose(state -> state.kafkaStatefulSet())
-                .compose(state -> state.kafkaRollingUpdate(this::dateSupplier))
-                .compose(state -> state.kafkaScaleUp())
-                .compose(state -> state.kafkaServiceEndpointReady())
-                .compose(state -> state.kafkaHeadlessServiceEndpointReady())
-
-                .compose(state -> state.getTopicOperatorDescription())
-                .compose(state -> state.topicOperatorServiceAccount())
-                .compose(state -> state.topicOperatorRoleBinding())
-                .compose(state -> state.topicOperatorAncillaryCm())
-                .compose(state -> state.topicOperatorSecret())
-                .compose(state -> state.topicOperatorDeployment(this::dateSupplier))
-
-                .compose(state -> state.getEntityOperatorDescription())
-                .compose(state -> state.entityOperatorServiceAccount())
-                .compose(state -> state.entityOperatorTopicOpRoleBinding())
-                .compose(state -> state.entityOperatorUserOpRoleBinding())
-                .compose(state -> state.entityOperatorTopicOpAncillaryCm())
-                .compose(state -> state.entityOperatorUserOpAncillaryCm())
-                .compose(state -> state.entityOperatorSecret())
-                .compose(state -> state.entityOperatorDeployment(this::dateSupplier))
+                .compose(step("rollingUpdateForNewCaKey", ReconciliationState::rollingUpdateForNewCaKey))
+                .compose(step("clusterOperatorSecret", ReconciliationState::clusterOperatorSecret))
+                .compose(step("zkManualPodCleaning", ReconciliationState::zkManualPodCleaning))
+                .compose(step("zkManualRollingUpdate", ReconciliationState::zkManualRollingUpdate))
+                .compose(step("getZookeeperDescription", ReconciliationState::getZookeeperDescription))
+                .compose(step("zkScaleUpStep", ReconciliationState::zkScaleUpStep))
+                .compose(step("zkScaleDown", ReconciliationState::zkScaleDown))
+                .compose(step("zkService", ReconciliationState::zkService))
+                .compose(step("zkHeadlessService", ReconciliationState::zkHeadlessService))
+                .compose(step("zkAncillaryCm", ReconciliationState::zkAncillaryCm))
+                .compose(step("zkNodesSecret", ReconciliationState::zkNodesSecret))
+                .compose(step("zkNetPolicy", ReconciliationState::zkNetPolicy))
+                .compose(step("zkPodDisruptionBudget", ReconciliationState::zkPodDisruptionBudget))
+                .compose(step("zkStatefulSet", ReconciliationState::zkStatefulSet))
+                .compose(step("zkScaleUp", ReconciliationState::zkScaleUp))
+                .compose(step("zkRollingUpdate", state -> state.zkRollingUpdate(this::dateSupplier)))
+                .compose(step("zkServiceEndpointReadiness", ReconciliationState::zkServiceEndpointReadiness))
+                .compose(step("zkHeadlessServiceEndpointReadiness", ReconciliationState::zkHeadlessServiceEndpointReadiness))
+                .compose(step("kafkaUpgrade", ReconciliationState::kafkaUpgrade))
+                .compose(step("kafkaManualPodCleaning", ReconciliationState::kafkaManualPodCleaning))
+                .compose(step("kafkaManualRollingUpdate", ReconciliationState::kafkaManualRollingUpdate))
+                .compose(step("getKafkaClusterDescription", ReconciliationState::getKafkaClusterDescription))
+                .compose(step("kafkaInitServiceAccount", ReconciliationState::kafkaInitServiceAccount))
+                .compose(step("kafkaInitClusterRoleBinding", ReconciliationState::kafkaInitClusterRoleBinding))
+                .compose(step("kafkaScaleDown", ReconciliationState::kafkaScaleDown))
+                .compose(step("kafkaService", ReconciliationState::kafkaService))
+                .compose(step("kafkaHeadlessService", ReconciliationState::kafkaHeadlessService))
+                .compose(step("kafkaExternalBootstrapService", ReconciliationState::kafkaExternalBootstrapService))
+                .compose(step("kafkaReplicaServices", ReconciliationState::kafkaReplicaServices))
+                .compose(step("kafkaBootstrapRoute", ReconciliationState::kafkaBootstrapRoute))
+                .compose(step("kafkaReplicaRoutes", ReconciliationState::kafkaReplicaRoutes))
+                .compose(step("kafkaExternalBootstrapServiceReady", ReconciliationState::kafkaExternalBootstrapServiceReady))
+                .compose(step("kafkaReplicaServicesReady", ReconciliationState::kafkaReplicaServicesReady))
+                .compose(step("kafkaBootstrapRouteReady", ReconciliationState::kafkaBootstrapRouteReady))
+                .compose(step("kafkaReplicaRoutesReady", ReconciliationState::kafkaReplicaRoutesReady))
+                .compose(step("kafkaGenerateCertificates", ReconciliationState::kafkaGenerateCertificates))
+                .compose(step("kafkaAncillaryCm", ReconciliationState::kafkaAncillaryCm))
+                .compose(step("kafkaBrokersSecret", ReconciliationState::kafkaBrokersSecret))
+                .compose(step("kafkaNetPolicy", ReconciliationState::kafkaNetPolicy))
+                .compose(step("kafkaPodDisruptionBudget", ReconciliationState::kafkaPodDisruptionBudget))
+                .compose(step("kafkaStatefulSet", ReconciliationState::kafkaStatefulSet))
+                .compose(step("kafkaRollingUpdate", state -> state.kafkaRollingUpdate(this::dateSupplier)))
+                .compose(step("kafkaScaleUp", ReconciliationState::kafkaScaleUp))
+                .compose(step("kafkaRebalance", ReconciliationState::kafkaRebalance))
+                .compose(step("kafkaServiceEndpointReady", ReconciliationState::kafkaServiceEndpointReady))
+                .compose(step("kafkaHeadlessServiceEndpointReady", ReconciliationState::kafkaHeadlessServiceEndpointReady))
+
+                .compose(step("getTopicOperatorDescription", ReconciliationState::getTopicOperatorDescription))
+                .compose(step("topicOperatorServiceAccount", ReconciliationState::topicOperatorServiceAccount))
+                .compose(step("topicOperatorRoleBinding", ReconciliationState::topicOperatorRoleBinding))
+                .compose(step("topicOperatorAncillaryCm", ReconciliationState::topicOperatorAncillaryCm))
+                .compose(step("topicOperatorSecret", ReconciliationState::topicOperatorSecret))
+                .compose(step("topicOperatorDeployment", state -> state.topicOperatorDeployment(this::dateSupplier)))
+
+                .compose(step("getEntityOperatorDescription", ReconciliationState::getEntityOperatorDescription))
+                .compose(step("entityOperatorServiceAccount", ReconciliationState::entityOperatorServiceAccount))
+                .compose(step("entityOperatorTopicOpRoleBinding", ReconciliationState::entityOperatorTopicOpRoleBinding))
+                .compose(step("entityOperatorUserOpRoleBinding", ReconciliationState::entityOperatorUserOpRoleBinding))
+                .compose(step("entityOperatorTopicOpAncillaryCm", ReconciliationState::entityOperatorTopicOpAncillaryCm))
+                .compose(step("entityOperatorUserOpAncillaryCm", ReconciliationState::entityOperatorUserOpAncillaryCm))
+                .compose(step("entityOperatorSecret", ReconciliationState::entityOperatorSecret))
+                .compose(step("entityOperatorDeployment", state -> state.entityOperatorDeployment(this::dateSupplier)))
+                .compose(step("scheduleMaintenanceTimeWindowReconciliation", ReconciliationState::scheduleMaintenanceTimeWindowReconciliation))
 
                 .compose(state -> chainFuture.complete(), chainFuture);
 
         return chainFuture;
     }
 
+    /**
+     * Wraps a step of the reconciliation, so that its duration is recorded in the operator metrics
+     * and in the trace of the reconciliation.
+     */
+    private Function<ReconciliationState, Future<ReconciliationState>> step(String name, Function<ReconciliationState, Future<ReconciliationState>> step) {
+        return state -> {
+            long start = System.nanoTime();
+            Future<ReconciliationState> result = Future.future();
+            step.apply(state).setHandler(ar -> {
+                OperatorMetrics.reconciliationStep(assemblyType.name, name, start);
+                if (state.trace != null) {
+                    state.trace.span(name, null, null, start, ar.succeeded());
+                }
+                result.handle(ar);
+            });
+            return result;
+        };
+    }
+
     ReconciliationState createReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
         return new ReconciliationState(reconciliation, kafkaAssembly);
     }
@@ -231,6 +296,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final String name;
         private final Kafka kafkaAssembly;
         private final Reconciliation reconciliation;
+        private final ReconciliationTrace trace;
 
         /* test */ ClusterCa clusterCa;
         /* test */ ClientsCa clientsCa;
@@ -251,6 +317,15 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private SortedMap<Integer, String> kafkaExternalAddresses = new TreeMap<>();
         private SortedMap<Integer, String> kafkaExternalDnsNames = new TreeMap<>();
         private boolean kafkaAncillaryCmChange;
+        private boolean kafkaUpgradeRollPending;
+        private Integer kafkaCurrentReplicas;
+        private boolean kafkaRebalanced;
+
+        private final PodRestartPlan zkRestarts;
+        private final PodRestartPlan kafkaRestarts;
+
+        private MaintenanceTimeWindows compiledMaintenanceTimeWindows;
+        private Date deferredUntilMaintenanceTimeWindow;
 
         /* test */ TopicOperator topicOperator;
         /* test */ Deployment toDeployment = null;
@@ -263,9 +338,31 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         ReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
             this.reconciliation = reconciliation;
+            this.trace = ReconciliationTracer.active(reconciliation);
             this.kafkaAssembly = kafkaAssembly;
             this.namespace = kafkaAssembly.getMetadata().getNamespace();
             this.name = kafkaAssembly.getMetadata().getName();
+            this.zkRestarts = new PodRestartPlan(reconciliation, "zookeeper");
+            this.kafkaRestarts = new PodRestartPlan(reconciliation, "kafka");
+        }
+
+        /**
+         * Runs the given blocking code of this reconciliation on the {@code kubernetes-ops-pool}.
+         * The code is not ordered on the context of the verticle: the steps of a reconciliation are already
+         * sequenced by composing their futures, and ordering them on the context, which is shared by all the
+         * assemblies in the namespace, would make independent Kafka clusters wait for each other's blocking steps.
+         */
+        private <T> void executeBlocking(Handler<Future<T>> blockingCode, Handler<AsyncResult<T>> resultHandler) {
+            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(blockingCode, false, resultHandler);
+        }
+
+        /**
+         * Gets the ConfigMap with the given external logging, or null if the logging isn't external.
+         */
+        private ConfigMap externalLoggingConfigMap(Logging logging) {
+            return logging instanceof ExternalLogging ?
+                    configMapOperations.get(namespace, ((ExternalLogging) logging).getName()) :
+                    null;
         }
 
         /**
@@ -279,7 +376,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             Labels selectorLabels = Labels.EMPTY.withKind(reconciliation.type().toString()).withCluster(reconciliation.name());
             Labels caLabels = Labels.userLabels(kafkaAssembly.getMetadata().getLabels()).withKind(reconciliation.type().toString()).withCluster(reconciliation.name());
             Future<ReconciliationState> result = Future.future();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            this.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         String clusterCaCertName = AbstractModel.clusterCaCertSecretName(name);
@@ -345,7 +442,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     } catch (Throwable e) {
                         future.fail(e);
                     }
-                }, true,
+                },
                 result.completer()
             );
             return result;
@@ -367,19 +464,16 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             }
             if (!reason.isEmpty()) {
                 String reasons = reason.stream().collect(Collectors.joining(", "));
+                log.debug("{}: Rolling all pods to {}", reconciliation, reasons);
+                zkRestarts.restartAll(PodRestartPlan.Reason.CA_KEY_REPLACED);
+                kafkaRestarts.restartAll(PodRestartPlan.Reason.CA_KEY_REPLACED);
                 return zkSetOperations.getAsync(namespace, ZookeeperCluster.zookeeperClusterName(name))
                         .compose(ss -> {
-                            return zkSetOperations.maybeRollingUpdate(ss, pod -> {
-                                log.debug("{}: Rolling Pod {} to {}", reconciliation, pod.getMetadata().getName(), reasons);
-                                return true;
-                            });
+                            return zkSetOperations.maybeRollingUpdate(ss, requestedRestarts(zkRestarts), zkRestarts.restarted());
                         })
                         .compose(i -> kafkaSetOperations.getAsync(namespace, KafkaCluster.kafkaClusterName(name)))
                         .compose(ss -> {
-                            return kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
-                                log.debug("{}: Rolling Pod {} to {}", reconciliation, pod.getMetadata().getName(), reasons);
-                                return true;
-                            });
+                            return kafkaSetOperations.maybeRollingUpdate(ss, requestedRestarts(kafkaRestarts), kafkaRestarts.restarted());
                         })
                         .compose(i -> deploymentOperations.getAsync(namespace, TopicOperator.topicOperatorName(name)))
                         .compose(dep -> {
@@ -405,47 +499,69 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             }
         }
 
+        /**
+         * The manual rolling update of the Kafka pods is merged into {@link #kafkaRollingUpdate(Supplier)},
+         * so that the pods aren't rolled once more for the other changes found by this reconciliation.
+         */
         Future<ReconciliationState> kafkaManualRollingUpdate() {
-            Future<StatefulSet> futss = kafkaSetOperations.getAsync(namespace, KafkaCluster.kafkaClusterName(name));
+            return manualRollingUpdate(kafkaSetOperations, KafkaCluster.kafkaClusterName(name), kafkaRestarts);
+        }
+
+        /**
+         * The manual rolling update of the Zookeeper pods is merged into {@link #zkRollingUpdate(Supplier)},
+         * so that the pods aren't rolled once more for the other changes found by this reconciliation.
+         */
+        Future<ReconciliationState> zkManualRollingUpdate() {
+            return manualRollingUpdate(zkSetOperations, ZookeeperCluster.zookeeperClusterName(name), zkRestarts);
+        }
+
+        private Future<ReconciliationState> manualRollingUpdate(StatefulSetOperator setOperations, String ssName, PodRestartPlan restarts) {
+            Future<StatefulSet> futss = setOperations.getAsync(namespace, ssName);
             if (futss != null) {
-                return futss.compose(ss -> {
+                return futss.map(ss -> {
                     if (ss != null) {
                         if (Annotations.booleanAnnotation(ss, ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE,
                                 false, ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE)) {
-                            return kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
-
-                                log.debug("{}: Rolling Kafka pod {} due to manual rolling update",
-                                        reconciliation, pod.getMetadata().getName());
-                                return true;
-                            });
+                            log.debug("{}: Manual rolling update of StatefulSet {} requested", reconciliation, ssName);
+                            restarts.restartAll(PodRestartPlan.Reason.MANUAL_ROLLING_UPDATE);
                         }
                     }
-                    return Future.succeededFuture();
-                }).map(i -> this);
+                    return this;
+                });
             }
             return Future.succeededFuture(this);
         }
 
-        Future<ReconciliationState> zkManualRollingUpdate() {
-            Future<StatefulSet> futss = zkSetOperations.getAsync(namespace, ZookeeperCluster.zookeeperClusterName(name));
-            if (futss != null) {
-                return futss.compose(ss -> {
-                    if (ss != null) {
-                        if (Annotations.booleanAnnotation(ss, ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE,
-                                false, ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE)) {
-
-                            return zkSetOperations.maybeRollingUpdate(ss, pod -> {
+        /**
+         * A predicate restarting the pods only for the reasons requested for all of them.
+         */
+        private Predicate<Pod> requestedRestarts(PodRestartPlan restarts) {
+            return restarts.toRestart(pod -> EnumSet.noneOf(PodRestartPlan.Reason.class), () -> true);
+        }
 
-                                log.debug("{}: Rolling Zookeeper pod {} to manual rolling update",
-                                        reconciliation, pod.getMetadata().getName());
-                                return true;
-                            });
-                        }
-                    }
-                    return Future.succeededFuture();
-                }).map(i -> this);
+        /**
+         * Rolls the pods of the given StatefulSet for the requested reasons and the given reasons specific to the pods.
+         * Then clears the manual rolling update annotation, which is kept on the StatefulSet until the pods have been rolled.
+         */
+        private Future<Void> rollingUpdate(StatefulSetOperator setOperations, StatefulSet ss, PodRestartPlan restarts,
+                                           Function<Pod, EnumSet<PodRestartPlan.Reason>> podReasons, Supplier<Date> dateSupplier) {
+            Future<Void> rollingUpdate = setOperations.maybeRollingUpdate(ss,
+                    restarts.toRestart(podReasons, () -> isMaintenanceTimeWindowsSatisfied(dateSupplier)), restarts.restarted());
+            if (restarts.isRequested(PodRestartPlan.Reason.MANUAL_ROLLING_UPDATE)) {
+                rollingUpdate = rollingUpdate.compose(ignored -> {
+                    // Without the resourceVersion and status of the possibly stale StatefulSet
+                    StatefulSet rolled = new StatefulSetBuilder(ss)
+                            .editMetadata()
+                                .withResourceVersion(null)
+                            .endMetadata()
+                            .withStatus(null)
+                            .build();
+                    Annotations.annotations(rolled).remove(ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE);
+                    Annotations.annotations(rolled).remove(ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE);
+                    return setOperations.reconcile(namespace, ss.getMetadata().getName(), rolled).map((Void) null);
+                });
             }
-            return Future.succeededFuture(this);
+            return rollingUpdate;
         }
 
         /**
@@ -456,14 +572,15 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         public Future<StatefulSet> waitForQuiescence(String namespace, String statefulSetName) {
             return kafkaSetOperations.getAsync(namespace, statefulSetName).compose(ss -> {
                 if (ss != null) {
-                    return kafkaSetOperations.maybeRollingUpdate(ss,
+                    return kafkaSetOperations.maybeRollingUpdate(ss, kafkaRestarts.toRestart(
                         pod -> {
                             boolean notUpToDate = !isPodUpToDate(ss, pod);
                             if (notUpToDate) {
                                 log.debug("Rolling pod {} prior to upgrade", pod.getMetadata().getName());
+                                return EnumSet.of(PodRestartPlan.Reason.POD_GENERATION);
                             }
-                            return notUpToDate;
-                        }).map(ignored -> ss);
+                            return EnumSet.noneOf(PodRestartPlan.Reason.class);
+                        }, () -> true), kafkaRestarts.restarted()).map(ignored -> ss);
                 } else {
                     return Future.succeededFuture(ss);
                 }
@@ -500,21 +617,26 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     }
                     log.debug("SS {} is to version {}", ss.getMetadata().getName(), toVersion);
                     KafkaUpgrade upgrade = new KafkaUpgrade(fromVersion, toVersion);
-                    log.debug("Kafka upgrade {}", upgrade);
+                    KafkaConfiguration currentKafkaConfig = KafkaConfiguration.unvalidated(
+                            ModelUtils.getKafkaContainerEnv(ss).getOrDefault(ENV_VAR_KAFKA_CONFIGURATION, ""));
+                    KafkaUpgradePlan plan = new KafkaUpgradePlan(upgrade, currentVersion,
+                            currentKafkaConfig.getConfigOption(INTERBROKER_PROTOCOL_VERSION));
+                    log.debug("Kafka upgrade plan {}", plan);
                     if (upgrade.isNoop()) {
                         log.debug("Kafka.spec.kafka.version unchanged");
                         result = Future.succeededFuture();
                     } else {
+                        log.info("{}: {}", reconciliation, plan);
                         String image = versions.kafkaImage(kafkaAssembly.getSpec().getKafka().getImage(), toVersion.version());
                         Future<StatefulSet> f = Future.succeededFuture(ss);
                         if (upgrade.isUpgrade()) {
-                            if (currentVersion.equals(fromVersion)) {
-                                f = f.compose(ignored -> kafkaUpgradePhase1(ss, upgrade, image));
+                            if (!plan.isStarted()) {
+                                f = f.compose(ignored -> kafkaUpgradePhase1(ss, plan, image));
                             }
                             result = f.compose(ss2 -> kafkaUpgradePhase2(ss2, upgrade));
                         } else {
-                            if (currentVersion.equals(fromVersion)) {
-                                f = f.compose(ignored -> kafkaDowngradePhase1(ss, upgrade));
+                            if (!plan.isStarted()) {
+                                f = f.compose(ignored -> kafkaDowngradePhase1(ss, plan));
                             }
                             result = f.compose(ignored -> kafkaDowngradePhase2(ss, upgrade, image));
                         }
@@ -528,9 +650,11 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
          * <p>Initial upgrade phase.
          * If a message format change is required, check that it's set in the Kafka.spec.kafka.config
          * Set inter.broker.protocol.version if it's not set
-         * Perform a rolling update.
+         * Perform a rolling update, unless this is the only phase, whose rolling update is left to
+         * {@link #kafkaRollingUpdate(Supplier)}.
          */
-        private Future<StatefulSet> kafkaUpgradePhase1(StatefulSet ss, KafkaUpgrade upgrade, String upgradedImage) {
+        private Future<StatefulSet> kafkaUpgradePhase1(StatefulSet ss, KafkaUpgradePlan plan, String upgradedImage) {
+            KafkaUpgrade upgrade = plan.upgrade();
             log.info("{}: {}, phase 1", reconciliation, upgrade);
 
             Map<String, String> annotations = Annotations.annotations(ss);
@@ -559,28 +683,20 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             }
             // Otherwise both versions use the same message format, so we don't care.
 
-            String lowerVersionProtocol = currentKafkaConfig.getConfigOption(INTERBROKER_PROTOCOL_VERSION);
-            boolean twoPhase;
-            if (lowerVersionProtocol == null) {
-                if (!upgrade.requiresProtocolChange()) {
-                    // In this case we just need a single rolling update
-                    twoPhase = false;
-                } else {
-                    twoPhase = true;
-                    // Set proto version and message version in Kafka config, if they're not already set
-                    lowerVersionProtocol = currentKafkaConfig.getConfigOption(INTERBROKER_PROTOCOL_VERSION, upgrade.from().protocolVersion());
-                    log.info("{}: Upgrade: Setting {} to {}", reconciliation, INTERBROKER_PROTOCOL_VERSION, lowerVersionProtocol);
-                    currentKafkaConfig.setConfigOption(INTERBROKER_PROTOCOL_VERSION, lowerVersionProtocol);
-                    env.put(ENV_VAR_KAFKA_CONFIGURATION, currentKafkaConfig.getConfiguration());
-                    // Store upgrade state in annotations
-                    annotations.put(ANNO_STRIMZI_IO_FROM_VERSION, upgrade.from().version());
-                    annotations.put(ANNO_STRIMZI_IO_TO_VERSION, upgrade.to().version());
-                }
+            boolean twoPhase = plan.requiresProtocolPinningRoll();
+            if (twoPhase) {
+                // Set proto version in Kafka config, the plan only pins it when it's not already set
+                String lowerVersionProtocol = plan.pinnedProtocolVersion();
+                log.info("{}: Upgrade: Setting {} to {}", reconciliation, INTERBROKER_PROTOCOL_VERSION, lowerVersionProtocol);
+                currentKafkaConfig.setConfigOption(INTERBROKER_PROTOCOL_VERSION, lowerVersionProtocol);
+                env.put(ENV_VAR_KAFKA_CONFIGURATION, currentKafkaConfig.getConfiguration());
+                // Store upgrade state in annotations
+                annotations.put(ANNO_STRIMZI_IO_FROM_VERSION, upgrade.from().version());
+                annotations.put(ANNO_STRIMZI_IO_TO_VERSION, upgrade.to().version());
             } else {
-                // There's no need for the next phase of update because the user has
-                // inter.broker.protocol.version set explicitly: The CO shouldn't remove it.
+                // There's no need for the next phase of update because either the protocol doesn't change
+                // or the user has inter.broker.protocol.version set explicitly: The CO shouldn't remove it.
                 // We're done, so remove the annotations.
-                twoPhase = false;
                 log.info("{}: Upgrade: Removing annotations {}, {}",
                         reconciliation, ANNO_STRIMZI_IO_FROM_VERSION, ANNO_STRIMZI_IO_TO_VERSION);
                 annotations.remove(ANNO_STRIMZI_IO_FROM_VERSION);
@@ -606,21 +722,30 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     .endSpec()
                 .build();
 
-            // patch and rolling upgrade
             String name = KafkaCluster.kafkaClusterName(this.name);
+            if (!twoPhase) {
+                // patch, leaving the rolling update to kafkaRollingUpdate()
+                log.info("{}: Upgrade: Patch of {}, rolling update merged with the other changes to the pods", reconciliation, name);
+                return kafkaSetOperations.reconcile(namespace, name, newSs)
+                        .compose(result -> {
+                            kafkaUpgradeRollPending = true;
+                            log.info("{}: {}, phase 1 of 1 completed: no change to {}", reconciliation, upgrade,
+                                    INTERBROKER_PROTOCOL_VERSION);
+                            return Future.succeededFuture(null);
+                        });
+            }
+
+            // patch and rolling upgrade
             log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, name, newSs)
-                    .compose(result -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
-                        log.info("{}: Upgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
-                        return true;
-                    }).map(result.resource()))
+                    .compose(result -> kafkaSetOperations.maybeRollingUpdate(ss,
+                            kafkaRestarts.toRestart(pod -> EnumSet.of(PodRestartPlan.Reason.KAFKA_VERSION_CHANGE), () -> true),
+                            kafkaRestarts.restarted())
+                            .map(result.resource()))
                     .compose(ss2 -> {
-                        log.info("{}: {}, phase 1 of {} completed: {}", reconciliation, upgrade,
-                                twoPhase ? 2 : 1,
-                                twoPhase ? "change in " + INTERBROKER_PROTOCOL_VERSION + " requires 2nd phase"
-                                        : "no change to " + INTERBROKER_PROTOCOL_VERSION + " because it is explicitly configured"
-                        );
-                        return Future.succeededFuture(twoPhase ? ss2 : null);
+                        log.info("{}: {}, phase 1 of 2 completed: change in {} requires 2nd phase", reconciliation, upgrade,
+                                INTERBROKER_PROTOCOL_VERSION);
+                        return Future.succeededFuture(ss2);
                     });
         }
 
@@ -628,6 +753,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
          * Final upgrade phase
          * Note: The log.message.format.version is left at the old version.
          * It is a manual action to remove that once the user has updated all their clients.
+         * The rolling update is left to {@link #kafkaRollingUpdate(Supplier)}.
          */
         private Future<Void> kafkaUpgradePhase2(StatefulSet ss, KafkaUpgrade upgrade) {
             if (ss == null) {
@@ -670,14 +796,11 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     .endSpec()
                     .build();
 
-            // Reconcile the SS and perform a rolling update of the pods
-            log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, name);
+            // Reconcile the SS, leaving the rolling update of the pods to kafkaRollingUpdate()
+            log.info("{}: Upgrade: Patch of {}, rolling update merged with the other changes to the pods", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, KafkaCluster.kafkaClusterName(name), newSs)
-                    .compose(ignored -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
-                        log.info("{}: Upgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
-                        return true;
-                    }))
                     .compose(ignored -> {
+                        kafkaUpgradeRollPending = true;
                         log.info("{}: {}, phase 2 of 2 completed", reconciliation, upgrade);
                         return Future.succeededFuture();
                     });
@@ -692,7 +815,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
          *     <li>Reconcile the SS and perform a rolling update of the pods</li>
          * </ol>
          */
-        private Future<StatefulSet> kafkaDowngradePhase1(StatefulSet ss, KafkaUpgrade upgrade) {
+        private Future<StatefulSet> kafkaDowngradePhase1(StatefulSet ss, KafkaUpgradePlan plan) {
+            KafkaUpgrade upgrade = plan.upgrade();
             log.info("{}: {}, phase 1", reconciliation, upgrade);
 
             Map<String, String> annotations = Annotations.annotations(ss);
@@ -713,13 +837,11 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                                 oldMessageFormat)));
             }
 
-            String lowerVersionProtocol = currentKafkaConfig.getConfigOption(INTERBROKER_PROTOCOL_VERSION);
             String phases;
-            if (lowerVersionProtocol == null
-                    || compareDottedVersions(lowerVersionProtocol, upgrade.to().protocolVersion()) > 0) {
+            if (plan.requiresProtocolPinningRoll()) {
                 phases = "2 (change in " + INTERBROKER_PROTOCOL_VERSION + " requires 2nd phase)";
-                // Set proto version and message version in Kafka config, if they're not already set
-                lowerVersionProtocol = currentKafkaConfig.getConfigOption(INTERBROKER_PROTOCOL_VERSION, upgrade.to().protocolVersion());
+                // Set proto version in Kafka config, if it's not already set
+                String lowerVersionProtocol = currentKafkaConfig.getConfigOption(INTERBROKER_PROTOCOL_VERSION, plan.pinnedProtocolVersion());
                 log.info("{}: Downgrade: Setting {} to {}", reconciliation, INTERBROKER_PROTOCOL_VERSION, lowerVersionProtocol);
                 currentKafkaConfig.setConfigOption(INTERBROKER_PROTOCOL_VERSION, lowerVersionProtocol);
                 env.put(ENV_VAR_KAFKA_CONFIGURATION, currentKafkaConfig.getConfiguration());
@@ -754,10 +876,10 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             String name = KafkaCluster.kafkaClusterName(this.name);
             log.info("{}: Downgrade: Patch + rolling update of {}", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, name, newSs)
-                    .compose(result -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
-                        log.info("{}: Downgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
-                        return true;
-                    }).map(result.resource()))
+                    .compose(result -> kafkaSetOperations.maybeRollingUpdate(ss,
+                            kafkaRestarts.toRestart(pod -> EnumSet.of(PodRestartPlan.Reason.KAFKA_VERSION_CHANGE), () -> true),
+                            kafkaRestarts.restarted())
+                            .map(result.resource()))
                     .compose(ss2 -> {
                         log.info("{}: {}, phase 1 of {} completed", reconciliation, upgrade, phases);
                         return Future.succeededFuture(ss2);
@@ -772,7 +894,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
          *     <li>Remove the strimzi.io/to-kafka-version since this is the last phase</li>
          *     <li>Remove inter.broker.protocol.version (so the new version's default is used)</li>
          *     <li>Update the image in the SS</li>
-         *     <li>Reconcile the SS and perform a rolling update of the pods</li>
+         *     <li>Reconcile the SS, leaving the rolling update of the pods to {@link #kafkaRollingUpdate(Supplier)}</li>
          * </ol>
          */
         private Future<Void> kafkaDowngradePhase2(StatefulSet ss, KafkaUpgrade downgrade, String downgradedImage) {
@@ -811,14 +933,11 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     .endSpec()
                     .build();
 
-            // Reconcile the SS and perform a rolling update of the pods
-            log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, name);
+            // Reconcile the SS, leaving the rolling update of the pods to kafkaRollingUpdate()
+            log.info("{}: Downgrade: Patch of {}, rolling update merged with the other changes to the pods", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, KafkaCluster.kafkaClusterName(name), newSs)
-                    .compose(ignored -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
-                        log.info("{}: Upgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
-                        return true;
-                    }))
                     .compose(ignored -> {
+                        kafkaUpgradeRollPending = true;
                         log.info("{}: {}, phase 2 of 2 completed", reconciliation, downgrade);
                         return Future.succeededFuture();
                     });
@@ -827,24 +946,27 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> getZookeeperDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            executeBlocking(
                 future -> {
                     try {
-                        this.zkCluster = ZookeeperCluster.fromCrd(kafkaAssembly, versions);
-
-                        ConfigMap logAndMetricsConfigMap = zkCluster.generateMetricsAndLogConfigMap(zkCluster.getLogging() instanceof ExternalLogging ?
-                                configMapOperations.get(kafkaAssembly.getMetadata().getNamespace(), ((ExternalLogging) zkCluster.getLogging()).getName()) :
-                                null);
+                        ConfigMap externalLoggingCm = externalLoggingConfigMap(kafkaAssembly.getSpec().getZookeeper() != null ?
+                                kafkaAssembly.getSpec().getZookeeper().getLogging() : null);
+                        Description<ZookeeperCluster> description = zkDescriptions.get(kafkaAssembly, () -> {
+                            ZookeeperCluster zkCluster = ZookeeperCluster.fromCrd(kafkaAssembly, versions);
+                            ConfigMap logAndMetricsConfigMap = zkCluster.generateMetricsAndLogConfigMap(externalLoggingCm);
+                            return new Description<>(zkCluster, zkCluster.generateMetricsAndLogConfigMap(logAndMetricsConfigMap));
+                        }, externalLoggingCm);
+                        this.zkCluster = description.model;
 
                         this.zkService = zkCluster.generateService();
                         this.zkHeadlessService = zkCluster.generateHeadlessService();
-                        this.zkMetricsAndLogsConfigMap = zkCluster.generateMetricsAndLogConfigMap(logAndMetricsConfigMap);
+                        this.zkMetricsAndLogsConfigMap = new ConfigMapBuilder(description.metricsAndLogsConfigMap).build();
 
                         future.complete(this);
                     } catch (Throwable e) {
                         future.fail(e);
                     }
-                }, true,
+                },
                 res -> {
                     if (res.succeeded()) {
                         fut.complete((ReconciliationState) res.result());
@@ -883,7 +1005,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> getReconciliationStateOfConfigMap(AbstractModel cluster, ConfigMap configMap, BiFunction<Boolean, Future<ReconcileResult<ConfigMap>>, Future<ReconciliationState>> function) {
             Future<ReconciliationState> result = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Boolean>executeBlocking(
+            this.<Boolean>executeBlocking(
                 future -> {
                     ConfigMap current = configMapOperations.get(namespace, cluster.getAncillaryConfigName());
                     boolean onlyMetricsSettingChanged = onlyMetricsSettingChanged(current, configMap);
@@ -925,13 +1047,21 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> zkStatefulSet() {
             StatefulSet zkSs = zkCluster.generateStatefulSet(isOpenShift);
             Annotations.annotations(zkSs.getSpec().getTemplate()).put(Ca.ANNO_STRIMZI_IO_CLUSTER_CA_CERT_GENERATION, String.valueOf(getCaCertGeneration(this.clusterCa)));
+            if (zkRestarts.isRequested(PodRestartPlan.Reason.MANUAL_ROLLING_UPDATE)) {
+                // Keep the request until the pods have been rolled, in case the rolling update fails
+                Annotations.annotations(zkSs).put(ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE, "true");
+            }
             return withZkDiff(zkSetOperations.reconcile(namespace, zkCluster.getName(), zkSs));
         }
 
+        /**
+         * Rolls the Zookeeper pods once for all the reasons found by this reconciliation: a manual rolling update,
+         * CA certificate changes, a change of the ancillary ConfigMap or of the StatefulSet.
+         */
         Future<ReconciliationState> zkRollingUpdate(Supplier<Date> dateSupplier) {
-            return withVoid(zkSetOperations.maybeRollingUpdate(zkDiffs.resource(), pod ->
-                isPodToRestart(zkDiffs.resource(), pod, zkAncillaryCmChange, dateSupplier, this.clusterCa)
-            ));
+            StatefulSet ss = zkDiffs.resource();
+            return withVoid(rollingUpdate(zkSetOperations, ss, zkRestarts,
+                pod -> podRestartReasons(ss, pod, zkAncillaryCmChange, this.clusterCa), dateSupplier));
         }
 
         /**
@@ -948,6 +1078,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return withVoid(futss.map(ss -> ss == null ? 0 : ss.getSpec().getReplicas())
                     .compose(currentReplicas -> {
                         if (currentReplicas > 0 && zkCluster.getReplicas() > currentReplicas) {
+                            // The model is changed for this step only, so it must not be reused
+                            zkDescriptions.invalidate(namespace, name);
                             zkCluster.setReplicas(currentReplicas + 1);
                         }
                         Future<Integer> result = Future.succeededFuture(zkCluster.getReplicas() + 1);
@@ -997,24 +1129,26 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private Future<ReconciliationState> getKafkaClusterDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            this.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
-                        this.kafkaCluster = KafkaCluster.fromCrd(kafkaAssembly, versions);
+                        ConfigMap externalLoggingCm = externalLoggingConfigMap(kafkaAssembly.getSpec().getKafka() != null ?
+                                kafkaAssembly.getSpec().getKafka().getLogging() : null);
+                        Description<KafkaCluster> description = kafkaDescriptions.get(kafkaAssembly, () -> {
+                            KafkaCluster kafkaCluster = KafkaCluster.fromCrd(kafkaAssembly, versions);
+                            return new Description<>(kafkaCluster, kafkaCluster.generateMetricsAndLogConfigMap(externalLoggingCm));
+                        }, externalLoggingCm);
+                        this.kafkaCluster = description.model;
 
-                        ConfigMap logAndMetricsConfigMap = kafkaCluster.generateMetricsAndLogConfigMap(
-                                kafkaCluster.getLogging() instanceof ExternalLogging ?
-                                        configMapOperations.get(kafkaAssembly.getMetadata().getNamespace(), ((ExternalLogging) kafkaCluster.getLogging()).getName()) :
-                                        null);
                         this.kafkaService = kafkaCluster.generateService();
                         this.kafkaHeadlessService = kafkaCluster.generateHeadlessService();
-                        this.kafkaMetricsAndLogsConfigMap = logAndMetricsConfigMap;
+                        this.kafkaMetricsAndLogsConfigMap = new ConfigMapBuilder(description.metricsAndLogsConfigMap).build();
 
                         future.complete(this);
                     } catch (Throwable e) {
                         future.fail(e);
                     }
-                }, true,
+                },
                 res -> {
                     if (res.succeeded()) {
                         fut.complete(res.result());
@@ -1075,8 +1209,63 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return withVoid(replacementFut);
         }
 
+        /**
+         * Scales the Kafka brokers down. If the partitions are rebalanced when the cluster is scaled, the brokers
+         * are removed only once they don't have any partition: until then, this reconciliation keeps them.
+         */
         Future<ReconciliationState> kafkaScaleDown() {
-            return withVoid(kafkaSetOperations.scaleDown(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas()));
+            if (!isRebalanceEnabled()) {
+                return withVoid(kafkaSetOperations.scaleDown(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas()));
+            }
+            return kafkaSetOperations.getAsync(namespace, kafkaCluster.getName()).compose(ss -> {
+                kafkaCurrentReplicas = ss != null ? ss.getSpec().getReplicas() : null;
+                if (kafkaCurrentReplicas == null || kafkaCurrentReplicas <= kafkaCluster.getReplicas()) {
+                    return Future.succeededFuture(this);
+                }
+                return kafkaRebalance(kafkaCluster.getReplicas()).compose(complete -> {
+                    if (complete) {
+                        return withVoid(kafkaSetOperations.scaleDown(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas()));
+                    }
+                    log.info("{}: Scaling down the Kafka brokers from {} to {} once their partitions have been moved",
+                            reconciliation, kafkaCurrentReplicas, kafkaCluster.getReplicas());
+                    // The model is changed for this reconciliation only, so it must not be reused
+                    kafkaDescriptions.invalidate(namespace, name);
+                    kafkaCluster.setReplicas(kafkaCurrentReplicas);
+                    return Future.succeededFuture(this);
+                });
+            });
+        }
+
+        private boolean isRebalanceEnabled() {
+            return Annotations.booleanAnnotation(kafkaAssembly, ANNO_STRIMZI_IO_REBALANCE, false);
+        }
+
+        /**
+         * Moves the rebalance of the partitions forward (see {@link KafkaRebalanceOperator}) and updates its ConfigMap.
+         *
+         * @param brokers The number of brokers to rebalance the partitions on, or null to carry on with
+         *                the rebalance requested by a previous reconciliation, if any.
+         * @return A future which is true if the rebalance is complete, and false if it is still in progress or
+         * it failed, in which case the next reconciliation tries again.
+         */
+        private Future<Boolean> kafkaRebalance(Integer brokers) {
+            kafkaRebalanced = true;
+            String configMapName = KafkaResources.kafkaRebalanceConfigMapName(name);
+            int throttle = Annotations.intAnnotation(kafkaAssembly, ANNO_STRIMZI_IO_REBALANCE_THROTTLE, DEFAULT_REBALANCE_THROTTLE);
+            return configMapOperations.getAsync(namespace, configMapName)
+                .compose(cm -> kafkaRebalanceOperations.rebalance(namespace, name, cm != null ? cm.getData() : null, brokers, throttle))
+                .compose(status -> {
+                    if (status == null) {
+                        return Future.succeededFuture(true);
+                    }
+                    return configMapOperations.reconcile(namespace, configMapName, kafkaCluster.generateRebalanceConfigMap(status))
+                            .map(KafkaRebalanceOperator.isComplete(status));
+                })
+                .otherwise(e -> {
+                    log.warn("{}: Failed to rebalance the partitions of the Kafka brokers, it will be retried by the next reconciliation",
+                            reconciliation, e);
+                    return false;
+                });
         }
 
         Future<ReconciliationState> kafkaService() {
@@ -1133,59 +1322,59 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return withVoid(CompositeFuture.join(routeFutures));
         }
 
+        /**
+         * Waits until the given external Services all have an address, with a single watch.
+         */
+        private Future<Map<String, Service>> externalServicesReady(List<String> serviceNames) {
+            Future<Map<String, Service>> ready = kafkaCluster.isExposedWithNodePort() ?
+                    serviceOperations.hasNodePorts(namespace, serviceNames, Labels.forCluster(name), operationTimeoutMs) :
+                    serviceOperations.hasIngressAddresses(namespace, serviceNames, Labels.forCluster(name), operationTimeoutMs);
+            return ready.recover(error -> {
+                log.warn("{}: No address found for Services {}", reconciliation, serviceNames);
+                return Future.failedFuture(error);
+            });
+        }
+
+        /**
+         * Waits until the given external Routes all have an address, with a single watch.
+         */
+        private Future<Map<String, Route>> externalRoutesReady(List<String> routeNames) {
+            return routeOperations.hasAddresses(namespace, routeNames, Labels.forCluster(name), operationTimeoutMs).recover(error -> {
+                log.warn("{}: No address found for Routes {}", reconciliation, routeNames);
+                return Future.failedFuture(error);
+            });
+        }
+
+        /**
+         * The address of the given external Service: the host name or IP address of its load balancer,
+         * or its node port.
+         */
+        private String externalServiceAddress(Service service) {
+            if (kafkaCluster.isExposedWithLoadBalancer()) {
+                LoadBalancerIngress ingress = service.getStatus().getLoadBalancer().getIngress().get(0);
+                return ingress.getHostname() != null ? ingress.getHostname() : ingress.getIp();
+            } else {
+                return service.getSpec().getPorts().get(0).getNodePort().toString();
+            }
+        }
+
         Future<ReconciliationState> kafkaExternalBootstrapServiceReady() {
             if (!kafkaCluster.isExposedWithLoadBalancer() && !kafkaCluster.isExposedWithNodePort()) {
                 return withVoid(Future.succeededFuture());
             }
 
-            Future blockingFuture = Future.future();
-
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    String serviceName = KafkaCluster.externalBootstrapServiceName(name);
-                    Future<Void> address = null;
-
-                    if (kafkaCluster.isExposedWithNodePort()) {
-                        address = serviceOperations.hasNodePort(namespace, serviceName, 1_000, operationTimeoutMs);
-                    } else {
-                        address = serviceOperations.hasIngressAddress(namespace, serviceName, 1_000, operationTimeoutMs);
-                    }
-
-                    address.setHandler(res -> {
-                        if (res.succeeded()) {
-                            String bootstrapAddress = null;
-
-                            if (kafkaCluster.isExposedWithLoadBalancer()) {
-                                if (serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname() != null) {
-                                    bootstrapAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname();
-                                } else {
-                                    bootstrapAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getIp();
-                                }
-
-                                this.kafkaExternalBootstrapDnsName = bootstrapAddress;
-                            } else if (kafkaCluster.isExposedWithNodePort()) {
-                                bootstrapAddress = serviceOperations.get(namespace, serviceName).getSpec().getPorts().get(0).getNodePort().toString();
-                            }
-
-                            if (log.isTraceEnabled()) {
-                                log.trace("{}: Found address {} for Service {}", reconciliation, bootstrapAddress, serviceName);
-                            }
-
-                            future.complete();
-                        } else {
-                            log.warn("{}: No address found for Service {}", reconciliation, serviceName);
-                            future.fail("No address found for Service " + serviceName);
-                        }
-                    });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingFuture.complete();
-                    } else {
-                        blockingFuture.fail(res.cause());
-                    }
-                });
+            String serviceName = KafkaCluster.externalBootstrapServiceName(name);
+            return externalServicesReady(singletonList(serviceName)).map(services -> {
+                String bootstrapAddress = externalServiceAddress(services.get(serviceName));
+                if (kafkaCluster.isExposedWithLoadBalancer()) {
+                    this.kafkaExternalBootstrapDnsName = bootstrapAddress;
+                }
 
-            return withVoid(blockingFuture);
+                if (log.isTraceEnabled()) {
+                    log.trace("{}: Found address {} for Service {}", reconciliation, bootstrapAddress, serviceName);
+                }
+                return this;
+            });
         }
 
         Future<ReconciliationState> kafkaReplicaServicesReady() {
@@ -1193,76 +1382,28 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 return withVoid(Future.succeededFuture());
             }
 
-            Future blockingFuture = Future.future();
-
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    int replicas = kafkaCluster.getReplicas();
-                    List<Future> routeFutures = new ArrayList<>(replicas);
-
-                    for (int i = 0; i < replicas; i++) {
-                        String serviceName = KafkaCluster.externalServiceName(name, i);
-                        Future routeFuture = Future.future();
-
-                        Future<Void> address = null;
-
-                        if (kafkaCluster.isExposedWithNodePort()) {
-                            address = serviceOperations.hasNodePort(namespace, serviceName, 1_000, operationTimeoutMs);
-                        } else {
-                            address = serviceOperations.hasIngressAddress(namespace, serviceName, 1_000, operationTimeoutMs);
-                        }
-
-                        int podNumber = i;
-
-                        address.setHandler(res -> {
-                            if (res.succeeded()) {
-                                String serviceAddress = null;
-                                if (kafkaCluster.isExposedWithLoadBalancer()) {
-                                    if (serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname() != null) {
-                                        serviceAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getHostname();
-                                    } else {
-                                        serviceAddress = serviceOperations.get(namespace, serviceName).getStatus().getLoadBalancer().getIngress().get(0).getIp();
-                                    }
-
-                                    if (kafkaCluster.isExposedWithTls()) {
-                                        this.kafkaExternalDnsNames.put(podNumber, serviceAddress);
-                                    }
-                                } else if (kafkaCluster.isExposedWithNodePort()) {
-                                    serviceAddress = serviceOperations.get(namespace, serviceName).getSpec().getPorts().get(0).getNodePort().toString();
-                                }
-
-                                this.kafkaExternalAddresses.put(podNumber, serviceAddress);
-
-                                if (log.isTraceEnabled()) {
-                                    log.trace("{}: Found address {} for Service {}", reconciliation, serviceAddress, serviceName);
-                                }
+            int replicas = kafkaCluster.getReplicas();
+            List<String> serviceNames = new ArrayList<>(replicas);
+            for (int i = 0; i < replicas; i++) {
+                serviceNames.add(KafkaCluster.externalServiceName(name, i));
+            }
 
-                                routeFuture.complete();
-                            } else {
-                                log.warn("{}: No address found for Service {}", reconciliation, serviceName);
-                                routeFuture.fail("No address found for Service " + serviceName);
-                            }
-                        });
+            return externalServicesReady(serviceNames).map(services -> {
+                for (int podNumber = 0; podNumber < replicas; podNumber++) {
+                    String serviceName = serviceNames.get(podNumber);
+                    String serviceAddress = externalServiceAddress(services.get(serviceName));
 
-                        routeFutures.add(routeFuture);
+                    if (kafkaCluster.isExposedWithLoadBalancer() && kafkaCluster.isExposedWithTls()) {
+                        this.kafkaExternalDnsNames.put(podNumber, serviceAddress);
                     }
+                    this.kafkaExternalAddresses.put(podNumber, serviceAddress);
 
-                    CompositeFuture.join(routeFutures).setHandler(res -> {
-                        if (res.succeeded()) {
-                            future.complete();
-                        } else {
-                            future.fail(res.cause());
-                        }
-                    });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingFuture.complete();
-                    } else {
-                        blockingFuture.fail(res.cause());
+                    if (log.isTraceEnabled()) {
+                        log.trace("{}: Found address {} for Service {}", reconciliation, serviceAddress, serviceName);
                     }
-                });
-
-            return withVoid(blockingFuture);
+                }
+                return this;
+            });
         }
 
         Future<ReconciliationState> kafkaBootstrapRouteReady() {
@@ -1270,38 +1411,16 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 return withVoid(Future.succeededFuture());
             }
 
-            Future blockingFuture = Future.future();
+            String routeName = KafkaCluster.serviceName(name);
+            return externalRoutesReady(singletonList(routeName)).map(routes -> {
+                String bootstrapAddress = routes.get(routeName).getStatus().getIngress().get(0).getHost();
+                this.kafkaExternalBootstrapDnsName = bootstrapAddress;
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    String routeName = KafkaCluster.serviceName(name);
-                    //Future future = Future.future();
-                    Future<Void> address = routeOperations.hasAddress(namespace, routeName, 1_000, operationTimeoutMs);
-
-                    address.setHandler(res -> {
-                        if (res.succeeded()) {
-                            String bootstrapAddress = routeOperations.get(namespace, routeName).getStatus().getIngress().get(0).getHost();
-                            this.kafkaExternalBootstrapDnsName = bootstrapAddress;
-
-                            if (log.isTraceEnabled()) {
-                                log.trace("{}: Found address {} for Route {}", reconciliation, bootstrapAddress, routeName);
-                            }
-
-                            future.complete();
-                        } else {
-                            log.warn("{}: No address found for Route {}", reconciliation, routeName);
-                            future.fail("No address found for Route " + routeName);
-                        }
-                    });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingFuture.complete();
-                    } else {
-                        blockingFuture.fail(res.cause());
-                    }
-                });
-
-            return withVoid(blockingFuture);
+                if (log.isTraceEnabled()) {
+                    log.trace("{}: Found address {} for Route {}", reconciliation, bootstrapAddress, routeName);
+                }
+                return this;
+            });
         }
 
         Future<ReconciliationState> kafkaReplicaRoutesReady() {
@@ -1309,60 +1428,30 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 return withVoid(Future.succeededFuture());
             }
 
-            Future blockingFuture = Future.future();
-
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-                future -> {
-                    int replicas = kafkaCluster.getReplicas();
-                    List<Future> routeFutures = new ArrayList<>(replicas);
-
-                    for (int i = 0; i < replicas; i++) {
-                        String routeName = KafkaCluster.externalServiceName(name, i);
-                        Future routeFuture = Future.future();
-                        Future<Void> address = routeOperations.hasAddress(namespace, routeName, 1_000, operationTimeoutMs);
-                        int podNumber = i;
-
-                        address.setHandler(res -> {
-                            if (res.succeeded()) {
-                                String routeAddress = routeOperations.get(namespace, routeName).getStatus().getIngress().get(0).getHost();
-                                this.kafkaExternalAddresses.put(podNumber, routeAddress);
-                                this.kafkaExternalDnsNames.put(podNumber, routeAddress);
-
-                                if (log.isTraceEnabled()) {
-                                    log.trace("{}: Found address {} for Route {}", reconciliation, routeAddress, routeName);
-                                }
-
-                                routeFuture.complete();
-                            } else {
-                                log.warn("{}: No address found for Route {}", reconciliation, routeName);
-                                routeFuture.fail("No address found for Route " + routeName);
-                            }
-                        });
+            int replicas = kafkaCluster.getReplicas();
+            List<String> routeNames = new ArrayList<>(replicas);
+            for (int i = 0; i < replicas; i++) {
+                routeNames.add(KafkaCluster.externalServiceName(name, i));
+            }
 
-                        routeFutures.add(routeFuture);
-                    }
+            return externalRoutesReady(routeNames).map(routes -> {
+                for (int podNumber = 0; podNumber < replicas; podNumber++) {
+                    String routeName = routeNames.get(podNumber);
+                    String routeAddress = routes.get(routeName).getStatus().getIngress().get(0).getHost();
+                    this.kafkaExternalAddresses.put(podNumber, routeAddress);
+                    this.kafkaExternalDnsNames.put(podNumber, routeAddress);
 
-                    CompositeFuture.join(routeFutures).setHandler(res -> {
-                        if (res.succeeded()) {
-                            future.complete();
-                        } else {
-                            future.fail(res.cause());
-                        }
-                    });
-                }, res -> {
-                    if (res.succeeded()) {
-                        blockingFuture.complete();
-                    } else {
-                        blockingFuture.fail(res.cause());
+                    if (log.isTraceEnabled()) {
+                        log.trace("{}: Found address {} for Route {}", reconciliation, routeAddress, routeName);
                     }
-                });
-
-            return withVoid(blockingFuture);
+                }
+                return this;
+            });
         }
 
         Future<ReconciliationState> kafkaGenerateCertificates() {
             Future<ReconciliationState> result = Future.future();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            this.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         if (kafkaCluster.isExposedWithNodePort()) {
@@ -1377,7 +1466,6 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                         future.fail(e);
                     }
                 },
-                true,
                 result.completer());
             return result;
         }
@@ -1408,17 +1496,104 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             Annotations.annotations(template).put(
                     Ca.ANNO_STRIMZI_IO_CLIENTS_CA_CERT_GENERATION,
                     String.valueOf(getCaCertGeneration(this.clientsCa)));
-            return withKafkaDiff(kafkaSetOperations.reconcile(namespace, kafkaCluster.getName(), kafkaSs));
+            if (kafkaRestarts.isRequested(PodRestartPlan.Reason.MANUAL_ROLLING_UPDATE)) {
+                // Keep the request until the pods have been rolled, in case the rolling update fails
+                Annotations.annotations(kafkaSs).put(ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE, "true");
+            }
+            return kafkaDynamicConfiguration(kafkaSs)
+                    .compose(ss -> withKafkaDiff(kafkaSetOperations.reconcile(namespace, kafkaCluster.getName(), ss)));
+        }
+
+        /**
+         * Applies the changes to the dynamically updatable options of the broker configuration to the running brokers,
+         * so that the brokers aren't rolled for them (see {@link KafkaSetOperator}).
+         * If the brokers reject them, their dynamic configuration is removed and they are rolled with the desired
+         * configuration instead, since the options which have been updated dynamically would take precedence over
+         * the static configuration of the brokers. If the brokers can't even be reached to remove it, the desired
+         * StatefulSet keeps the current dynamic options, so that the next reconciliation tries again.
+         */
+        private Future<StatefulSet> kafkaDynamicConfiguration(StatefulSet desired) {
+            Future<StatefulSet> current = Future.future();
+            this.<StatefulSet>executeBlocking(
+                future -> future.complete(kafkaSetOperations.get(namespace, kafkaCluster.getName())),
+                current.completer());
+            return current.compose(currentSs -> {
+                if (currentSs == null) {
+                    return Future.succeededFuture(desired);
+                }
+                String currentConfiguration = KafkaSetOperator.configuration(currentSs);
+                KafkaConfiguration currentConfig = KafkaConfiguration.unvalidated(currentConfiguration != null ? currentConfiguration : "");
+                KafkaConfiguration desiredConfig = kafkaCluster.getConfiguration();
+                if (desiredConfig == null) {
+                    desiredConfig = KafkaConfiguration.unvalidated("");
+                }
+                Map<String, String> clusterWide = changedOptions(currentConfig, desiredConfig, KafkaConfiguration.UpdateMode.CLUSTER_WIDE);
+                if (clusterWide == null) {
+                    return Future.succeededFuture(desired);
+                }
+                log.info("{}: Updating the dynamic configuration of the Kafka brokers", reconciliation);
+                KafkaConfiguration unchanged = desiredConfig.withDynamicOptionsOf(currentConfig);
+                return kafkaBrokerConfigOperations.alterConfigs(namespace, name, clusterWide)
+                        .map(desired)
+                        .recover(rejected -> {
+                            log.warn("{}: Failed to update the dynamic configuration of the Kafka brokers, they will be rolled with the new configuration instead",
+                                    reconciliation, rejected);
+                            return kafkaBrokerConfigOperations.alterConfigs(namespace, name, emptyMap())
+                                    .map(desired)
+                                    .otherwise(e -> {
+                                        log.warn("{}: Failed to remove the dynamic configuration of the Kafka brokers, it will be retried by the next reconciliation",
+                                                reconciliation, e);
+                                        return KafkaSetOperator.withConfiguration(desired, unchanged.getConfiguration());
+                                    });
+                        });
+            });
+        }
+
+        /**
+         * The options of the desired configuration with the given update mode, if they differ from the current ones.
+         */
+        private Map<String, String> changedOptions(KafkaConfiguration current, KafkaConfiguration desired, KafkaConfiguration.UpdateMode mode) {
+            Map<String, String> desiredOptions = desired.options(mode);
+            return desiredOptions.equals(current.options(mode)) ? null : desiredOptions;
         }
 
+        /**
+         * Rolls the Kafka pods once for all the reasons found by this reconciliation: the final phase of
+         * a {@link #kafkaUpgrade()}, a manual rolling update, CA certificate changes, a change of the ancillary
+         * ConfigMap or of the StatefulSet. The rolls requested by the upgrade or manually are done
+         * regardless of the maintenance time windows.
+         */
         Future<ReconciliationState> kafkaRollingUpdate(Supplier<Date> dateSupplier) {
-            return withVoid(kafkaSetOperations.maybeRollingUpdate(kafkaDiffs.resource(), pod ->
-                isPodToRestart(kafkaDiffs.resource(), pod, kafkaAncillaryCmChange, dateSupplier, this.clusterCa, this.clientsCa)
-            ));
+            StatefulSet ss = kafkaDiffs.resource();
+            return withVoid(rollingUpdate(kafkaSetOperations, ss, kafkaRestarts, pod -> {
+                EnumSet<PodRestartPlan.Reason> reasons = podRestartReasons(ss, pod, kafkaAncillaryCmChange, this.clusterCa, this.clientsCa);
+                if (kafkaUpgradeRollPending && reasons.contains(PodRestartPlan.Reason.POD_GENERATION)) {
+                    reasons.add(PodRestartPlan.Reason.KAFKA_VERSION_CHANGE);
+                }
+                return reasons;
+            }, dateSupplier));
         }
 
+        /**
+         * Scales the Kafka brokers up. If the partitions are rebalanced when the cluster is scaled,
+         * a rebalance onto all the brokers is requested.
+         */
         Future<ReconciliationState> kafkaScaleUp() {
-            return withVoid(kafkaSetOperations.scaleUp(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas()));
+            Future<Integer> scaleUp = kafkaSetOperations.scaleUp(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas());
+            if (isRebalanceEnabled() && kafkaCurrentReplicas != null && kafkaCurrentReplicas < kafkaCluster.getReplicas()) {
+                return scaleUp.compose(replicas -> withVoid(kafkaRebalance(kafkaCluster.getReplicas())));
+            }
+            return withVoid(scaleUp);
+        }
+
+        /**
+         * Carries on with the rebalance of the partitions requested by a previous reconciliation, if any.
+         */
+        Future<ReconciliationState> kafkaRebalance() {
+            if (!isRebalanceEnabled() || kafkaRebalanced) {
+                return Future.succeededFuture(this);
+            }
+            return withVoid(kafkaRebalance(null));
         }
 
         Future<ReconciliationState> kafkaServiceEndpointReady() {
@@ -1436,7 +1611,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 return futss.compose(ss -> {
                     if (ss != null) {
                         log.debug("{}: Cleaning Pods for StatefulSet {} to {}", reconciliation, ss.getMetadata().getName(), reason);
-                        return kafkaSetOperations.maybeDeletePodAndPvc(ss);
+                        return kafkaSetOperations.maybeDeletePodAndPvc(ss,
+                                kafkaRestarts.toRestart(pod -> EnumSet.of(PodRestartPlan.Reason.MANUAL_POD_CLEANING), () -> true),
+                                kafkaRestarts.restarted());
                     }
                     return Future.succeededFuture();
                 }).map(i -> this);
@@ -1447,10 +1624,10 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getTopicOperatorDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            this.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
-                        this.topicOperator = TopicOperator.fromCrd(kafkaAssembly);
+                        this.topicOperator = topicOperators.get(kafkaAssembly, () -> TopicOperator.fromCrd(kafkaAssembly));
 
                         if (topicOperator != null) {
                             ConfigMap logAndMetricsConfigMap = topicOperator.generateMetricsAndLogConfigMap(
@@ -1471,7 +1648,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     } catch (Throwable e) {
                         future.fail(e);
                     }
-                }, true,
+                },
                 res -> {
                     if (res.succeeded()) {
                         fut.complete(res.result());
@@ -1515,8 +1692,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                         int caCertGeneration = getDeploymentCaCertGeneration(dep, this.clusterCa);
                         // if maintenance windows are satisfied, the cluster CA generation could be changed
                         // and EO needs a rolling update updating the related annotation
-                        boolean isSatisfiedBy = isMaintenanceTimeWindowsSatisfied(dateSupplier);
-                        if (isSatisfiedBy) {
+                        if (caCertGeneration != getCaCertGeneration(this.clusterCa)
+                                && isMaintenanceTimeWindowsSatisfied(dateSupplier)) {
                             caCertGeneration = getCaCertGeneration(this.clusterCa);
                         }
                         Annotations.annotations(toDeployment.getSpec().getTemplate()).put(
@@ -1535,10 +1712,10 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getEntityOperatorDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            this.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
-                        EntityOperator entityOperator = EntityOperator.fromCrd(kafkaAssembly);
+                        EntityOperator entityOperator = entityOperators.get(kafkaAssembly, () -> EntityOperator.fromCrd(kafkaAssembly));
 
                         if (entityOperator != null) {
                             EntityTopicOperator topicOperator = entityOperator.getTopicOperator();
@@ -1567,7 +1744,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     } catch (Throwable e) {
                         future.fail(e);
                     }
-                }, true,
+                },
                 res -> {
                     if (res.succeeded()) {
                         fut.complete(res.result());
@@ -1632,8 +1809,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                         int clientsCaCertGeneration = getDeploymentCaCertGeneration(dep, this.clientsCa);
                         // if maintenance windows are satisfied, the cluster CA generation could be changed
                         // and EO needs a rolling update updating the related annotation
-                        boolean isSatisfiedBy = isMaintenanceTimeWindowsSatisfied(dateSupplier);
-                        if (isSatisfiedBy) {
+                        if ((clusterCaCertGeneration != getCaCertGeneration(this.clusterCa)
+                                    || clientsCaCertGeneration != getCaCertGeneration(this.clientsCa))
+                                && isMaintenanceTimeWindowsSatisfied(dateSupplier)) {
                             clusterCaCertGeneration = getCaCertGeneration(this.clusterCa);
                             clientsCaCertGeneration = getCaCertGeneration(this.clientsCa);
                         }
@@ -1671,81 +1849,69 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return caCertGeneration == podCaCertGeneration;
         }
 
-        private boolean isPodToRestart(StatefulSet ss, Pod pod, boolean isAncillaryCmChange, Supplier<Date> dateSupplier, Ca... cas) {
-            boolean isPodUpToDate = isPodUpToDate(ss, pod);
-            boolean isPodCaCertUpToDate = true;
-            boolean isCaCertsChanged = false;
+        private EnumSet<PodRestartPlan.Reason> podRestartReasons(StatefulSet ss, Pod pod, boolean isAncillaryCmChange, Ca... cas) {
+            EnumSet<PodRestartPlan.Reason> reasons = EnumSet.noneOf(PodRestartPlan.Reason.class);
             for (Ca ca: cas) {
-                isCaCertsChanged |= ca.certRenewed() || ca.certsRemoved();
-                isPodCaCertUpToDate &= isPodCaCertUpToDate(pod, ca);
-            }
-
-            boolean isPodToRestart = !isPodUpToDate || !isPodCaCertUpToDate || isAncillaryCmChange || isCaCertsChanged;
-            boolean isSatisfiedBy = true;
-            // it makes sense to check maintenance windows if pod restarting is needed
-            if (isPodToRestart) {
-                isSatisfiedBy = isMaintenanceTimeWindowsSatisfied(dateSupplier);
-            }
-
-            if (log.isDebugEnabled()) {
-                List<String> reasons = new ArrayList<>();
-                for (Ca ca: cas) {
-                    if (ca.certRenewed()) {
-                        reasons.add(ca + " certificate renewal");
-                    }
-                    if (ca.certsRemoved()) {
-                        reasons.add(ca + " certificate removal");
-                    }
-                    if (!isPodCaCertUpToDate(pod, ca)) {
-                        reasons.add("Pod has old " + ca + " certificate generation");
-                    }
+                if (ca.certRenewed()) {
+                    reasons.add(PodRestartPlan.Reason.CA_CERT_RENEWED);
                 }
-                if (isAncillaryCmChange) {
-                    reasons.add("ancillary CM change");
+                if (ca.certsRemoved()) {
+                    reasons.add(PodRestartPlan.Reason.CA_CERT_REMOVED);
                 }
-                if (!isPodUpToDate) {
-                    reasons.add("Pod has old generation");
-                }
-                if (!reasons.isEmpty()) {
-                    if (isSatisfiedBy) {
-                        log.debug("{}: Rolling pod {} due to {}",
-                                reconciliation, pod.getMetadata().getName(), reasons);
-                    } else {
-                        log.debug("{}: Potential pod {} rolling due to {} but maintenance time windows not satisfied",
-                                reconciliation, pod.getMetadata().getName(), reasons);
-                    }
+                if (!isPodCaCertUpToDate(pod, ca)) {
+                    reasons.add(PodRestartPlan.Reason.CA_CERT_GENERATION);
                 }
             }
-            return isSatisfiedBy && isPodToRestart;
+            if (isAncillaryCmChange) {
+                reasons.add(PodRestartPlan.Reason.ANCILLARY_CM_CHANGE);
+            }
+            if (!isPodUpToDate(ss, pod)) {
+                reasons.add(PodRestartPlan.Reason.POD_GENERATION);
+            }
+            return reasons;
         }
 
+        /**
+         * Whether the maintenance time windows are satisfied, to be called only when a change depends on them:
+         * if they aren't, the change is deferred and another reconciliation is scheduled for when the next window opens.
+         */
         private boolean isMaintenanceTimeWindowsSatisfied(Supplier<Date> dateSupplier) {
-            String currentCron = null;
-            try {
-                boolean isSatisfiedBy = getMaintenanceTimeWindows() == null || getMaintenanceTimeWindows().isEmpty();
-                if (!isSatisfiedBy) {
-                    Date date = dateSupplier.get();
-                    for (String cron : getMaintenanceTimeWindows()) {
-                        currentCron = cron;
-                        CronExpression cronExpression = new CronExpression(cron);
-                        // the user defines the cron expression in "UTC/GMT" timezone but CO pod
-                        // can be running on a different one, so setting it on the cron expression
-                        cronExpression.setTimeZone(TimeZone.getTimeZone("GMT"));
-                        if (cronExpression.isSatisfiedBy(date)) {
-                            isSatisfiedBy = true;
-                            break;
-                        }
-                    }
-                }
-                return isSatisfiedBy;
-            } catch (ParseException e) {
-                log.warn("The provided maintenance time windows list contains {} which is not a valid cron expression", currentCron);
-                return false;
+            MaintenanceTimeWindows windows = getMaintenanceTimeWindows();
+            if (windows.isEmpty()) {
+                return true;
             }
+            Date date = dateSupplier.get();
+            boolean isSatisfiedBy = windows.isSatisfiedBy(date);
+            if (!isSatisfiedBy && (deferredUntilMaintenanceTimeWindow == null || date.before(deferredUntilMaintenanceTimeWindow))) {
+                // Remember the earliest time a change was deferred, to reconcile again when the next window opens
+                deferredUntilMaintenanceTimeWindow = date;
+            }
+            return isSatisfiedBy;
         }
 
-        private List<String> getMaintenanceTimeWindows() {
-            return kafkaAssembly.getSpec().getMaintenanceTimeWindows();
+        /**
+         * The maintenance time windows, compiled once per generation of the Kafka resource.
+         */
+        private MaintenanceTimeWindows getMaintenanceTimeWindows() {
+            if (compiledMaintenanceTimeWindows == null) {
+                compiledMaintenanceTimeWindows = maintenanceTimeWindows.get(kafkaAssembly,
+                    () -> MaintenanceTimeWindows.compile(kafkaAssembly.getSpec().getMaintenanceTimeWindows()));
+            }
+            return compiledMaintenanceTimeWindows;
+        }
+
+        /**
+         * If some changes were deferred because the maintenance time windows weren't satisfied, schedules
+         * a reconciliation for when the next window opens, rather than waiting for the next periodic one.
+         */
+        Future<ReconciliationState> scheduleMaintenanceTimeWindowReconciliation() {
+            if (deferredUntilMaintenanceTimeWindow != null) {
+                Date opening = getMaintenanceTimeWindows().nextOpening(deferredUntilMaintenanceTimeWindow);
+                if (opening != null) {
+                    scheduleReconciliation(namespace, name, opening);
+                }
+            }
+            return Future.succeededFuture(this);
         }
 
         private int getDeploymentCaCertGeneration(Deployment dep, Ca ca) {
@@ -1802,8 +1968,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             log.debug("{}: delete kafka {} PVCs", reconciliation, name);
 
             for (int i = 0; i < replicas; i++) {
-                result.add(pvcOperations.reconcile(namespace,
-                        KafkaCluster.getPersistentVolumeClaimName(kafkaSsName, i), null));
+                for (String pvcName : KafkaCluster.getPersistentVolumeClaimNames(ss, i)) {
+                    result.add(pvcOperations.reconcile(namespace, pvcName, null));
+                }
             }
         }
 
@@ -1831,6 +1998,15 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
     @Override
     protected Future<Void> delete(Reconciliation reconciliation) {
+        zkDescriptions.invalidate(reconciliation.namespace(), reconciliation.name());
+        kafkaDescriptions.invalidate(reconciliation.namespace(), reconciliation.name());
+        topicOperators.invalidate(reconciliation.namespace(), reconciliation.name());
+        entityOperators.invalidate(reconciliation.namespace(), reconciliation.name());
+        maintenanceTimeWindows.invalidate(reconciliation.namespace(), reconciliation.name());
+        Long timer = maintenanceTimeWindowTimers.remove(reconciliation.namespace() + "/" + reconciliation.name());
+        if (timer != null) {
+            vertx.cancelTimer(timer);
+        }
         return deleteKafka(reconciliation)
                 .compose(i -> deleteZk(reconciliation))
                 .map((Void) null);
@@ -1845,4 +2021,22 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
     private Date dateSupplier() {
         return new Date();
     }
-}
\ No newline at end of file
+
+    /**
+     * Schedules a reconciliation of the given Kafka resource at the given time, replacing any reconciliation
+     * already scheduled by this method for the resource.
+     */
+    private void scheduleReconciliation(String namespace, String name, Date at) {
+        String key = namespace + "/" + name;
+        long delay = Math.max(1L, at.getTime() - dateSupplier().getTime());
+        log.debug("Scheduling reconciliation of {} at the opening of the next maintenance time window {}", key, at);
+        long timer = vertx.setTimer(delay, id -> {
+            maintenanceTimeWindowTimers.remove(key, id);
+            reconcileAssembly(new Reconciliation("maintenance-time-window", ResourceType.KAFKA, namespace, name), ignored -> { });
+        });
+        Long previous = maintenanceTimeWindowTimers.put(key, timer);
+        if (previous != null) {
+            vertx.cancelTimer(previous);
+        }
+    }
+}
@@ -50,6 +50,7 @@ public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<Kuber
     private final DeploymentOperator deploymentOperations;
     private final ConfigMapOperator configMapOperations;
     private final KafkaVersion.Lookup versions;
+    private final ModelCache<KafkaConnectCluster> models = new ModelCache<>();
 
     /**
      * @param vertx The Vertx instance
@@ -86,7 +87,7 @@ public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<Kuber
             return Future.failedFuture("Spec cannot be null");
         }
         try {
-            connect = KafkaConnectCluster.fromCrd(kafkaConnect, versions);
+            connect = models.get(kafkaConnect, () -> KafkaConnectCluster.fromCrd(kafkaConnect, versions));
         } catch (Exception e) {
             return Future.failedFuture(e);
         }
@@ -109,6 +110,7 @@ public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<Kuber
 
     @Override
     protected Future<Void> delete(Reconciliation reconciliation) {
+        models.invalidate(reconciliation.namespace(), reconciliation.name());
         return Future.succeededFuture();
     }
 
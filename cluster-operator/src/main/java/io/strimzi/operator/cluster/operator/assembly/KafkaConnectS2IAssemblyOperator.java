@@ -55,6 +55,7 @@ public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<Op
     private final BuildConfigOperator buildConfigOperations;
     private final ConfigMapOperator configMapOperations;
     private final KafkaVersion.Lookup versions;
+    private final ModelCache<KafkaConnectS2ICluster> models = new ModelCache<>();
 
     /**
      * @param vertx                      The Vertx instance
@@ -97,7 +98,7 @@ public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<Op
         if (isOpenShift) {
             KafkaConnectS2ICluster connect;
             try {
-                connect = KafkaConnectS2ICluster.fromCrd(kafkaConnectS2I, versions);
+                connect = models.get(kafkaConnectS2I, () -> KafkaConnectS2ICluster.fromCrd(kafkaConnectS2I, versions));
             } catch (Exception e) {
                 return Future.failedFuture(e);
             }
@@ -125,6 +126,7 @@ public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<Op
 
     @Override
     protected Future<Void> delete(Reconciliation reconciliation) {
+        models.invalidate(reconciliation.namespace(), reconciliation.name());
         return Future.succeededFuture();
     }
 
@@ -51,6 +51,7 @@ public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<K
     private final ConfigMapOperator configMapOperations;
     private final ServiceOperator serviceOperations;
     private final KafkaVersion.Lookup versions;
+    private final ModelCache<KafkaMirrorMakerCluster> models = new ModelCache<>();
 
     /**
      * @param vertx                      The Vertx instance
@@ -87,7 +88,7 @@ public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<K
             return Future.failedFuture("Spec cannot be null");
         }
         try {
-            mirror = KafkaMirrorMakerCluster.fromCrd(assemblyResource, versions);
+            mirror = models.get(assemblyResource, () -> KafkaMirrorMakerCluster.fromCrd(assemblyResource, versions));
         } catch (Exception e) {
             return Future.failedFuture(e);
         }
@@ -110,6 +111,7 @@ public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<K
 
     @Override
     protected Future<Void> delete(Reconciliation reconciliation) {
+        models.invalidate(reconciliation.namespace(), reconciliation.name());
         return Future.succeededFuture();
     }
 
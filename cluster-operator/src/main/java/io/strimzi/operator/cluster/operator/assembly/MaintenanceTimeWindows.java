@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * The maintenance time windows of a Kafka resource, compiled once from their cron expressions.
+ * <p>
+ * The windows are satisfied if there are none or if one of the expressions before the first invalid one is satisfied,
+ * as when each expression was parsed on its own each time the windows were checked.
+ * Once compiled, the windows are only read, so they can be shared between reconciliations.
+ */
+class MaintenanceTimeWindows {
+
+    private static final Logger log = LogManager.getLogger(MaintenanceTimeWindows.class.getName());
+
+    // the user defines the cron expression in "UTC/GMT" timezone but CO pod
+    // can be running on a different one, so setting it on the cron expressions
+    private static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+
+    static final MaintenanceTimeWindows NONE = new MaintenanceTimeWindows(Collections.emptyList(), null);
+
+    private final List<CronExpression> expressions;
+    private final String invalidExpression;
+
+    private MaintenanceTimeWindows(List<CronExpression> expressions, String invalidExpression) {
+        this.expressions = expressions;
+        this.invalidExpression = invalidExpression;
+    }
+
+    /**
+     * Compiles the given cron expressions, stopping at the first invalid one.
+     * @param windows The cron expressions, or null.
+     * @return The compiled windows.
+     */
+    static MaintenanceTimeWindows compile(List<String> windows) {
+        if (windows == null || windows.isEmpty()) {
+            return NONE;
+        }
+        List<CronExpression> expressions = new ArrayList<>(windows.size());
+        for (String cron : windows) {
+            try {
+                CronExpression cronExpression = new CronExpression(cron);
+                cronExpression.setTimeZone(GMT);
+                expressions.add(cronExpression);
+            } catch (ParseException e) {
+                log.warn("The provided maintenance time windows list contains {} which is not a valid cron expression", cron);
+                return new MaintenanceTimeWindows(expressions, cron);
+            }
+        }
+        return new MaintenanceTimeWindows(expressions, null);
+    }
+
+    /** Whether there are no windows, so that all the times satisfy them. */
+    boolean isEmpty() {
+        return expressions.isEmpty() && invalidExpression == null;
+    }
+
+    /** The first invalid cron expression, or null if they are all valid. */
+    String invalidExpression() {
+        return invalidExpression;
+    }
+
+    /** Whether the given time is in one of the windows. */
+    boolean isSatisfiedBy(Date date) {
+        if (isEmpty()) {
+            return true;
+        }
+        for (CronExpression expression : expressions) {
+            if (expression.isSatisfiedBy(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The first time after the given time which is in one of the windows, or null if there's none
+     * (for example because the first expression is invalid, so the windows are never satisfied).
+     */
+    Date nextOpening(Date date) {
+        if (isEmpty()) {
+            return date;
+        }
+        Date next = null;
+        for (CronExpression expression : expressions) {
+            Date opening = expression.getNextValidTimeAfter(date);
+            if (opening != null && (next == null || opening.before(next))) {
+                next = opening;
+            }
+        }
+        return next;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches what's generated from a custom resource, such as its models, between the reconciliations of the resource.
+ * An entry is reused while the resource keeps the same {@code metadata.uid}, {@code metadata.generation}
+ * and labels, and the ConfigMaps it references (for example for external logging) keep the same
+ * {@code metadata.resourceVersion}s. Resources without a generation are never cached.
+ * <p>
+ * The cached values are shared between reconciliations of the same resource, which don't run concurrently,
+ * so a reconciliation which modifies a cached value has to {@link #invalidate(String, String)} it.
+ *
+ * @param <V> The type of the cached values.
+ */
+class ModelCache<V> {
+
+    private static final Logger log = LogManager.getLogger(ModelCache.class.getName());
+
+    private static class Entry<V> {
+        private final String version;
+        private final V value;
+
+        Entry(String version, V value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private static String key(String namespace, String name) {
+        return namespace + "/" + name;
+    }
+
+    /**
+     * The version of the given resource and referenced ConfigMaps, or null if the resource has no generation.
+     */
+    static String version(HasMetadata resource, ConfigMap... referencedConfigMaps) {
+        ObjectMeta metadata = resource.getMetadata();
+        if (metadata.getGeneration() == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder()
+                .append(metadata.getUid()).append(':')
+                .append(metadata.getGeneration()).append(':')
+                .append(metadata.getLabels());
+        for (ConfigMap configMap : referencedConfigMaps) {
+            sb.append(':').append(configMap == null ? null : configMap.getMetadata().getResourceVersion());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the value cached for the given resource if it was generated from the same version of the resource
+     * and referenced ConfigMaps, otherwise generates and caches a new value.
+     * @param resource The custom resource.
+     * @param generator Generates the value from the resource.
+     * @param referencedConfigMaps The ConfigMaps referenced by the resource, which can be null if they don't exist.
+     * @return The value.
+     */
+    V get(HasMetadata resource, Supplier<V> generator, ConfigMap... referencedConfigMaps) {
+        String namespace = resource.getMetadata().getNamespace();
+        String name = resource.getMetadata().getName();
+        String version = version(resource, referencedConfigMaps);
+        Entry<V> entry = entries.get(key(namespace, name));
+        if (version != null && entry != null && Objects.equals(version, entry.version)) {
+            log.trace("Reusing the model generated from {}/{} version {}", namespace, name, version);
+            return entry.value;
+        }
+        V value = generator.get();
+        if (version != null) {
+            entries.put(key(namespace, name), new Entry<>(version, value));
+        } else {
+            entries.remove(key(namespace, name));
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value cached for the resource with the given namespace and name.
+     */
+    void invalidate(String namespace, String name) {
+        entries.remove(key(namespace, name));
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.strimzi.operator.common.OperatorMetrics;
+import io.strimzi.operator.common.Reconciliation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Collects the reasons for restarting the pods of a StatefulSet from the steps of a reconciliation,
+ * so that each pod is restarted once for all the reasons known at the time it is rolled.
+ * <p>
+ * Reasons requested for all the pods, such as a manual rolling update, are satisfied by any restart of a pod
+ * during the reconciliation, whichever step does it. The other reasons are worked out from the state of each pod
+ * by the step rolling the pods, and passed to {@link #toRestart(Function, BooleanSupplier)}.
+ * Every restart is logged with its reasons when it is decided, and counted with them by
+ * {@link OperatorMetrics#podRestart(String, String)} once it has been done, as reported to {@link #restarted()}.
+ */
+class PodRestartPlan {
+
+    private static final Logger log = LogManager.getLogger(PodRestartPlan.class.getName());
+
+    enum Reason {
+        CA_KEY_REPLACED("ca-key-replaced", "trust new CA certificate signed by new key", true),
+        MANUAL_ROLLING_UPDATE("manual-rolling-update", "manual rolling update", true),
+        MANUAL_POD_CLEANING("manual-pod-cleaning", "manual pod cleaning", true),
+        KAFKA_VERSION_CHANGE("kafka-version-change", "Kafka version change", true),
+        POD_GENERATION("pod-generation", "Pod has old generation", false),
+        CA_CERT_RENEWED("ca-cert-renewed", "CA certificate renewal", false),
+        CA_CERT_REMOVED("ca-cert-removed", "CA certificate removal", false),
+        CA_CERT_GENERATION("ca-cert-generation", "Pod has old CA certificate generation", false),
+        ANCILLARY_CM_CHANGE("ancillary-cm-change", "ancillary CM change", false);
+
+        private final String tag;
+        private final String description;
+        private final boolean ignoresMaintenanceWindows;
+
+        Reason(String tag, String description, boolean ignoresMaintenanceWindows) {
+            this.tag = tag;
+            this.description = description;
+            this.ignoresMaintenanceWindows = ignoresMaintenanceWindows;
+        }
+
+        /** Whether a pod is restarted for this reason even outside of the maintenance time windows. */
+        boolean ignoresMaintenanceWindows() {
+            return ignoresMaintenanceWindows;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private final Reconciliation reconciliation;
+    private final String component;
+    private final EnumSet<Reason> requested = EnumSet.noneOf(Reason.class);
+    private final Map<String, EnumSet<Reason>> restarting = new HashMap<>();
+    private final Set<String> restarted = new HashSet<>();
+
+    /**
+     * @param reconciliation The reconciliation.
+     * @param component The component the pods belong to, as used in the logs and metrics.
+     */
+    PodRestartPlan(Reconciliation reconciliation, String component) {
+        this.reconciliation = reconciliation;
+        this.component = component;
+    }
+
+    /**
+     * Requests the restart of all the pods for the given reason.
+     * The request is satisfied for the pods which have already been restarted during this reconciliation.
+     */
+    void restartAll(Reason reason) {
+        requested.add(reason);
+    }
+
+    /** Whether the restart of all the pods has been requested for the given reason. */
+    boolean isRequested(Reason reason) {
+        return requested.contains(reason);
+    }
+
+    /** Whether the pod with the given name has been restarted during this reconciliation. */
+    boolean isRestarted(String podName) {
+        return restarted.contains(podName);
+    }
+
+    /**
+     * The reasons requested for all the pods which are still to be satisfied for the pod with the given name.
+     */
+    EnumSet<Reason> requestedFor(String podName) {
+        return restarted.contains(podName) ? EnumSet.noneOf(Reason.class) : EnumSet.copyOf(requested);
+    }
+
+    /**
+     * Records that the given pod has been restarted for the reasons it was last decided to restart it for
+     * by a predicate from {@link #toRestart(Function, BooleanSupplier)}.
+     */
+    void restarted(String podName) {
+        restarted.add(podName);
+        EnumSet<Reason> reasons = restarting.remove(podName);
+        if (reasons != null) {
+            for (Reason reason : reasons) {
+                OperatorMetrics.podRestart(component, reason.tag);
+            }
+        }
+    }
+
+    /**
+     * A consumer of the pods which have been restarted by the rolling update using a predicate from
+     * {@link #toRestart(Function, BooleanSupplier)}, which calls {@link #restarted(String)}.
+     */
+    Consumer<Pod> restarted() {
+        return pod -> restarted(pod.getMetadata().getName());
+    }
+
+    /**
+     * A predicate for rolling the pods, which restarts a pod for the reasons requested for all the pods and
+     * for the given reasons specific to the pod.
+     * A pod is restarted only for the reasons which don't ignore the maintenance time windows if the windows
+     * are satisfied.
+     * The restarts are only recorded once they have been done, as reported to {@link #restarted()}, since
+     * the predicate may be tested more than once for a pod, and the restart may fail.
+     *
+     * @param podReasons The reasons specific to a pod.
+     * @param maintenanceTimeWindowsSatisfied Whether the maintenance time windows are satisfied.
+     * @return The predicate.
+     */
+    Predicate<Pod> toRestart(Function<Pod, EnumSet<Reason>> podReasons, BooleanSupplier maintenanceTimeWindowsSatisfied) {
+        return pod -> {
+            String podName = pod.getMetadata().getName();
+            EnumSet<Reason> reasons = requestedFor(podName);
+            reasons.addAll(podReasons.apply(pod));
+            if (reasons.isEmpty()) {
+                return false;
+            }
+            boolean restart = reasons.stream().anyMatch(Reason::ignoresMaintenanceWindows)
+                    || maintenanceTimeWindowsSatisfied.getAsBoolean();
+            if (restart) {
+                log.info("{}: Rolling {} pod {} due to {}", reconciliation, component, podName, reasons);
+                restarting.put(podName, reasons);
+            } else {
+                log.debug("{}: Potential {} pod {} rolling due to {} but maintenance time windows not satisfied",
+                        reconciliation, component, podName, reasons);
+            }
+            return restart;
+        };
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Walks two JSON trees side by side and reports the paths at which they differ, at the same granularity as
+ * the operations of a JSON patch: a field present on one side only is reported at the path of the field,
+ * extra array elements at the path of the element, and anything else which isn't equal at the deepest path
+ * where both sides are still objects or arrays.
+ * Unlike building the JSON patch, no path strings or patch nodes are created for the parts of the trees
+ * which are equal.
+ */
+public class JsonTreeDiff {
+
+    /**
+     * Receives the differences found by {@link #diff(JsonNode, JsonNode, Paths, Handler)}.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * @param path The JSON pointer to the difference.
+         * @param current The value in the current tree, or null if it's missing there.
+         * @param desired The value in the desired tree, or null if it's missing there.
+         * @param ignorable Whether the path is one of the given ignorable paths.
+         */
+        void differs(String path, JsonNode current, JsonNode desired, boolean ignorable);
+    }
+
+    /**
+     * A set of paths compiled into a trie of path segments.
+     * A path is matched exactly, i.e. a difference below one of the paths doesn't match it.
+     */
+    public static class Paths {
+        /** The segment which matches any array index, like the regular expression {@code [0-9]+}. */
+        public static final String ANY_INDEX = "[0-9]+";
+
+        public static final Paths NONE = compile();
+
+        private final Map<String, Paths> children = new HashMap<>(4);
+        private Paths anyIndex;
+        private boolean terminal;
+
+        private Paths() { }
+
+        /**
+         * Compiles the given paths, which are JSON pointers optionally using {@link #ANY_INDEX} as a segment.
+         */
+        public static Paths compile(String... paths) {
+            Paths root = new Paths();
+            for (String path : paths) {
+                if (!path.startsWith("/")) {
+                    throw new IllegalArgumentException("Not a JSON pointer: " + path);
+                }
+                Paths node = root;
+                for (String segment : path.substring(1).split("/")) {
+                    if (ANY_INDEX.equals(segment)) {
+                        if (node.anyIndex == null) {
+                            node.anyIndex = new Paths();
+                        }
+                        node = node.anyIndex;
+                    } else {
+                        node = node.children.computeIfAbsent(segment, s -> new Paths());
+                    }
+                }
+                node.terminal = true;
+            }
+            return root;
+        }
+
+        private Paths field(String name) {
+            return children.get(name);
+        }
+
+        private Paths index() {
+            return anyIndex;
+        }
+    }
+
+    private final Handler handler;
+    private Object[] segments = new Object[16];
+    private int depth = 0;
+
+    private JsonTreeDiff(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Calls the given handler for each difference between the given trees.
+     * @param current The current tree.
+     * @param desired The desired tree.
+     * @param ignorable The paths for which differences are reported as ignorable.
+     * @param handler The handler.
+     */
+    public static void diff(JsonNode current, JsonNode desired, Paths ignorable, Handler handler) {
+        new JsonTreeDiff(handler).diff(current, desired, ignorable);
+    }
+
+    private void diff(JsonNode current, JsonNode desired, Paths node) {
+        if (current.isObject() && desired.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode desiredValue = desired.get(field.getKey());
+                push(field.getKey());
+                Paths child = node == null ? null : node.field(field.getKey());
+                if (desiredValue == null) {
+                    report(field.getValue(), null, child);
+                } else {
+                    diff(field.getValue(), desiredValue, child);
+                }
+                pop();
+            }
+            Iterator<String> names = desired.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!current.has(name)) {
+                    push(name);
+                    report(null, desired.get(name), node == null ? null : node.field(name));
+                    pop();
+                }
+            }
+        } else if (current.isArray() && desired.isArray()) {
+            Paths child = node == null ? null : node.index();
+            int size = Math.max(current.size(), desired.size());
+            for (int i = 0; i < size; i++) {
+                push(i);
+                if (i >= current.size()) {
+                    report(null, desired.get(i), child);
+                } else if (i >= desired.size()) {
+                    report(current.get(i), null, child);
+                } else {
+                    diff(current.get(i), desired.get(i), child);
+                }
+                pop();
+            }
+        } else if (!current.equals(desired)) {
+            report(current, desired, node);
+        }
+    }
+
+    private void push(Object segment) {
+        if (depth == segments.length) {
+            segments = Arrays.copyOf(segments, depth * 2);
+        }
+        segments[depth++] = segment;
+    }
+
+    private void pop() {
+        segments[--depth] = null;
+    }
+
+    private void report(JsonNode current, JsonNode desired, Paths node) {
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            path.append('/');
+            if (segments[i] instanceof String) {
+                // Escape the field name as required by RFC 6901
+                path.append(((String) segments[i]).replace("~", "~0").replace("/", "~1"));
+            } else {
+                path.append(segments[i]);
+            }
+        }
+        handler.differs(path.toString(), current, desired, node != null && node.terminal);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.certs.CertAndKey;
+import io.strimzi.operator.cluster.ClusterOperator;
+import io.strimzi.operator.cluster.model.Ca;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.config.SslConfigs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates the Kafka Admin API clients of the cluster operator.
+ * <p>
+ * The cluster operator connects to the replication listener of the brokers as a TLS client, with its own
+ * certificate signed by the cluster CA, which makes it a super user of the brokers.
+ */
+class KafkaAdminClients {
+
+    private static final Logger log = LogManager.getLogger(KafkaAdminClients.class);
+
+    private static final int REPLICATION_PORT = 9091;
+    private static final Pattern PEM = Pattern.compile("^---*BEGIN.*---*$(.*)^---*END.*---*$.*", Pattern.MULTILINE | Pattern.DOTALL);
+
+    /**
+     * A function of an Admin API client.
+     */
+    interface AdminCall<T> {
+        T call(AdminClient adminClient) throws Exception;
+    }
+
+    private final SecretOperator secretOperations;
+    private final long operationTimeoutMs;
+
+    /**
+     * Constructor
+     *
+     * @param secretOperations For getting the certificates of the cluster operator and of the cluster CA
+     * @param operationTimeoutMs The timeout of the requests of the clients
+     */
+    KafkaAdminClients(SecretOperator secretOperations, long operationTimeoutMs) {
+        this.secretOperations = secretOperations;
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Calls the given function with an Admin API client connected to the brokers of the given cluster,
+     * which is closed when the function returns.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param call The function
+     * @param <T> The type of the result of the function
+     * @return The result of the function
+     * @throws Exception If the client can't be created or the function fails
+     */
+    <T> T call(String namespace, String cluster, AdminCall<T> call) throws Exception {
+        Secret coSecret = secretOperations.get(namespace, ClusterOperator.secretName(cluster));
+        Secret caCertSecret = secretOperations.get(namespace, KafkaResources.clusterCaCertificateSecretName(cluster));
+        if (coSecret == null || caCertSecret == null) {
+            throw new IllegalStateException("The certificates of the cluster operator or of the cluster CA of cluster "
+                    + cluster + " in namespace " + namespace + " are missing");
+        }
+        String password = new BigInteger(130, new SecureRandom()).toString(32);
+        File keyStore = null;
+        File trustStore = null;
+        try {
+            CertificateFactory x509 = CertificateFactory.getInstance("X.509");
+            X509Certificate caCert = (X509Certificate) x509.generateCertificate(
+                    new ByteArrayInputStream(Base64.getDecoder().decode(caCertSecret.getData().get("ca.crt"))));
+            CertAndKey coCertAndKey = Ca.asCertAndKey(coSecret, "cluster-operator.key", "cluster-operator.crt");
+            keyStore = store(keyStore(x509, coCertAndKey, caCert, password.toCharArray()), password.toCharArray());
+            trustStore = store(trustStore(caCert, password.toCharArray()), password.toCharArray());
+
+            Properties props = new Properties();
+            props.setProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                    KafkaResources.bootstrapServiceName(cluster) + "." + namespace + ".svc:" + REPLICATION_PORT);
+            props.setProperty(AdminClientConfig.SECURITY_PROTOCOL_CONFIG, "SSL");
+            props.setProperty(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, String.valueOf(operationTimeoutMs));
+            props.setProperty(SslConfigs.SSL_KEYSTORE_TYPE_CONFIG, "PKCS12");
+            props.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG, keyStore.getAbsolutePath());
+            props.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, password);
+            props.setProperty(SslConfigs.SSL_TRUSTSTORE_TYPE_CONFIG, "PKCS12");
+            props.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, trustStore.getAbsolutePath());
+            props.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, password);
+
+            try (AdminClient adminClient = AdminClient.create(props)) {
+                return call.call(adminClient);
+            }
+        } finally {
+            delete(keyStore);
+            delete(trustStore);
+        }
+    }
+
+    private static KeyStore keyStore(CertificateFactory x509, CertAndKey coCertAndKey, X509Certificate caCert,
+                                     char[] password) throws GeneralSecurityException, IOException {
+        Matcher matcher = PEM.matcher(new String(coCertAndKey.key(), StandardCharsets.ISO_8859_1));
+        if (!matcher.find()) {
+            throw new IllegalStateException("Bad client (CO) key. Key misses BEGIN or END markers");
+        }
+        PrivateKey coKey = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(
+                Base64.getMimeDecoder().decode(matcher.group(1))));
+        X509Certificate coCert = (X509Certificate) x509.generateCertificate(new ByteArrayInputStream(coCertAndKey.cert()));
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, password);
+        keyStore.setEntry("cluster-operator",
+                new KeyStore.PrivateKeyEntry(coKey, new Certificate[]{coCert, caCert}),
+                new KeyStore.PasswordProtection(password));
+        return keyStore;
+    }
+
+    private static KeyStore trustStore(X509Certificate caCert, char[] password) throws GeneralSecurityException, IOException {
+        KeyStore trustStore = KeyStore.getInstance("PKCS12");
+        trustStore.load(null, password);
+        trustStore.setEntry("cluster-ca", new KeyStore.TrustedCertificateEntry(caCert), null);
+        return trustStore;
+    }
+
+    private static File store(KeyStore store, char[] password) throws GeneralSecurityException, IOException {
+        File file = File.createTempFile("kafka-admin", ".p12");
+        try (OutputStream out = new FileOutputStream(file)) {
+            store.store(out, password);
+        }
+        return file;
+    }
+
+    private static void delete(File file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.warn("Could not delete {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Updates the dynamically updatable configuration of running Kafka brokers through the Kafka Admin API,
+ * so that the brokers don't have to be restarted for it.
+ * <p>
+ * The cluster operator connects to the brokers as a super user (see {@link KafkaAdminClients}).
+ */
+public class KafkaBrokerConfigOperator {
+
+    private static final Logger log = LogManager.getLogger(KafkaBrokerConfigOperator.class);
+
+    private final Vertx vertx;
+    private final KafkaAdminClients adminClients;
+    private final long operationTimeoutMs;
+
+    /**
+     * Constructor
+     *
+     * @param vertx The Vertx instance
+     * @param secretOperations For getting the certificates of the cluster operator and of the cluster CA
+     * @param operationTimeoutMs The timeout of the updates
+     */
+    public KafkaBrokerConfigOperator(Vertx vertx, SecretOperator secretOperations, long operationTimeoutMs) {
+        this.vertx = vertx;
+        this.adminClients = new KafkaAdminClients(secretOperations, operationTimeoutMs);
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Replaces the cluster-wide dynamic configuration of the brokers of the given cluster.
+     * As with the Kafka 2.0 Admin API, the options which are not given are removed from the dynamic configuration,
+     * so that the brokers go back to their static configuration for them.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param clusterWide The cluster-wide dynamic options
+     * @return A future which completes when the brokers have accepted the configuration
+     */
+    public Future<Void> alterConfigs(String namespace, String cluster, Map<String, String> clusterWide) {
+        Map<ConfigResource, Config> configs = singletonMap(new ConfigResource(ConfigResource.Type.BROKER, ""), config(clusterWide));
+        Future<Void> result = Future.future();
+        // Not ordered on the caller's context, so that the updates of independent clusters don't wait for each other
+        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Void>executeBlocking(
+            future -> {
+                try {
+                    alter(namespace, cluster, configs);
+                    future.complete();
+                } catch (Throwable e) {
+                    future.fail(e);
+                }
+            },
+            false,
+            result.completer());
+        return result;
+    }
+
+    private void alter(String namespace, String cluster, Map<ConfigResource, Config> configs) throws Exception {
+        log.debug("Altering the dynamic configuration of {} of cluster {} in namespace {}", configs.keySet(), cluster, namespace);
+        adminClients.call(namespace, cluster,
+            adminClient -> adminClient.alterConfigs(configs).all().get(operationTimeoutMs, TimeUnit.MILLISECONDS));
+    }
+
+    private static Config config(Map<String, String> options) {
+        List<ConfigEntry> entries = new ArrayList<>(options.size());
+        options.forEach((name, value) -> entries.add(new ConfigEntry(name, value)));
+        return new Config(entries);
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.ExecListener;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import okhttp3.Response;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.requests.DescribeLogDirsResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Rebalances the partitions of a Kafka cluster across its brokers, so that the brokers added by a scale up get
+ * their share of the partitions and the brokers removed by a scale down don't have any.
+ * <p>
+ * The reassignment is planned by the {@link RebalancePlanner} from the replicas and the sizes of the partitions,
+ * which are given by the Kafka Admin API (see {@link KafkaAdminClients}). The Kafka 2.0 Admin API can't reassign
+ * partitions, so the reassignment is executed, with a replication throttle, and verified by running
+ * {@code kafka-reassign-partitions.sh} in the first broker pod, which can connect to Zookeeper.
+ * The reassignments are done in batches of at most {@link #MAX_PARTITIONS_PER_REASSIGNMENT} partitions,
+ * planning the next batch when the previous one is complete, with the sizes of the partitions at that time.
+ * <p>
+ * The state of the rebalance is kept in a map (the data of a ConfigMap, see
+ * {@link KafkaResources#kafkaRebalanceConfigMapName(String)}) which is updated by each call to
+ * {@link #rebalance(String, String, Map, Integer, long)}, so that the rebalance proceeds across the reconciliations
+ * of the cluster and the users can follow it.
+ */
+public class KafkaRebalanceOperator {
+
+    private static final Logger log = LogManager.getLogger(KafkaRebalanceOperator.class);
+
+    /** The state of the rebalance: {@link #STATE_PENDING}, {@link #STATE_IN_PROGRESS} or {@link #STATE_COMPLETE}. */
+    public static final String STATE = "state";
+    /** The number of brokers the partitions are rebalanced on, which are the brokers 0 to brokers - 1. */
+    public static final String BROKERS = "brokers";
+    /** The number of partitions which have to be reassigned, according to the last plan. */
+    public static final String PLANNED_PARTITIONS = "planned-partitions";
+    /** The number of bytes which have to be copied to other brokers, according to the last plan. */
+    public static final String PLANNED_BYTES = "planned-bytes";
+    /** The number of partitions of the reassignment in progress. */
+    public static final String REASSIGNED_PARTITIONS = "reassigned-partitions";
+    /** The number of partitions of the reassignment in progress which are still being reassigned. */
+    public static final String REMAINING_PARTITIONS = "remaining-partitions";
+    /** The reassignment in progress, as given to {@code kafka-reassign-partitions.sh}. */
+    public static final String REASSIGNMENT = "reassignment.json";
+
+    public static final String STATE_PENDING = "Pending";
+    public static final String STATE_IN_PROGRESS = "InProgress";
+    public static final String STATE_COMPLETE = "Complete";
+
+    static final int MAX_PARTITIONS_PER_REASSIGNMENT = 250;
+
+    // Runs kafka-reassign-partitions.sh with the reassignment given as first argument and the options given as the
+    // other arguments. The tool mustn't get the JVM options of the broker, such as its heap size or its metrics agent.
+    private static final String REASSIGN_PARTITIONS_SCRIPT =
+            "unset KAFKA_OPTS KAFKA_JMX_OPTS JMX_PORT KAFKA_LOG4J_OPTS; export KAFKA_HEAP_OPTS=-Xmx256m; "
+            + "file=$(mktemp) && printf '%s' \"$1\" > \"$file\" && shift && "
+            + "$KAFKA_HOME/bin/kafka-reassign-partitions.sh --zookeeper localhost:2181 --reassignment-json-file \"$file\" \"$@\" 2>&1; "
+            + "rm -f \"$file\"";
+
+    private final Vertx vertx;
+    private final KubernetesClient client;
+    private final KafkaAdminClients adminClients;
+    private final long operationTimeoutMs;
+
+    /**
+     * Constructor
+     *
+     * @param vertx The Vertx instance
+     * @param client The Kubernetes client, for running {@code kafka-reassign-partitions.sh} in the broker pods
+     * @param secretOperations For getting the certificates of the cluster operator and of the cluster CA
+     * @param operationTimeoutMs The timeout of the Admin API requests and of the runs of {@code kafka-reassign-partitions.sh}
+     */
+    public KafkaRebalanceOperator(Vertx vertx, KubernetesClient client, SecretOperator secretOperations, long operationTimeoutMs) {
+        this.vertx = vertx;
+        this.client = client;
+        this.adminClients = new KafkaAdminClients(secretOperations, operationTimeoutMs);
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Whether the given rebalance is complete, the partitions being balanced across its brokers.
+     *
+     * @param status The state of the rebalance, or null if no rebalance has been requested.
+     * @return true if there is no rebalance pending or in progress.
+     */
+    public static boolean isComplete(Map<String, String> status) {
+        return status == null || STATE_COMPLETE.equals(status.get(STATE));
+    }
+
+    /**
+     * Moves the rebalance of the given cluster forward: checks the progress of the reassignment in progress and,
+     * if there isn't one, plans and starts the next one.
+     *
+     * @param namespace The namespace of the cluster
+     * @param cluster The name of the cluster
+     * @param status The current state of the rebalance, or null if no rebalance has been requested
+     * @param brokers The number of brokers to rebalance the partitions on, to request a rebalance,
+     *                or null to carry on with the rebalance which has been requested, if any.
+     *                A new rebalance starts once the reassignment in progress is complete.
+     * @param throttle The replication throttle of the reassignments, in bytes per second
+     * @return A future with the new state of the rebalance, or null if no rebalance has been requested
+     */
+    public Future<Map<String, String>> rebalance(String namespace, String cluster, Map<String, String> status,
+                                                 Integer brokers, long throttle) {
+        if (status == null && brokers == null) {
+            return Future.succeededFuture();
+        }
+        Future<Map<String, String>> result = Future.future();
+        // Not ordered on the caller's context, so that the rebalances of independent clusters don't wait for each other
+        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Map<String, String>>executeBlocking(
+            future -> {
+                try {
+                    future.complete(rebalanceBlocking(namespace, cluster, status, brokers, throttle));
+                } catch (Throwable e) {
+                    future.fail(e);
+                }
+            },
+            false,
+            result.completer());
+        return result;
+    }
+
+    private Map<String, String> rebalanceBlocking(String namespace, String cluster, Map<String, String> status,
+                                                  Integer brokers, long throttle) throws Exception {
+        Map<String, String> next = status != null ? new HashMap<>(status) : new HashMap<>();
+        if (brokers != null) {
+            next.put(BROKERS, String.valueOf(brokers));
+            if (!STATE_IN_PROGRESS.equals(next.get(STATE))) {
+                next.put(STATE, STATE_PENDING);
+            }
+        }
+
+        if (STATE_IN_PROGRESS.equals(next.get(STATE))) {
+            int remaining = verify(namespace, cluster, next.get(REASSIGNMENT));
+            if (remaining > 0) {
+                log.info("Rebalance of cluster {} in namespace {}: {} of {} partitions are still being reassigned",
+                        cluster, namespace, remaining, next.get(REASSIGNED_PARTITIONS));
+                next.put(REMAINING_PARTITIONS, String.valueOf(remaining));
+                return next;
+            }
+            log.info("Rebalance of cluster {} in namespace {}: {} partitions have been reassigned",
+                    cluster, namespace, next.get(REASSIGNED_PARTITIONS));
+            // Plan again, with the current sizes of the partitions, in case there are more partitions to reassign
+            next.put(STATE, STATE_PENDING);
+        }
+
+        if (STATE_PENDING.equals(next.get(STATE))) {
+            start(namespace, cluster, next, Integer.parseInt(next.get(BROKERS)), throttle);
+        }
+        return next;
+    }
+
+    private void start(String namespace, String cluster, Map<String, String> next, int brokers, long throttle) throws Exception {
+        Plan plan = adminClients.call(namespace, cluster, adminClient -> plan(adminClient, brokers));
+        if (plan == null) {
+            log.info("Rebalance of cluster {} in namespace {}: waiting for the {} brokers to be up", cluster, namespace, brokers);
+            return;
+        }
+        next.remove(REASSIGNMENT);
+        next.remove(REASSIGNED_PARTITIONS);
+        next.remove(REMAINING_PARTITIONS);
+        next.put(PLANNED_PARTITIONS, String.valueOf(plan.partitions.size()));
+        next.put(PLANNED_BYTES, String.valueOf(plan.bytes));
+        if (plan.partitions.isEmpty()) {
+            log.info("Rebalance of cluster {} in namespace {}: the partitions are balanced across the {} brokers",
+                    cluster, namespace, brokers);
+            next.put(STATE, STATE_COMPLETE);
+            return;
+        }
+
+        Map<TopicPartition, List<Integer>> batch = new HashMap<>();
+        for (Map.Entry<TopicPartition, List<Integer>> entry : plan.partitions.entrySet()) {
+            if (batch.size() == MAX_PARTITIONS_PER_REASSIGNMENT) {
+                break;
+            }
+            batch.put(entry.getKey(), entry.getValue());
+        }
+        String reassignment = reassignmentJson(batch);
+        String output = reassignPartitions(namespace, cluster, reassignment, "--execute", "--throttle", String.valueOf(throttle));
+        if (!output.contains("Successfully started reassignment of partitions")) {
+            throw new IllegalStateException("Could not start the reassignment of the partitions of cluster " + cluster
+                    + " in namespace " + namespace + ": " + output);
+        }
+        log.info("Rebalance of cluster {} in namespace {}: started the reassignment of {} of the {} partitions to reassign",
+                cluster, namespace, batch.size(), plan.partitions.size());
+        next.put(STATE, STATE_IN_PROGRESS);
+        next.put(REASSIGNMENT, reassignment);
+        next.put(REASSIGNED_PARTITIONS, String.valueOf(batch.size()));
+        next.put(REMAINING_PARTITIONS, String.valueOf(batch.size()));
+    }
+
+    /**
+     * The partitions to reassign and the number of bytes to copy.
+     */
+    private static class Plan {
+        private final Map<TopicPartition, List<Integer>> partitions;
+        private final long bytes;
+
+        Plan(Map<TopicPartition, List<Integer>> partitions, long bytes) {
+            this.partitions = partitions;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Plans the reassignment of the partitions onto the brokers 0 to brokers - 1,
+     * or returns null if some of these brokers are not part of the cluster yet.
+     */
+    private Plan plan(AdminClient adminClient, int brokers) throws Exception {
+        Collection<Node> nodes = adminClient.describeCluster().nodes().get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        List<Integer> nodeIds = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            nodeIds.add(node.id());
+            if (node.id() < brokers) {
+                brokerRacks.put(node.id(), node.rack());
+            }
+        }
+        if (brokerRacks.size() < brokers) {
+            return null;
+        }
+
+        Set<String> topics = adminClient.listTopics(new ListTopicsOptions().listInternal(true)).names()
+                .get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, List<Integer>> current = new HashMap<>();
+        for (TopicDescription description : adminClient.describeTopics(topics).all().get(operationTimeoutMs, TimeUnit.MILLISECONDS).values()) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                List<Integer> replicas = new ArrayList<>(partition.replicas().size());
+                for (Node replica : partition.replicas()) {
+                    replicas.add(replica.id());
+                }
+                current.put(new TopicPartition(description.name(), partition.partition()), replicas);
+            }
+        }
+
+        // The size of a partition is the size of its largest replica
+        Map<TopicPartition, Long> sizes = new HashMap<>();
+        for (Map<String, DescribeLogDirsResponse.LogDirInfo> logDirs : adminClient.describeLogDirs(nodeIds).all()
+                .get(operationTimeoutMs, TimeUnit.MILLISECONDS).values()) {
+            for (DescribeLogDirsResponse.LogDirInfo logDir : logDirs.values()) {
+                for (Map.Entry<TopicPartition, DescribeLogDirsResponse.ReplicaInfo> replica : logDir.replicaInfos.entrySet()) {
+                    sizes.merge(replica.getKey(), replica.getValue().size, Math::max);
+                }
+            }
+        }
+
+        Map<TopicPartition, List<Integer>> partitions = RebalancePlanner.plan(brokerRacks, current, sizes);
+        long bytes = 0;
+        for (Map.Entry<TopicPartition, List<Integer>> entry : partitions.entrySet()) {
+            for (Integer replica : entry.getValue()) {
+                if (!current.get(entry.getKey()).contains(replica)) {
+                    bytes += sizes.getOrDefault(entry.getKey(), 0L);
+                }
+            }
+        }
+        return new Plan(partitions, bytes);
+    }
+
+    /**
+     * Returns the reassignment of the given partitions in the format of {@code kafka-reassign-partitions.sh}.
+     */
+    static String reassignmentJson(Map<TopicPartition, List<Integer>> partitions) {
+        JsonArray array = new JsonArray();
+        for (Map.Entry<TopicPartition, List<Integer>> entry : partitions.entrySet()) {
+            array.add(new JsonObject()
+                    .put("topic", entry.getKey().topic())
+                    .put("partition", entry.getKey().partition())
+                    .put("replicas", new JsonArray(new ArrayList<>(entry.getValue()))));
+        }
+        return new JsonObject().put("version", 1).put("partitions", array).encode();
+    }
+
+    /**
+     * Verifies the given reassignment, which removes its throttle once it is complete.
+     *
+     * @return The number of partitions which are still being reassigned.
+     */
+    private int verify(String namespace, String cluster, String reassignment) throws Exception {
+        String output = reassignPartitions(namespace, cluster, reassignment, "--verify");
+        if (!output.contains("Status of partition reassignment")) {
+            throw new IllegalStateException("Could not verify the reassignment of the partitions of cluster " + cluster
+                    + " in namespace " + namespace + ": " + output);
+        }
+        return remainingPartitions(output);
+    }
+
+    /**
+     * Returns the number of partitions which are still being reassigned, according to the output of
+     * {@code kafka-reassign-partitions.sh --verify}. The partitions whose reassignment failed will be
+     * planned again.
+     */
+    static int remainingPartitions(String verifyOutput) {
+        int remaining = 0;
+        for (String line : verifyOutput.split("\n")) {
+            if (line.endsWith("is still in progress")) {
+                remaining++;
+            } else if (line.endsWith("failed")) {
+                log.warn("{}", line);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Runs {@code kafka-reassign-partitions.sh} in the first broker pod of the cluster.
+     *
+     * @return The output of the tool.
+     */
+    private String reassignPartitions(String namespace, String cluster, String reassignment, String... options) throws Exception {
+        List<String> command = new ArrayList<>(asList("/bin/sh", "-c", REASSIGN_PARTITIONS_SCRIPT, "sh", reassignment));
+        command.addAll(asList(options));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (ExecWatch watch = client.pods().inNamespace(namespace).withName(KafkaResources.kafkaPodName(cluster, 0))
+                .inContainer(KafkaCluster.KAFKA_NAME)
+                .writingOutput(output)
+                .usingListener(new ExecListener() {
+                    @Override
+                    public void onOpen(Response response) {
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t, Response response) {
+                        failure.set(t);
+                        closed.countDown();
+                    }
+
+                    @Override
+                    public void onClose(int code, String reason) {
+                        closed.countDown();
+                    }
+                })
+                .exec(command.toArray(new String[0]))) {
+            if (!closed.await(operationTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("kafka-reassign-partitions.sh " + options[0] + " didn't complete within "
+                        + operationTimeoutMs + "ms in pod " + KafkaResources.kafkaPodName(cluster, 0));
+            }
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Could not run kafka-reassign-partitions.sh " + options[0] + " in pod "
+                    + KafkaResources.kafkaPodName(cluster, 0), failure.get());
+        }
+        String result = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        log.debug("kafka-reassign-partitions.sh {} in pod {}: {}", options[0], KafkaResources.kafkaPodName(cluster, 0), result);
+        return result;
+    }
+}
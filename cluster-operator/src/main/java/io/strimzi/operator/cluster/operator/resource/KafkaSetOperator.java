@@ -4,15 +4,29 @@
  */
 package io.strimzi.operator.cluster.operator.resource;
 
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.model.KafkaConfiguration;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 
 /**
- * Specialization of {@link StatefulSetOperator} for StatefulSets of Kafka brokers
+ * Specialization of {@link StatefulSetOperator} for StatefulSets of Kafka brokers.
+ * <p>
+ * Changes to the broker configuration which only affect dynamically updatable options don't increment
+ * the generation of the StatefulSet, since they are applied to the running brokers without restarting them.
  */
 public class KafkaSetOperator extends StatefulSetOperator {
 
@@ -32,8 +46,16 @@ public class KafkaSetOperator extends StatefulSetOperator {
     protected boolean shouldIncrementGeneration(StatefulSet current, StatefulSet desired) {
         StatefulSetDiff diff = new StatefulSetDiff(current, desired);
         if (diff.changesVolumeClaimTemplates()) {
-            log.warn("Changing Kafka storage type or size is not possible. The changes will be ignored.");
-            diff = revertStorageChanges(current, desired);
+            if (addsVolumeClaimTemplates(current, desired)) {
+                log.info("Adding volumes to the Kafka JBOD storage");
+            } else {
+                log.warn("Changing Kafka storage type or size is not possible. The changes will be ignored.");
+                diff = revertStorageChanges(current, desired);
+            }
+        }
+        if (!diff.isEmpty() && needsRollingUpdate(diff) && changesOnlyDynamicConfiguration(current, desired)) {
+            log.debug("Changed only dynamically updatable Kafka configuration => no rolling update needed for it");
+            diff = new StatefulSetDiff(current, withConfiguration(desired, configuration(current)));
         }
         return !diff.isEmpty() && needsRollingUpdate(diff);
     }
@@ -49,4 +71,106 @@ public class KafkaSetOperator extends StatefulSetOperator {
         }
         return false;
     }
+
+    /**
+     * Whether the desired StatefulSet only adds volume claim templates to the current ones,
+     * as when volumes are added to a JBOD storage.
+     */
+    static boolean addsVolumeClaimTemplates(StatefulSet current, StatefulSet desired) {
+        Set<String> currentNames = new HashSet<>();
+        for (PersistentVolumeClaim template : current.getSpec().getVolumeClaimTemplates()) {
+            currentNames.add(template.getMetadata().getName());
+        }
+        List<PersistentVolumeClaim> existing = new ArrayList<>();
+        for (PersistentVolumeClaim template : desired.getSpec().getVolumeClaimTemplates()) {
+            if (currentNames.contains(template.getMetadata().getName())) {
+                existing.add(template);
+            }
+        }
+        if (currentNames.isEmpty() || existing.size() != currentNames.size()
+                || existing.size() == desired.getSpec().getVolumeClaimTemplates().size()) {
+            return false;
+        }
+        StatefulSet withExisting = new StatefulSetBuilder(desired)
+                .editSpec()
+                    .withVolumeClaimTemplates(existing)
+                .endSpec()
+                .build();
+        return !new StatefulSetDiff(current, withExisting).changesVolumeClaimTemplates();
+    }
+
+    /**
+     * Also keeps the current data directories of the brokers, so that they match the current volumes.
+     */
+    @Override
+    protected StatefulSetDiff revertStorageChanges(StatefulSet current, StatefulSet desired) {
+        EnvVar currentDataDirs = envVar(current, KafkaCluster.ENV_VAR_KAFKA_DATA_DIRS);
+        for (Container container : desired.getSpec().getTemplate().getSpec().getContainers()) {
+            if (container.getEnv() != null) {
+                container.getEnv().removeIf(envVar -> KafkaCluster.ENV_VAR_KAFKA_DATA_DIRS.equals(envVar.getName()));
+                if (currentDataDirs != null && envVar(current, container.getName(), KafkaCluster.ENV_VAR_KAFKA_DATA_DIRS) != null) {
+                    container.getEnv().add(currentDataDirs);
+                }
+            }
+        }
+        return super.revertStorageChanges(current, desired);
+    }
+
+    /**
+     * Whether the Kafka configuration of the given StatefulSets differs only in dynamically updatable options.
+     */
+    static boolean changesOnlyDynamicConfiguration(StatefulSet current, StatefulSet desired) {
+        String currentConfiguration = configuration(current);
+        String desiredConfiguration = configuration(desired);
+        if (currentConfiguration == null || desiredConfiguration == null || currentConfiguration.equals(desiredConfiguration)) {
+            return false;
+        }
+        return KafkaConfiguration.unvalidated(currentConfiguration)
+                .hasSameReadOnlyOptions(KafkaConfiguration.unvalidated(desiredConfiguration));
+    }
+
+    /**
+     * Returns the user-provided Kafka configuration of the brokers in the given StatefulSet, or null if it has none.
+     */
+    public static String configuration(StatefulSet ss) {
+        EnvVar envVar = configurationEnvVar(ss);
+        return envVar != null ? envVar.getValue() : null;
+    }
+
+    /**
+     * Returns a copy of the given StatefulSet with the given Kafka configuration.
+     */
+    public static StatefulSet withConfiguration(StatefulSet ss, String configuration) {
+        StatefulSet copy = new StatefulSetBuilder(ss).build();
+        EnvVar envVar = configurationEnvVar(copy);
+        if (envVar != null) {
+            envVar.setValue(configuration);
+        }
+        return copy;
+    }
+
+    private static EnvVar configurationEnvVar(StatefulSet ss) {
+        return envVar(ss, KafkaCluster.ENV_VAR_KAFKA_CONFIGURATION);
+    }
+
+    private static EnvVar envVar(StatefulSet ss, String name) {
+        return envVar(ss, null, name);
+    }
+
+    /**
+     * Returns the environment variable with the given name of the container with the given name
+     * (or of any container if the container name is null) of the given StatefulSet, or null if there's none.
+     */
+    private static EnvVar envVar(StatefulSet ss, String containerName, String name) {
+        for (Container container : ss.getSpec().getTemplate().getSpec().getContainers()) {
+            if (container.getEnv() != null && (containerName == null || containerName.equals(container.getName()))) {
+                for (EnvVar envVar : container.getEnv()) {
+                    if (name.equals(envVar.getName())) {
+                        return envVar;
+                    }
+                }
+            }
+        }
+        return null;
+    }
 }
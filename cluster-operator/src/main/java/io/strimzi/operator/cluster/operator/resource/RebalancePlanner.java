@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Computes the reassignment which balances the partitions of a Kafka cluster across a set of brokers
+ * while moving as few replicas as possible.
+ * <p>
+ * The load of a broker is the size of the replicas it has, counting at least one byte per replica so that
+ * the empty partitions are spread too. The replicas on the brokers which are not in the set are moved first,
+ * then replicas are moved from the most loaded brokers to the least loaded ones, as long as a move makes the
+ * loads of both brokers closer and they differ by more than a tenth of the average load.
+ * A replica keeps its position in the replicas of its partition, and it is moved only to a broker on the same
+ * rack or on a rack without another replica of the partition, so the racks of a partition are never fewer.
+ * <p>
+ * The plan only depends on its arguments, so it can be tested without a Kafka cluster.
+ */
+public class RebalancePlanner {
+
+    private static final Comparator<TopicPartition> PARTITION_ORDER =
+            Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition);
+
+    private final Map<Integer, String> brokerRacks;
+    private final Map<TopicPartition, Long> sizes;
+    private final Map<TopicPartition, List<Integer>> assignment = new TreeMap<>(PARTITION_ORDER);
+    private final Map<Integer, Long> load = new HashMap<>();
+    private final Map<Integer, List<TopicPartition>> replicasByBroker = new HashMap<>();
+    private final Map<TopicPartition, List<Integer>> moved = new LinkedHashMap<>();
+    private long tolerance;
+
+    private RebalancePlanner(Map<Integer, String> brokerRacks, Map<TopicPartition, List<Integer>> current,
+                             Map<TopicPartition, Long> sizes) {
+        this.brokerRacks = brokerRacks;
+        this.sizes = sizes;
+        for (Integer broker : brokerRacks.keySet()) {
+            load.put(broker, 0L);
+            replicasByBroker.put(broker, new ArrayList<>());
+        }
+        for (Map.Entry<TopicPartition, List<Integer>> entry : current.entrySet()) {
+            assignment.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        for (Map.Entry<TopicPartition, List<Integer>> entry : assignment.entrySet()) {
+            for (Integer replica : entry.getValue()) {
+                if (brokerRacks.containsKey(replica)) {
+                    load.merge(replica, weight(entry.getKey()), Long::sum);
+                    replicasByBroker.get(replica).add(entry.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans the reassignment of the partitions onto the given brokers.
+     *
+     * @param brokerRacks The brokers which should have the replicas, with their rack (or null).
+     * @param current The current replicas of each partition.
+     * @param sizes The size in bytes of each partition. The partitions which are missing are empty.
+     * @return The new replicas of the partitions which have to be moved, in the order they were planned.
+     * @throws IllegalArgumentException If a partition has more replicas than there are brokers.
+     */
+    public static Map<TopicPartition, List<Integer>> plan(Map<Integer, String> brokerRacks,
+                                                          Map<TopicPartition, List<Integer>> current,
+                                                          Map<TopicPartition, Long> sizes) {
+        RebalancePlanner planner = new RebalancePlanner(brokerRacks, current, sizes);
+        planner.moveOffRemovedBrokers();
+        planner.balance();
+        // A partition may have been moved back to its current replicas
+        planner.moved.entrySet().removeIf(entry -> entry.getValue().equals(current.get(entry.getKey())));
+        return planner.moved;
+    }
+
+    private long weight(TopicPartition partition) {
+        Long size = sizes.get(partition);
+        return size != null ? Math.max(size, 1L) : 1L;
+    }
+
+    private void moveOffRemovedBrokers() {
+        for (Map.Entry<TopicPartition, List<Integer>> entry : assignment.entrySet()) {
+            TopicPartition partition = entry.getKey();
+            List<Integer> replicas = entry.getValue();
+            if (replicas.size() > brokerRacks.size()) {
+                throw new IllegalArgumentException("Partition " + partition + " has " + replicas.size()
+                        + " replicas, which is more than the " + brokerRacks.size() + " brokers");
+            }
+            for (int i = 0; i < replicas.size(); i++) {
+                int replica = replicas.get(i);
+                if (!brokerRacks.containsKey(replica)) {
+                    Integer target = leastLoaded(partition, replicas, replica, true);
+                    if (target == null) {
+                        target = leastLoaded(partition, replicas, replica, false);
+                    }
+                    move(partition, i, target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the least loaded broker (and then the lowest id) which doesn't have a replica of the partition,
+     * keeping the racks of the partition if {@code keepRacks}.
+     */
+    private Integer leastLoaded(TopicPartition partition, List<Integer> replicas, int source, boolean keepRacks) {
+        Integer best = null;
+        for (Integer broker : brokerRacks.keySet()) {
+            if (replicas.contains(broker) || (keepRacks && !keepsRacks(replicas, source, broker))) {
+                continue;
+            }
+            if (best == null || load.get(broker) < load.get(best)
+                    || (load.get(broker).equals(load.get(best)) && broker < best)) {
+                best = broker;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Whether moving a replica from the source broker to the target one keeps the racks of the partition:
+     * the brokers are on the same rack, or no other replica of the partition is on the rack of the target.
+     */
+    private boolean keepsRacks(List<Integer> replicas, int source, int target) {
+        String targetRack = brokerRacks.get(target);
+        if (equals(brokerRacks.get(source), targetRack)) {
+            return true;
+        }
+        for (Integer replica : replicas) {
+            if (replica != source && equals(brokerRacks.get(replica), targetRack)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void balance() {
+        long total = 0;
+        int replicas = 0;
+        for (Integer broker : brokerRacks.keySet()) {
+            total += load.get(broker);
+            replicas += replicasByBroker.get(broker).size();
+        }
+        tolerance = Math.max(1L, total / brokerRacks.size() / 10);
+        // Each move lowers the sum of the squares of the loads, so the loop ends,
+        // but it is bounded anyway in case of a bug
+        for (int moves = 0; moves < replicas; moves++) {
+            List<Integer> brokers = new ArrayList<>(brokerRacks.keySet());
+            brokers.sort(Comparator.comparing((Integer broker) -> load.get(broker)).thenComparing(broker -> broker));
+            if (!moveToLessLoaded(brokers)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves a replica from the most loaded broker which has one worth moving.
+     */
+    private boolean moveToLessLoaded(List<Integer> brokersByLoad) {
+        long minLoad = load.get(brokersByLoad.get(0));
+        for (int i = brokersByLoad.size() - 1; i > 0; i--) {
+            int source = brokersByLoad.get(i);
+            if (load.get(source) - minLoad <= tolerance) {
+                return false;
+            } else if (moveFrom(source, brokersByLoad)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves a replica from the source broker to the least loaded of the given brokers for which there is
+     * a replica whose move makes their loads closer, preferring the replica which makes them the closest.
+     */
+    private boolean moveFrom(int source, List<Integer> brokersByLoad) {
+        for (Integer target : brokersByLoad) {
+            long gap = load.get(source) - load.get(target);
+            if (gap <= 1) {
+                return false;
+            }
+            TopicPartition best = null;
+            long bestDistance = Long.MAX_VALUE;
+            for (TopicPartition partition : replicasByBroker.get(source)) {
+                long weight = weight(partition);
+                List<Integer> replicas = assignment.get(partition);
+                if (weight >= gap || replicas.contains(target) || !keepsRacks(replicas, source, target)) {
+                    continue;
+                }
+                long distance = Math.abs(gap - 2 * weight);
+                if (distance < bestDistance) {
+                    best = partition;
+                    bestDistance = distance;
+                }
+            }
+            if (best != null) {
+                move(best, assignment.get(best).indexOf(source), target);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void move(TopicPartition partition, int index, int target) {
+        List<Integer> replicas = assignment.get(partition);
+        long weight = weight(partition);
+        int source = replicas.set(index, target);
+        if (brokerRacks.containsKey(source)) {
+            load.merge(source, -weight, Long::sum);
+            replicasByBroker.get(source).remove(partition);
+        }
+        load.merge(target, weight, Long::sum);
+        replicasByBroker.get(target).add(partition);
+        moved.put(partition, replicas);
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -39,14 +39,21 @@ public class ResourceOperatorSupplier {
     public final CrdOperator<KubernetesClient, Kafka, KafkaAssemblyList, DoneableKafka> kafkaOperator;
     public final NetworkPolicyOperator networkPolicyOperator;
     public final PodDisruptionBudgetOperator podDisruptionBudgetOperator;
+    public final KafkaBrokerConfigOperator kafkaBrokerConfigOperations;
+    public final KafkaRebalanceOperator kafkaRebalanceOperations;
 
     public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, boolean isOpenShift, long operationTimeoutMs) {
+        this(vertx, client, isOpenShift, operationTimeoutMs, new SecretOperator(vertx, client));
+    }
+
+    private ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, boolean isOpenShift, long operationTimeoutMs,
+                                     SecretOperator secretOperations) {
         this(new ServiceOperator(vertx, client),
             isOpenShift ? new RouteOperator(vertx, client.adapt(OpenShiftClient.class)) : null,
             new ZookeeperSetOperator(vertx, client, operationTimeoutMs),
             new KafkaSetOperator(vertx, client, operationTimeoutMs),
             new ConfigMapOperator(vertx, client),
-            new SecretOperator(vertx, client),
+            secretOperations,
             new PvcOperator(vertx, client),
             new DeploymentOperator(vertx, client),
             new ServiceAccountOperator(vertx, client),
@@ -54,7 +61,9 @@ public class ResourceOperatorSupplier {
             new ClusterRoleBindingOperator(vertx, client),
             new NetworkPolicyOperator(vertx, client),
             new PodDisruptionBudgetOperator(vertx, client),
-            new CrdOperator<>(vertx, client, Kafka.class, KafkaAssemblyList .class, DoneableKafka.class));
+            new CrdOperator<>(vertx, client, Kafka.class, KafkaAssemblyList .class, DoneableKafka.class),
+            new KafkaBrokerConfigOperator(vertx, secretOperations, operationTimeoutMs),
+            new KafkaRebalanceOperator(vertx, client, secretOperations, operationTimeoutMs));
     }
 
     public ResourceOperatorSupplier(ServiceOperator serviceOperations,
@@ -70,7 +79,9 @@ public class ResourceOperatorSupplier {
                                     ClusterRoleBindingOperator clusterRoleBindingOperator,
                                     NetworkPolicyOperator networkPolicyOperator,
                                     PodDisruptionBudgetOperator podDisruptionBudgetOperator,
-                                    CrdOperator<KubernetesClient, Kafka, KafkaAssemblyList, DoneableKafka> kafkaOperator) {
+                                    CrdOperator<KubernetesClient, Kafka, KafkaAssemblyList, DoneableKafka> kafkaOperator,
+                                    KafkaBrokerConfigOperator kafkaBrokerConfigOperations,
+                                    KafkaRebalanceOperator kafkaRebalanceOperations) {
         this.serviceOperations = serviceOperations;
         this.routeOperations = routeOperations;
         this.zkSetOperations = zkSetOperations;
@@ -85,5 +96,7 @@ public class ResourceOperatorSupplier {
         this.networkPolicyOperator = networkPolicyOperator;
         this.podDisruptionBudgetOperator = podDisruptionBudgetOperator;
         this.kafkaOperator = kafkaOperator;
+        this.kafkaBrokerConfigOperations = kafkaBrokerConfigOperations;
+        this.kafkaRebalanceOperations = kafkaRebalanceOperations;
     }
 }
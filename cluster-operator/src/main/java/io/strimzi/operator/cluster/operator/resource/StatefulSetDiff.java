@@ -4,27 +4,17 @@
  */
 package io.strimzi.operator.cluster.operator.resource;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
-import io.fabric8.zjsonpatch.JsonDiff;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
 import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
-import static java.lang.Integer.parseInt;
-import static java.util.Arrays.asList;
 
 public class StatefulSetDiff {
 
     private static final Logger log = LogManager.getLogger(StatefulSetDiff.class.getName());
 
-    private static final List<Pattern> IGNORABLE_PATHS;
-    static {
-        IGNORABLE_PATHS = asList(
+    private static final JsonTreeDiff.Paths IGNORABLE_PATHS = JsonTreeDiff.Paths.compile(
             "/spec/revisionHistoryLimit",
             "/spec/template/metadata/annotations", // Actually it's only the statefulset-generation annotation we care about
             "/spec/template/spec/initContainers/[0-9]+/imagePullPolicy",
@@ -55,75 +45,42 @@ public class StatefulSetDiff {
             "/spec/volumeClaimTemplates/[0-9]+/spec/volumeMode",
             "/spec/volumeClaimTemplates/[0-9]+/spec/dataSource",
             "/spec/template/spec/serviceAccount",
-            "/status").stream().map(Pattern::compile).collect(Collectors.toList());
-    }
+            "/status");
 
     private static boolean equalsOrPrefix(String path, String pathValue) {
         return pathValue.equals(path)
                 || pathValue.startsWith(path + "/");
     }
 
-    private final boolean changesVolumeClaimTemplate;
-    private final boolean isEmpty;
-    private final boolean changesSpecTemplateSpec;
-    private final boolean changesLabels;
-    private final boolean changesSpecReplicas;
+    private boolean changesVolumeClaimTemplate;
+    private boolean isEmpty = true;
+    private boolean changesSpecTemplateSpec;
+    private boolean changesLabels;
+    private boolean changesSpecReplicas;
 
     public StatefulSetDiff(StatefulSet current, StatefulSet desired) {
-        JsonNode diff = JsonDiff.asJson(patchMapper().valueToTree(current), patchMapper().valueToTree(desired));
-        int num = 0;
-        boolean changesVolumeClaimTemplate = false;
-        boolean changesSpecTemplateSpec = false;
-        boolean changesLabels = false;
-        boolean changesSpecReplicas = false;
-        outer: for (JsonNode d : diff) {
-            String pathValue = d.get("path").asText();
-            for (Pattern pattern : IGNORABLE_PATHS) {
-                if (pattern.matcher(pathValue).matches()) {
-                    log.debug("StatefulSet {}/{} ignoring diff {}", current.getMetadata().getNamespace(), current.getMetadata().getName(), d);
-                    continue outer;
+        String namespace = current.getMetadata().getNamespace();
+        String name = current.getMetadata().getName();
+        JsonTreeDiff.diff(patchMapper().valueToTree(current), patchMapper().valueToTree(desired), IGNORABLE_PATHS,
+            (pathValue, currentValue, desiredValue, ignorable) -> {
+                if (ignorable) {
+                    log.debug("StatefulSet {}/{} ignoring diff at {}", namespace, name, pathValue);
+                    return;
                 }
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("StatefulSet {}/{} differs: {}", current.getMetadata().getNamespace(), current.getMetadata().getName(), d);
-                log.debug("Current StatefulSet path {} has value {}", pathValue, getFromPath(current, pathValue));
-                log.debug("Desired StatefulSet path {} has value {}", pathValue, getFromPath(desired, pathValue));
-            }
-
-            num++;
-            changesVolumeClaimTemplate |= equalsOrPrefix("/spec/volumeClaimTemplates", pathValue);
-            // Change changes to /spec/template/spec, except to imagePullPolicy, which gets changed
-            // by k8s
-            changesSpecTemplateSpec |= equalsOrPrefix("/spec/template/spec", pathValue);
-            changesLabels |= equalsOrPrefix("/metadata/labels", pathValue);
-            changesSpecReplicas |= equalsOrPrefix("/spec/replicas", pathValue);
-        }
-        this.isEmpty = num == 0;
-        this.changesLabels = changesLabels;
-        this.changesSpecReplicas = changesSpecReplicas;
-        this.changesSpecTemplateSpec = changesSpecTemplateSpec;
-        this.changesVolumeClaimTemplate = changesVolumeClaimTemplate;
-    }
-
-    private JsonNode getFromPath(StatefulSet current, String pathValue) {
-        JsonNode node1 = patchMapper().valueToTree(current);
-        for (String field : pathValue.replaceFirst("^/", "").split("/")) {
-            JsonNode node2 = node1.get(field);
-            if (node2 == null) {
-                try {
-                    int index = parseInt(field);
-                    node2 = node1.get(index);
-                } catch (NumberFormatException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("StatefulSet {}/{} differs at {}", namespace, name, pathValue);
+                    log.debug("Current StatefulSet path {} has value {}", pathValue, currentValue);
+                    log.debug("Desired StatefulSet path {} has value {}", pathValue, desiredValue);
                 }
-            }
-            if (node2 == null) {
-                node1 = null;
-                break;
-            } else {
-                node1 = node2;
-            }
-        }
-        return node1;
+
+                isEmpty = false;
+                changesVolumeClaimTemplate |= equalsOrPrefix("/spec/volumeClaimTemplates", pathValue);
+                // Change changes to /spec/template/spec, except to imagePullPolicy, which gets changed
+                // by k8s
+                changesSpecTemplateSpec |= equalsOrPrefix("/spec/template/spec", pathValue);
+                changesLabels |= equalsOrPrefix("/metadata/labels", pathValue);
+                changesSpecReplicas |= equalsOrPrefix("/spec/replicas", pathValue);
+            });
     }
 
     public boolean isEmpty() {
@@ -4,10 +4,12 @@
  */
 package io.strimzi.operator.cluster.operator.resource;
 
+import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.VolumeMount;
 import io.fabric8.kubernetes.api.model.apps.DoneableStatefulSet;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.apps.StatefulSetList;
@@ -16,6 +18,7 @@ import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
 import io.strimzi.operator.cluster.model.AbstractModel;
 import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.operator.resource.AbstractScalableResourceOperator;
 import io.strimzi.operator.common.operator.resource.PodOperator;
 import io.strimzi.operator.common.operator.resource.PvcOperator;
@@ -29,6 +32,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -75,6 +79,14 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      * before the process proceeds with the pod with the next higher number.
      */
     public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart) {
+        return maybeRollingUpdate(ss, podRestart, pod -> { });
+    }
+
+    /**
+     * Like {@link #maybeRollingUpdate(StatefulSet, Predicate)}, calling the given {@code podRestarted}
+     * with each pod once it has been restarted.
+     */
+    public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart, Consumer<Pod> podRestarted) {
         String namespace = ss.getMetadata().getNamespace();
         String name = ss.getMetadata().getName();
         final int replicas = ss.getSpec().getReplicas();
@@ -82,12 +94,21 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         Future<Void> f = Future.succeededFuture();
         for (int i = 0; i < replicas; i++) {
             String podName = name + "-" + i;
-            f = f.compose(ignored -> maybeRestartPod(ss, podName, podRestart));
+            f = f.compose(ignored -> maybeRestartPod(ss, podName, podRestart, podRestarted));
         }
         return f;
     }
 
     public Future<Void> maybeDeletePodAndPvc(StatefulSet ss) {
+        return maybeDeletePodAndPvc(ss, p -> true, p -> { });
+    }
+
+    /**
+     * Asynchronously deletes the pods annotated for deletion together with their PVCs, one at a time.
+     * Once the PVC of such a pod has been deleted, the pod is restarted if the given {@code podRestart} returns true,
+     * and then passed to the given {@code podRestarted}.
+     */
+    public Future<Void> maybeDeletePodAndPvc(StatefulSet ss, Predicate<Pod> podRestart, Consumer<Pod> podRestarted) {
         String namespace = ss.getMetadata().getNamespace();
         String name = ss.getMetadata().getName();
         final int replicas = ss.getSpec().getReplicas();
@@ -95,15 +116,16 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         Future<Void> f = Future.succeededFuture();
         for (int i = 0; i < replicas; i++) {
             String podName = name + "-" + i;
-            String pvcName = AbstractModel.getPersistentVolumeClaimName(name, i);
+            List<String> pvcNames = AbstractModel.getPersistentVolumeClaimNames(ss, i);
             Pod pod = podOperations.get(namespace, podName);
 
             if (pod != null) {
                 if (Annotations.booleanAnnotation(pod, ANNO_STRIMZI_IO_DELETE_POD_AND_PVC,
                         false, ANNO_OP_STRIMZI_IO_DELETE_POD_AND_PVC)) {
-                    f = f.compose(ignored -> deletePvc(ss, pvcName))
-                            .compose(ignored -> maybeRestartPod(ss, podName, p -> true));
-
+                    for (String pvcName : pvcNames) {
+                        f = f.compose(ignored -> deletePvc(ss, pvcName));
+                    }
+                    f = f.compose(ignored -> maybeRestartPod(ss, podName, podRestart, podRestarted));
                 }
             }
         }
@@ -134,6 +156,14 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      * @return a Future which completes when the given (possibly recreated) pod is ready.
      */
     public Future<Void> maybeRestartPod(StatefulSet ss, String podName, Predicate<Pod> podRestart) {
+        return maybeRestartPod(ss, podName, podRestart, pod -> { });
+    }
+
+    /**
+     * Like {@link #maybeRestartPod(StatefulSet, String, Predicate)}, calling the given {@code podRestarted}
+     * with the pod once it has been restarted.
+     */
+    public Future<Void> maybeRestartPod(StatefulSet ss, String podName, Predicate<Pod> podRestart, Consumer<Pod> podRestarted) {
         long pollingIntervalMs = 1_000;
         long timeoutMs = operationTimeoutMs;
         String namespace = ss.getMetadata().getNamespace();
@@ -141,7 +171,10 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         return podOperations.getAsync(ss.getMetadata().getNamespace(), podName).compose(pod -> {
             Future<Void> fut;
             if (podRestart.test(pod)) {
-                fut = restartPod(ss, pod);
+                fut = restartPod(ss, pod).map(ignored -> {
+                    podRestarted.accept(pod);
+                    return null;
+                });
             } else {
                 log.debug("Rolling update of {}/{}: pod {} no need to roll", namespace, name, podName);
                 fut = Future.succeededFuture();
@@ -176,7 +209,7 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         log.debug("Rolling update of {}/{}: Waiting for pod {} to be deleted", namespace, name, podName);
         Future<Void> podReconcileFuture =
             podOperations.reconcile(namespace, podName, null).compose(ignore -> {
-                Future<Void> del = podOperations.waitFor(namespace, name, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
+                Future<Void> del = podOperations.waitFor(namespace, podName, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
                     // predicate - changed generation means pod has been updated
                     String newUid = getPodUid(podOperations.get(namespace, podName));
                     boolean done = !deleted.equals(newUid);
@@ -289,6 +322,10 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
 
         // Don't scale via patch
         desired.getSpec().setReplicas(current.getSpec().getReplicas());
+        if (new StatefulSetDiff(current, desired).changesVolumeClaimTemplates()) {
+            // The changes which aren't allowed have been reverted by shouldIncrementGeneration()
+            return internalReplace(namespace, name, desired);
+        }
         if (log.isTraceEnabled()) {
             log.trace("Patching {} {}/{} to match desired state {}", resourceKind, namespace, name, desired);
         } else {
@@ -310,24 +347,35 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         desired.getSpec().getTemplate().getSpec().setInitContainers(current.getSpec().getTemplate().getSpec().getInitContainers());
         desired.getSpec().getTemplate().getSpec().setSecurityContext(current.getSpec().getTemplate().getSpec().getSecurityContext());
 
-        if (current.getSpec().getVolumeClaimTemplates().isEmpty()) {
-            // We are on ephemeral storage and changing to persistent
-            List<Volume> volumes = current.getSpec().getTemplate().getSpec().getVolumes();
-            for (int i = 0; i < volumes.size(); i++) {
-                Volume vol = volumes.get(i);
-                if (AbstractModel.VOLUME_NAME.equals(vol.getName()) && vol.getEmptyDir() != null) {
-                    desired.getSpec().getTemplate().getSpec().getVolumes().add(0, volumes.get(i));
-                    break;
-                }
+        // Keep the current data volumes (the emptyDir ones of an ephemeral storage) and their mounts
+        List<Volume> volumes = new ArrayList<>();
+        for (Volume volume : current.getSpec().getTemplate().getSpec().getVolumes()) {
+            if (isDataVolume(volume.getName())) {
+                volumes.add(volume);
             }
-        } else {
-            // We are on persistent storage and changing to ephemeral
-            List<Volume> volumes = desired.getSpec().getTemplate().getSpec().getVolumes();
-            for (int i = 0; i < volumes.size(); i++) {
-                Volume vol = volumes.get(i);
-                if (AbstractModel.VOLUME_NAME.equals(vol.getName()) && vol.getEmptyDir() != null) {
-                    volumes.remove(i);
-                    break;
+        }
+        for (Volume volume : desired.getSpec().getTemplate().getSpec().getVolumes()) {
+            if (!isDataVolume(volume.getName())) {
+                volumes.add(volume);
+            }
+        }
+        desired.getSpec().getTemplate().getSpec().setVolumes(volumes);
+
+        for (Container container : desired.getSpec().getTemplate().getSpec().getContainers()) {
+            for (Container currentContainer : current.getSpec().getTemplate().getSpec().getContainers()) {
+                if (currentContainer.getName().equals(container.getName())) {
+                    List<VolumeMount> volumeMounts = new ArrayList<>();
+                    for (VolumeMount volumeMount : currentContainer.getVolumeMounts()) {
+                        if (isDataVolume(volumeMount.getName())) {
+                            volumeMounts.add(volumeMount);
+                        }
+                    }
+                    for (VolumeMount volumeMount : container.getVolumeMounts()) {
+                        if (!isDataVolume(volumeMount.getName())) {
+                            volumeMounts.add(volumeMount);
+                        }
+                    }
+                    container.setVolumeMounts(volumeMounts);
                 }
             }
         }
@@ -335,6 +383,35 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         return new StatefulSetDiff(current, desired);
     }
 
+    /**
+     * Whether the volume with the given name holds data: the single data volume,
+     * or one of the volumes of a JBOD storage.
+     */
+    private static boolean isDataVolume(String name) {
+        return AbstractModel.VOLUME_NAME.equals(name)
+                || name.matches(AbstractModel.VOLUME_NAME + "-[0-9]+");
+    }
+
+    /**
+     * Replaces the given StatefulSet with the desired one, because the volume claim templates of a StatefulSet
+     * can't be patched. The StatefulSet is deleted without its pods, which are then adopted by the new StatefulSet
+     * and get the new volumes when they are rolled.
+     */
+    protected Future<ReconcileResult<StatefulSet>> internalReplace(String namespace, String name, StatefulSet desired) {
+        try {
+            log.info("Replacing {} {}/{} to change its volume claim templates", resourceKind, namespace, name);
+            OperatorMetrics.kubernetesApiCall(resourceKind, "delete");
+            operation().inNamespace(namespace).withName(name).cascading(false).delete();
+        } catch (Exception e) {
+            log.error("Caught exception while deleting {} {} in namespace {}", resourceKind, name, namespace, e);
+            return Future.failedFuture(e);
+        }
+        desired.getMetadata().setResourceVersion(null);
+        return waitFor(namespace, name, 1_000, operationTimeoutMs, (ignored1, ignored2) -> get(namespace, name) == null)
+                .compose(ignored -> super.internalCreate(namespace, name, desired))
+                .map(result -> ReconcileResult.patched(result.resource()));
+    }
+
     private static String getPodUid(Pod resource) {
         if (resource == null || resource.getMetadata() == null) {
             return NO_UID;
@@ -53,6 +53,7 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -108,7 +109,7 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
      * The leader is determined by sending `stat` word to each pod.
      */
     @Override
-    public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart) {
+    public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart, Consumer<Pod> podRestarted) {
         String namespace = ss.getMetadata().getNamespace();
         String name = ss.getMetadata().getName();
         final int replicas = ss.getSpec().getReplicas();
@@ -137,13 +138,13 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
                         log.debug("maybe restarting non leader pod " + i);
                         // roll the pod and wait until it is ready
                         // this prevents rolling into faulty state (note: this applies just for ZK pods)
-                        f2 = f2.compose(ignore -> maybeRestartPod(ss, podName, podRestart));
+                        f2 = f2.compose(ignore -> maybeRestartPod(ss, podName, podRestart, podRestarted));
                     }
                 }
                 return f2.compose(ar -> {
                     // the leader is rolled as the last
                     log.debug("maybe restarting leader pod " + lead);
-                    return maybeRestartPod(ss, KafkaResources.zookeeperPodName(cluster, lead), podRestart);
+                    return maybeRestartPod(ss, KafkaResources.zookeeperPodName(cluster, lead), podRestart, podRestarted);
                 });
             });
         }
@@ -329,7 +330,8 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
                 }
             }
             f.complete(leader);
-        }, true, result.completer());
+            // Not ordered, so that finding the leader of one cluster doesn't wait for the other clusters in the namespace
+        }, false, result.completer());
         return result;
     }
 }
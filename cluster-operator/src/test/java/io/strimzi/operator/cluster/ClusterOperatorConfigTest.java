@@ -17,6 +17,8 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class ClusterOperatorConfigTest {
 
@@ -87,6 +89,30 @@ public class ClusterOperatorConfigTest {
         assertEquals(30_000, config.getOperationTimeoutMs());
     }
 
+    @Test
+    public void testSharedWatches() {
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertFalse(ClusterOperatorConfig.fromMap(envVars).isSharedWatches());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_NAMESPACE, "foo,bar");
+        envVars.put(ClusterOperatorConfig.STRIMZI_SHARED_WATCHES, "true");
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars);
+        assertEquals(new HashSet<>(asList("foo", "bar")), config.getNamespaces());
+        assertTrue(config.isSharedWatches());
+    }
+
+    @Test
+    public void testAllNamespaces() {
+
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_NAMESPACE, "foo, *");
+
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars);
+        assertEquals(singleton("*"), config.getNamespaces());
+        assertTrue(config.isSharedWatches());
+    }
+
     @Test(expected = InvalidConfigurationException.class)
     public void testNoNamespace() {
 
@@ -76,12 +76,32 @@ public class ClusterOperatorTest {
         startStop(context, "namespace1, namespace2", false);
     }
 
+    @Test
+    public void startStopSharedWatchesOs(TestContext context) {
+        startStop(context, "namespace1, namespace2", true, true);
+    }
+
+    @Test
+    public void startStopSharedWatchesK8s(TestContext context) {
+        startStop(context, "namespace1, namespace2", false, true);
+    }
+
+    @Test
+    public void startStopAllNamespacesK8s(TestContext context) {
+        startStop(context, "*", false, false);
+    }
+
+    private void startStop(TestContext context, String namespaces, boolean openShift) {
+        startStop(context, namespaces, openShift, false);
+    }
+
     /**
-     * Does the CC start and then stop a verticle per namespace?
+     * Does the CC start and then stop a verticle per namespace,
+     * or a single verticle with cluster-wide watches when the watches are shared?
      * @param context
      * @param namespaces
      */
-    private void startStop(TestContext context, String namespaces, boolean openShift) {
+    private void startStop(TestContext context, String namespaces, boolean openShift, boolean sharedWatches) {
         AtomicInteger numWatchers = new AtomicInteger(0);
         KubernetesClient client;
         if (openShift) {
@@ -113,33 +133,27 @@ public class ClusterOperatorTest {
 
         List<String> namespaceList = asList(namespaces.split(" *,+ *"));
         for (String namespace: namespaceList) {
-
-            MixedOperation mockNamespacedCms = mock(MixedOperation.class);
-            when(mockNamespacedCms.watch(any())).thenAnswer(invo -> {
-                numWatchers.incrementAndGet();
-                Watch mockWatch = mock(Watch.class);
-                doAnswer(invo2 -> {
-                    ((Watcher) invo.getArgument(0)).onClose(null);
-                    return null;
-                }).when(mockWatch).close();
-                return mockWatch;
-            });
-
-            when(mockNamespacedCms.withLabels(any())).thenReturn(mockNamespacedCms);
-            when(mockCms.inNamespace(namespace)).thenReturn(mockNamespacedCms);
+            when(mockCms.inNamespace(namespace)).thenReturn(mockWatchable(numWatchers));
         }
+        when(mockCms.inAnyNamespace()).thenReturn(mockWatchable(numWatchers));
         Async async = context.async();
 
         Map<String, String> env = new HashMap<>();
         env.put(ClusterOperatorConfig.STRIMZI_NAMESPACE, namespaces);
         env.put(ClusterOperatorConfig.STRIMZI_FULL_RECONCILIATION_INTERVAL_MS, "120000");
+        env.put(ClusterOperatorConfig.STRIMZI_SHARED_WATCHES, Boolean.toString(sharedWatches));
         Main.run(vertx, client, openShift, ClusterOperatorConfig.fromMap(env)).setHandler(ar -> {
             context.assertNull(ar.cause(), "Expected all verticles to start OK");
             async.complete();
         });
         async.await();
 
-        context.assertEquals(namespaceList.size(), vertx.deploymentIDs().size(), "A verticle per namespace");
+        boolean shared = sharedWatches || namespaceList.contains("*");
+        if (shared) {
+            context.assertEquals(1, vertx.deploymentIDs().size(), "A single verticle for all the namespaces");
+        } else {
+            context.assertEquals(namespaceList.size(), vertx.deploymentIDs().size(), "A verticle per namespace");
+        }
 
         List<Async> asyncs = new ArrayList<>();
         for (String deploymentId: vertx.deploymentIDs()) {
@@ -155,9 +169,24 @@ public class ClusterOperatorTest {
             async2.await();
         }
 
-        if (numWatchers.get() > (openShift ? 4 : 3) * namespaceList.size()) {
-            context.fail("Looks like there were more watchers than namespaces");
+        if (numWatchers.get() > (openShift ? 4 : 3) * (shared ? 1 : namespaceList.size())) {
+            context.fail("Looks like there were more watchers than " + (shared ? "kinds" : "namespaces"));
         }
     }
 
+    private MixedOperation mockWatchable(AtomicInteger numWatchers) {
+        MixedOperation mockWatchable = mock(MixedOperation.class);
+        when(mockWatchable.watch(any())).thenAnswer(invo -> {
+            numWatchers.incrementAndGet();
+            Watch mockWatch = mock(Watch.class);
+            doAnswer(invo2 -> {
+                ((Watcher) invo.getArgument(0)).onClose(null);
+                return null;
+            }).when(mockWatch).close();
+            return mockWatch;
+        });
+        when(mockWatchable.withLabels(any())).thenReturn(mockWatchable);
+        return mockWatchable;
+    }
+
 }
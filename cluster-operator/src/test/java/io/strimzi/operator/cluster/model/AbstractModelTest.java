@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 import static java.util.Collections.emptyList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class AbstractModelTest {
 
@@ -39,13 +40,13 @@ public class AbstractModelTest {
     @Test
     public void testJvmMemoryOptionsExplicit() {
         Map<String, String> env = getStringStringMap("4", "4",
-                0.5, 4_000_000_000L, null);
+                JvmSizing.KAFKA, null);
         assertEquals("-Xms4 -Xmx4", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
     }
 
-    private Map<String, String> getStringStringMap(String xmx, String xms, double dynamicFraction, long dynamicMax,
+    private Map<String, String> getStringStringMap(String xmx, String xms, JvmSizing sizing,
                                                    Resources resources) {
         AbstractModel am = new AbstractModel(null, null, Labels.forCluster("foo")) {
             @Override
@@ -61,14 +62,14 @@ public class AbstractModelTest {
         am.setJvmOptions(jvmOptions(xmx, xms));
         am.setResources(resources);
         List<EnvVar> envVars = new ArrayList<>(1);
-        am.heapOptions(envVars, dynamicFraction, dynamicMax);
+        am.heapOptions(envVars, sizing);
         return envVars.stream().collect(Collectors.toMap(e -> e.getName(), e -> e.getValue()));
     }
 
     @Test
     public void testJvmMemoryOptionsXmsOnly() {
         Map<String, String> env = getStringStringMap(null, "4",
-                0.5, 5_000_000_000L, null);
+                JvmSizing.KAFKA, null);
         assertEquals("-Xms4", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
@@ -77,7 +78,7 @@ public class AbstractModelTest {
     @Test
     public void testJvmMemoryOptionsXmxOnly() {
         Map<String, String> env = getStringStringMap("4", null,
-                0.5, 5_000_000_000L, null);
+                JvmSizing.KAFKA, null);
         assertEquals("-Xmx4", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
@@ -87,7 +88,7 @@ public class AbstractModelTest {
     @Test
     public void testJvmMemoryOptionsDefaultWithNoMemoryLimitOrJvmOptions() {
         Map<String, String> env = getStringStringMap(null, null,
-                0.5, 5_000_000_000L, null);
+                JvmSizing.KAFKA, null);
         assertEquals("-Xms" + AbstractModel.DEFAULT_JVM_XMS, env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
         assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
@@ -103,19 +104,74 @@ public class AbstractModelTest {
     @Test
     public void testJvmMemoryOptionsDefaultWithMemoryLimit() {
         Map<String, String> env = getStringStringMap(null, "4",
-                0.5, 5_000_000_000L, getResourceLimit());
-        assertEquals("-Xms4", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
-        assertEquals("0.5", env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
-        assertEquals("5000000000", env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
+                JvmSizing.KAFKA, getResourceLimit());
+        // 40% of the limit for the heap and 10% for the direct memory, leaving the rest to the page cache
+        assertEquals("-Xms4 -Xmx5120m -XX:MaxDirectMemorySize=1024m", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
+        assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
+        assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
     }
 
     @Test
     public void testJvmMemoryOptionsMemoryRequest() {
         Map<String, String> env = getStringStringMap(null, null,
-                0.7, 10_000_000_000L, getResourceLimit());
-        assertEquals(null, env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
-        assertEquals("0.7", env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
-        assertEquals("10000000000", env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
+                JvmSizing.KAFKA_CONNECT, getResourceLimit());
+        assertEquals("-Xms11444m -Xmx11444m", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
+        assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_FRACTION));
+        assertEquals(null, env.get(AbstractModel.ENV_VAR_DYNAMIC_HEAP_MAX));
+    }
+
+    @Test
+    public void testJvmMemoryOptionsSmallMemoryLimit() {
+        CpuMemory limits = new CpuMemory();
+        limits.setMemory("2Gi");
+        Map<String, String> env = getStringStringMap(null, null,
+                JvmSizing.KAFKA, new Resources(limits, null));
+        assertEquals("-Xms819m -Xmx819m -XX:MaxDirectMemorySize=204m", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
+
+        env = getStringStringMap(null, null, JvmSizing.ZOOKEEPER, new Resources(limits, null));
+        assertEquals("-Xms1536m -Xmx1536m", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
+    }
+
+    @Test
+    public void testJvmMemoryOptionsXmsGreaterThanComputedHeap() {
+        CpuMemory limits = new CpuMemory();
+        limits.setMemory("2Gi");
+        // 40% of the limit is less than the -Xms, which the -Xmx mustn't be
+        Map<String, String> env = getStringStringMap(null, "1g",
+                JvmSizing.KAFKA, new Resources(limits, null));
+        assertEquals("-Xms1g -Xmx1g -XX:MaxDirectMemorySize=204m", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
+
+        env = getStringStringMap(null, "512m", JvmSizing.KAFKA, new Resources(limits, null));
+        assertEquals("-Xms512m -Xmx819m -XX:MaxDirectMemorySize=204m", env.get(AbstractModel.ENV_VAR_KAFKA_HEAP_OPTS));
+    }
+
+    @Test
+    public void testGcOptionsFromCpuLimit() {
+        AbstractModel am = new AbstractModel(null, null, Labels.forCluster("foo")) {
+            @Override
+            protected String getDefaultLogConfigFileName() {
+                return "";
+            }
+
+            @Override
+            protected List<Container> getContainers() {
+                return emptyList();
+            }
+        };
+        List<EnvVar> envVars = new ArrayList<>(1);
+        am.gcOptions(envVars);
+        assertTrue(envVars.isEmpty());
+
+        CpuMemory limits = new CpuMemory();
+        limits.setMilliCpu("2500m");
+        am.setResources(new Resources(limits, null));
+        am.gcOptions(envVars);
+        assertEquals("-XX:ParallelGCThreads=3 -XX:ConcGCThreads=1", envVars.get(0).getValue());
+
+        envVars.clear();
+        am.setJvmOptions(TestUtils.fromJson("{\"-XX\": {\"ParallelGCThreads\": 8}}", JvmOptions.class));
+        am.gcOptions(envVars);
+        assertEquals("-XX:ConcGCThreads=1", envVars.get(0).getValue());
     }
 
     @Test
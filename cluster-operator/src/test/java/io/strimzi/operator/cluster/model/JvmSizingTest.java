@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.strimzi.api.kafka.model.CpuMemory;
+import io.strimzi.api.kafka.model.JvmOptions;
+import io.strimzi.api.kafka.model.Resources;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class JvmSizingTest {
+
+    private static JvmOptions jvmOptions(String xmx, String xms) {
+        JvmOptions result = new JvmOptions();
+        result.setXms(xms);
+        result.setXmx(xmx);
+        return result;
+    }
+
+    private static Resources memoryLimit(String memory) {
+        CpuMemory limits = new CpuMemory();
+        limits.setMemory(memory);
+        return new Resources(limits, null);
+    }
+
+    @Test
+    public void testParseJvmSize() {
+        assertEquals(0L, JvmSizing.parseJvmSize("-Xmx", null));
+        assertEquals(4L, JvmSizing.parseJvmSize("-Xmx", "4"));
+        assertEquals(128L * 1024 * 1024, JvmSizing.parseJvmSize("-Xms", AbstractModel.DEFAULT_JVM_XMS));
+        assertEquals(2L * 1024 * 1024 * 1024, JvmSizing.parseJvmSize("-Xmx", "2g"));
+        assertEquals(512L * 1024, JvmSizing.parseJvmSize("-Xmx", "512K"));
+    }
+
+    @Test(expected = InvalidResourceException.class)
+    public void testParseInvalidJvmSize() {
+        JvmSizing.parseJvmSize("-Xmx", "2Gi");
+    }
+
+    @Test
+    public void testHeapAndDirectMemoryBytes() {
+        long limit = 8L * 1024 * 1024 * 1024;
+        assertEquals((long) (limit * 0.4), JvmSizing.KAFKA.heapBytes(limit));
+        assertEquals((long) (limit * 0.1), JvmSizing.KAFKA.directMemoryBytes(limit));
+        assertEquals(2L * 1024 * 1024 * 1024, JvmSizing.ZOOKEEPER.heapBytes(limit));
+        assertEquals(0L, JvmSizing.ZOOKEEPER.directMemoryBytes(limit));
+        assertEquals((long) (limit * 0.75), JvmSizing.KAFKA_CONNECT.heapBytes(limit));
+    }
+
+    @Test
+    public void testValidHeapSizes() {
+        JvmSizing.KAFKA.validate(null, null);
+        JvmSizing.KAFKA.validate(jvmOptions("2g", "1g"), null);
+        JvmSizing.KAFKA.validate(jvmOptions("2g", "2g"), memoryLimit("8Gi"));
+        // Leaves less than half of the limit to the page cache, which is only logged
+        JvmSizing.KAFKA.validate(jvmOptions("6g", null), memoryLimit("8Gi"));
+        // The -Xmx is then the -Xms, which is greater than 40% of the limit
+        JvmSizing.KAFKA.validate(jvmOptions(null, "1g"), memoryLimit("2Gi"));
+        JvmSizing.KAFKA_CONNECT.validate(null, memoryLimit("5000"));
+    }
+
+    @Test(expected = InvalidResourceException.class)
+    public void testXmsGreaterThanXmx() {
+        JvmSizing.ZOOKEEPER.validate(jvmOptions("1g", "2g"), null);
+    }
+
+    @Test(expected = InvalidResourceException.class)
+    public void testXmxGreaterThanMemoryLimit() {
+        JvmSizing.KAFKA_CONNECT.validate(jvmOptions("2g", null), memoryLimit("2Gi"));
+    }
+
+    @Test(expected = InvalidResourceException.class)
+    public void testXmsGreaterThanMemoryLimit() {
+        JvmSizing.KAFKA.validate(jvmOptions(null, "4g"), memoryLimit("2Gi"));
+    }
+}
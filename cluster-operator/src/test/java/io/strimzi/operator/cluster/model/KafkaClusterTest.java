@@ -13,11 +13,14 @@ import io.fabric8.kubernetes.api.model.IntOrString;
 import io.fabric8.kubernetes.api.model.LabelSelectorRequirementBuilder;
 import io.fabric8.kubernetes.api.model.LocalObjectReference;
 import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
 import io.fabric8.kubernetes.api.model.PodSecurityContextBuilder;
 import io.fabric8.kubernetes.api.model.PodSpec;
 import io.fabric8.kubernetes.api.model.Probe;
+import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.VolumeMount;
 import io.fabric8.kubernetes.api.model.WeightedPodAffinityTerm;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.networking.NetworkPolicy;
@@ -27,6 +30,7 @@ import io.fabric8.kubernetes.api.model.networking.NetworkPolicyPeerBuilder;
 import io.fabric8.kubernetes.api.model.policy.PodDisruptionBudget;
 import io.fabric8.openshift.api.model.Route;
 import io.strimzi.api.kafka.model.InlineLogging;
+import io.strimzi.api.kafka.model.JbodStorage;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaBuilder;
 import io.strimzi.api.kafka.model.KafkaClusterSpec;
@@ -34,6 +38,7 @@ import io.strimzi.api.kafka.model.KafkaListenerAuthenticationTls;
 import io.strimzi.api.kafka.model.PersistentClaimStorageBuilder;
 import io.strimzi.api.kafka.model.ProbeBuilder;
 import io.strimzi.api.kafka.model.Rack;
+import io.strimzi.api.kafka.model.SingleVolumeStorage;
 import io.strimzi.api.kafka.model.TlsSidecar;
 import io.strimzi.api.kafka.model.TlsSidecarBuilder;
 import io.strimzi.api.kafka.model.TlsSidecarLogLevel;
@@ -216,6 +221,70 @@ public class KafkaClusterTest {
         assertEquals(null, ss.getSpec().getVolumeClaimTemplates().get(0).getSpec().getSelector());
     }
 
+    private Kafka kafkaWithJbod(SingleVolumeStorage... volumes) {
+        JbodStorage jbod = new JbodStorage();
+        jbod.setVolumes(asList(volumes));
+        return new KafkaBuilder(kafkaAssembly)
+                .editSpec()
+                    .editKafka()
+                        .withStorage(jbod)
+                    .endKafka()
+                .endSpec()
+                .build();
+    }
+
+    @Test
+    public void testGenerateStatefulSetWithJbodStorage() {
+        KafkaCluster kc = KafkaCluster.fromCrd(kafkaWithJbod(
+                new PersistentClaimStorageBuilder().withId(0).withSize("100Gi").withDeleteClaim(true).build(),
+                new PersistentClaimStorageBuilder().withId(1).withSize("200Gi").withDeleteClaim(false).build()), VERSIONS);
+        StatefulSet ss = kc.generateStatefulSet(false);
+
+        List<PersistentVolumeClaim> templates = ss.getSpec().getVolumeClaimTemplates();
+        assertEquals(asList("data-0", "data-1"),
+                templates.stream().map(pvc -> pvc.getMetadata().getName()).collect(Collectors.toList()));
+        assertEquals(new Quantity("100Gi"), templates.get(0).getSpec().getResources().getRequests().get("storage"));
+        assertEquals(new Quantity("200Gi"), templates.get(1).getSpec().getResources().getRequests().get("storage"));
+        // The claims are deleted with the cluster only if all the volumes ask for it
+        assertFalse(KafkaCluster.deleteClaim(ss));
+
+        Container kafka = ss.getSpec().getTemplate().getSpec().getContainers().get(0);
+        Map<String, String> mounts = kafka.getVolumeMounts().stream()
+                .collect(Collectors.toMap(VolumeMount::getName, VolumeMount::getMountPath));
+        assertEquals("/var/lib/kafka/data-0", mounts.get("data-0"));
+        assertEquals("/var/lib/kafka/data-1", mounts.get("data-1"));
+        assertEquals("/var/lib/kafka/data-0,/var/lib/kafka/data-1",
+                AbstractModel.containerEnvVars(kafka).get(KafkaCluster.ENV_VAR_KAFKA_DATA_DIRS));
+
+        assertEquals(asList("data-0-foo-kafka-2", "data-1-foo-kafka-2"),
+                KafkaCluster.getPersistentVolumeClaimNames(ss, 2));
+    }
+
+    @Test
+    public void testGenerateStatefulSetWithSingleVolumeHasNoDataDirs() {
+        StatefulSet ss = KafkaCluster.fromCrd(kafkaAssembly, VERSIONS).generateStatefulSet(false);
+        Container kafka = ss.getSpec().getTemplate().getSpec().getContainers().get(0);
+        assertNull(AbstractModel.containerEnvVars(kafka).get(KafkaCluster.ENV_VAR_KAFKA_DATA_DIRS));
+    }
+
+    @Test(expected = InvalidResourceException.class)
+    public void testJbodStorageWithoutVolumes() {
+        KafkaCluster.fromCrd(kafkaWithJbod(), VERSIONS);
+    }
+
+    @Test(expected = InvalidResourceException.class)
+    public void testJbodStorageWithRepeatedIds() {
+        KafkaCluster.fromCrd(kafkaWithJbod(
+                new PersistentClaimStorageBuilder().withId(0).withSize("100Gi").build(),
+                new PersistentClaimStorageBuilder().withId(0).withSize("100Gi").build()), VERSIONS);
+    }
+
+    @Test(expected = InvalidResourceException.class)
+    public void testJbodStorageWithoutIds() {
+        KafkaCluster.fromCrd(kafkaWithJbod(
+                new PersistentClaimStorageBuilder().withSize("100Gi").build()), VERSIONS);
+    }
+
     @Test
     public void testGenerateStatefulSetWithRack() {
         Kafka editKafkaAssembly = new KafkaBuilder(kafkaAssembly)
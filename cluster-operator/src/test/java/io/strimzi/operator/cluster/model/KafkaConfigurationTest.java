@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static io.strimzi.operator.cluster.model.KafkaConfiguration.UpdateMode.CLUSTER_WIDE;
+import static io.strimzi.operator.cluster.model.KafkaConfiguration.UpdateMode.READ_ONLY;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaConfigurationTest {
+
+    @Test
+    public void testUpdateMode() {
+        assertEquals(CLUSTER_WIDE, KafkaConfiguration.updateMode("log.retention.ms"));
+        assertEquals(CLUSTER_WIDE, KafkaConfiguration.updateMode("log.roll.ms"));
+        assertEquals(CLUSTER_WIDE, KafkaConfiguration.updateMode("num.io.threads"));
+        assertEquals(READ_ONLY, KafkaConfiguration.updateMode("auto.create.topics.enable"));
+        assertEquals(READ_ONLY, KafkaConfiguration.updateMode(KafkaConfiguration.LOG_MESSAGE_FORMAT_VERSION));
+        assertEquals(READ_ONLY, KafkaConfiguration.updateMode(KafkaConfiguration.INTERBROKER_PROTOCOL_VERSION));
+        // Only the milliseconds variants of the log roll and retention options are dynamic
+        assertEquals(READ_ONLY, KafkaConfiguration.updateMode("log.retention.hours"));
+        assertEquals(READ_ONLY, KafkaConfiguration.updateMode("log.retention.minutes"));
+        assertEquals(READ_ONLY, KafkaConfiguration.updateMode("log.roll.hours"));
+        assertEquals(READ_ONLY, KafkaConfiguration.updateMode("log.roll.jitter.hours"));
+    }
+
+    @Test
+    public void testOptionsByUpdateMode() {
+        KafkaConfiguration config = KafkaConfiguration.unvalidated(
+                "auto.create.topics.enable=false\nlog.retention.ms=86400000\nnum.io.threads=4\n");
+        Map<String, String> clusterWide = new LinkedHashMap<>();
+        clusterWide.put("log.retention.ms", "86400000");
+        clusterWide.put("num.io.threads", "4");
+        assertEquals(clusterWide, config.options(CLUSTER_WIDE));
+        assertEquals(singletonMap("auto.create.topics.enable", "false"), config.options(READ_ONLY));
+    }
+
+    @Test
+    public void testHasSameReadOnlyOptions() {
+        KafkaConfiguration current = KafkaConfiguration.unvalidated("auto.create.topics.enable=false\nlog.retention.ms=604800000\n");
+        assertTrue(current.hasSameReadOnlyOptions(
+                KafkaConfiguration.unvalidated("auto.create.topics.enable=false\nlog.retention.ms=86400000\n")));
+        assertTrue(current.hasSameReadOnlyOptions(
+                KafkaConfiguration.unvalidated("auto.create.topics.enable=false\n")));
+        assertFalse(current.hasSameReadOnlyOptions(
+                KafkaConfiguration.unvalidated("auto.create.topics.enable=true\nlog.retention.ms=604800000\n")));
+    }
+
+    @Test
+    public void testWithDynamicOptionsOf() {
+        KafkaConfiguration desired = KafkaConfiguration.unvalidated("auto.create.topics.enable=true\nlog.retention.ms=86400000\n");
+        KafkaConfiguration current = KafkaConfiguration.unvalidated("auto.create.topics.enable=false\nnum.io.threads=4\n");
+        KafkaConfiguration result = desired.withDynamicOptionsOf(current);
+        assertEquals("true", result.getConfigOption("auto.create.topics.enable"));
+        assertEquals("4", result.getConfigOption("num.io.threads"));
+        assertNull(result.getConfigOption("log.retention.ms"));
+    }
+}
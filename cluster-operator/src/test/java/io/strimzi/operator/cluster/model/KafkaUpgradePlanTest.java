@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaUpgradePlanTest {
+
+    private final KafkaVersion.Lookup lookup = new KafkaVersion.Lookup(
+            new StringReader(
+                    "2.0.0  default  2.0  2.0  1234567890abcdef\n" +
+                    "2.0.1           2.0  2.0  1234567890abcdef\n" +
+                    "2.1.0           2.1  2.1  1234567890abcdef\n"),
+            emptyMap(), emptyMap(), emptyMap(), emptyMap());
+
+    private KafkaUpgradePlan plan(String from, String to, String current, String protocolVersion) {
+        return new KafkaUpgradePlan(new KafkaUpgrade(lookup.version(from), lookup.version(to)),
+                lookup.version(current), protocolVersion);
+    }
+
+    @Test
+    public void noop() {
+        KafkaUpgradePlan plan = plan("2.0.0", "2.0.0", "2.0.0", null);
+        assertEquals(0, plan.rolls());
+        assertFalse(plan.requiresProtocolPinningRoll());
+    }
+
+    @Test
+    public void upgradeWithoutProtocolChangeRollsOnce() {
+        KafkaUpgradePlan plan = plan("2.0.0", "2.0.1", "2.0.0", null);
+        assertEquals(1, plan.rolls());
+        assertFalse(plan.requiresProtocolPinningRoll());
+        assertNull(plan.pinnedProtocolVersion());
+    }
+
+    @Test
+    public void upgradeWithProtocolChangeRollsTwice() {
+        KafkaUpgradePlan plan = plan("2.0.0", "2.1.0", "2.0.0", null);
+        assertEquals(2, plan.rolls());
+        assertTrue(plan.requiresProtocolPinningRoll());
+        assertEquals("2.0", plan.pinnedProtocolVersion());
+    }
+
+    @Test
+    public void upgradeWithConfiguredProtocolRollsOnce() {
+        KafkaUpgradePlan plan = plan("2.0.0", "2.1.0", "2.0.0", "2.0");
+        assertEquals(1, plan.rolls());
+        assertFalse(plan.requiresProtocolPinningRoll());
+    }
+
+    @Test
+    public void startedUpgradeRollsOnce() {
+        KafkaUpgradePlan plan = plan("2.0.0", "2.1.0", "2.1.0", "2.0");
+        assertTrue(plan.isStarted());
+        assertEquals(1, plan.rolls());
+        assertFalse(plan.requiresProtocolPinningRoll());
+    }
+
+    @Test
+    public void downgradeWithoutProtocolRollsTwice() {
+        KafkaUpgradePlan plan = plan("2.1.0", "2.0.0", "2.1.0", null);
+        assertFalse(plan.isStarted());
+        assertEquals(2, plan.rolls());
+        assertEquals("2.0", plan.pinnedProtocolVersion());
+    }
+
+    @Test
+    public void downgradeWithHigherProtocolRollsTwice() {
+        KafkaUpgradePlan plan = plan("2.1.0", "2.0.0", "2.1.0", "2.1");
+        assertEquals(2, plan.rolls());
+        assertTrue(plan.requiresProtocolPinningRoll());
+    }
+
+    @Test
+    public void downgradeWithLowerProtocolRollsOnce() {
+        KafkaUpgradePlan plan = plan("2.1.0", "2.0.0", "2.1.0", "2.0");
+        assertEquals(1, plan.rolls());
+        assertFalse(plan.requiresProtocolPinningRoll());
+    }
+}
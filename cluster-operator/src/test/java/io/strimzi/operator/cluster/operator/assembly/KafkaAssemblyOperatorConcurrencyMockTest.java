@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.api.kafka.Crds;
+import io.strimzi.api.kafka.KafkaAssemblyList;
+import io.strimzi.api.kafka.model.DoneableKafka;
+import io.strimzi.api.kafka.model.EphemeralStorage;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.certs.Subject;
+import io.strimzi.operator.cluster.ResourceUtils;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.ResourceType;
+import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.operator.common.operator.MockKube;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Checks that the reconciliations of independent Kafka clusters in the same namespace don't wait for each other's
+ * blocking steps, even though they all run on the same context, as they do in the ClusterOperator verticle.
+ */
+@RunWith(VertxUnitRunner.class)
+public class KafkaAssemblyOperatorConcurrencyMockTest {
+
+    private static final String NAMESPACE = "my-namespace";
+    private static final String SLOW_CLUSTER = "slow";
+    private static final String[] FAST_CLUSTERS = {"fast-1", "fast-2", "fast-3"};
+
+    private static final KafkaVersion.Lookup VERSIONS = new KafkaVersion.Lookup(new StringReader(
+            "2.0.0 default 2.0 2.0 1234567890abcdef"),
+            singletonMap("2.0.0", "strimzi/kafka:latest-kafka-2.0.0"), emptyMap(), emptyMap(), emptyMap()) { };
+
+    /**
+     * Blocks the generation of the broker certificates of the {@link #SLOW_CLUSTER} until it is released.
+     */
+    static class BlockingCertManager extends MockCertManager {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void generateCsr(File keyFile, File csrFile, Subject sbj) throws IOException {
+            if (sbj != null && KafkaCluster.kafkaClusterName(SLOW_CLUSTER).equals(sbj.commonName())) {
+                blocked.countDown();
+                try {
+                    if (!released.await(60, TimeUnit.SECONDS)) {
+                        throw new IOException("Certificate generation was not released");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            super.generateCsr(keyFile, csrFile, sbj);
+        }
+    }
+
+    private Vertx vertx;
+    private KubernetesClient mockClient;
+
+    @Before
+    public void before() {
+        vertx = Vertx.vertx();
+        Set<Kafka> clusters = new HashSet<>();
+        clusters.add(cluster(SLOW_CLUSTER));
+        for (String name : FAST_CLUSTERS) {
+            clusters.add(cluster(name));
+        }
+        mockClient = new MockKube().withCustomResourceDefinition(Crds.kafka(), Kafka.class, KafkaAssemblyList.class, DoneableKafka.class)
+                .withInitialInstances(clusters).end().build();
+    }
+
+    @After
+    public void after() {
+        vertx.close();
+    }
+
+    @AfterClass
+    public static void cleanUp() {
+        ResourceUtils.cleanUpTemporaryTLSFiles();
+    }
+
+    private static Kafka cluster(String name) {
+        return new KafkaBuilder()
+                .withMetadata(new ObjectMetaBuilder()
+                        .withName(name)
+                        .withNamespace(NAMESPACE)
+                        .build())
+                .withNewSpec()
+                    .withNewKafka()
+                        .withReplicas(1)
+                        .withStorage(new EphemeralStorage())
+                    .endKafka()
+                    .withNewZookeeper()
+                        .withReplicas(1)
+                        .withStorage(new EphemeralStorage())
+                    .endZookeeper()
+                .endSpec()
+                .build();
+    }
+
+    @Test
+    public void testClustersReconcileWhileAnotherIsBlocked(TestContext context) throws InterruptedException {
+        BlockingCertManager certManager = new BlockingCertManager();
+        KafkaAssemblyOperator kao = new KafkaAssemblyOperator(vertx, true, 2_000,
+                certManager, new ResourceOperatorSupplier(vertx, mockClient, true, 2_000), VERSIONS);
+        // All the reconciliations run on the same context, like in the ClusterOperator verticle
+        Context operatorContext = vertx.getOrCreateContext();
+
+        Async slowAsync = context.async();
+        operatorContext.runOnContext(v ->
+            kao.reconcileAssembly(new Reconciliation("test", ResourceType.KAFKA, NAMESPACE, SLOW_CLUSTER), ar -> {
+                context.assertTrue(ar.succeeded(), "Reconciliation of " + SLOW_CLUSTER + " failed: " + ar.cause());
+                context.assertEquals(0L, certManager.released.getCount(), SLOW_CLUSTER + " completed before it was released");
+                slowAsync.complete();
+            }));
+        context.assertTrue(certManager.blocked.await(60, TimeUnit.SECONDS), SLOW_CLUSTER + " never generated its broker certificates");
+
+        Async fastAsync = context.async(FAST_CLUSTERS.length);
+        for (String name : FAST_CLUSTERS) {
+            operatorContext.runOnContext(v ->
+                kao.reconcileAssembly(new Reconciliation("test", ResourceType.KAFKA, NAMESPACE, name), ar -> {
+                    context.assertTrue(ar.succeeded(), "Reconciliation of " + name + " failed: " + ar.cause());
+                    context.assertNotNull(mockClient.apps().statefulSets().inNamespace(NAMESPACE).withName(KafkaCluster.kafkaClusterName(name)).get());
+                    fastAsync.countDown();
+                }));
+        }
+        fastAsync.awaitSuccess(30_000);
+
+        context.assertEquals(1L, certManager.released.getCount(), SLOW_CLUSTER + " should still be blocked");
+        certManager.released.countDown();
+        slowAsync.awaitSuccess(30_000);
+    }
+}
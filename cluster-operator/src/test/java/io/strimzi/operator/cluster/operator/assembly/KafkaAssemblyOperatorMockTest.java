@@ -4,6 +4,7 @@
  */
 package io.strimzi.operator.cluster.operator.assembly;
 
+import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
@@ -21,6 +22,7 @@ import io.strimzi.api.kafka.model.DoneableKafka;
 import io.strimzi.api.kafka.model.EphemeralStorage;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.KafkaResources;
 import io.strimzi.api.kafka.model.PersistentClaimStorage;
 import io.strimzi.api.kafka.model.PersistentClaimStorageBuilder;
 import io.strimzi.api.kafka.model.Resources;
@@ -33,13 +35,16 @@ import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.TopicOperator;
 import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.cluster.operator.resource.KafkaRebalanceOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
 import io.strimzi.operator.cluster.operator.resource.StatefulSetOperator;
 import io.strimzi.operator.common.Reconciliation;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.operator.common.operator.MockKube;
 import io.strimzi.test.TestUtils;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -57,9 +62,12 @@ import org.junit.runners.Parameterized;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -72,6 +80,11 @@ import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(Parameterized.class)
 @Parameterized.UseParametersRunnerFactory(VertxUnitRunnerWithParametersFactory.class)
@@ -242,8 +255,22 @@ public class KafkaAssemblyOperatorMockTest {
         return new ResourceOperatorSupplier(vertx, mockClient, true, 2_000);
     }
 
-    private KafkaAssemblyOperator createCluster(TestContext context) {
+    /** The operators of the MockKube, but rebalancing the partitions with the given operator */
+    private ResourceOperatorSupplier supplierWithMocks(KafkaRebalanceOperator rebalanceOperator) {
         ResourceOperatorSupplier supplier = supplierWithMocks();
+        return new ResourceOperatorSupplier(supplier.serviceOperations, supplier.routeOperations,
+                supplier.zkSetOperations, supplier.kafkaSetOperations, supplier.configMapOperations,
+                supplier.secretOperations, supplier.pvcOperations, supplier.deploymentOperations,
+                supplier.serviceAccountOperator, supplier.roleBindingOperator, supplier.clusterRoleBindingOperator,
+                supplier.networkPolicyOperator, supplier.podDisruptionBudgetOperator, supplier.kafkaOperator,
+                supplier.kafkaBrokerConfigOperations, rebalanceOperator);
+    }
+
+    private KafkaAssemblyOperator createCluster(TestContext context) {
+        return createCluster(context, supplierWithMocks());
+    }
+
+    private KafkaAssemblyOperator createCluster(TestContext context, ResourceOperatorSupplier supplier) {
         KafkaAssemblyOperator kco = new KafkaAssemblyOperator(vertx, true, 2_000,
                 new MockCertManager(), supplier, VERSIONS);
 
@@ -695,6 +722,136 @@ public class KafkaAssemblyOperatorMockTest {
         updateAsync.await();
     }
 
+    /**
+     * A mocked KafkaRebalanceOperator, whose rebalances are in the state given by the returned reference.
+     * It records the number of brokers of each rebalance requested in the given list.
+     */
+    private static AtomicReference<String> mockRebalance(KafkaRebalanceOperator rebalanceOperator, List<Integer> requests) {
+        AtomicReference<String> state = new AtomicReference<>(KafkaRebalanceOperator.STATE_IN_PROGRESS);
+        when(rebalanceOperator.rebalance(anyString(), anyString(), any(), any(), anyLong())).thenAnswer(invocation -> {
+            Map<String, String> status = invocation.getArgument(2);
+            Integer brokers = invocation.getArgument(3);
+            if (status == null && brokers == null) {
+                return Future.succeededFuture();
+            }
+            Map<String, String> next = status != null ? new HashMap<>(status) : new HashMap<>();
+            if (brokers != null) {
+                requests.add(brokers);
+                next.put(KafkaRebalanceOperator.BROKERS, String.valueOf(brokers));
+            }
+            next.put(KafkaRebalanceOperator.STATE, state.get());
+            return Future.succeededFuture(next);
+        });
+        return state;
+    }
+
+    private void enableRebalance() {
+        Kafka rebalancedCluster = new KafkaBuilder(cluster).editMetadata()
+                .addToAnnotations(KafkaAssemblyOperator.ANNO_STRIMZI_IO_REBALANCE, "true")
+                .endMetadata().build();
+        kafkaAssembly(NAMESPACE, CLUSTER_NAME).patch(rebalancedCluster);
+        cluster = rebalancedCluster;
+    }
+
+    private Map<String, String> rebalanceConfigMapData() {
+        ConfigMap cm = mockClient.configMaps().inNamespace(NAMESPACE).withName(KafkaResources.kafkaRebalanceConfigMapName(CLUSTER_NAME)).get();
+        return cm != null ? cm.getData() : null;
+    }
+
+    /** The brokers are removed only once the rebalance has moved their partitions */
+    @Test
+    public void testKafkaScaleDownWaitsForRebalance(TestContext context) {
+        if (kafkaReplicas <= 1) {
+            LOGGER.info("Skipping scale down test because there's only 1 broker");
+            return;
+        }
+        enableRebalance();
+        KafkaRebalanceOperator rebalanceOperator = mock(KafkaRebalanceOperator.class);
+        List<Integer> requests = new ArrayList<>();
+        AtomicReference<String> state = mockRebalance(rebalanceOperator, requests);
+        KafkaAssemblyOperator kco = createCluster(context, supplierWithMocks(rebalanceOperator));
+        context.assertNull(rebalanceConfigMapData());
+
+        int newScale = kafkaReplicas - 1;
+        String deletedPod = KafkaCluster.kafkaPodName(CLUSTER_NAME, newScale);
+        Kafka changedClusterCm = new KafkaBuilder(cluster).editSpec().editKafka()
+                .withReplicas(newScale).endKafka().endSpec().build();
+        kafkaAssembly(NAMESPACE, CLUSTER_NAME).patch(changedClusterCm);
+
+        LOGGER.info("Scaling down to {} Kafka pods while the rebalance is in progress", newScale);
+        Async inProgressAsync = context.async();
+        kco.reconcileAssembly(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, CLUSTER_NAME), ar -> {
+            if (ar.failed()) ar.cause().printStackTrace();
+            context.assertTrue(ar.succeeded());
+            context.assertEquals(kafkaReplicas,
+                    mockClient.apps().statefulSets().inNamespace(NAMESPACE).withName(KafkaCluster.kafkaClusterName(CLUSTER_NAME)).get().getSpec().getReplicas());
+            context.assertNotNull(mockClient.pods().inNamespace(NAMESPACE).withName(deletedPod).get(),
+                    "Expected pod " + deletedPod + " to be kept until its partitions have been moved");
+            context.assertEquals(Collections.singletonList(newScale), requests);
+            context.assertEquals(KafkaRebalanceOperator.STATE_IN_PROGRESS, rebalanceConfigMapData().get(KafkaRebalanceOperator.STATE));
+            context.assertEquals(String.valueOf(newScale), rebalanceConfigMapData().get(KafkaRebalanceOperator.BROKERS));
+            inProgressAsync.complete();
+        });
+        inProgressAsync.await();
+
+        state.set(KafkaRebalanceOperator.STATE_COMPLETE);
+        LOGGER.info("Scaling down to {} Kafka pods once the rebalance is complete", newScale);
+        Async completeAsync = context.async();
+        kco.reconcileAssembly(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, CLUSTER_NAME), ar -> {
+            if (ar.failed()) ar.cause().printStackTrace();
+            context.assertTrue(ar.succeeded());
+            context.assertEquals(newScale,
+                    mockClient.apps().statefulSets().inNamespace(NAMESPACE).withName(KafkaCluster.kafkaClusterName(CLUSTER_NAME)).get().getSpec().getReplicas());
+            context.assertNull(mockClient.pods().inNamespace(NAMESPACE).withName(deletedPod).get(),
+                    "Expected pod " + deletedPod + " to have been deleted");
+            context.assertEquals(KafkaRebalanceOperator.STATE_COMPLETE, rebalanceConfigMapData().get(KafkaRebalanceOperator.STATE));
+            completeAsync.complete();
+        });
+        completeAsync.await();
+    }
+
+    /** Scaling up requests a rebalance onto all the brokers */
+    @Test
+    public void testKafkaScaleUpRequestsRebalance(TestContext context) {
+        enableRebalance();
+        KafkaRebalanceOperator rebalanceOperator = mock(KafkaRebalanceOperator.class);
+        List<Integer> requests = new ArrayList<>();
+        AtomicReference<String> state = mockRebalance(rebalanceOperator, requests);
+        state.set(KafkaRebalanceOperator.STATE_PENDING);
+        KafkaAssemblyOperator kco = createCluster(context, supplierWithMocks(rebalanceOperator));
+
+        int newScale = kafkaReplicas + 1;
+        Kafka changedClusterCm = new KafkaBuilder(cluster).editSpec().editKafka()
+                .withReplicas(newScale).endKafka().endSpec().build();
+        kafkaAssembly(NAMESPACE, CLUSTER_NAME).patch(changedClusterCm);
+
+        LOGGER.info("Scaling up to {} Kafka pods", newScale);
+        Async updateAsync = context.async();
+        kco.reconcileAssembly(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, CLUSTER_NAME), ar -> {
+            if (ar.failed()) ar.cause().printStackTrace();
+            context.assertTrue(ar.succeeded());
+            context.assertEquals(newScale,
+                    mockClient.apps().statefulSets().inNamespace(NAMESPACE).withName(KafkaCluster.kafkaClusterName(CLUSTER_NAME)).get().getSpec().getReplicas());
+            context.assertEquals(Collections.singletonList(newScale), requests);
+            context.assertEquals(KafkaRebalanceOperator.STATE_PENDING, rebalanceConfigMapData().get(KafkaRebalanceOperator.STATE));
+            context.assertEquals(String.valueOf(newScale), rebalanceConfigMapData().get(KafkaRebalanceOperator.BROKERS));
+            updateAsync.complete();
+        });
+        updateAsync.await();
+
+        // The next reconciliation carries on with the rebalance, updating its ConfigMap
+        state.set(KafkaRebalanceOperator.STATE_COMPLETE);
+        Async nextAsync = context.async();
+        kco.reconcileAssembly(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, CLUSTER_NAME), ar -> {
+            if (ar.failed()) ar.cause().printStackTrace();
+            context.assertTrue(ar.succeeded());
+            context.assertEquals(Collections.singletonList(newScale), requests);
+            context.assertEquals(KafkaRebalanceOperator.STATE_COMPLETE, rebalanceConfigMapData().get(KafkaRebalanceOperator.STATE));
+            nextAsync.complete();
+        });
+        nextAsync.await();
+    }
+
     @Test
     public void testResumePartialRoll(TestContext context) {
 
@@ -44,6 +44,8 @@ import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.ModelUtils;
 import io.strimzi.operator.cluster.model.TopicOperator;
 import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.cluster.operator.resource.KafkaBrokerConfigOperator;
+import io.strimzi.operator.cluster.operator.resource.KafkaRebalanceOperator;
 import io.strimzi.operator.cluster.operator.resource.KafkaSetOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
 import io.strimzi.operator.cluster.operator.resource.StatefulSetDiff;
@@ -77,15 +79,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -334,11 +340,11 @@ public class KafkaAssemblyOperatorTest {
         ArgumentCaptor<StatefulSet> ssCaptor = ArgumentCaptor.forClass(StatefulSet.class);
         when(mockZsOps.reconcile(anyString(), anyString(), ssCaptor.capture())).thenReturn(Future.succeededFuture(ReconcileResult.created(null)));
         when(mockZsOps.scaleDown(anyString(), anyString(), anyInt())).thenReturn(Future.succeededFuture(null));
-        when(mockZsOps.maybeRollingUpdate(any(), any(Predicate.class))).thenReturn(Future.succeededFuture());
+        when(mockZsOps.maybeRollingUpdate(any(), any(Predicate.class), any(Consumer.class))).thenReturn(Future.succeededFuture());
         when(mockZsOps.scaleUp(anyString(), anyString(), anyInt())).thenReturn(Future.succeededFuture(42));
         when(mockKsOps.reconcile(anyString(), anyString(), ssCaptor.capture())).thenReturn(Future.succeededFuture(ReconcileResult.created(null)));
         when(mockKsOps.scaleDown(anyString(), anyString(), anyInt())).thenReturn(Future.succeededFuture(null));
-        when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class))).thenReturn(Future.succeededFuture());
+        when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class), any(Consumer.class))).thenReturn(Future.succeededFuture());
         when(mockKsOps.scaleUp(anyString(), anyString(), anyInt())).thenReturn(Future.succeededFuture(42));
         when(mockPolicyOps.reconcile(anyString(), anyString(), policyCaptor.capture())).thenReturn(Future.succeededFuture(ReconcileResult.created(null)));
         when(mockZsOps.getAsync(anyString(), anyString())).thenReturn(Future.succeededFuture());
@@ -768,8 +774,8 @@ public class KafkaAssemblyOperatorTest {
             StatefulSet ss = invocation.getArgument(2);
             return Future.succeededFuture(ReconcileResult.patched(ss));
         });
-        when(mockZsOps.maybeRollingUpdate(any(), any(Predicate.class))).thenReturn(Future.succeededFuture());
-        when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class))).thenReturn(Future.succeededFuture());
+        when(mockZsOps.maybeRollingUpdate(any(), any(Predicate.class), any(Consumer.class))).thenReturn(Future.succeededFuture());
+        when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class), any(Consumer.class))).thenReturn(Future.succeededFuture());
 
         when(mockZsOps.getAsync(anyString(), anyString())).thenReturn(Future.succeededFuture());
 
@@ -943,43 +949,61 @@ public class KafkaAssemblyOperatorTest {
                 mock(KafkaSetOperator.class), mock(ConfigMapOperator.class), mock(SecretOperator.class),
                 mock(PvcOperator.class), mock(DeploymentOperator.class),
                 mock(ServiceAccountOperator.class), mock(RoleBindingOperator.class), mock(ClusterRoleBindingOperator.class),
-                mock(NetworkPolicyOperator.class), mock(PodDisruptionBudgetOperator.class), mock(CrdOperator.class));
+                mock(NetworkPolicyOperator.class), mock(PodDisruptionBudgetOperator.class), mock(CrdOperator.class),
+                mock(KafkaBrokerConfigOperator.class), mock(KafkaRebalanceOperator.class));
         when(supplier.serviceAccountOperator.reconcile(anyString(), anyString(), any())).thenReturn(Future.succeededFuture());
         when(supplier.roleBindingOperator.reconcile(anyString(), anyString(), any())).thenReturn(Future.succeededFuture());
         when(supplier.clusterRoleBindingOperator.reconcile(anyString(), any())).thenReturn(Future.succeededFuture());
 
         if (openShift) {
             when(supplier.routeOperations.reconcile(anyString(), anyString(), any())).thenReturn(Future.succeededFuture());
-            when(supplier.routeOperations.hasAddress(anyString(), anyString(), anyLong(), anyLong())).thenReturn(Future.succeededFuture());
-            when(supplier.routeOperations.get(anyString(), anyString())).thenAnswer(i -> {
-                return new RouteBuilder()
-                        .withNewStatus()
-                        .addNewIngress()
-                        .withHost(i.getArgument(0) + "." + i.getArgument(1) + ".mydomain.com")
-                        .endIngress()
-                        .endStatus()
-                        .build();
+            when(supplier.routeOperations.get(anyString(), anyString())).thenAnswer(i -> route(i.getArgument(0), i.getArgument(1)));
+            when(supplier.routeOperations.hasAddresses(anyString(), any(), any(), anyLong())).thenAnswer(i -> {
+                Map<String, Route> routes = new HashMap<>();
+                for (String name : i.<Collection<String>>getArgument(1)) {
+                    routes.put(name, route(i.getArgument(0), name));
+                }
+                return Future.succeededFuture(routes);
             });
         }
 
-        when(supplier.serviceOperations.hasIngressAddress(anyString(), anyString(), anyLong(), anyLong())).thenReturn(Future.succeededFuture());
-        when(supplier.serviceOperations.hasNodePort(anyString(), anyString(), anyLong(), anyLong())).thenReturn(Future.succeededFuture());
-        when(supplier.serviceOperations.get(anyString(), anyString())).thenAnswer(i -> {
-            return new ServiceBuilder()
-                    .withNewStatus()
-                        .withNewLoadBalancer()
-                            .withIngress(new LoadBalancerIngressBuilder().withHostname(i.getArgument(0) + "." + i.getArgument(1) + ".mydomain.com").build())
-                        .endLoadBalancer()
-                    .endStatus()
-                    .withNewSpec()
-                        .withPorts(new ServicePortBuilder().withNodePort(31245).build())
-                    .endSpec()
-                    .build();
-        });
+        when(supplier.serviceOperations.get(anyString(), anyString())).thenAnswer(i -> service(i.getArgument(0), i.getArgument(1)));
+        Answer<Future<Map<String, Service>>> services = i -> {
+            Map<String, Service> result = new HashMap<>();
+            for (String name : i.<Collection<String>>getArgument(1)) {
+                result.put(name, service(i.getArgument(0), name));
+            }
+            return Future.succeededFuture(result);
+        };
+        when(supplier.serviceOperations.hasIngressAddresses(anyString(), any(), any(), anyLong())).thenAnswer(services);
+        when(supplier.serviceOperations.hasNodePorts(anyString(), any(), any(), anyLong())).thenAnswer(services);
 
         return supplier;
     }
 
+    private static Service service(String namespace, String name) {
+        return new ServiceBuilder()
+                .withNewStatus()
+                    .withNewLoadBalancer()
+                        .withIngress(new LoadBalancerIngressBuilder().withHostname(namespace + "." + name + ".mydomain.com").build())
+                    .endLoadBalancer()
+                .endStatus()
+                .withNewSpec()
+                    .withPorts(new ServicePortBuilder().withNodePort(31245).build())
+                .endSpec()
+                .build();
+    }
+
+    private static Route route(String namespace, String name) {
+        return new RouteBuilder()
+                .withNewStatus()
+                .addNewIngress()
+                .withHost(namespace + "." + name + ".mydomain.com")
+                .endIngress()
+                .endStatus()
+                .build();
+    }
+
     @AfterClass
     public static void cleanUp() {
         ResourceUtils.cleanUpTemporaryTLSFiles();
@@ -5,7 +5,9 @@
 package io.strimzi.operator.cluster.operator.assembly;
 
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.strimzi.api.kafka.Crds;
 import io.strimzi.api.kafka.model.DoneableKafkaConnect;
 import io.strimzi.api.kafka.KafkaConnectAssemblyList;
@@ -17,6 +19,7 @@ import io.strimzi.operator.common.Reconciliation;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.operator.common.operator.MockKube;
 import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.DeploymentOperator;
@@ -25,6 +28,7 @@ import io.strimzi.operator.common.operator.resource.PodDisruptionBudgetOperator;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.strimzi.operator.common.operator.resource.ServiceOperator;
 import io.strimzi.test.TestUtils;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -38,6 +42,8 @@ import org.junit.runner.RunWith;
 
 import java.io.StringReader;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
@@ -56,6 +62,7 @@ public class KafkaConnectAssemblyOperatorMockTest {
 
     private final int replicas = 3;
 
+    private MockKube.MockedCrd mockConnects;
     private KubernetesClient mockClient;
 
     private Vertx vertx;
@@ -75,8 +82,9 @@ public class KafkaConnectAssemblyOperatorMockTest {
                     .withReplicas(replicas)
                 .endSpec()
             .build();
-        mockClient = new MockKube().withCustomResourceDefinition(Crds.kafkaConnect(), KafkaConnect.class, KafkaConnectAssemblyList.class, DoneableKafkaConnect.class)
-                .withInitialInstances(Collections.singleton(cluster)).end().build();
+        mockConnects = new MockKube().withCustomResourceDefinition(Crds.kafkaConnect(), KafkaConnect.class, KafkaConnectAssemblyList.class, DoneableKafkaConnect.class)
+                .withInitialInstances(Collections.singleton(cluster));
+        mockClient = mockConnects.end().build();
     }
 
     @After
@@ -84,7 +92,10 @@ public class KafkaConnectAssemblyOperatorMockTest {
         this.vertx.close();
     }
 
-    private KafkaConnectAssemblyOperator createConnectCluster(TestContext context) {
+    /**
+     * @param reconciliations Counts the reconciliations which create or update the cluster.
+     */
+    private KafkaConnectAssemblyOperator createConnectOperator(AtomicInteger reconciliations) {
         CrdOperator<KubernetesClient, KafkaConnect, KafkaConnectAssemblyList, DoneableKafkaConnect>
                 connectOperator = new CrdOperator<>(vertx, mockClient,
                 KafkaConnect.class, KafkaConnectAssemblyList.class, DoneableKafkaConnect.class);
@@ -94,10 +105,20 @@ public class KafkaConnectAssemblyOperatorMockTest {
         SecretOperator secretops = new SecretOperator(vertx, mockClient);
         NetworkPolicyOperator policyops = new NetworkPolicyOperator(vertx, mockClient);
         PodDisruptionBudgetOperator pdbops = new PodDisruptionBudgetOperator(vertx, mockClient);
-        KafkaConnectAssemblyOperator kco = new KafkaConnectAssemblyOperator(vertx, true,
+        return new KafkaConnectAssemblyOperator(vertx, true,
                 new MockCertManager(),
                 connectOperator,
-                cmops, depops, svcops, secretops, policyops, pdbops, VERSIONS);
+                cmops, depops, svcops, secretops, policyops, pdbops, VERSIONS) {
+            @Override
+            protected Future<Void> createOrUpdate(Reconciliation reconciliation, KafkaConnect kafkaConnect) {
+                reconciliations.incrementAndGet();
+                return super.createOrUpdate(reconciliation, kafkaConnect);
+            }
+        };
+    }
+
+    private KafkaConnectAssemblyOperator createConnectCluster(TestContext context) {
+        KafkaConnectAssemblyOperator kco = createConnectOperator(new AtomicInteger());
 
         LOGGER.info("Reconciling initially -> create");
         Async createAsync = context.async();
@@ -127,4 +148,52 @@ public class KafkaConnectAssemblyOperatorMockTest {
         });
         updateAsync.await();
     }
+
+    private void modifyCluster(String resourceVersion) {
+        mockClient.customResources(Crds.kafkaConnect(), KafkaConnect.class, KafkaConnectAssemblyList.class, DoneableKafkaConnect.class)
+                .inNamespace(NAMESPACE).withName(CLUSTER_NAME)
+                .patch(new KafkaConnectBuilder(cluster).editMetadata().withResourceVersion(resourceVersion).endMetadata().build());
+    }
+
+    /** A watch closed with an exception resumes from the last event, without reconciling the cluster again */
+    @Test
+    public void testWatchResumesFromLastResourceVersion(TestContext context) {
+        AtomicInteger reconciliations = new AtomicInteger();
+        KafkaConnectAssemblyOperator kco = createConnectOperator(reconciliations);
+        AtomicInteger watches = new AtomicInteger();
+        Consumer<KubernetesClientException> recreateWatch = new Consumer<KubernetesClientException>() {
+            @Override
+            public void accept(KubernetesClientException e) {
+                if (e != null) {
+                    kco.createWatch(NAMESPACE, this).setHandler(ar -> watches.incrementAndGet());
+                }
+            }
+        };
+
+        modifyCluster("1");
+        Async watchAsync = context.async();
+        kco.createWatch(NAMESPACE, recreateWatch).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            watches.incrementAndGet();
+            watchAsync.complete();
+        });
+        watchAsync.await();
+        // The new watch receives an ADDED event for the existing cluster
+        TestUtils.waitFor("the cluster to be reconciled", 10, 10_000, () -> reconciliations.get() == 1);
+
+        modifyCluster("2");
+        TestUtils.waitFor("the modified cluster to be reconciled", 10, 10_000, () -> reconciliations.get() == 2);
+
+        mockConnects.closeWatches(new KubernetesClientException("Connection reset"));
+        TestUtils.waitFor("the watch to be resumed", 10, 10_000, () -> watches.get() == 2);
+        modifyCluster("3");
+        TestUtils.waitFor("the modified cluster to be reconciled", 10, 10_000, () -> reconciliations.get() == 3);
+        // Nothing else is reconciled, the resumed watch didn't replay the existing cluster
+        context.assertEquals(3, reconciliations.get());
+
+        // The API server no longer has the events since the resourceVersion, so everything is listed again
+        mockConnects.closeWatches(new KubernetesClientException(new StatusBuilder().withCode(410).withReason("Gone").build()));
+        TestUtils.waitFor("the watch to be recreated", 10, 10_000, () -> watches.get() == 3);
+        TestUtils.waitFor("the cluster to be reconciled again", 10, 10_000, () -> reconciliations.get() == 4);
+    }
 }
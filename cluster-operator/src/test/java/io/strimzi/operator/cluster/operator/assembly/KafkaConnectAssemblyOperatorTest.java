@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.ToLongFunction;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
@@ -509,6 +510,15 @@ public class KafkaConnectAssemblyOperatorTest {
 
     @Test
     public void testReconcile(TestContext context) {
+        reconcileAll(context, ns -> 0L);
+    }
+
+    @Test
+    public void testReconcileWithNamespaceDelay(TestContext context) {
+        reconcileAll(context, ns -> 200L);
+    }
+
+    private void reconcileAll(TestContext context, ToLongFunction<String> delay) {
         CrdOperator mockConnectOps = mock(CrdOperator.class);
         ConfigMapOperator mockCmOps = mock(ConfigMapOperator.class);
         ServiceOperator mockServiceOps = mock(ServiceOperator.class);
@@ -557,7 +567,10 @@ public class KafkaConnectAssemblyOperatorTest {
         };
 
         // Now try to reconcile all the Kafka Connect clusters
-        ops.reconcileAll("test", clusterCmNamespace);
+        ops.reconcileAll("test", clusterCmNamespace, delay);
+        if (delay.applyAsLong(clusterCmNamespace) > 0) {
+            context.assertTrue(createdOrUpdated.isEmpty(), "The namespace should be reconciled only after its delay");
+        }
 
         async.await();
 
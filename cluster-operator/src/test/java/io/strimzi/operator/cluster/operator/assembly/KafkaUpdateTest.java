@@ -140,7 +140,7 @@ public class KafkaUpdateTest {
         });
 
         AtomicInteger rollingUpdates = new AtomicInteger();
-        when(kso.maybeRollingUpdate(any(), any())).thenAnswer(invocation -> {
+        when(kso.maybeRollingUpdate(any(), any(), any())).thenAnswer(invocation -> {
             //context.assertTrue(((Predicate<Pod>) invocation.getArgument(1)).test(pod));
             rollExceptions.accept(rollingUpdates.getAndIncrement());
             return Future.succeededFuture();
@@ -150,7 +150,7 @@ public class KafkaUpdateTest {
                 new MockCertManager(),
                 new ResourceOperatorSupplier(null, null, null,
                         kso, null, null, null, null,
-                        null, null, null, null, null, null),
+                        null, null, null, null, null, null, null, null),
                 lookup);
         Reconciliation reconciliation = new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, NAME);
 
@@ -257,38 +257,25 @@ public class KafkaUpdateTest {
                 "Expect the log.message.format.version to be unchanged from configured or default (for kafka " + initialKafkaVersion + ") value");
     }
 
-    /** Test we can recover from an exception during phase 1 rolling of the upgrade */
+    /** Test a single phase upgrade leaves the rolling update to kafkaRollingUpdate(), and isn't repeated */
     @Test
-    public void testUpgrade200_201_messageFormatConfig_exceptionDuringPhase0Roll(TestContext context) throws IOException {
+    public void testUpgrade200_201_messageFormatConfig_singlePhaseDoesNotRoll(TestContext context) throws IOException {
         Map<String, Object> initialConfig = singletonMap(LOG_MESSAGE_FORMAT_VERSION, "2.0");
         String initialKafkaVersion = "2.0.0";
         String upgradedKafkaVersion = "2.0.1";
         String upgradedImage = "strimzi/kafka:0.8.0-kafka-" + upgradedKafkaVersion;
-        AtomicBoolean exceptionThrown = new AtomicBoolean(false);
+        AtomicBoolean rolled = new AtomicBoolean(false);
         Kafka initialKafka = initialKafka(initialKafkaVersion, initialConfig);
 
-        // Do an upgrade, but make the rolling update throw
-        List<StatefulSet> states = null;
-        try {
-            upgrade(context,
-                    singletonMap(upgradedKafkaVersion, upgradedImage),
-                    initialKafka, null,
-                    upgradedKafka(initialKafka, upgradedKafkaVersion, emptyMap()),
-                invocationCount -> {
-                },
-                invocationCount -> {
-                    if (invocationCount == 0
-                            && exceptionThrown.compareAndSet(false, true)) {
-                        throw new RuntimeException("Testing exception during roll");
-                    }
-                });
-            context.fail();
-        } catch (UpgradeException e) {
-            context.assertTrue(e.getCause() instanceof RuntimeException, e.getCause().getMessage());
-            states = e.states;
-        }
+        // Do an upgrade, recording whether it rolls the pods itself
+        List<StatefulSet> states = upgrade(context,
+                singletonMap(upgradedKafkaVersion, upgradedImage),
+                initialKafka, null,
+                upgradedKafka(initialKafka, upgradedKafkaVersion, emptyMap()),
+            invocationCount -> { },
+            invocationCount -> rolled.set(true));
 
-        context.assertTrue(exceptionThrown.get());
+        context.assertFalse(rolled.get());
         context.assertEquals(1, states.size());
         StatefulSet phase1 = states.get(0);
         context.assertEquals(upgradedKafkaVersion, phase1.getMetadata().getAnnotations().get(ANNO_STRIMZI_IO_KAFKA_VERSION));
@@ -301,17 +288,16 @@ public class KafkaUpdateTest {
         context.assertNull(config1.getConfigOption(INTERBROKER_PROTOCOL_VERSION));
         context.assertEquals(initialConfig.getOrDefault(LOG_MESSAGE_FORMAT_VERSION, "2.0"), config1.getConfigOption(LOG_MESSAGE_FORMAT_VERSION));
 
-        // Do the upgrade again, but without throwing this time
+        // Do the upgrade again, as if the rolling update had failed
         states = upgrade(context,
                 singletonMap(upgradedKafkaVersion, upgradedImage),
                 initialKafka, states.get(0),
                 upgradedKafka(initialKafka, upgradedKafkaVersion, emptyMap()),
             invocationCount -> { },
-            invocationCount -> { });
+            invocationCount -> rolled.set(true));
 
-        // TODO Need to assert that the pods get rolled in this 2nd attempt before the start of phase 2
-
-        // We expect the only observer reconcile() state to be from phase 2 (i.e. we didn't repeat phase 1)
+        // We expect no reconcile() state (i.e. we didn't repeat phase 1)
+        context.assertFalse(rolled.get());
         context.assertEquals(0, states.size());
     }
 
@@ -351,6 +337,21 @@ public class KafkaUpdateTest {
                         INTERBROKER_PROTOCOL_VERSION, "1.1"), true);
     }
 
+    /** Test only the phase which pins the inter.broker.protocol.version rolls the pods itself */
+    @Test
+    public void upgrade200_210_rollsOnlyToPinProtocol(TestContext context) throws IOException {
+        Kafka initialKafka = initialKafka("2.0.0", singletonMap(LOG_MESSAGE_FORMAT_VERSION, "2.0"));
+        AtomicInteger rolls = new AtomicInteger();
+        List<StatefulSet> states = upgrade(context,
+            singletonMap("2.1.0", "strimzi/kafka:0.8.0-kafka-2.1.0"),
+            initialKafka, null,
+            upgradedKafka(initialKafka, "2.1.0", emptyMap()),
+            invocationCount -> { },
+            invocationCount -> rolls.incrementAndGet());
+        context.assertEquals(2, states.size());
+        context.assertEquals(1, rolls.get());
+    }
+
     private void testUpgrade200_210_messageFormatConfig(TestContext context, Map<String, Object> config, boolean expectSinglePhase) throws IOException {
         String initialKafkaVersion = "2.0.0";
         String upgradedKafkaVersion = "2.1.0";
@@ -34,6 +34,7 @@ import io.strimzi.operator.cluster.model.ZookeeperCluster;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
 import io.strimzi.operator.common.Reconciliation;
 import io.strimzi.operator.common.model.ResourceType;
+import io.strimzi.operator.common.operator.MockKube;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -41,12 +42,15 @@ import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.io.StringReader;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -55,6 +59,11 @@ import java.util.function.Supplier;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(VertxUnitRunner.class)
 public class MaintenanceTimeWindowsTest {
@@ -69,6 +78,7 @@ public class MaintenanceTimeWindowsTest {
     private Vertx vertx;
     private Kafka kafka;
     private KubernetesClient mockClient;
+    private KafkaAssemblyOperator kao;
     private KafkaAssemblyOperator.ReconciliationState reconciliationState;
 
     private Secret clusterCaSecret;
@@ -109,13 +119,21 @@ public class MaintenanceTimeWindowsTest {
         ResourceOperatorSupplier ros =
                 new ResourceOperatorSupplier(this.vertx, this.mockClient, false, 60_000L);
 
-        KafkaAssemblyOperator kao = new KafkaAssemblyOperator(this.vertx, false, 2_000, null, ros, VERSIONS);
+        this.kao = new KafkaAssemblyOperator(this.vertx, false, 2_000, null, ros, VERSIONS);
 
         Reconciliation reconciliation = new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, NAME);
 
         this.reconciliationState = kao.new ReconciliationState(reconciliation, kafka);
     }
 
+    @After
+    public void closeVertx() {
+        if (this.vertx != null) {
+            // Also cancels the timers of the scheduled reconciliations
+            this.vertx.close();
+        }
+    }
+
     private void init(List<String> maintenanceTimeWindows) {
 
         EntityTopicOperatorSpec entityTopicOperatorSpec = new EntityTopicOperatorSpecBuilder()
@@ -427,6 +445,103 @@ public class MaintenanceTimeWindowsTest {
         async.await();
     }
 
+    @Test
+    public void testZkRollingUpdateMaintenanceNotSatisfiedSchedulesReconciliation(TestContext context) {
+
+        Async async = context.async();
+
+        doZkRollingUpdate(Collections.singletonList("* * 8-10 * * ?"), MaintenanceTimeWindowsTest::tomorrowOutsideWindows,
+            r -> {
+                context.assertTrue(r.succeeded());
+                r.result().scheduleMaintenanceTimeWindowReconciliation().setHandler(s -> {
+                    context.assertTrue(this.kao.maintenanceTimeWindowTimers.containsKey(NAMESPACE + "/" + NAME),
+                            "A reconciliation should be scheduled for the opening of the next window");
+                    async.complete();
+                });
+            });
+
+        async.await();
+    }
+
+    @Test
+    public void testZkRollingUpdateMaintenanceSatisfiedSchedulesNoReconciliation(TestContext context) {
+
+        Async async = context.async();
+
+        doZkRollingUpdate(Collections.singletonList("* * 8-10 * * ?"),
+            () -> Date.from(LocalDateTime.of(2018, 11, 26, 9, 00, 0).atZone(ZoneId.of("GMT")).toInstant()),
+            r -> {
+                context.assertTrue(r.succeeded());
+                r.result().scheduleMaintenanceTimeWindowReconciliation().setHandler(s -> {
+                    context.assertTrue(this.kao.maintenanceTimeWindowTimers.isEmpty(),
+                            "No reconciliation should be scheduled when nothing was deferred");
+                    async.complete();
+                });
+            });
+
+        async.await();
+    }
+
+    @Test
+    public void testEntityOperatorCaUpToDateIgnoresMaintenance(TestContext context) {
+
+        Async async = context.async();
+
+        doEntityOperatorCaUpToDate(Collections.singletonList("* * 8-10 * * ?"), MaintenanceTimeWindowsTest::tomorrowOutsideWindows,
+            r -> {
+                context.assertTrue(r.succeeded());
+                String generation = getClusterCaGenerationPod(this.mockClient.pods().inNamespace(NAMESPACE).list().getItems().get(0));
+                context.assertEquals("1", generation, "Pod had unexpected generation " + generation);
+                r.result().scheduleMaintenanceTimeWindowReconciliation().setHandler(s -> {
+                    context.assertTrue(this.kao.maintenanceTimeWindowTimers.isEmpty(),
+                            "The windows shouldn't be consulted when the CA generations are up to date");
+                    async.complete();
+                });
+            });
+
+        async.await();
+    }
+
+    @Test
+    public void testEntityOperatorCaOutOfDateMaintenanceNotSatisfiedSchedulesReconciliation(TestContext context) {
+
+        Async async = context.async();
+
+        doEntityOperatorRollingUpdate(Collections.singletonList("* * 8-10 * * ?"), MaintenanceTimeWindowsTest::tomorrowOutsideWindows,
+            r -> {
+                context.assertTrue(r.succeeded());
+                String generation = getClusterCaGenerationPod(this.mockClient.pods().inNamespace(NAMESPACE).list().getItems().get(0));
+                context.assertEquals("0", generation, "Pod had unexpected generation " + generation);
+                r.result().scheduleMaintenanceTimeWindowReconciliation().setHandler(s -> {
+                    context.assertTrue(this.kao.maintenanceTimeWindowTimers.containsKey(NAMESPACE + "/" + NAME),
+                            "A reconciliation should be scheduled for the opening of the next window");
+                    async.complete();
+                });
+            });
+
+        async.await();
+    }
+
+    @Test
+    public void testTopicOperatorCaUpToDateIgnoresMaintenance(TestContext context) {
+
+        Async async = context.async();
+
+        doTopicOperatorCaUpToDate(Collections.singletonList("* * 8-10 * * ?"), MaintenanceTimeWindowsTest::tomorrowOutsideWindows,
+            r -> {
+                context.assertTrue(r.succeeded());
+                String generation = getClusterCaGenerationPod(this.mockClient.pods().inNamespace(NAMESPACE).list().getItems().get(0));
+                context.assertEquals("1", generation, "Pod had unexpected generation " + generation);
+                r.result().scheduleMaintenanceTimeWindowReconciliation().setHandler(s -> {
+                    context.assertTrue(this.kao.maintenanceTimeWindowTimers.isEmpty(),
+                            "The windows shouldn't be consulted when the CA generation is up to date");
+                    async.complete();
+                });
+            });
+
+        async.await();
+    }
+
     private String getClusterCaGenerationPod(String podName) {
         Pod pod = this.mockClient.pods().inNamespace(NAMESPACE).withName(podName).get();
         return pod.getMetadata().getAnnotations().get(Ca.ANNO_STRIMZI_IO_CLUSTER_CA_CERT_GENERATION);
@@ -548,4 +663,96 @@ public class MaintenanceTimeWindowsTest {
 
         this.reconciliationState.topicOperatorDeployment(dateSupplier).setHandler(handler);
     }
+
+    /**
+     * 11:00 GMT tomorrow, outside of the "* * 8-10 * * ?" window: the next window opens in the future,
+     * so that the reconciliation scheduled for it doesn't run during the test.
+     */
+    private static Date tomorrowOutsideWindows() {
+        return Date.from(LocalDate.now(ZoneOffset.UTC).plusDays(1).atTime(11, 0).toInstant(ZoneOffset.UTC));
+    }
+
+    private void doEntityOperatorCaUpToDate(List<String> maintenanceTimeWindows, Supplier<Date> dateSupplier,
+                                            Handler<AsyncResult<KafkaAssemblyOperator.ReconciliationState>> handler) {
+
+        this.init(maintenanceTimeWindows);
+
+        EntityOperator eo = EntityOperator.fromCrd(this.kafka);
+        Deployment eoDep = eo.generateDeployment(false, Collections.EMPTY_MAP);
+        eoDep.getSpec().getTemplate().getMetadata().getAnnotations().put(Ca.ANNO_STRIMZI_IO_CLUSTER_CA_CERT_GENERATION, "1");
+        eoDep.getSpec().getTemplate().getMetadata().getAnnotations().put(Ca.ANNO_STRIMZI_IO_CLIENTS_CA_CERT_GENERATION, "1");
+        this.mockClient.extensions().deployments().inNamespace(NAMESPACE).withName(EntityOperator.entityOperatorName(NAME)).create(eoDep);
+
+        this.reconciliationState.entityOperator = eo;
+        this.reconciliationState.eoDeployment = eo.generateDeployment(false, Collections.EMPTY_MAP);
+        this.reconciliationState.clusterCa = new ClusterCa(null, null, this.clusterCaSecret, null);
+        this.reconciliationState.clientsCa = new ClientsCa(null, null, this.clientsCaSecret, null, null, 1, 1, false, null);
+
+        this.reconciliationState.entityOperatorDeployment(dateSupplier).setHandler(handler);
+    }
+
+    @Deprecated
+    private void doTopicOperatorCaUpToDate(List<String> maintenanceTimeWindows, Supplier<Date> dateSupplier,
+                                           Handler<AsyncResult<KafkaAssemblyOperator.ReconciliationState>> handler) {
+
+        this.initWithTopicOperator(maintenanceTimeWindows);
+
+        TopicOperator to = TopicOperator.fromCrd(this.kafka);
+        Deployment toDep = to.generateDeployment(false);
+        toDep.getSpec().getTemplate().getMetadata().getAnnotations().put(Ca.ANNO_STRIMZI_IO_CLUSTER_CA_CERT_GENERATION, "1");
+        this.mockClient.extensions().deployments().inNamespace(NAMESPACE).withName(TopicOperator.topicOperatorName(NAME)).create(toDep);
+
+        this.reconciliationState.topicOperator = to;
+        this.reconciliationState.toDeployment = to.generateDeployment(false);
+        this.reconciliationState.clusterCa = new ClusterCa(null, null, this.clusterCaSecret, null);
+
+        this.reconciliationState.topicOperatorDeployment(dateSupplier).setHandler(handler);
+    }
+
+    private static Date gmt(int dayOfMonth, int hour, int minute) {
+        return Date.from(LocalDateTime.of(2018, 11, dayOfMonth, hour, minute).toInstant(ZoneOffset.UTC));
+    }
+
+    @Test
+    public void testNoWindows() {
+        assertSame(MaintenanceTimeWindows.NONE, MaintenanceTimeWindows.compile(null));
+        assertSame(MaintenanceTimeWindows.NONE, MaintenanceTimeWindows.compile(Collections.emptyList()));
+        assertTrue(MaintenanceTimeWindows.NONE.isSatisfiedBy(gmt(26, 11, 0)));
+        assertEquals(gmt(26, 11, 0), MaintenanceTimeWindows.NONE.nextOpening(gmt(26, 11, 0)));
+    }
+
+    @Test
+    public void testSatisfiedBy() {
+        MaintenanceTimeWindows windows = MaintenanceTimeWindows.compile(
+                Arrays.asList("* * 8-10 * * ?", "* * 14-15 * * ?"));
+        assertFalse(windows.isEmpty());
+        assertNull(windows.invalidExpression());
+        assertTrue(windows.isSatisfiedBy(gmt(26, 9, 30)));
+        assertTrue(windows.isSatisfiedBy(gmt(26, 14, 30)));
+        assertFalse(windows.isSatisfiedBy(gmt(26, 11, 0)));
+    }
+
+    @Test
+    public void testNextOpening() {
+        MaintenanceTimeWindows windows = MaintenanceTimeWindows.compile(
+                Arrays.asList("* * 8-10 * * ?", "* * 14-15 * * ?"));
+        assertEquals(gmt(26, 14, 0), windows.nextOpening(gmt(26, 11, 0)));
+        assertEquals(gmt(27, 8, 0), windows.nextOpening(gmt(26, 16, 0)));
+    }
+
+    @Test
+    public void testInvalidExpression() {
+        MaintenanceTimeWindows windows = MaintenanceTimeWindows.compile(
+                Arrays.asList("* * 8-10 * * ?", "not a cron expression", "* * 14-15 * * ?"));
+        assertEquals("not a cron expression", windows.invalidExpression());
+        assertTrue(windows.isSatisfiedBy(gmt(26, 9, 30)));
+        // The expressions after the invalid one are ignored
+        assertFalse(windows.isSatisfiedBy(gmt(26, 14, 30)));
+        assertEquals(gmt(27, 8, 0), windows.nextOpening(gmt(26, 11, 0)));
+
+        MaintenanceTimeWindows invalid = MaintenanceTimeWindows.compile(Collections.singletonList("not a cron expression"));
+        assertFalse(invalid.isEmpty());
+        assertFalse(invalid.isSatisfiedBy(gmt(26, 9, 30)));
+        assertNull(invalid.nextOpening(gmt(26, 9, 30)));
+    }
 }
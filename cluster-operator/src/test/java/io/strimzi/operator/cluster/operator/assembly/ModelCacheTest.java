@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ModelCacheTest {
+
+    private static Kafka kafka(String uid, Long generation) {
+        return new KafkaBuilder()
+                .withNewMetadata()
+                    .withNamespace("my-namespace")
+                    .withName("my-cluster")
+                    .withUid(uid)
+                    .withGeneration(generation)
+                    .withLabels(singletonMap("foo", "bar"))
+                .endMetadata()
+                .build();
+    }
+
+    private static ConfigMap configMap(String resourceVersion) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName("logging")
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    public void testReusedForSameGeneration() {
+        ModelCache<Object> cache = new ModelCache<>();
+        AtomicInteger generated = new AtomicInteger();
+        Object first = cache.get(kafka("uid-1", 1L), () -> generated.incrementAndGet());
+        assertSame(first, cache.get(kafka("uid-1", 1L), () -> generated.incrementAndGet()));
+        assertEquals(1, generated.get());
+
+        cache.get(kafka("uid-1", 2L), () -> generated.incrementAndGet());
+        assertEquals(2, generated.get());
+        // A new resource with the same name
+        cache.get(kafka("uid-2", 2L), () -> generated.incrementAndGet());
+        assertEquals(3, generated.get());
+
+        Kafka relabelled = kafka("uid-2", 2L);
+        relabelled.getMetadata().setLabels(singletonMap("foo", "baz"));
+        cache.get(relabelled, () -> generated.incrementAndGet());
+        assertEquals(4, generated.get());
+    }
+
+    @Test
+    public void testRegeneratedWhenReferencedConfigMapChanges() {
+        ModelCache<Object> cache = new ModelCache<>();
+        AtomicInteger generated = new AtomicInteger();
+        cache.get(kafka("uid", 1L), () -> generated.incrementAndGet(), configMap("10"));
+        cache.get(kafka("uid", 1L), () -> generated.incrementAndGet(), configMap("10"));
+        assertEquals(1, generated.get());
+
+        cache.get(kafka("uid", 1L), () -> generated.incrementAndGet(), configMap("11"));
+        assertEquals(2, generated.get());
+        cache.get(kafka("uid", 1L), () -> generated.incrementAndGet(), (ConfigMap) null);
+        assertEquals(3, generated.get());
+    }
+
+    @Test
+    public void testNotCachedWithoutGeneration() {
+        ModelCache<Object> cache = new ModelCache<>();
+        AtomicInteger generated = new AtomicInteger();
+        cache.get(kafka("uid", null), () -> generated.incrementAndGet());
+        cache.get(kafka("uid", null), () -> generated.incrementAndGet());
+        assertEquals(2, generated.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        ModelCache<Object> cache = new ModelCache<>();
+        AtomicInteger generated = new AtomicInteger();
+        cache.get(kafka("uid", 1L), () -> generated.incrementAndGet());
+        cache.invalidate("my-namespace", "my-cluster");
+        cache.get(kafka("uid", 1L), () -> generated.incrementAndGet());
+        assertEquals(2, generated.get());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.strimzi.operator.common.OperatorMetrics;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.ResourceType;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PodRestartPlanTest {
+
+    private final PodRestartPlan plan = new PodRestartPlan(
+            new Reconciliation("test", ResourceType.KAFKA, "namespace", "my-cluster"), "kafka");
+
+    private static Pod pod(String name) {
+        return new PodBuilder().withNewMetadata().withName(name).endMetadata().build();
+    }
+
+    private static double podRestarts(String reason) {
+        Counter counter = OperatorMetrics.registry().find("strimzi.pod.restarts")
+                .tags("component", "kafka", "reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    public void testNothingToRestart() {
+        Predicate<Pod> toRestart = plan.toRestart(pod -> EnumSet.noneOf(PodRestartPlan.Reason.class), () -> true);
+        assertFalse(toRestart.test(pod("my-cluster-kafka-0")));
+        assertFalse(plan.isRestarted("my-cluster-kafka-0"));
+    }
+
+    @Test
+    public void testRequestedRestartIsSatisfiedByAnEarlierRestart() {
+        plan.restartAll(PodRestartPlan.Reason.CA_KEY_REPLACED);
+        Predicate<Pod> requested = plan.toRestart(pod -> EnumSet.noneOf(PodRestartPlan.Reason.class), () -> true);
+        assertTrue(requested.test(pod("my-cluster-kafka-0")));
+        plan.restarted().accept(pod("my-cluster-kafka-0"));
+
+        // The manual rolling update is requested later, but the pod has already been restarted
+        plan.restartAll(PodRestartPlan.Reason.MANUAL_ROLLING_UPDATE);
+        assertTrue(plan.requestedFor("my-cluster-kafka-0").isEmpty());
+        assertEquals(EnumSet.of(PodRestartPlan.Reason.CA_KEY_REPLACED, PodRestartPlan.Reason.MANUAL_ROLLING_UPDATE),
+                plan.requestedFor("my-cluster-kafka-1"));
+
+        Predicate<Pod> rollingUpdate = plan.toRestart(pod -> EnumSet.noneOf(PodRestartPlan.Reason.class), () -> true);
+        assertFalse(rollingUpdate.test(pod("my-cluster-kafka-0")));
+        assertTrue(rollingUpdate.test(pod("my-cluster-kafka-1")));
+    }
+
+    @Test
+    public void testPodReasonsAreNotSatisfiedByAnEarlierRestart() {
+        plan.toRestart(pod -> EnumSet.of(PodRestartPlan.Reason.MANUAL_POD_CLEANING), () -> true).test(pod("my-cluster-kafka-0"));
+        plan.restarted("my-cluster-kafka-0");
+        Predicate<Pod> toRestart = plan.toRestart(pod -> EnumSet.of(PodRestartPlan.Reason.ANCILLARY_CM_CHANGE), () -> true);
+        assertTrue(toRestart.test(pod("my-cluster-kafka-0")));
+    }
+
+    @Test
+    public void testMaintenanceTimeWindows() {
+        Predicate<Pod> outsideWindows = plan.toRestart(pod -> EnumSet.of(PodRestartPlan.Reason.CA_CERT_RENEWED), () -> false);
+        assertFalse(outsideWindows.test(pod("my-cluster-kafka-0")));
+        assertFalse(plan.isRestarted("my-cluster-kafka-0"));
+
+        // A reason which ignores the windows restarts the pod for all its reasons
+        Predicate<Pod> upgrade = plan.toRestart(pod -> EnumSet.of(PodRestartPlan.Reason.CA_CERT_RENEWED,
+                PodRestartPlan.Reason.KAFKA_VERSION_CHANGE), () -> false);
+        assertTrue(upgrade.test(pod("my-cluster-kafka-0")));
+        plan.restarted("my-cluster-kafka-0");
+        assertTrue(plan.isRestarted("my-cluster-kafka-0"));
+    }
+
+    @Test
+    public void testRestartIsRecordedOnceDone() {
+        plan.restartAll(PodRestartPlan.Reason.CA_KEY_REPLACED);
+        Predicate<Pod> requested = plan.toRestart(pod -> EnumSet.noneOf(PodRestartPlan.Reason.class), () -> true);
+        // The predicate may be tested more than once before the restart, e.g. to find out whether any pod needs one
+        assertTrue(requested.test(pod("my-cluster-kafka-0")));
+        assertFalse(plan.isRestarted("my-cluster-kafka-0"));
+        assertTrue(requested.test(pod("my-cluster-kafka-0")));
+
+        double before = podRestarts("ca-key-replaced");
+        plan.restarted().accept(pod("my-cluster-kafka-0"));
+        assertTrue(plan.isRestarted("my-cluster-kafka-0"));
+        assertEquals(before + 1, podRestarts("ca-key-replaced"), 0);
+        assertFalse(requested.test(pod("my-cluster-kafka-0")));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.zjsonpatch.JsonDiff;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+public class JsonTreeDiffTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static JsonNode json(String json) throws IOException {
+        return MAPPER.readTree(json.replace('\'', '"'));
+    }
+
+    private static Set<String> diffPaths(JsonNode current, JsonNode desired) {
+        Set<String> paths = new TreeSet<>();
+        JsonTreeDiff.diff(current, desired, JsonTreeDiff.Paths.NONE, (path, c, d, ignorable) -> paths.add(path));
+        return paths;
+    }
+
+    private static Set<String> jsonPatchPaths(JsonNode current, JsonNode desired) {
+        Set<String> paths = new TreeSet<>();
+        for (JsonNode op : JsonDiff.asJson(current, desired)) {
+            paths.add(op.get("path").asText());
+        }
+        return paths;
+    }
+
+    private void assertSameAsJsonPatch(String current, String desired) throws IOException {
+        JsonNode c = json(current);
+        JsonNode d = json(desired);
+        assertEquals(jsonPatchPaths(c, d), diffPaths(c, d));
+    }
+
+    @Test
+    public void testSamePathsAsJsonPatch() throws IOException {
+        assertSameAsJsonPatch("{'a':1}", "{'a':1}");
+        assertSameAsJsonPatch("{'a':1}", "{'a':2}");
+        assertSameAsJsonPatch("{'a':1}", "{'b':2}");
+        assertSameAsJsonPatch("{'a':{'b':{'c':1,'d':2}}}", "{'a':{'b':{'c':1,'d':3,'e':4}}}");
+        assertSameAsJsonPatch("{'a':{'b':1}}", "{'a':[1]}");
+        assertSameAsJsonPatch("{'a':[{'b':1},{'b':2}]}", "{'a':[{'b':1},{'b':3}]}");
+        assertSameAsJsonPatch("{'a':[{'b':1}]}", "{'a':[{'b':1},{'b':2}]}");
+        assertSameAsJsonPatch("{'a':[{'b':1},{'b':2}]}", "{'a':[{'b':1}]}");
+        assertSameAsJsonPatch("{'a':{'x/y':1,'m~n':2}}", "{'a':{'x/y':2,'m~n':3}}");
+        assertSameAsJsonPatch("{'a':null}", "{'a':{'b':1}}");
+    }
+
+    @Test
+    public void testIgnorablePathsMatchExactly() throws IOException {
+        JsonTreeDiff.Paths ignorable = JsonTreeDiff.Paths.compile("/a/b", "/c/[0-9]+/d");
+        List<String> ignored = new ArrayList<>();
+        List<String> notIgnored = new ArrayList<>();
+        JsonTreeDiff.diff(
+                json("{'a':{'b':{'x':1}},'c':[{'d':1,'e':1},{'d':1}]}"),
+                json("{'a':{'b':2},'c':[{'d':2,'e':2},{'d':{'f':1}}]}"),
+                ignorable,
+            (path, c, d, isIgnorable) -> (isIgnorable ? ignored : notIgnored).add(path));
+        assertEquals(asList("/a/b", "/c/0/d", "/c/1/d"), ignored);
+        assertEquals(singletonList("/c/0/e"), notIgnored);
+
+        ignored.clear();
+        notIgnored.clear();
+        // A difference below an ignorable path is not ignorable
+        JsonTreeDiff.diff(json("{'a':{'b':{'x':1}}}"), json("{'a':{'b':{'x':2}}}"), ignorable,
+            (path, c, d, isIgnorable) -> (isIgnorable ? ignored : notIgnored).add(path));
+        assertEquals(singletonList("/a/b/x"), notIgnored);
+        assertEquals(0, ignored.size());
+    }
+}
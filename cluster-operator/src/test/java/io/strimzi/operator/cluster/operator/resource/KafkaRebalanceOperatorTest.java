@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.vertx.core.json.JsonObject;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaRebalanceOperatorTest {
+
+    @Test
+    public void testReassignmentJson() {
+        Map<TopicPartition, List<Integer>> partitions = new LinkedHashMap<>();
+        partitions.put(new TopicPartition("my-topic", 0), asList(3, 1));
+        partitions.put(new TopicPartition("my-topic", 2), asList(2, 3));
+        assertEquals(new JsonObject("{\"version\":1,\"partitions\":["
+                        + "{\"topic\":\"my-topic\",\"partition\":0,\"replicas\":[3,1]},"
+                        + "{\"topic\":\"my-topic\",\"partition\":2,\"replicas\":[2,3]}]}"),
+                new JsonObject(KafkaRebalanceOperator.reassignmentJson(partitions)));
+    }
+
+    @Test
+    public void testRemainingPartitions() {
+        String output = "Status of partition reassignment: \n"
+                + "Reassignment of partition my-topic-0 completed successfully\n"
+                + "Reassignment of partition my-topic-1 is still in progress\n"
+                + "Reassignment of partition my-topic-2 failed\n"
+                + "Reassignment of partition other-topic-0 is still in progress\n";
+        assertEquals(2, KafkaRebalanceOperator.remainingPartitions(output));
+        assertEquals(0, KafkaRebalanceOperator.remainingPartitions("Status of partition reassignment: \n"
+                + "Reassignment of partition my-topic-0 completed successfully\n"
+                + "Throttle was removed.\n"));
+    }
+
+    @Test
+    public void testIsComplete() {
+        assertTrue(KafkaRebalanceOperator.isComplete(null));
+        assertTrue(KafkaRebalanceOperator.isComplete(Collections.singletonMap(KafkaRebalanceOperator.STATE,
+                KafkaRebalanceOperator.STATE_COMPLETE)));
+        Map<String, String> status = new HashMap<>();
+        status.put(KafkaRebalanceOperator.STATE, KafkaRebalanceOperator.STATE_IN_PROGRESS);
+        status.put(KafkaRebalanceOperator.BROKERS, "3");
+        assertFalse(KafkaRebalanceOperator.isComplete(status));
+    }
+}
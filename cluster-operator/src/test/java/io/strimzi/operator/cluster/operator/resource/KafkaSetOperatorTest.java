@@ -7,22 +7,30 @@ package io.strimzi.operator.cluster.operator.resource;
 import io.fabric8.kubernetes.api.model.EnvVar;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.strimzi.api.kafka.model.InlineLogging;
+import io.strimzi.api.kafka.model.JbodStorage;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.PersistentClaimStorageBuilder;
+import io.strimzi.api.kafka.model.SingleVolumeStorage;
 import io.strimzi.operator.cluster.ResourceUtils;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.strimzi.operator.cluster.model.AbstractModel.containerEnvVars;
 import static io.strimzi.operator.cluster.model.KafkaCluster.ENV_VAR_KAFKA_ZOOKEEPER_CONNECT;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class KafkaSetOperatorTest {
@@ -35,12 +43,13 @@ public class KafkaSetOperatorTest {
         ZOOKEEPER_LOG_CONFIG.setLoggers(singletonMap("kafka.root.logger.level", "OFF"));
     }
 
+    private final KafkaVersion.Lookup versions = new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap());
+
     private StatefulSet a;
     private StatefulSet b;
 
     @Before
     public void before() {
-        KafkaVersion.Lookup versions = new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap());
         a = KafkaCluster.fromCrd(getResource(), versions).generateStatefulSet(true);
         b = KafkaCluster.fromCrd(getResource(), versions).generateStatefulSet(true);
     }
@@ -129,4 +138,95 @@ public class KafkaSetOperatorTest {
                 "foo", null));
         assertTrue(KafkaSetOperator.needsRollingUpdate(diff()));
     }
+
+    private StatefulSet withConfig(Map<String, Object> config) {
+        Kafka kafka = new KafkaBuilder(getResource())
+                .editSpec()
+                    .editKafka()
+                        .withConfig(config)
+                    .endKafka()
+                .endSpec()
+            .build();
+        return KafkaCluster.fromCrd(kafka, versions).generateStatefulSet(true);
+    }
+
+    @Test
+    public void testDynamicConfigurationChangeDoesNotNeedRollingUpdate() {
+        Map<String, Object> currentConfig = new HashMap<>();
+        currentConfig.put("auto.create.topics.enable", false);
+        currentConfig.put("log.retention.ms", 604800000L);
+        Map<String, Object> desiredConfig = new HashMap<>(currentConfig);
+        desiredConfig.put("log.retention.ms", 86400000L);
+        desiredConfig.put("num.io.threads", 4);
+        StatefulSet current = withConfig(currentConfig);
+        StatefulSet desired = withConfig(desiredConfig);
+
+        assertTrue(KafkaSetOperator.needsRollingUpdate(new StatefulSetDiff(current, desired)));
+        assertTrue(KafkaSetOperator.changesOnlyDynamicConfiguration(current, desired));
+        StatefulSet compared = KafkaSetOperator.withConfiguration(desired, KafkaSetOperator.configuration(current));
+        assertFalse(KafkaSetOperator.needsRollingUpdate(new StatefulSetDiff(current, compared)));
+        // The desired StatefulSet keeps its configuration
+        assertNotEquals(KafkaSetOperator.configuration(current), KafkaSetOperator.configuration(desired));
+    }
+
+    @Test
+    public void testReadOnlyConfigurationChangeNeedsRollingUpdate() {
+        Map<String, Object> currentConfig = new HashMap<>();
+        currentConfig.put("auto.create.topics.enable", false);
+        currentConfig.put("log.retention.ms", 604800000L);
+        Map<String, Object> desiredConfig = new HashMap<>(currentConfig);
+        desiredConfig.put("auto.create.topics.enable", true);
+        desiredConfig.put("log.retention.ms", 86400000L);
+
+        assertFalse(KafkaSetOperator.changesOnlyDynamicConfiguration(withConfig(currentConfig), withConfig(desiredConfig)));
+        assertFalse(KafkaSetOperator.changesOnlyDynamicConfiguration(withConfig(currentConfig), withConfig(currentConfig)));
+    }
+
+    private StatefulSet withJbod(int volumes) {
+        List<SingleVolumeStorage> storage = new ArrayList<>();
+        for (int id = 0; id < volumes; id++) {
+            storage.add(new PersistentClaimStorageBuilder().withId(id).withSize("123").withDeleteClaim(true).build());
+        }
+        JbodStorage jbod = new JbodStorage();
+        jbod.setVolumes(storage);
+        Kafka kafka = new KafkaBuilder(getResource())
+                .editSpec()
+                    .editKafka()
+                        .withStorage(jbod)
+                    .endKafka()
+                .endSpec()
+            .build();
+        return KafkaCluster.fromCrd(kafka, versions).generateStatefulSet(true);
+    }
+
+    @Test
+    public void testAddingJbodVolumesIsAllowed() {
+        assertTrue(KafkaSetOperator.addsVolumeClaimTemplates(withJbod(1), withJbod(2)));
+        assertFalse(KafkaSetOperator.addsVolumeClaimTemplates(withJbod(2), withJbod(1)));
+        assertFalse(KafkaSetOperator.addsVolumeClaimTemplates(withJbod(1), withJbod(1)));
+        assertFalse(KafkaSetOperator.addsVolumeClaimTemplates(a, withJbod(2)));
+    }
+
+    @Test
+    public void testChangingStorageTypeIsReverted() {
+        StatefulSet current = withJbod(2);
+        StatefulSet desired = b;
+        KafkaSetOperator operator = new KafkaSetOperator(null, null, 0L);
+        StatefulSetDiff diff = operator.revertStorageChanges(current, desired);
+        assertFalse(diff.changesVolumeClaimTemplates());
+        assertEquals("/var/lib/kafka/data-0,/var/lib/kafka/data-1",
+                containerEnvVars(desired.getSpec().getTemplate().getSpec().getContainers().get(0))
+                        .get(KafkaCluster.ENV_VAR_KAFKA_DATA_DIRS));
+    }
+
+    @Test
+    public void testReadOnlyLogRollAndRetentionChangesNeedRollingUpdate() {
+        for (String option : asList("log.roll.hours", "log.roll.jitter.hours", "log.retention.minutes", "log.retention.hours")) {
+            StatefulSet current = withConfig(singletonMap(option, 168));
+            StatefulSet desired = withConfig(singletonMap(option, 24));
+
+            assertFalse(option, KafkaSetOperator.changesOnlyDynamicConfiguration(current, desired));
+            assertTrue(option, KafkaSetOperator.needsRollingUpdate(new StatefulSetDiff(current, desired)));
+        }
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RebalancePlannerTest {
+
+    /** Brokers 0 to numBrokers - 1, broker i being on rack "rack-(i % numRacks)", or on no rack if numRacks is 0 */
+    private static Map<Integer, String> brokerRacks(int numBrokers, int numRacks) {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        for (int broker = 0; broker < numBrokers; broker++) {
+            brokerRacks.put(broker, numRacks > 0 ? "rack-" + broker % numRacks : null);
+        }
+        return brokerRacks;
+    }
+
+    /** The partitions of topic "t", partition i having the replicas i % numBrokers, (i + 1) % numBrokers... */
+    private static Map<TopicPartition, List<Integer>> assignment(int partitions, int numBrokers, int replicationFactor) {
+        Map<TopicPartition, List<Integer>> assignment = new HashMap<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            List<Integer> replicas = new ArrayList<>();
+            for (int i = 0; i < replicationFactor; i++) {
+                replicas.add((partition + i) % numBrokers);
+            }
+            assignment.put(new TopicPartition("t", partition), replicas);
+        }
+        return assignment;
+    }
+
+    private static Map<TopicPartition, List<Integer>> apply(Map<TopicPartition, List<Integer>> current,
+                                                            Map<TopicPartition, List<Integer>> plan) {
+        Map<TopicPartition, List<Integer>> result = new HashMap<>(current);
+        result.putAll(plan);
+        return result;
+    }
+
+    private static Map<Integer, Integer> replicaCounts(Map<Integer, String> brokerRacks, Map<TopicPartition, List<Integer>> assignment) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Integer broker : brokerRacks.keySet()) {
+            counts.put(broker, 0);
+        }
+        for (List<Integer> replicas : assignment.values()) {
+            for (Integer replica : replicas) {
+                counts.merge(replica, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    @Test
+    public void testBalancedClusterIsNotChanged() {
+        Map<TopicPartition, List<Integer>> current = assignment(30, 3, 3);
+        assertTrue(RebalancePlanner.plan(brokerRacks(3, 0), current, Collections.emptyMap()).isEmpty());
+    }
+
+    @Test
+    public void testScaleUpSpreadsTheReplicasOverTheNewBrokers() {
+        Map<Integer, String> brokerRacks = brokerRacks(6, 0);
+        Map<TopicPartition, List<Integer>> current = assignment(60, 3, 3);
+        Map<TopicPartition, List<Integer>> plan = RebalancePlanner.plan(brokerRacks, current, Collections.emptyMap());
+
+        Map<Integer, Integer> counts = replicaCounts(brokerRacks, apply(current, plan));
+        assertEquals(6, counts.size());
+        assertTrue("Unbalanced: " + counts, Collections.max(counts.values()) - Collections.min(counts.values()) <= 3);
+        // Half of the 180 replicas move to the new brokers, which is the fewest moves to balance them
+        int moves = 0;
+        for (Map.Entry<TopicPartition, List<Integer>> entry : plan.entrySet()) {
+            List<Integer> replicas = entry.getValue();
+            assertEquals(3, new HashSet<>(replicas).size());
+            for (int i = 0; i < replicas.size(); i++) {
+                if (!replicas.get(i).equals(current.get(entry.getKey()).get(i))) {
+                    moves++;
+                }
+            }
+        }
+        assertTrue("Too many moves: " + moves, moves <= 90);
+    }
+
+    @Test
+    public void testScaleDownMovesTheReplicasOffTheRemovedBrokers() {
+        Map<Integer, String> brokerRacks = brokerRacks(3, 0);
+        Map<TopicPartition, List<Integer>> current = assignment(12, 4, 2);
+        Map<TopicPartition, List<Integer>> plan = RebalancePlanner.plan(brokerRacks, current, Collections.emptyMap());
+
+        for (List<Integer> replicas : apply(current, plan).values()) {
+            assertFalse(replicas.contains(3));
+            assertEquals(2, new HashSet<>(replicas).size());
+        }
+        // The replicas which are not on the removed broker keep their position
+        TopicPartition partition = new TopicPartition("t", 3);
+        assertEquals(Integer.valueOf(0), plan.get(partition).get(1));
+    }
+
+    @Test
+    public void testLargePartitionsAreBalancedBySize() {
+        Map<Integer, String> brokerRacks = brokerRacks(2, 0);
+        Map<TopicPartition, List<Integer>> current = new HashMap<>();
+        Map<TopicPartition, Long> sizes = new HashMap<>();
+        // Broker 0 has one 1000 bytes partition and broker 1 ten 10 bytes ones
+        current.put(new TopicPartition("big", 0), asList(0));
+        sizes.put(new TopicPartition("big", 0), 1000L);
+        for (int partition = 0; partition < 10; partition++) {
+            current.put(new TopicPartition("small", partition), asList(1));
+            sizes.put(new TopicPartition("small", partition), 10L);
+        }
+        // Moving the big partition would make it worse, and moving the small ones already on broker 1 too
+        assertTrue(RebalancePlanner.plan(brokerRacks, current, sizes).isEmpty());
+
+        // With a third broker, the big partition stays alone and the small ones are shared
+        brokerRacks = brokerRacks(3, 0);
+        Map<TopicPartition, List<Integer>> plan = RebalancePlanner.plan(brokerRacks, current, sizes);
+        assertFalse(plan.containsKey(new TopicPartition("big", 0)));
+        Map<Integer, Integer> counts = replicaCounts(brokerRacks, apply(current, plan));
+        assertEquals(Integer.valueOf(1), counts.get(0));
+        // Within a tenth of the average load of 366 bytes
+        assertTrue("Unbalanced: " + counts, Math.abs(counts.get(1) - counts.get(2)) * 10 <= 36);
+    }
+
+    @Test
+    public void testRacksAreKept() {
+        // Brokers 0 and 3 on rack-0, 1 and 4 on rack-1, 2 and 5 on rack-2
+        Map<Integer, String> brokerRacks = brokerRacks(6, 3);
+        Map<TopicPartition, List<Integer>> current = assignment(30, 3, 3);
+        Map<TopicPartition, List<Integer>> plan = RebalancePlanner.plan(brokerRacks, current, Collections.emptyMap());
+
+        assertFalse(plan.isEmpty());
+        for (List<Integer> replicas : apply(current, plan).values()) {
+            HashSet<String> racks = new HashSet<>();
+            for (Integer replica : replicas) {
+                racks.add(brokerRacks.get(replica));
+            }
+            assertEquals(3, racks.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoreReplicasThanBrokers() {
+        RebalancePlanner.plan(brokerRacks(2, 0), assignment(1, 3, 3), Collections.emptyMap());
+    }
+}
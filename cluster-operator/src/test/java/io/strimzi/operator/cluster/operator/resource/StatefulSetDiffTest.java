@@ -5,12 +5,17 @@
 package io.strimzi.operator.cluster.operator.resource;
 
 import io.fabric8.kubernetes.api.model.ConfigMapVolumeSourceBuilder;
+import io.fabric8.kubernetes.api.model.ContainerBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
+import io.fabric8.kubernetes.api.model.PodSecurityContextBuilder;
 import io.fabric8.kubernetes.api.model.VolumeBuilder;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
 import org.junit.Test;
 
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class StatefulSetDiffTest {
     @Test
@@ -47,4 +52,86 @@ public class StatefulSetDiffTest {
             .build();
         assertFalse(new StatefulSetDiff(ss1, ss2).changesSpecTemplateSpec());
     }
+
+    private static StatefulSet statefulSet() {
+        return new StatefulSetBuilder()
+            .withNewMetadata()
+                .withNamespace("test")
+                .withName("foo")
+                .withLabels(singletonMap("app", "foo"))
+            .endMetadata()
+            .withNewSpec()
+                .withReplicas(3)
+                .withNewTemplate()
+                    .withNewSpec()
+                        .addToContainers(new ContainerBuilder()
+                                .withName("foo")
+                                .withImage("foo:1")
+                                .build())
+                    .endSpec()
+                .endTemplate()
+                .addToVolumeClaimTemplates(new PersistentVolumeClaimBuilder()
+                        .withNewMetadata()
+                            .withName("data")
+                        .endMetadata()
+                        .build())
+            .endSpec()
+            .build();
+    }
+
+    @Test
+    public void testEqual() {
+        StatefulSetDiff diff = new StatefulSetDiff(statefulSet(), statefulSet());
+        assertTrue(diff.isEmpty());
+        assertFalse(diff.changesSpecTemplateSpec());
+    }
+
+    @Test
+    public void testServerDefaultsIgnored() {
+        StatefulSet current = statefulSet();
+        current.getSpec().setRevisionHistoryLimit(10);
+        current.getSpec().getTemplate().getSpec().setSecurityContext(new PodSecurityContextBuilder().withFsGroup(0L).build());
+        current.getSpec().getTemplate().getSpec().getContainers().get(0).setImagePullPolicy("IfNotPresent");
+        assertTrue(new StatefulSetDiff(current, statefulSet()).isEmpty());
+    }
+
+    @Test
+    public void testChangeBelowIgnorablePathNotIgnored() {
+        StatefulSet current = statefulSet();
+        current.getSpec().getTemplate().getSpec().setSecurityContext(new PodSecurityContextBuilder().withFsGroup(0L).build());
+        StatefulSet desired = statefulSet();
+        desired.getSpec().getTemplate().getSpec().setSecurityContext(new PodSecurityContextBuilder().withFsGroup(1L).build());
+        StatefulSetDiff diff = new StatefulSetDiff(current, desired);
+        assertFalse(diff.isEmpty());
+        assertTrue(diff.changesSpecTemplateSpec());
+    }
+
+    @Test
+    public void testChanges() {
+        StatefulSet desired = statefulSet();
+        desired.getSpec().getTemplate().getSpec().getContainers().get(0).setImage("foo:2");
+        StatefulSetDiff diff = new StatefulSetDiff(statefulSet(), desired);
+        assertTrue(diff.changesSpecTemplateSpec());
+        assertFalse(diff.changesLabels());
+        assertFalse(diff.changesSpecReplicas());
+        assertFalse(diff.changesVolumeClaimTemplates());
+
+        desired = statefulSet();
+        desired.getMetadata().setLabels(singletonMap("app", "bar"));
+        desired.getSpec().setReplicas(4);
+        diff = new StatefulSetDiff(statefulSet(), desired);
+        assertTrue(diff.changesLabels());
+        assertTrue(diff.changesSpecReplicas());
+        assertFalse(diff.changesSpecTemplateSpec());
+
+        desired = statefulSet();
+        desired.getSpec().getVolumeClaimTemplates().add(new PersistentVolumeClaimBuilder()
+                .withNewMetadata()
+                    .withName("more-data")
+                .endMetadata()
+                .build());
+        diff = new StatefulSetDiff(statefulSet(), desired);
+        assertTrue(diff.changesVolumeClaimTemplates());
+        assertFalse(diff.changesSpecTemplateSpec());
+    }
 }
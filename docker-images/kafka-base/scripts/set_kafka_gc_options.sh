@@ -13,4 +13,10 @@ function get_gc_opts {
 
 if [ "${STRIMZI_KAFKA_GC_LOG_ENABLED}" == "true" ]; then
     export KAFKA_GC_LOG_OPTS=$(get_gc_opts)
-fi
\ No newline at end of file
+fi
+
+# The GC tuning derived by the cluster operator from the resources of the container
+# (kafka-run-class.sh passes the GC log options to the JVM as they are)
+if [ -n "${STRIMZI_KAFKA_GC_OPTS}" ]; then
+    export KAFKA_GC_LOG_OPTS="${KAFKA_GC_LOG_OPTS} ${STRIMZI_KAFKA_GC_OPTS}"
+fi
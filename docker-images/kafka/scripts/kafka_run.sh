@@ -10,8 +10,16 @@ export KAFKA_APP_LOGS_BASE_NAME="logs"
 export KAFKA_BROKER_ID=$(hostname | awk -F'-' '{print $NF}')
 echo "KAFKA_BROKER_ID=$KAFKA_BROKER_ID"
 
-# create data dir
-export KAFKA_LOG_DIRS=$KAFKA_VOLUME$KAFKA_LOG_BASE_NAME$KAFKA_BROKER_ID
+# create data dir, one on each of the volumes of a JBOD storage
+if [ -n "$KAFKA_DATA_DIRS" ]; then
+  KAFKA_LOG_DIRS=""
+  for DATA_DIR in ${KAFKA_DATA_DIRS//,/ }; do
+    KAFKA_LOG_DIRS="${KAFKA_LOG_DIRS:+$KAFKA_LOG_DIRS,}$DATA_DIR/$KAFKA_LOG_BASE_NAME$KAFKA_BROKER_ID"
+  done
+  export KAFKA_LOG_DIRS
+else
+  export KAFKA_LOG_DIRS=$KAFKA_VOLUME$KAFKA_LOG_BASE_NAME$KAFKA_BROKER_ID
+fi
 echo "KAFKA_LOG_DIRS=$KAFKA_LOG_DIRS"
 
 # Disable Kafka's GC logging (which logs to a file)...
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics of the operators themselves, exposed in the Prometheus format on the {@code /metrics} path
+ * of the operators' health servers.
+ * The Vert.x instance has to be created with {@link #vertxOptions()} for the worker pool metrics
+ * to be collected. Without it (e.g. in tests) the operator metrics are still collected in a local registry.
+ */
+public class OperatorMetrics {
+
+    public static final String METRICS_PATH = "/metrics";
+
+    private static final String PREFIX = "strimzi.";
+
+    private static final PrometheusMeterRegistry LOCAL_REGISTRY = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    private static final Meters<Timer> RECONCILIATION_STEPS = new Meters<>((registry, kind, step) ->
+            Timer.builder(PREFIX + "reconciliation.step")
+                    .description("Duration of the individual reconciliation steps")
+                    .tag("kind", kind)
+                    .tag("step", step)
+                    .publishPercentileHistogram()
+                    .register(registry));
+
+    private static final Meters<Timer> RECONCILIATIONS = new Meters<>((registry, kind, outcome) ->
+            Timer.builder(PREFIX + "reconciliation")
+                    .description("Duration of the reconciliations")
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+
+    private static final Meters<Timer> LOCK_WAITS = new Meters<>((registry, kind, outcome) ->
+            Timer.builder(PREFIX + "reconciliation.lock.wait")
+                    .description("Time spent waiting for the lock of the reconciled resource")
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+
+    private static final Meters<Counter> KUBERNETES_API_CALLS = new Meters<>((registry, kind, verb) ->
+            Counter.builder(PREFIX + "kubernetes.api.calls")
+                    .description("Calls to the Kubernetes API")
+                    .tag("kind", kind)
+                    .tag("verb", verb)
+                    .register(registry));
+
+    private static final Meters<Counter> POD_RESTARTS = new Meters<>((registry, component, reason) ->
+            Counter.builder(PREFIX + "pod.restarts")
+                    .description("Restarts of pods by the operator, by reason")
+                    .tag("component", component)
+                    .tag("reason", reason)
+                    .register(registry));
+
+    private OperatorMetrics() { }
+
+    /**
+     * @return Options for creating a Vert.x instance which collects its metrics (including the worker pools) into the operator registry.
+     */
+    public static VertxOptions vertxOptions() {
+        return new VertxOptions().setMetricsOptions(
+                new MicrometerMetricsOptions()
+                        .setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true))
+                        .setEnabled(true));
+    }
+
+    /**
+     * @return The registry the operator metrics are collected into.
+     */
+    public static MeterRegistry registry() {
+        MeterRegistry registry = BackendRegistries.getDefaultNow();
+        return registry != null ? registry : LOCAL_REGISTRY;
+    }
+
+    /**
+     * Records the duration of a single step of a reconciliation.
+     *
+     * @param kind The kind of the reconciled resource
+     * @param step The name of the step
+     * @param startNanos The {@link System#nanoTime()} at which the step started
+     */
+    public static void reconciliationStep(String kind, String step, long startNanos) {
+        RECONCILIATION_STEPS.get(kind, step).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the duration of a whole reconciliation.
+     *
+     * @param kind The kind of the reconciled resource
+     * @param succeeded Whether the reconciliation succeeded
+     * @param startNanos The {@link System#nanoTime()} at which the reconciliation started
+     */
+    public static void reconciliation(String kind, boolean succeeded, long startNanos) {
+        RECONCILIATIONS.get(kind, succeeded ? "succeeded" : "failed").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records how long a reconciliation waited for the lock of the reconciled resource.
+     *
+     * @param kind The kind of the reconciled resource
+     * @param acquired Whether the lock was acquired or the wait timed out
+     * @param startNanos The {@link System#nanoTime()} at which the reconciliation started waiting
+     */
+    public static void lockWait(String kind, boolean acquired, long startNanos) {
+        LOCK_WAITS.get(kind, acquired ? "acquired" : "timeout").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a call to the Kubernetes API.
+     *
+     * @param kind The kind of the resource
+     * @param verb The operation (e.g. get, list, create, patch, delete, watch)
+     */
+    public static void kubernetesApiCall(String kind, String verb) {
+        KUBERNETES_API_CALLS.get(kind, verb).increment();
+    }
+
+    /**
+     * Counts a restart of a pod by an operator, once for each of the reasons it was restarted for.
+     *
+     * @param component The component the pod belongs to (e.g. kafka, zookeeper)
+     * @param reason The reason for the restart
+     */
+    public static void podRestart(String component, String reason) {
+        POD_RESTARTS.get(component, reason).increment();
+    }
+
+    /**
+     * Registers a gauge whose value is obtained by applying the {@code function} to the {@code obj}.
+     * The gauge holds only a weak reference to the {@code obj}.
+     *
+     * @param name The name of the gauge, without the common prefix
+     * @param description The description of the gauge
+     * @param obj The object the value is obtained from
+     * @param function The function obtaining the value
+     * @param tags The tags of the gauge, as key value pairs
+     * @param <T> The type of the object
+     */
+    public static <T> void gauge(String name, String description, T obj, ToDoubleFunction<T> function, String... tags) {
+        Gauge.builder(PREFIX + name, obj, function)
+                .description(description)
+                .tags(tags)
+                .register(registry());
+    }
+
+    /**
+     * Registers a monotonically increasing counter whose value is obtained by applying the {@code function} to the {@code obj}.
+     * The counter holds only a weak reference to the {@code obj}.
+     *
+     * @param name The name of the counter, without the common prefix
+     * @param description The description of the counter
+     * @param obj The object the value is obtained from
+     * @param function The function obtaining the value
+     * @param tags The tags of the counter, as key value pairs
+     * @param <T> The type of the object
+     */
+    public static <T> void counter(String name, String description, T obj, ToDoubleFunction<T> function, String... tags) {
+        FunctionCounter.builder(PREFIX + name, obj, function)
+                .description(description)
+                .tags(tags)
+                .register(registry());
+    }
+
+    /**
+     * Responds to the given request with the current metrics in the Prometheus text format.
+     *
+     * @param request The HTTP request
+     */
+    public static void handleRequest(HttpServerRequest request) {
+        MeterRegistry registry = registry();
+        if (registry instanceof PrometheusMeterRegistry) {
+            request.response()
+                    .putHeader("Content-Type", "text/plain; version=0.0.4")
+                    .setStatusCode(200)
+                    .end(((PrometheusMeterRegistry) registry).scrape());
+        } else {
+            request.response().setStatusCode(404).end();
+        }
+    }
+
+    /**
+     * The meters of one name, registered once for each pair of tag values, so that recording an event
+     * doesn't build and look up the meter again.
+     * The meters are registered again when the registry changes (e.g. when a Vert.x instance with metrics is created).
+     *
+     * @param <M> The type of the meters
+     */
+    private static class Meters<M extends Meter> {
+
+        /** Registers the meter of the given tag values in the given registry */
+        interface Factory<M> {
+            M register(MeterRegistry registry, String tag1, String tag2);
+        }
+
+        private final Factory<M> factory;
+        private volatile Registered<M> registered;
+
+        Meters(Factory<M> factory) {
+            this.factory = factory;
+        }
+
+        M get(String tag1, String tag2) {
+            MeterRegistry registry = registry();
+            Registered<M> current = registered;
+            if (current == null || current.registry != registry) {
+                current = new Registered<>(registry);
+                registered = current;
+            }
+            ConcurrentHashMap<String, M> byTag2 = current.meters.get(tag1);
+            if (byTag2 == null) {
+                byTag2 = current.meters.computeIfAbsent(tag1, t -> new ConcurrentHashMap<>());
+            }
+            M meter = byTag2.get(tag2);
+            if (meter == null) {
+                meter = byTag2.computeIfAbsent(tag2, t -> factory.register(registry, tag1, t));
+            }
+            return meter;
+        }
+
+        /** The meters registered in a registry, by their first and second tag values */
+        private static class Registered<M> {
+            private final MeterRegistry registry;
+            private final ConcurrentHashMap<String, ConcurrentHashMap<String, M>> meters = new ConcurrentHashMap<>();
+
+            Registered(MeterRegistry registry) {
+                this.registry = registry;
+            }
+        }
+    }
+}
@@ -33,6 +33,14 @@ public class Reconciliation {
         this.id = IDS.getAndIncrement();
     }
 
+    public int id() {
+        return id;
+    }
+
+    public String trigger() {
+        return trigger;
+    }
+
     public ResourceType type() {
         return type;
     }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The trace of a single {@link Reconciliation}: the time spent in each of its steps and in each call
+ * to the Kubernetes API made on its behalf.</p>
+ *
+ * <p>At most {@link #MAX_SPANS} spans are kept: the spans recorded after that are only counted.
+ * Spans can be recorded from several threads concurrently (e.g. worker threads running the Kubernetes API calls).</p>
+ */
+public class ReconciliationTrace {
+
+    static final int MAX_SPANS = 256;
+
+    private final Reconciliation reconciliation;
+    private final long startMillis;
+    private final long startNanos;
+
+    private final List<Span> spans = new ArrayList<>();
+    private int dropped;
+
+    /** The resources the traced reconciliation made calls on, as keys of {@link ReconciliationTracer} */
+    private final Set<String> resources = new HashSet<>();
+
+    private volatile long durationNanos = -1;
+    private volatile boolean failed;
+
+    private static class Span {
+        private final String name;
+        private final String operation;
+        private final String detail;
+        private final long startNanos;
+        private final long durationNanos;
+        private final boolean succeeded;
+
+        Span(String name, String operation, String detail, long startNanos, long durationNanos, boolean succeeded) {
+            this.name = name;
+            this.operation = operation;
+            this.detail = detail;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.succeeded = succeeded;
+        }
+    }
+
+    ReconciliationTrace(Reconciliation reconciliation, long startNanos) {
+        this.reconciliation = reconciliation;
+        this.startNanos = startNanos;
+        this.startMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public Reconciliation reconciliation() {
+        return reconciliation;
+    }
+
+    /**
+     * Records a span which started at {@code spanStartNanos} and ends now.
+     *
+     * @param name The name of the span (e.g. the name of the reconciliation step or the resource kind)
+     * @param operation The operation (e.g. the verb of a Kubernetes API call), or null
+     * @param detail Further detail about the span (e.g. the name of the resource), or null
+     * @param spanStartNanos The {@link System#nanoTime()} at which the span started
+     * @param succeeded Whether the traced operation succeeded
+     */
+    public void span(String name, String operation, String detail, long spanStartNanos, boolean succeeded) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (spans.size() < MAX_SPANS) {
+                spans.add(new Span(name, operation, detail, spanStartNanos, now - spanStartNanos, succeeded));
+            } else {
+                dropped++;
+            }
+        }
+    }
+
+    /**
+     * @return Whether the given resource wasn't known to be used by the traced reconciliation yet
+     */
+    synchronized boolean addResource(String resource) {
+        return resources.add(resource);
+    }
+
+    synchronized Set<String> resources() {
+        return new HashSet<>(resources);
+    }
+
+    void end(boolean succeeded) {
+        this.failed = !succeeded;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return Whether the traced reconciliation has finished
+     */
+    public boolean finished() {
+        return durationNanos >= 0;
+    }
+
+    /**
+     * @return The trace as JSON, with the start of the spans relative to the start of the reconciliation and all times in milliseconds
+     */
+    public synchronized JsonObject toJson() {
+        JsonArray spansJson = new JsonArray();
+        for (Span span : spans) {
+            JsonObject spanJson = new JsonObject()
+                    .put("name", span.name)
+                    .put("startMs", toMillis(span.startNanos - startNanos))
+                    .put("durationMs", toMillis(span.durationNanos))
+                    .put("succeeded", span.succeeded);
+            if (span.operation != null) {
+                spanJson.put("operation", span.operation);
+            }
+            if (span.detail != null) {
+                spanJson.put("detail", span.detail);
+            }
+            spansJson.add(spanJson);
+        }
+        long duration = durationNanos;
+        JsonObject json = new JsonObject()
+                .put("id", reconciliation.id())
+                .put("kind", String.valueOf(reconciliation.type()))
+                .put("namespace", reconciliation.namespace())
+                .put("name", reconciliation.name())
+                .put("trigger", reconciliation.trigger())
+                .put("startTime", startMillis)
+                .put("finished", duration >= 0);
+        if (duration >= 0) {
+            json.put("durationMs", toMillis(duration))
+                    .put("succeeded", !failed);
+        }
+        return json.put("droppedSpans", dropped)
+                .put("spans", spansJson);
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
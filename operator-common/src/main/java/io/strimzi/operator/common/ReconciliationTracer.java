@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.strimzi.operator.common.model.Labels;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Keeps the {@link ReconciliationTrace}s of the reconciliations in progress and a bounded ring buffer
+ * of the traces of the most recently finished reconciliations.
+ * The traces are exposed as JSON on the {@code /traces} path of the operators' health servers.</p>
+ *
+ * <p>Calls to the Kubernetes API don't know which reconciliation they were made for, so they are attributed
+ * to the reconciliation in progress of the assembly given by the {@link Labels#STRIMZI_KIND_LABEL} and
+ * {@link Labels#STRIMZI_CLUSTER_LABEL} labels of the resource, in the namespace of the resource.
+ * The calls whose labels aren't known (e.g. deleting a resource or waiting for it) are attributed to the reconciliation
+ * which made an earlier call on the same resource, and aren't traced if there is none.
+ * When no reconciliation is in progress, recording a call is a single map lookup.</p>
+ */
+public class ReconciliationTracer {
+
+    public static final String TRACES_PATH = "/traces";
+
+    static final int CAPACITY = 64;
+
+    /** The traces of the reconciliations in progress, by kind, namespace and name of the assembly */
+    private static final ConcurrentHashMap<String, ReconciliationTrace> ACTIVE = new ConcurrentHashMap<>();
+
+    /** The traces of the reconciliations in progress, by kind, namespace and name of the resources they made calls on */
+    private static final ConcurrentHashMap<String, ReconciliationTrace> RESOURCES = new ConcurrentHashMap<>();
+
+    private static final ReconciliationTrace[] RECENT = new ReconciliationTrace[CAPACITY];
+    private static int next;
+
+    private ReconciliationTracer() { }
+
+    private static String key(String kind, String namespace, String name) {
+        return kind + "/" + namespace + "/" + name;
+    }
+
+    private static String key(Reconciliation reconciliation) {
+        return key(String.valueOf(reconciliation.type()), reconciliation.namespace(), reconciliation.name());
+    }
+
+    /**
+     * Starts tracing the given reconciliation. The calls to the Kubernetes API are attributed to it
+     * unless another reconciliation of the same assembly is already in progress.
+     *
+     * @param reconciliation The reconciliation
+     * @param startNanos The {@link System#nanoTime()} at which the reconciliation started
+     * @return The trace
+     */
+    public static ReconciliationTrace start(Reconciliation reconciliation, long startNanos) {
+        ReconciliationTrace trace = new ReconciliationTrace(reconciliation, startNanos);
+        ACTIVE.putIfAbsent(key(reconciliation), trace);
+        return trace;
+    }
+
+    /**
+     * Finishes the given trace and moves it to the buffer of recent traces,
+     * replacing the oldest trace when the buffer is full.
+     *
+     * @param trace The trace
+     * @param succeeded Whether the reconciliation succeeded
+     */
+    public static void end(ReconciliationTrace trace, boolean succeeded) {
+        trace.end(succeeded);
+        ACTIVE.remove(key(trace.reconciliation()), trace);
+        for (String resource : trace.resources()) {
+            RESOURCES.remove(resource, trace);
+        }
+        synchronized (RECENT) {
+            RECENT[next] = trace;
+            next = (next + 1) % CAPACITY;
+        }
+    }
+
+    /**
+     * @param reconciliation The reconciliation
+     * @return The trace of the given reconciliation, or null if it is not being traced
+     */
+    public static ReconciliationTrace active(Reconciliation reconciliation) {
+        ReconciliationTrace trace = ACTIVE.get(key(reconciliation));
+        return trace != null && trace.reconciliation() == reconciliation ? trace : null;
+    }
+
+    /**
+     * Records a call to the Kubernetes API in the trace of the reconciliation it was made for, if any.
+     *
+     * @param namespace The namespace of the resource
+     * @param name The name of the resource, or null for a call on several resources (e.g. list)
+     * @param labels The labels of the resource (or the selector of the resources), or null if unknown
+     * @param kind The kind of the resource
+     * @param verb The operation (e.g. get, create, patch, delete)
+     * @param startNanos The {@link System#nanoTime()} at which the call started
+     * @param succeeded Whether the call succeeded
+     */
+    public static void resourceCall(String namespace, String name, Map<String, String> labels,
+                                    String kind, String verb, long startNanos, boolean succeeded) {
+        if (ACTIVE.isEmpty()) {
+            return;
+        }
+        String resource = name != null ? key(kind, namespace, name) : null;
+        ReconciliationTrace trace = null;
+        if (labels != null) {
+            String assemblyKind = labels.get(Labels.STRIMZI_KIND_LABEL);
+            String assemblyName = labels.get(Labels.STRIMZI_CLUSTER_LABEL);
+            if (assemblyKind != null && assemblyName != null) {
+                trace = ACTIVE.get(key(assemblyKind, namespace, assemblyName));
+            }
+        }
+        if (trace != null) {
+            if (resource != null && trace.addResource(resource)) {
+                RESOURCES.put(resource, trace);
+                if (trace.finished()) {
+                    // The trace ended concurrently, after removing its resources
+                    RESOURCES.remove(resource, trace);
+                }
+            }
+        } else if (resource != null) {
+            trace = RESOURCES.get(resource);
+        }
+        if (trace != null) {
+            trace.span(kind, verb, name, startNanos, succeeded);
+        }
+    }
+
+    /**
+     * @return The traces of the reconciliations in progress followed by the recently finished ones, newest first
+     */
+    public static JsonArray toJson() {
+        JsonArray traces = new JsonArray();
+        for (ReconciliationTrace trace : ACTIVE.values()) {
+            traces.add(trace.toJson());
+        }
+        ReconciliationTrace[] recent = new ReconciliationTrace[CAPACITY];
+        int newest;
+        synchronized (RECENT) {
+            System.arraycopy(RECENT, 0, recent, 0, CAPACITY);
+            newest = next;
+        }
+        for (int i = 1; i <= CAPACITY; i++) {
+            ReconciliationTrace trace = recent[(newest - i + CAPACITY) % CAPACITY];
+            if (trace != null) {
+                traces.add(trace.toJson());
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * Responds to the given request with the traces in JSON.
+     *
+     * @param request The HTTP request
+     */
+    public static void handleRequest(HttpServerRequest request) {
+        request.response()
+                .putHeader("Content-Type", "application/json")
+                .setStatusCode(200)
+                .end(toJson().encode());
+    }
+}
@@ -7,20 +7,35 @@ package io.strimzi.operator.common.operator.resource;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
-import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.OperatorMetrics;
+import io.strimzi.operator.common.ReconciliationTracer;
 import io.strimzi.operator.common.Util;
 import io.strimzi.operator.common.model.Labels;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 /**
  * Abstract resource creation, for a generic resource type {@code R}.
@@ -35,6 +50,11 @@ import java.util.function.BiPredicate;
 public abstract class AbstractResourceOperator<C extends KubernetesClient, T extends HasMetadata,
         L extends KubernetesResourceList/*<T>*/, D, R extends Resource<T, D>> {
 
+    /**
+     * The namespace which, passed to {@link #list(String, Labels)} or to the watch methods, means all the namespaces.
+     */
+    public static final String ANY_NAMESPACE = "*";
+
     protected final Logger log = LogManager.getLogger(getClass());
     protected final Vertx vertx;
     protected final C client;
@@ -79,9 +99,9 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
 
         Future<ReconcileResult<T>> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        reconcileExecutor().executeBlocking(
             future -> {
-                T current = operation().inNamespace(namespace).withName(name).get();
+                T current = get(namespace, name);
                 if (desired != null) {
                     if (current == null) {
                         log.debug("{} {}/{} does not exist, creating it", resourceKind, namespace, name);
@@ -108,16 +128,35 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         return fut;
     }
 
+    /**
+     * @return The labels of the given resource, for attributing the calls on it to a reconciliation,
+     * or null if there is no resource.
+     */
+    private static Map<String, String> labels(HasMetadata resource) {
+        return resource != null && resource.getMetadata() != null ? resource.getMetadata().getLabels() : null;
+    }
+
+    /**
+     * @return The executor the blocking calls of {@link #reconcile(String, String, HasMetadata)} are run on.
+     */
+    protected WorkerExecutor reconcileExecutor() {
+        return vertx.createSharedWorkerExecutor("kubernetes-ops-pool");
+    }
+
     /**
      * Deletes the resource with the given namespace and name
      * and completes the given future accordingly
      */
     protected Future<ReconcileResult<T>> internalDelete(String namespace, String name) {
+        long start = System.nanoTime();
         try {
+            OperatorMetrics.kubernetesApiCall(resourceKind, "delete");
             operation().inNamespace(namespace).withName(name).delete();
+            ReconciliationTracer.resourceCall(namespace, name, null, resourceKind, "delete", start, true);
             log.debug("{} {} in namespace {} has been deleted", resourceKind, name, namespace);
             return Future.succeededFuture(ReconcileResult.deleted());
         } catch (Exception e) {
+            ReconciliationTracer.resourceCall(namespace, name, null, resourceKind, "delete", start, false);
             log.error("Caught exception while deleting {} {} in namespace {}", resourceKind, name, namespace, e);
             return Future.failedFuture(e);
         }
@@ -132,11 +171,15 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     }
 
     protected Future<ReconcileResult<T>> internalPatch(String namespace, String name, T current, T desired, boolean cascading) {
+        long start = System.nanoTime();
         try {
+            OperatorMetrics.kubernetesApiCall(resourceKind, "patch");
             T result = operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired);
+            ReconciliationTracer.resourceCall(namespace, name, labels(desired), resourceKind, "patch", start, true);
             log.debug("{} {} in namespace {} has been patched", resourceKind, name, namespace);
             return Future.succeededFuture(wasChanged(current, result) ? ReconcileResult.patched(result) : ReconcileResult.noop(result));
         } catch (Exception e) {
+            ReconciliationTracer.resourceCall(namespace, name, labels(desired), resourceKind, "patch", start, false);
             log.error("Caught exception while patching {} {} in namespace {}", resourceKind, name, namespace, e);
             return Future.failedFuture(e);
         }
@@ -158,11 +201,15 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * and completes the given future accordingly.
      */
     protected Future<ReconcileResult<T>> internalCreate(String namespace, String name, T desired) {
+        long start = System.nanoTime();
         try {
+            OperatorMetrics.kubernetesApiCall(resourceKind, "create");
             ReconcileResult<T> result = ReconcileResult.created(operation().inNamespace(namespace).withName(name).create(desired));
+            ReconciliationTracer.resourceCall(namespace, name, labels(desired), resourceKind, "create", start, true);
             log.debug("{} {} in namespace {} has been created", resourceKind, name, namespace);
             return Future.succeededFuture(result);
         } catch (Exception e) {
+            ReconciliationTracer.resourceCall(namespace, name, labels(desired), resourceKind, "create", start, false);
             log.error("Caught exception while creating {} {} in namespace {}", resourceKind, name, namespace, e);
             return Future.failedFuture(e);
         }
@@ -175,7 +222,17 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return The resource, or null if it doesn't exist.
      */
     public T get(String namespace, String name) {
-        return operation().inNamespace(namespace).withName(name).get();
+        OperatorMetrics.kubernetesApiCall(resourceKind, "get");
+        long start = System.nanoTime();
+        T resource = null;
+        boolean succeeded = false;
+        try {
+            resource = operation().inNamespace(namespace).withName(name).get();
+            succeeded = true;
+            return resource;
+        } finally {
+            ReconciliationTracer.resourceCall(namespace, name, labels(resource), resourceKind, "get", start, succeeded);
+        }
     }
 
     /**
@@ -197,22 +254,40 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     /**
      * Synchronously list the resources in the given {@code namespace} with the given {@code selector}.
-     * @param namespace The namespace.
+     * @param namespace The namespace, or {@link #ANY_NAMESPACE}.
      * @param selector The selector.
      * @return A list of matching resources.
      */
     @SuppressWarnings("unchecked")
     public List<T> list(String namespace, Labels selector) {
-        NonNamespaceOperation<T, L, D, R> tldrNonNamespaceOperation = operation().inNamespace(namespace);
-        if (selector != null) {
-            Map<String, String> labels = selector.toMap();
-            return tldrNonNamespaceOperation.withLabels(labels)
-            .list()
-                    .getItems();
+        OperatorMetrics.kubernetesApiCall(resourceKind, "list");
+        long start = System.nanoTime();
+        Map<String, String> labels = selector != null ? selector.toMap() : null;
+        boolean succeeded = false;
+        try {
+            FilterWatchListMultiDeletable<T, L, Boolean, Watch, Watcher<T>> tldrOperation = inNamespace(namespace);
+            List<T> items;
+            if (labels != null) {
+                items = tldrOperation.withLabels(labels).list().getItems();
+            } else {
+                items = tldrOperation.list().getItems();
+            }
+            succeeded = true;
+            return items;
+        } finally {
+            ReconciliationTracer.resourceCall(namespace, null, labels, resourceKind, "list", start, succeeded);
+        }
+    }
+
+    /**
+     * @param namespace The namespace, or {@link #ANY_NAMESPACE}.
+     * @return The operation on the resources in the given namespace.
+     */
+    protected FilterWatchListMultiDeletable<T, L, Boolean, Watch, Watcher<T>> inNamespace(String namespace) {
+        if (ANY_NAMESPACE.equals(namespace)) {
+            return operation().inAnyNamespace();
         } else {
-            return tldrNonNamespaceOperation
-                    .list()
-                    .getItems();
+            return operation().inNamespace(namespace);
         }
     }
 
@@ -227,10 +302,150 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @param predicate The predicate.
      */
     public Future<Void> waitFor(String namespace, String name, long pollIntervalMs, final long timeoutMs, BiPredicate<String, String> predicate) {
-        return Util.waitFor(vertx,
+        long start = System.nanoTime();
+        Future<Void> result = Future.future();
+        Util.waitFor(vertx,
             String.format("%s resource %s in namespace %s", resourceKind, name, namespace),
             pollIntervalMs,
             timeoutMs,
-            () -> predicate.test(namespace, name));
+            () -> predicate.test(namespace, name)).setHandler(ar -> {
+                ReconciliationTracer.resourceCall(namespace, name, null, resourceKind, "waitFor", start, ar.succeeded());
+                result.handle(ar);
+            });
+        return result;
+    }
+
+    /**
+     * Returns a future that completes when all the resources with the given {@code names} in the given
+     * {@code namespace} are ready, with the ready resources by name.
+     * Instead of polling each resource, this lists the resources once and then waits for their changes with a single
+     * watch, so that it takes as long as the slowest resource, however many resources there are.
+     *
+     * @param namespace The namespace.
+     * @param names The names of the resources.
+     * @param selector Labels which all the resources have, to narrow the list and the watch, or null.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param ready The predicate which is true for a ready resource.
+     */
+    public Future<Map<String, T>> waitForAll(String namespace, Collection<String> names, Labels selector, long timeoutMs, Predicate<T> ready) {
+        if (names.isEmpty()) {
+            return Future.succeededFuture(Collections.emptyMap());
+        }
+        return new ReadinessWatch(namespace, names, selector, timeoutMs, ready).start();
+    }
+
+    /**
+     * Waits for a set of resources to become ready using one list and one watch.
+     */
+    private class ReadinessWatch implements Watcher<T> {
+        private final String namespace;
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+        private final Map<String, T> readyResources = new ConcurrentHashMap<>();
+        private final Labels selector;
+        private final long timeoutMs;
+        private final Predicate<T> ready;
+        private final String firstName;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final Future<Map<String, T>> result = Future.future();
+        private final long start = System.nanoTime();
+        private volatile Watch watch;
+        private Context context;
+        private long timerId;
+
+        ReadinessWatch(String namespace, Collection<String> names, Labels selector, long timeoutMs, Predicate<T> ready) {
+            this.namespace = namespace;
+            this.pending.addAll(names);
+            this.selector = selector;
+            this.timeoutMs = timeoutMs;
+            this.ready = ready;
+            this.firstName = names.iterator().next();
+        }
+
+        @SuppressWarnings("unchecked")
+        Future<Map<String, T>> start() {
+            context = vertx.getOrCreateContext();
+            timerId = vertx.setTimer(timeoutMs, id -> finish(new TimeoutException(String.format(
+                    "Exceeded timeout of %dms while waiting for %s resources %s in namespace %s to be ready",
+                    timeoutMs, resourceKind, pending, namespace))));
+            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+                future -> {
+                    FilterWatchListMultiDeletable<T, L, Boolean, Watch, Watcher<T>> operation = inNamespace(namespace);
+                    FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>> selected = selector != null ?
+                            operation.withLabels(selector.toMap()) : operation;
+                    OperatorMetrics.kubernetesApiCall(resourceKind, "watch");
+                    watch = selected.watch(this);
+                    if (done.get()) {
+                        watch.close();
+                    } else {
+                        // List after starting the watch, so that no change is missed in between
+                        OperatorMetrics.kubernetesApiCall(resourceKind, "list");
+                        for (Object resource : selected.list().getItems()) {
+                            offer((T) resource);
+                        }
+                    }
+                    future.complete();
+                },
+                false,
+                res -> {
+                    if (res.failed()) {
+                        finish(res.cause());
+                    }
+                });
+            return result;
+        }
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (action == Action.ADDED || action == Action.MODIFIED) {
+                offer(resource);
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (cause != null) {
+                finish(cause);
+            }
+        }
+
+        private void offer(T resource) {
+            String name = resource.getMetadata().getName();
+            if (pending.contains(name) && ready.test(resource)) {
+                readyResources.put(name, resource);
+                pending.remove(name);
+                log.trace("{} {} in namespace {} is ready", resourceKind, name, namespace);
+                if (pending.isEmpty()) {
+                    finish(null);
+                }
+            }
+        }
+
+        /** The labels of a ready resource, or else the selector's, which the wait is attributed by */
+        private Map<String, String> tracedLabels() {
+            if (!readyResources.isEmpty()) {
+                return labels(readyResources.values().iterator().next());
+            }
+            return selector != null ? selector.toMap() : null;
+        }
+
+        private void finish(Throwable cause) {
+            if (done.compareAndSet(false, true)) {
+                if (watch != null) {
+                    watch.close();
+                }
+                context.runOnContext(v -> {
+                    vertx.cancelTimer(timerId);
+                    ReconciliationTracer.resourceCall(namespace, firstName, tracedLabels(),
+                            resourceKind, "waitForAll", start, cause == null);
+                    if (cause == null) {
+                        log.debug("{} resources {} in namespace {} are ready", resourceKind, readyResources.keySet(), namespace);
+                        result.complete(readyResources);
+                    } else {
+                        log.error("Error while waiting for {} resources {} in namespace {} to be ready", resourceKind, pending, namespace, cause);
+                        result.fail(cause);
+                    }
+                });
+            }
+        }
     }
 }
@@ -4,6 +4,7 @@
  */
 package io.strimzi.operator.common.operator.resource;
 
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.model.Labels;
 
 import io.fabric8.kubernetes.api.model.Doneable;
@@ -12,6 +13,7 @@ import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.vertx.core.Vertx;
 
@@ -34,11 +36,41 @@ public abstract class AbstractWatchableResourceOperator<
         super(vertx, client, resourceKind);
     }
 
+    /**
+     * Watches the resources in the given namespace.
+     * @param namespace The namespace, or {@link #ANY_NAMESPACE} to watch the resources in all the namespaces with a single watch.
+     * @param watcher The watcher.
+     * @return The watch.
+     */
     public Watch watch(String namespace, Watcher<T> watcher) {
-        return operation().inNamespace(namespace).watch(watcher);
+        return watch(namespace, (String) null, watcher);
+    }
+
+    /**
+     * Watches the resources in the given namespace, resuming a previous watch.
+     * @param namespace The namespace, or {@link #ANY_NAMESPACE} to watch the resources in all the namespaces with a single watch.
+     * @param resourceVersion The resourceVersion of the last event received by the previous watch, so that only the
+     *                        later events are received, or null to receive an ADDED event for every existing resource first.
+     * @param watcher The watcher.
+     * @return The watch.
+     */
+    public Watch watch(String namespace, String resourceVersion, Watcher<T> watcher) {
+        OperatorMetrics.kubernetesApiCall(resourceKind, "watch");
+        return resourceVersion == null ? inNamespace(namespace).watch(watcher)
+                : inNamespace(namespace).watch(resourceVersion, watcher);
     }
 
     public Watch watch(String namespace, Labels selector, Watcher<T> watcher) {
-        return operation().inNamespace(namespace).withLabels(selector.toMap()).watch(watcher);
+        return watch(namespace, selector, null, watcher);
+    }
+
+    /**
+     * Watches the resources matching the given selector in the given namespace, resuming a previous watch.
+     * @see #watch(String, String, Watcher)
+     */
+    public Watch watch(String namespace, Labels selector, String resourceVersion, Watcher<T> watcher) {
+        OperatorMetrics.kubernetesApiCall(resourceKind, "watch");
+        FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>> selected = inNamespace(namespace).withLabels(selector.toMap());
+        return resourceVersion == null ? selected.watch(watcher) : selected.watch(resourceVersion, watcher);
     }
 }
@@ -10,9 +10,13 @@ import io.fabric8.openshift.api.model.DoneableRoute;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteList;
 import io.fabric8.openshift.client.OpenShiftClient;
+import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Operations for {@code Route}s.
  */
@@ -52,8 +56,15 @@ public class RouteOperator extends AbstractResourceOperator<OpenShiftClient, Rou
      */
     public boolean isAddressReady(String namespace, String name) {
         Resource<Route, DoneableRoute> resourceOp = operation().inNamespace(namespace).withName(name);
-        Route resource = resourceOp.get();
+        return isAddressReady(resourceOp.get());
+    }
 
+    /**
+     * Checks if the given Route has an assigned address.
+     *
+     * @param resource The Route, or null.
+     */
+    public static boolean isAddressReady(Route resource) {
         if (resource != null && resource.getStatus() != null && resource.getStatus().getIngress() != null && resource.getStatus().getIngress().size() > 0) {
             if (resource.getStatus().getIngress().get(0).getHost() != null) {
                 return true;
@@ -62,4 +73,17 @@ public class RouteOperator extends AbstractResourceOperator<OpenShiftClient, Rou
 
         return false;
     }
+
+    /**
+     * Succeeds when all the given Routes have an assigned address.
+     *
+     * @param namespace     Namespace
+     * @param names         Names of the routes
+     * @param selector      Labels which all the routes have, or null
+     * @param timeoutMs     Timeout
+     * @return A Future which completes with the Routes by name once they all have an address
+     */
+    public Future<Map<String, Route>> hasAddresses(String namespace, Collection<String> names, Labels selector, long timeoutMs) {
+        return waitForAll(namespace, names, selector, timeoutMs, RouteOperator::isAddressReady);
+    }
 }
@@ -10,24 +10,93 @@ import io.fabric8.kubernetes.api.model.SecretList;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Operations for {@code Secret}s.
+ * <p>
+ * Reconciliations of Secrets run on their own worker pool, which bounds the number of Secret requests in flight,
+ * so that creating many Secrets at once (for example when many users are provisioned in bulk) neither queues
+ * the other resource operations behind them nor overloads the API server.
+ * Secrets whose data and metadata already match the desired ones are not patched.
  */
 public class SecretOperator extends AbstractResourceOperator<KubernetesClient, Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> {
 
+    /** The default maximum number of Secret reconciliations in flight at the same time. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10;
+
+    private static final String POOL_NAME = "kubernetes-secrets-pool";
+
+    private final int maxInFlight;
+
     /**
      * Constructor
      * @param vertx The Vertx instance
      * @param client The Kubernetes client
      */
     public SecretOperator(Vertx vertx, KubernetesClient client) {
+        this(vertx, client, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance
+     * @param client The Kubernetes client
+     * @param maxInFlight The maximum number of Secret reconciliations in flight at the same time.
+     *                    The first SecretOperator created with a Vertx instance sets it for all of them.
+     */
+    public SecretOperator(Vertx vertx, KubernetesClient client, int maxInFlight) {
         super(vertx, client, "Secret");
+        this.maxInFlight = maxInFlight;
     }
 
     @Override
     protected MixedOperation<Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> operation() {
         return client.secrets();
     }
+
+    @Override
+    protected WorkerExecutor reconcileExecutor() {
+        return vertx.createSharedWorkerExecutor(POOL_NAME, maxInFlight);
+    }
+
+    @Override
+    protected Future<ReconcileResult<Secret>> internalPatch(String namespace, String name, Secret current, Secret desired) {
+        try {
+            if (isUnchanged(current, desired)) {
+                log.debug("{} {} in namespace {} has not been patched because resources are equal", resourceKind, name, namespace);
+                return Future.succeededFuture(ReconcileResult.noop(current));
+            } else {
+                return super.internalPatch(namespace, name, current, desired);
+            }
+        } catch (Exception e) {
+            log.error("Caught exception while patching {} {} in namespace {}", resourceKind, name, namespace, e);
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Whether patching the current Secret with the desired one would not change it.
+     * The type is compared only if the desired Secret sets it, since the API server defaults it.
+     */
+    private static boolean isUnchanged(Secret current, Secret desired) {
+        return equalOrEmpty(current.getData(), desired.getData())
+                && (desired.getType() == null || desired.getType().equals(current.getType()))
+                && equalOrEmpty(current.getMetadata().getLabels(), desired.getMetadata().getLabels())
+                && equalOrEmpty(current.getMetadata().getAnnotations(), desired.getMetadata().getAnnotations())
+                && equalOrEmpty(current.getMetadata().getOwnerReferences(), desired.getMetadata().getOwnerReferences());
+    }
+
+    private static boolean equalOrEmpty(Map<?, ?> a, Map<?, ?> b) {
+        return a == null || a.isEmpty() ? b == null || b.isEmpty() : a.equals(b);
+    }
+
+    private static boolean equalOrEmpty(List<?> a, List<?> b) {
+        return a == null || a.isEmpty() ? b == null || b.isEmpty() : a.equals(b);
+    }
 }
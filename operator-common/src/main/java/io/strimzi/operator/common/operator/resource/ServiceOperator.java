@@ -11,9 +11,13 @@ import io.fabric8.kubernetes.api.model.ServicePort;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.ServiceResource;
+import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Operations for {@code Service}s.
  */
@@ -111,8 +115,15 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
      */
     public boolean isIngressAddressReady(String namespace, String name) {
         ServiceResource<Service, DoneableService> resourceOp = operation().inNamespace(namespace).withName(name);
-        Service resource = resourceOp.get();
+        return isIngressAddressReady(resourceOp.get());
+    }
 
+    /**
+     * Checks if the given Service has an assigned ingress address.
+     *
+     * @param resource The Service, or null.
+     */
+    public static boolean isIngressAddressReady(Service resource) {
         if (resource != null && resource.getStatus() != null && resource.getStatus().getLoadBalancer() != null && resource.getStatus().getLoadBalancer().getIngress() != null && resource.getStatus().getLoadBalancer().getIngress().size() > 0) {
             if (resource.getStatus().getLoadBalancer().getIngress().get(0).getHostname() != null || resource.getStatus().getLoadBalancer().getIngress().get(0).getIp() != null) {
                 return true;
@@ -122,6 +133,19 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
         return false;
     }
 
+    /**
+     * Succeeds when all the given Services have an assigned ingress address.
+     *
+     * @param namespace     Namespace
+     * @param names         Names of the services
+     * @param selector      Labels which all the services have, or null
+     * @param timeoutMs     Timeout
+     * @return A Future which completes with the Services by name once they all have an ingress address
+     */
+    public Future<Map<String, Service>> hasIngressAddresses(String namespace, Collection<String> names, Labels selector, long timeoutMs) {
+        return waitForAll(namespace, names, selector, timeoutMs, ServiceOperator::isIngressAddressReady);
+    }
+
     /**
      * Succeeds when the Service has an assigned node port
      *
@@ -143,8 +167,15 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
      */
     public boolean isNodePortReady(String namespace, String name) {
         ServiceResource<Service, DoneableService> resourceOp = operation().inNamespace(namespace).withName(name);
-        Service resource = resourceOp.get();
+        return isNodePortReady(resourceOp.get());
+    }
 
+    /**
+     * Checks if all the ports of the given Service have an assigned node port.
+     *
+     * @param resource The Service, or null.
+     */
+    public static boolean isNodePortReady(Service resource) {
         if (resource != null && resource.getSpec() != null && resource.getSpec().getPorts() != null) {
             boolean ready = true;
 
@@ -158,4 +189,17 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
 
         return false;
     }
+
+    /**
+     * Succeeds when all the given Services have assigned node ports.
+     *
+     * @param namespace     Namespace
+     * @param names         Names of the services
+     * @param selector      Labels which all the services have, or null
+     * @param timeoutMs     Timeout
+     * @return A Future which completes with the Services by name once they all have node ports
+     */
+    public Future<Map<String, Service>> hasNodePorts(String namespace, Collection<String> names, Labels selector, long timeoutMs) {
+        return waitForAll(namespace, names, selector, timeoutMs, ServiceOperator::isNodePortReady);
+    }
 }
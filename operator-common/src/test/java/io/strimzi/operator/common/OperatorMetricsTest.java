@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OperatorMetricsTest {
+
+    private String scrape() {
+        return ((PrometheusMeterRegistry) OperatorMetrics.registry()).scrape();
+    }
+
+    /** The count of the given counter, which other tests using the same registry may have incremented already */
+    private static double count(String name, String... tags) {
+        Counter counter = OperatorMetrics.registry().find(name).tags(tags).counter();
+        return counter != null ? counter.count() : 0.0;
+    }
+
+    @Test
+    public void testReconciliationStep() {
+        Timer timer = OperatorMetrics.registry().find("strimzi.reconciliation.step").tags("kind", "Kafka", "step", "reconcileCas").timer();
+        long before = timer != null ? timer.count() : 0;
+        OperatorMetrics.reconciliationStep("Kafka", "reconcileCas", System.nanoTime());
+
+        timer = OperatorMetrics.registry().find("strimzi.reconciliation.step").tags("kind", "Kafka", "step", "reconcileCas").timer();
+        assertEquals(before + 1, timer.count());
+        String scrape = scrape();
+        assertTrue(scrape, scrape.contains("strimzi_reconciliation_step_seconds_bucket{kind=\"Kafka\",step=\"reconcileCas\","));
+    }
+
+    @Test
+    public void testKubernetesApiCall() {
+        double before = count("strimzi.kubernetes.api.calls", "kind", "Secret", "verb", "patch");
+        OperatorMetrics.kubernetesApiCall("Secret", "patch");
+        OperatorMetrics.kubernetesApiCall("Secret", "patch");
+
+        assertEquals(before + 2.0, count("strimzi.kubernetes.api.calls", "kind", "Secret", "verb", "patch"), 0.0);
+        String scrape = scrape();
+        assertTrue(scrape, scrape.contains("strimzi_kubernetes_api_calls_total{kind=\"Secret\",verb=\"patch\","));
+    }
+
+    @Test
+    public void testPodRestart() {
+        double before = count("strimzi.pod.restarts", "component", "kafka", "reason", "manual-rolling-update");
+        OperatorMetrics.podRestart("kafka", "manual-rolling-update");
+
+        assertEquals(before + 1.0, count("strimzi.pod.restarts", "component", "kafka", "reason", "manual-rolling-update"), 0.0);
+        String scrape = scrape();
+        assertTrue(scrape, scrape.contains("strimzi_pod_restarts_total{component=\"kafka\",reason=\"manual-rolling-update\","));
+    }
+
+    @Test
+    public void testGauge() {
+        AtomicInteger value = new AtomicInteger(3);
+        OperatorMetrics.gauge("test.gauge", "Test gauge", value, AtomicInteger::get, "kind", "Test");
+
+        String scrape = scrape();
+        assertTrue(scrape, scrape.contains("strimzi_test_gauge{kind=\"Test\",} 3.0"));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.ResourceType;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReconciliationTracerTest {
+
+    private static Map<String, String> labels(String kind, String cluster) {
+        return Labels.forKind(kind).withCluster(cluster).toMap();
+    }
+
+    private JsonObject find(JsonArray traces, Reconciliation reconciliation) {
+        for (int i = 0; i < traces.size(); i++) {
+            JsonObject trace = traces.getJsonObject(i);
+            if (trace.getInteger("id") == reconciliation.id()) {
+                return trace;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testStepsAndResourceCallsAreTraced() {
+        Reconciliation reconciliation = new Reconciliation("test", ResourceType.KAFKA, "ns-traced", "my-cluster");
+        long start = System.nanoTime();
+        ReconciliationTrace trace = ReconciliationTracer.start(reconciliation, start);
+        assertSame(trace, ReconciliationTracer.active(reconciliation));
+
+        trace.span("reconcileCas", null, null, start, true);
+        ReconciliationTracer.resourceCall("ns-traced", "my-cluster-kafka", labels("Kafka", "my-cluster"), "StatefulSet", "patch", start, true);
+        ReconciliationTracer.resourceCall("ns-traced", "other-cluster-kafka", labels("Kafka", "other-cluster"), "StatefulSet", "patch", start, true);
+        ReconciliationTracer.resourceCall("ns-other", "my-cluster-kafka", labels("Kafka", "my-cluster"), "StatefulSet", "patch", start, true);
+        ReconciliationTracer.resourceCall("ns-traced", "my-cluster-connect", labels("KafkaConnect", "my-cluster"), "Deployment", "patch", start, true);
+
+        JsonObject json = find(ReconciliationTracer.toJson(), reconciliation);
+        assertFalse(json.getBoolean("finished"));
+        assertEquals("Kafka", json.getString("kind"));
+        JsonArray spans = json.getJsonArray("spans");
+        assertEquals(2, spans.size());
+        assertEquals("reconcileCas", spans.getJsonObject(0).getString("name"));
+        assertEquals("StatefulSet", spans.getJsonObject(1).getString("name"));
+        assertEquals("patch", spans.getJsonObject(1).getString("operation"));
+        assertEquals("my-cluster-kafka", spans.getJsonObject(1).getString("detail"));
+
+        ReconciliationTracer.end(trace, false);
+        assertNull(ReconciliationTracer.active(reconciliation));
+        json = find(ReconciliationTracer.toJson(), reconciliation);
+        assertTrue(json.getBoolean("finished"));
+        assertFalse(json.getBoolean("succeeded"));
+    }
+
+    @Test
+    public void testResourceCallsAreAttributedByLabels() {
+        Reconciliation shortName = new Reconciliation("test", ResourceType.KAFKA, "ns-labels", "my");
+        Reconciliation longName = new Reconciliation("test", ResourceType.KAFKA, "ns-labels", "my-cluster");
+        long start = System.nanoTime();
+        ReconciliationTrace shortTrace = ReconciliationTracer.start(shortName, start);
+        ReconciliationTrace longTrace = ReconciliationTracer.start(longName, start);
+
+        ReconciliationTracer.resourceCall("ns-labels", "my-cluster-zookeeper", labels("Kafka", "my-cluster"), "Service", "get", start, true);
+        // The name of a resource of the "my" cluster can look like one of the "my-cluster" cluster
+        ReconciliationTracer.resourceCall("ns-labels", "my-cluster-certs", labels("Kafka", "my"), "Secret", "get", start, true);
+        ReconciliationTracer.resourceCall("ns-labels", "my-zookeeper", null, "Service", "get", start, true);
+        ReconciliationTracer.resourceCall("ns-labels", "my-zookeeper", Labels.forKind("Kafka").toMap(), "Service", "get", start, true);
+
+        assertEquals(1, shortTrace.toJson().getJsonArray("spans").size());
+        assertEquals("my-cluster-certs", shortTrace.toJson().getJsonArray("spans").getJsonObject(0).getString("detail"));
+        assertEquals(1, longTrace.toJson().getJsonArray("spans").size());
+        assertEquals("my-cluster-zookeeper", longTrace.toJson().getJsonArray("spans").getJsonObject(0).getString("detail"));
+
+        ReconciliationTracer.end(shortTrace, true);
+        ReconciliationTracer.end(longTrace, true);
+    }
+
+    @Test
+    public void testCallsWithoutLabelsAreAttributedByEarlierCallsOnTheResource() {
+        Reconciliation reconciliation = new Reconciliation("test", ResourceType.KAFKA, "ns-unlabelled", "my-cluster");
+        long start = System.nanoTime();
+        ReconciliationTrace trace = ReconciliationTracer.start(reconciliation, start);
+
+        ReconciliationTracer.resourceCall("ns-unlabelled", null, labels("Kafka", "my-cluster"), "Pod", "list", start, true);
+        ReconciliationTracer.resourceCall("ns-unlabelled", "my-cluster-kafka-0", labels("Kafka", "my-cluster"), "Pod", "get", start, true);
+        ReconciliationTracer.resourceCall("ns-unlabelled", "my-cluster-kafka-0", null, "Pod", "delete", start, true);
+        ReconciliationTracer.resourceCall("ns-unlabelled", "my-cluster-kafka-0", null, "Pod", "waitFor", start, true);
+        // Never seen with labels
+        ReconciliationTracer.resourceCall("ns-unlabelled", "my-cluster-kafka-1", null, "Pod", "delete", start, true);
+
+        JsonArray spans = trace.toJson().getJsonArray("spans");
+        assertEquals(4, spans.size());
+        assertEquals("list", spans.getJsonObject(0).getString("operation"));
+        assertNull(spans.getJsonObject(0).getString("detail"));
+        assertEquals("delete", spans.getJsonObject(2).getString("operation"));
+        assertEquals("my-cluster-kafka-0", spans.getJsonObject(2).getString("detail"));
+        assertEquals("waitFor", spans.getJsonObject(3).getString("operation"));
+        ReconciliationTracer.end(trace, true);
+
+        // The resources are forgotten with the trace
+        Reconciliation next = new Reconciliation("test", ResourceType.KAFKA, "ns-unlabelled", "my-cluster");
+        ReconciliationTrace nextTrace = ReconciliationTracer.start(next, start);
+        ReconciliationTracer.resourceCall("ns-unlabelled", "my-cluster-kafka-0", null, "Pod", "delete", start, true);
+        assertEquals(0, nextTrace.toJson().getJsonArray("spans").size());
+        assertEquals(4, trace.toJson().getJsonArray("spans").size());
+        ReconciliationTracer.end(nextTrace, true);
+    }
+
+    @Test
+    public void testConcurrentReconciliationDoesNotDisplaceTheActiveTrace() {
+        Reconciliation first = new Reconciliation("test", ResourceType.KAFKA, "ns-concurrent", "my-cluster");
+        Reconciliation second = new Reconciliation("watch", ResourceType.KAFKA, "ns-concurrent", "my-cluster");
+        long start = System.nanoTime();
+        ReconciliationTrace firstTrace = ReconciliationTracer.start(first, start);
+        // The second one fails to get the lock of the assembly
+        ReconciliationTrace secondTrace = ReconciliationTracer.start(second, start);
+        assertSame(firstTrace, ReconciliationTracer.active(first));
+        assertNull(ReconciliationTracer.active(second));
+
+        ReconciliationTracer.end(secondTrace, false);
+        assertSame(firstTrace, ReconciliationTracer.active(first));
+        ReconciliationTracer.resourceCall("ns-concurrent", "my-cluster-kafka", labels("Kafka", "my-cluster"), "StatefulSet", "get", start, true);
+        assertEquals(1, firstTrace.toJson().getJsonArray("spans").size());
+
+        ReconciliationTracer.end(firstTrace, true);
+        assertNull(ReconciliationTracer.active(first));
+    }
+
+    @Test
+    public void testSpansAreBounded() {
+        Reconciliation reconciliation = new Reconciliation("test", ResourceType.KAFKA, "ns-bounded", "my-cluster");
+        long start = System.nanoTime();
+        ReconciliationTrace trace = ReconciliationTracer.start(reconciliation, start);
+        for (int i = 0; i < ReconciliationTrace.MAX_SPANS + 10; i++) {
+            trace.span("step", null, null, start, true);
+        }
+        ReconciliationTracer.end(trace, true);
+
+        JsonObject json = trace.toJson();
+        assertEquals(ReconciliationTrace.MAX_SPANS, json.getJsonArray("spans").size());
+        assertEquals(Integer.valueOf(10), json.getInteger("droppedSpans"));
+    }
+
+    @Test
+    public void testRecentTracesAreBounded() {
+        Reconciliation first = null;
+        Reconciliation last = null;
+        for (int i = 0; i < ReconciliationTracer.CAPACITY + 1; i++) {
+            Reconciliation reconciliation = new Reconciliation("test", ResourceType.KAFKA, "ns-recent", "cluster-" + i);
+            ReconciliationTracer.end(ReconciliationTracer.start(reconciliation, System.nanoTime()), true);
+            if (first == null) {
+                first = reconciliation;
+            }
+            last = reconciliation;
+        }
+
+        JsonArray traces = ReconciliationTracer.toJson();
+        assertEquals(ReconciliationTracer.CAPACITY, traces.size());
+        assertNull(find(traces, first));
+        assertEquals(Integer.valueOf(last.id()), traces.getJsonObject(0).getInteger("id"));
+    }
+}
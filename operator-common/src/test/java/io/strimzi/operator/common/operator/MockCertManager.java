@@ -192,6 +192,16 @@ public class MockCertManager implements CertManager {
         write(csrFile, "csr file");
     }
 
+    @Override
+    public void generateKey(File keyFile) throws IOException {
+        write(keyFile, "key file");
+    }
+
+    @Override
+    public void generateCsrWithExistingKey(File keyFile, File csrFile, Subject sbj) throws IOException {
+        write(csrFile, "csr file");
+    }
+
     /**
      * Generate a certificate signed by a Certificate Authority
      *
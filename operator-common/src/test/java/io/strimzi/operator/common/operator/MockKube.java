@@ -2,7 +2,7 @@
  * Copyright 2018, Strimzi authors.
  * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
  */
-package io.strimzi.operator.cluster.operator.assembly;
+package io.strimzi.operator.common.operator;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.ConfigMapList;
@@ -88,6 +88,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -95,6 +96,7 @@ import static java.util.Collections.emptySet;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -157,6 +159,7 @@ public class MockKube {
         private final Class<L> crListClass;
         private final Class<D> crDoneableClass;
         private final Map<String, T> instances;
+        private final Collection<Watcher<T>> watchers = new CopyOnWriteArrayList<>();
         private MockedCrd(CustomResourceDefinition crd, Class<T> crClass, Class<L> crListClass, Class<D> crDoneableClass) {
             this.crd = crd;
             this.crClass = crClass;
@@ -173,6 +176,16 @@ public class MockKube {
         public MockKube end() {
             return MockKube.this;
         }
+
+        /**
+         * Closes the watches of the instances with the given exception, as when the connection to the API server is lost.
+         */
+        public void closeWatches(KubernetesClientException cause) {
+            for (Watcher<T> watcher : watchers) {
+                watchers.remove(watcher);
+                watcher.onClose(cause);
+            }
+        }
     }
 
     public <T extends CustomResource, L extends KubernetesResourceList<T>, D extends Doneable<T>> MockedCrd<T, L, D> withCustomResourceDefinition(CustomResourceDefinition crd, Class<T> instanceClass, Class<L> instanceListClass, Class<D> doneableInstanceClass) {
@@ -649,7 +662,7 @@ public class MockKube {
             D extends Doneable<T>>
         MixedOperation<T, L, D, Resource<T, D>> buildCrd(MockedCrd<T, L, D> mockedCrd) {
         return new AbstractMockBuilder<T, L, D, Resource<T, D>>(
-                mockedCrd.crClass, mockedCrd.crListClass, mockedCrd.crDoneableClass, castClass(Resource.class), mockedCrd.instances) {
+                mockedCrd.crClass, mockedCrd.crListClass, mockedCrd.crDoneableClass, castClass(Resource.class), mockedCrd.instances, mockedCrd.watchers) {
             @Override
             protected void nameScopedMocks(Resource<T, D> resource, String resourceName) {
                 mockGet(resourceName, resource);
@@ -699,16 +712,25 @@ public class MockKube {
         private final Map<String, CM> db;
         protected final Class<CML> listClass;
         protected final String resourceType;
-        protected final Collection<Watcher<CM>> watchers = new ArrayList<>(2);
+        protected final Collection<Watcher<CM>> watchers;
         protected final Map<String, Collection<Watcher<CM>>> nameScopedWatchers = new HashMap<>(1);
 
         public AbstractMockBuilder(Class<CM> resourceTypeClass, Class<CML> listClass, Class<DCM> doneableClass, Class<R> resourceClass, Map<String, CM> db) {
+            this(resourceTypeClass, listClass, doneableClass, resourceClass, db, new CopyOnWriteArrayList<>());
+        }
+
+        /**
+         * @param watchers The watchers of all the resources, shared by the mocks built for the same {@code db}.
+         */
+        public AbstractMockBuilder(Class<CM> resourceTypeClass, Class<CML> listClass, Class<DCM> doneableClass, Class<R> resourceClass, Map<String, CM> db,
+                                   Collection<Watcher<CM>> watchers) {
             this.resourceTypeClass = resourceTypeClass;
             this.resourceType = resourceTypeClass.getSimpleName();
             this.doneableClass = doneableClass;
             this.resourceClass = resourceClass;
             this.db = db;
             this.listClass = listClass;
+            this.watchers = watchers;
         }
 
         protected CM copyResource(CM resource) {
@@ -733,14 +755,14 @@ public class MockKube {
 
             when(mixed.inNamespace(any())).thenReturn(mixed);
             when(mixed.list()).thenAnswer(i -> mockList(p -> true));
+            when(mixed.watch(any())).thenAnswer(i -> mockWatchAll(i.getArgument(0), true, p -> true));
+            when(mixed.watch(anyString(), any())).thenAnswer(i -> mockWatchAll(i.getArgument(1), false, p -> true));
             when(mixed.withLabels(any())).thenAnswer(i -> {
                 MixedOperation<CM, CML, DCM, R> mixedWithLabels = mock(MixedOperation.class);
                 Map<String, String> labels = i.getArgument(0);
-                when(mixedWithLabels.list()).thenAnswer(i2 -> mockList(p -> {
-                    Map<String, String> m = new HashMap(p.getMetadata().getLabels());
-                    m.keySet().retainAll(labels.keySet());
-                    return labels.equals(m);
-                }));
+                when(mixedWithLabels.list()).thenAnswer(i2 -> mockList(p -> hasLabels(p, labels)));
+                when(mixedWithLabels.watch(any())).thenAnswer(i2 -> mockWatchAll(i2.getArgument(0), true, p -> hasLabels(p, labels)));
+                when(mixedWithLabels.watch(anyString(), any())).thenAnswer(i2 -> mockWatchAll(i2.getArgument(1), false, p -> hasLabels(p, labels)));
                 return mixedWithLabels;
             });
             when(mixed.withName(any())).thenAnswer(invocation -> {
@@ -760,11 +782,7 @@ public class MockKube {
             when(mixed.withLabels(any())).thenAnswer(i -> {
                 MixedOperation<CM, CML, DCM, R> mixedWithLabels = mock(MixedOperation.class);
                 Map<String, String> labels = i.getArgument(0);
-                when(mixedWithLabels.list()).thenAnswer(i2 -> mockList(p -> {
-                    Map<String, String> m = new HashMap(p.getMetadata().getLabels());
-                    m.keySet().retainAll(labels.keySet());
-                    return labels.equals(m);
-                }));
+                when(mixedWithLabels.list()).thenAnswer(i2 -> mockList(p -> hasLabels(p, labels)));
                 return mixedWithLabels;
             });
             when(mixed.withName(any())).thenAnswer(invocation -> {
@@ -849,6 +867,50 @@ public class MockKube {
             when(resource.cascading(anyBoolean())).thenReturn(resource);
         }
 
+        private boolean hasLabels(CM resource, Map<String, String> labels) {
+            Map<String, String> m = new HashMap(resource.getMetadata().getLabels());
+            m.keySet().retainAll(labels.keySet());
+            return labels.equals(m);
+        }
+
+        /**
+         * A watch of all the resources matching the given selector. Like the API server, a watch without a
+         * resourceVersion first receives an ADDED event for every existing resource, while a resumed watch only
+         * receives the later events.
+         */
+        private Watch mockWatchAll(Watcher<CM> watcher, boolean added, Predicate<CM> selector) {
+            LOGGER.debug("watch {} {} ", resourceType, watcher);
+            if (added) {
+                List<CM> existing;
+                synchronized (db) {
+                    existing = db.values().stream().filter(selector).map(resource -> copyResource(resource)).collect(Collectors.toList());
+                }
+                for (CM resource : existing) {
+                    watcher.eventReceived(Watcher.Action.ADDED, resource);
+                }
+            }
+            Watcher<CM> selected = new Watcher<CM>() {
+                @Override
+                public void eventReceived(Action action, CM resource) {
+                    if (selector.test(resource)) {
+                        watcher.eventReceived(action, resource);
+                    }
+                }
+
+                @Override
+                public void onClose(KubernetesClientException cause) {
+                    watcher.onClose(cause);
+                }
+            };
+            watchers.add(selected);
+            Watch watch = mock(Watch.class);
+            doAnswer(z -> {
+                watchers.remove(selected);
+                return null;
+            }).when(watch).close();
+            return watch;
+        }
+
         protected void mockWatch(String resourceName, R resource) {
             when(resource.watch(any())).thenAnswer(i -> {
                 return mockedWatcher(resourceName, i);
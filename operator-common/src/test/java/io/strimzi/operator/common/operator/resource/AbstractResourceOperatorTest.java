@@ -63,6 +63,14 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
      */
     protected abstract T resource();
 
+    /**
+     * Get a (new) test resource which differs from {@link #resource()}, for the tests which need a change to patch.
+     * By default the same as {@link #resource()}, for the operators which patch unchanged resources too.
+     */
+    protected T modifiedResource() {
+        return resource();
+    }
+
     /**
      * Configure the given {@code mockClient} to return the given {@code op}
      * that's appropriate for the kind of resource being tests.
@@ -100,7 +108,7 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
         AbstractResourceOperator<C, T, L, D, R> op = createResourceOperations(vertx, mockClient);
 
         Async async = context.async();
-        Future<ReconcileResult<T>> fut = op.createOrUpdate(resource());
+        Future<ReconcileResult<T>> fut = op.createOrUpdate(modifiedResource());
         fut.setHandler(ar -> {
             if (!ar.succeeded()) {
                 ar.cause().printStackTrace();
@@ -10,10 +10,19 @@ import io.fabric8.kubernetes.api.model.SecretBuilder;
 import io.fabric8.kubernetes.api.model.SecretList;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
 
 import static java.util.Collections.singletonMap;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SecretOperatorTest extends AbstractResourceOperatorTest<KubernetesClient, Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> {
@@ -37,7 +46,14 @@ public class SecretOperatorTest extends AbstractResourceOperatorTest<KubernetesC
                 .withNamespace(NAMESPACE)
                 .withLabels(singletonMap("foo", "bar"))
                 .endMetadata()
-                .withData(singletonMap("FOO", "BAR"))
+                .withData(singletonMap("FOO", "bar"))
+                .build();
+    }
+
+    @Override
+    protected Secret modifiedResource() {
+        return new SecretBuilder(resource())
+                .withData(singletonMap("FOO", "baz"))
                 .build();
     }
 
@@ -50,4 +66,29 @@ public class SecretOperatorTest extends AbstractResourceOperatorTest<KubernetesC
     protected AbstractResourceOperator<KubernetesClient, Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> createResourceOperations(Vertx vertx, KubernetesClient mockClient) {
         return new SecretOperator(vertx, mockClient);
     }
+
+    @Test
+    public void testUnchangedSecretIsNotPatched(TestContext context) {
+        Secret current = resource();
+        Secret desired = new SecretBuilder(current).build();
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenReturn(current);
+
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(matches(RESOURCE_NAME))).thenReturn(mockResource);
+
+        MixedOperation mockSecrets = mock(MixedOperation.class);
+        when(mockSecrets.inNamespace(matches(NAMESPACE))).thenReturn(mockNameable);
+
+        KubernetesClient mockClient = mock(clientType());
+        mocker(mockClient, mockSecrets);
+
+        Async async = context.async();
+        createResourceOperations(vertx, mockClient).reconcile(NAMESPACE, RESOURCE_NAME, desired).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            context.assertTrue(ar.result() instanceof ReconcileResult.Noop);
+            verify(mockResource, never()).patch(any());
+            async.complete();
+        });
+    }
 }
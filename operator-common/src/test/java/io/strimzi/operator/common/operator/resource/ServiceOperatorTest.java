@@ -6,19 +6,37 @@ package io.strimzi.operator.common.operator.resource;
 
 import io.fabric8.kubernetes.api.model.DoneableService;
 import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.LoadBalancerIngressBuilder;
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
 import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
 import io.fabric8.kubernetes.api.model.ServicePortBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.ServiceResource;
+import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ServiceOperatorTest extends AbstractResourceOperatorTest<KubernetesClient, Service, ServiceList, DoneableService, ServiceResource<Service, DoneableService>> {
@@ -104,4 +122,87 @@ public class ServiceOperatorTest extends AbstractResourceOperatorTest<Kubernetes
         assertEquals(current.getSpec().getPorts().get(0).getNodePort(), desired.getSpec().getPorts().get(1).getNodePort());
         assertEquals(current.getSpec().getPorts().get(1).getNodePort(), desired.getSpec().getPorts().get(0).getNodePort());
     }
+
+    private static Service loadBalancer(String name, String hostname) {
+        ServiceBuilder builder = new ServiceBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(name)
+                .endMetadata()
+                .withNewSpec()
+                    .withType("LoadBalancer")
+                .endSpec();
+        if (hostname != null) {
+            builder.withNewStatus()
+                        .withNewLoadBalancer()
+                            .withIngress(new LoadBalancerIngressBuilder().withHostname(hostname).build())
+                        .endLoadBalancer()
+                    .endStatus();
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testHasIngressAddressesUsesOneWatch(TestContext context) throws InterruptedException {
+        NonNamespaceOperation mockNamespaced = mock(NonNamespaceOperation.class);
+        MixedOperation mockServices = mock(MixedOperation.class);
+        when(mockServices.inNamespace(NAMESPACE)).thenReturn(mockNamespaced);
+        when(mockNamespaced.withLabels(any())).thenReturn(mockNamespaced);
+        Watch mockWatch = mock(Watch.class);
+        AtomicReference<Watcher<Service>> watcher = new AtomicReference<>();
+        when(mockNamespaced.watch(any())).thenAnswer(invocation -> {
+            watcher.set(invocation.getArgument(0));
+            return mockWatch;
+        });
+        // The resources are listed once the watch has been started
+        CountDownLatch watching = new CountDownLatch(1);
+        when(mockNamespaced.list()).thenAnswer(invocation -> {
+            watching.countDown();
+            return new ServiceListBuilder()
+                    .withItems(loadBalancer("broker-0", "broker-0.example.com"),
+                            loadBalancer("broker-1", null),
+                            loadBalancer("other", "other.example.com"))
+                    .build();
+        });
+        KubernetesClient client = mock(KubernetesClient.class);
+        mocker(client, mockServices);
+
+        ServiceOperator op = new ServiceOperator(vertx, client);
+        Async async = context.async();
+        op.hasIngressAddresses(NAMESPACE, asList("broker-0", "broker-1"), Labels.forCluster("my-cluster"), 10_000).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            context.assertEquals(2, ar.result().size());
+            context.assertEquals("broker-1.example.com", ar.result().get("broker-1").getStatus().getLoadBalancer().getIngress().get(0).getHostname());
+            verify(mockWatch).close();
+            verify(mockNamespaced, times(1)).watch(any());
+            verify(mockNamespaced, never()).withName(any());
+            async.complete();
+        });
+
+        context.assertTrue(watching.await(10, TimeUnit.SECONDS));
+        watcher.get().eventReceived(Watcher.Action.MODIFIED, loadBalancer("broker-1", "broker-1.example.com"));
+    }
+
+    @Test
+    public void testHasIngressAddressesTimesOut(TestContext context) {
+        NonNamespaceOperation mockNamespaced = mock(NonNamespaceOperation.class);
+        MixedOperation mockServices = mock(MixedOperation.class);
+        when(mockServices.inNamespace(NAMESPACE)).thenReturn(mockNamespaced);
+        when(mockNamespaced.list()).thenReturn(new ServiceListBuilder()
+                .withItems(loadBalancer("broker-0", null))
+                .build());
+        Watch mockWatch = mock(Watch.class);
+        when(mockNamespaced.watch(any())).thenReturn(mockWatch);
+        KubernetesClient client = mock(KubernetesClient.class);
+        mocker(client, mockServices);
+
+        ServiceOperator op = new ServiceOperator(vertx, client);
+        Async async = context.async();
+        op.hasIngressAddresses(NAMESPACE, singletonList("broker-0"), null, 100).setHandler(ar -> {
+            context.assertTrue(ar.failed());
+            context.assertTrue(ar.cause() instanceof TimeoutException);
+            verify(mockWatch).close();
+            async.complete();
+        });
+    }
 }
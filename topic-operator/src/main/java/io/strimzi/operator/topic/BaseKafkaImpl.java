@@ -18,7 +18,10 @@ import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -199,6 +202,69 @@ public abstract class BaseKafkaImpl implements Kafka {
         }
     }
 
+    /** Some work that depends on the description and config futures of several topics */
+    class TopicsMetadataWork extends Work {
+        private final Map<String, KafkaFuture<TopicDescription>> descFutures;
+        private final Map<ConfigResource, KafkaFuture<Config>> configFutures;
+        private final Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler;
+
+        public TopicsMetadataWork(Map<String, KafkaFuture<TopicDescription>> descFutures,
+                                  Map<ConfigResource, KafkaFuture<Config>> configFutures,
+                                  Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler) {
+            this.descFutures = descFutures;
+            this.configFutures = configFutures;
+            this.handler = handler;
+        }
+
+        /** The result of the given future, or null if the topic does not exist (any more) */
+        private <T> T result(KafkaFuture<T> future) throws ExecutionException, InterruptedException {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                    return null;
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        protected boolean complete() {
+            for (KafkaFuture<TopicDescription> future : descFutures.values()) {
+                if (!future.isDone()) {
+                    LOGGER.trace("Description future {} is not done", future);
+                    return false;
+                }
+            }
+            for (KafkaFuture<Config> future : configFutures.values()) {
+                if (!future.isDone()) {
+                    LOGGER.trace("Config future {} is not done", future);
+                    return false;
+                }
+            }
+            Map<TopicName, TopicMetadata> metadata = new HashMap<>();
+            try {
+                for (Map.Entry<ConfigResource, KafkaFuture<Config>> entry : configFutures.entrySet()) {
+                    String name = entry.getKey().name();
+                    TopicDescription desc = result(descFutures.get(name));
+                    Config config = result(entry.getValue());
+                    if (desc != null && config != null) {
+                        metadata.put(new TopicName(name), new TopicMetadata(desc, config));
+                    }
+                }
+            } catch (ExecutionException e) {
+                LOGGER.debug("Getting metadata for {} topics threw {}", configFutures.size(), e.toString());
+                handler.handle(Future.failedFuture(e.getCause()));
+                return true;
+            } catch (InterruptedException e) {
+                handler.handle(Future.failedFuture(e));
+                return true;
+            }
+            handler.handle(Future.succeededFuture(metadata));
+            return true;
+        }
+    }
+
     /**
      * Queue a future and callback. The callback will be invoked (on a separate thread)
      * when the future is ready.
@@ -244,6 +310,25 @@ public abstract class BaseKafkaImpl implements Kafka {
             result -> handler.handle(result)));
     }
 
+    /**
+     * Get the metadata of the given topics via the Kafka AdminClient API, in a single request for their descriptions
+     * and a single one for their configs, calling the given handler (in a different thread) with the result.
+     * The topics which do not exist (any more) have no entry in the result.
+     */
+    @Override
+    public void topicsMetadata(Set<TopicName> topicNames, Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler) {
+        LOGGER.debug("Getting metadata for {} topics", topicNames.size());
+        List<String> names = new ArrayList<>(topicNames.size());
+        List<ConfigResource> resources = new ArrayList<>(topicNames.size());
+        for (TopicName topicName : topicNames) {
+            names.add(topicName.toString());
+            resources.add(new ConfigResource(ConfigResource.Type.TOPIC, topicName.toString()));
+        }
+        queueWork(new TopicsMetadataWork(adminClient.describeTopics(names).values(),
+                adminClient.describeConfigs(resources).values(),
+                handler));
+    }
+
     @Override
     public void listTopics(Handler<AsyncResult<Set<String>>> handler) {
         LOGGER.debug("Listing topics");
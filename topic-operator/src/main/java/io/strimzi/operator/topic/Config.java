@@ -98,7 +98,10 @@ public class Config {
     public static final String TC_PERIODIC_INTERVAL_MS = "STRIMZI_FULL_RECONCILIATION_INTERVAL_MS";
     public static final String TC_REASSIGN_THROTTLE = "STRIMZI_REASSIGN_THROTTLE";
     public static final String TC_REASSIGN_VERIFY_INTERVAL_MS = "STRIMZI_REASSIGN_VERIFY_INTERVAL_MS";
+    public static final String TC_REASSIGN_VERIFY_TIMEOUT_MS = "STRIMZI_REASSIGN_VERIFY_TIMEOUT_MS";
     public static final String TC_TOPIC_METADATA_MAX_ATTEMPTS = "STRIMZI_TOPIC_METADATA_MAX_ATTEMPTS";
+    public static final String TC_TOPIC_STORE_BINARY = "STRIMZI_TOPIC_STORE_BINARY";
+    public static final String TC_RECONCILIATION_SNAPSHOT = "STRIMZI_RECONCILIATION_SNAPSHOT";
 
     public static final String TC_TLS_ENABLED = "STRIMZI_TLS_ENABLED";
     public static final String TC_TLS_TRUSTSTORE_LOCATION = "STRIMZI_TRUSTSTORE_LOCATION";
@@ -129,7 +132,11 @@ public class Config {
     /** The period between full reconciliations. */
     public static final Value<Long> FULL_RECONCILIATION_INTERVAL_MS = new Value<>(TC_PERIODIC_INTERVAL_MS, DURATION, "900000");
 
-    /** The interbroker throttled rate to use when a topic change requires partition reassignment. */
+    /**
+     * The initial interbroker throttled rate, in bytes per second, to use when a topic change requires partition
+     * reassignment. The rate is raised when the reassignment doesn't progress, and {@code Long.MAX_VALUE} means
+     * the reassignment is not throttled.
+     */
     public static final Value<Long> REASSIGN_THROTTLE = new Value<>(TC_REASSIGN_THROTTLE, LONG, Long.toString(Long.MAX_VALUE));
 
     /**
@@ -138,9 +145,27 @@ public class Config {
      */
     public static final Value<Long> REASSIGN_VERIFY_INTERVAL_MS = new Value<>(TC_REASSIGN_VERIFY_INTERVAL_MS, DURATION, "120000");
 
+    /**
+     * How long a topic change which requires partition reassignment waits for the reassignment to complete
+     * before failing. The reassignment is still verified after that, until it completes and its throttle is removed.
+     */
+    public static final Value<Long> REASSIGN_VERIFY_TIMEOUT_MS = new Value<>(TC_REASSIGN_VERIFY_TIMEOUT_MS, DURATION, "3600000");
+
     /** The maximum number of retries for getting topic metadata from the Kafka cluster */
     public static final Value<Integer> TOPIC_METADATA_MAX_ATTEMPTS = new Value<>(TC_TOPIC_METADATA_MAX_ATTEMPTS, POSITIVE_INTEGER, "6");
 
+    /**
+     * If the topic store writes the topics in ZooKeeper in a compact binary encoding rather than JSON.
+     * Both are always read, but an operator older than this option can only read JSON.
+     */
+    public static final Value<String> TOPIC_STORE_BINARY = new Value<>(TC_TOPIC_STORE_BINARY, STRING, "false");
+
+    /**
+     * If the topics in sync are recorded in ZooKeeper after each full reconciliation, so that the initial reconciliation
+     * of a restarted operator skips those which have not changed since.
+     */
+    public static final Value<String> RECONCILIATION_SNAPSHOT = new Value<>(TC_RECONCILIATION_SNAPSHOT, STRING, "true");
+
     /** If the connection with Kafka has to be encrypted by TLS protocol */
     public static final Value<String> TLS_ENABLED = new Value<>(TC_TLS_ENABLED, STRING, "false");
     /** The truststore with CA certificate for Kafka broker/server authentication */
@@ -163,7 +188,10 @@ public class Config {
         addConfigValue(configValues, FULL_RECONCILIATION_INTERVAL_MS);
         addConfigValue(configValues, REASSIGN_THROTTLE);
         addConfigValue(configValues, REASSIGN_VERIFY_INTERVAL_MS);
+        addConfigValue(configValues, REASSIGN_VERIFY_TIMEOUT_MS);
         addConfigValue(configValues, TOPIC_METADATA_MAX_ATTEMPTS);
+        addConfigValue(configValues, TOPIC_STORE_BINARY);
+        addConfigValue(configValues, RECONCILIATION_SNAPSHOT);
         addConfigValue(configValues, TLS_ENABLED);
         addConfigValue(configValues, TLS_TRUSTSTORE_LOCATION);
         addConfigValue(configValues, TLS_TRUSTSTORE_PASSWORD);
@@ -12,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Inflight tracks the current reconciliation jobs being done, and prevents
@@ -51,9 +52,12 @@ class InFlight<T> {
         private final String fur;
         private Handler<AsyncResult<Void>> h3;
         private final Future<Void> fut;
+        /** The {@link System#nanoTime()} at which the oldest action pending for the key was enqueued */
+        private final long since;
 
-        public InflightHandler(T key, String fur, Handler<AsyncResult<Void>> h1) {
+        public InflightHandler(T key, String fur, Handler<AsyncResult<Void>> h1, long since) {
             this.fur = fur;
+            this.since = since;
             this.h1 = h1;
             this.h2 = x -> {
                 // remove from map if fut is the current key
@@ -102,9 +106,11 @@ class InFlight<T> {
      * which will complete the given {@code resultHandler}.
      */
     public void enqueue(T key, Handler<Future<Void>> action, Handler<AsyncResult<Void>> resultHandler) {
-        InflightHandler fut = new InflightHandler(key, action.toString(), resultHandler);
-        LOGGER.debug("resultHandler:{}, action:{}, fut:{}", resultHandler, action, fut);
+        long now = System.nanoTime();
         map.compute(key, (k, current) -> {
+            // An action queued behind another one is as late as the first of them
+            InflightHandler fut = new InflightHandler(key, action.toString(), resultHandler, current == null ? now : current.since);
+            LOGGER.debug("resultHandler:{}, action:{}, fut:{}", resultHandler, action, fut);
             if (current == null) {
                 LOGGER.debug("Queueing {} for immediate execution", action);
                 vertx.runOnContext(ignored -> action.handle(fut.fut));
@@ -127,4 +133,20 @@ class InFlight<T> {
     public int size() {
         return map.size();
     }
+
+    /**
+     * The time in milliseconds since the oldest of the inflight actions was enqueued, or 0 if there is none.
+     * The actions of a key are chained, so a key whose actions keep being enqueued before the previous ones
+     * have completed keeps getting older.
+     */
+    public long oldestAgeMs() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (InflightHandler handler : map.values()) {
+            if (handler.since - oldest < 0) {
+                oldest = handler.since;
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(now - oldest);
+    }
 }
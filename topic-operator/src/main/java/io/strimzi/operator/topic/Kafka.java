@@ -5,8 +5,14 @@
 package io.strimzi.operator.topic;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -64,6 +70,34 @@ public interface Kafka {
      */
     void topicMetadata(TopicName topicName, Handler<AsyncResult<TopicMetadata>> handler);
 
+    /**
+     * Asynchronously fetch the metadata of the given topics in Kafka. Invoke the given
+     * handler with the result. If the operation fails the given handler
+     * will be called with a failed AsyncResult whose {@code cause()} is the
+     * KafkaException (not an ExecutionException).
+     * The topics which do not exist have no entry in the {@link AsyncResult#result()}.
+     * This implementation fetches the metadata of each topic with {@link #topicMetadata(TopicName, Handler)}.
+     */
+    default void topicsMetadata(Set<TopicName> topicNames, Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler) {
+        List<TopicName> names = new ArrayList<>(topicNames);
+        List<Future> futures = new ArrayList<>(names.size());
+        for (TopicName topicName : names) {
+            Future<TopicMetadata> future = Future.future();
+            topicMetadata(topicName, future.completer());
+            futures.add(future);
+        }
+        CompositeFuture.all(futures).map(all -> {
+            Map<TopicName, TopicMetadata> metadata = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                TopicMetadata topicMetadata = all.resultAt(i);
+                if (topicMetadata != null) {
+                    metadata.put(names.get(i), topicMetadata);
+                }
+            }
+            return metadata;
+        }).setHandler(handler);
+    }
+
     /**
      * Asynchronously list the topics available in Kafka. Invoke the given
      * handler with the result. If the operation fails the given handler
@@ -6,6 +6,7 @@ package io.strimzi.operator.topic;
 
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.strimzi.api.kafka.Crds;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -39,8 +40,13 @@ public class Main {
     private void deploy(Config config) {
         DefaultKubernetesClient kubeClient = new DefaultKubernetesClient();
         Crds.registerCustomKinds();
-        Vertx vertx = Vertx.vertx();
+        Vertx vertx = Vertx.vertx(OperatorMetrics.vertxOptions());
         Session session = new Session(kubeClient, config);
+        // Registered once for the process, following the TopicOperator of the session
+        OperatorMetrics.gauge("topic.operator.inflight", "Topics with in-flight reconciliation work",
+                session, Session::inFlightCount);
+        OperatorMetrics.gauge("topic.operator.reconciliation.lag.ms", "Age of the oldest in-flight reconciliation work",
+                session, Session::oldestInFlightAgeMs);
         vertx.deployVerticle(session, ar -> {
             if (ar.succeeded()) {
                 LOGGER.info("Session deployed");
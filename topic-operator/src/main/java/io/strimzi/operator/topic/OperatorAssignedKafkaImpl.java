@@ -7,17 +7,23 @@ package io.strimzi.operator.topic;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.strimzi.operator.common.process.ProcessHelper;
+import io.strimzi.operator.topic.zk.Zk;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.NewPartitions;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -28,31 +34,39 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * An implementation of {@link Kafka} which leave partition assignment decisions to the Kafka operator.
- * The operator is able to make rack-aware assignments (if so configured), but does not take into account
- * other aspects (e.g. disk utilisation, CPU load, network IO).
+ * The operator makes rack-aware assignments (with {@link ReplicaPlacement}) when the brokers have racks,
+ * but does not take into account other aspects (e.g. disk utilisation, CPU load, network IO).
  */
 public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
 
     private final static Logger LOGGER = LogManager.getLogger(OperatorAssignedKafkaImpl.class);
     private final Config config;
+    private final ThrottleRegistry throttles;
 
-    public OperatorAssignedKafkaImpl(AdminClient adminClient, Vertx vertx, Config config) {
+    public OperatorAssignedKafkaImpl(AdminClient adminClient, Vertx vertx, Config config, Zk zk) {
         super(adminClient, vertx);
         this.config = config;
+        this.throttles = new ThrottleRegistry(zk);
     }
 
     @Override
@@ -66,15 +80,30 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
     /**
      * Create a new topic via the Kafka AdminClient API, calling the given handler
      * (in a different thread) with the result.
+     * When the brokers have racks, the replicas are assigned by {@link ReplicaPlacement},
+     * otherwise the assignment is left to Kafka.
      */
     @Override
     public void createTopic(Topic topic, Handler<AsyncResult<Void>> handler) {
-        NewTopic newTopic = TopicSerialization.toNewTopic(topic, null);
+        queueWork(new UniWork<>("describeCluster", adminClient.describeCluster().nodes(), nodesResult -> {
+            if (nodesResult.failed()) {
+                handler.handle(Future.failedFuture(nodesResult.cause()));
+                return;
+            }
+            Map<Integer, String> brokerRacks = brokerRacks(nodesResult.result());
+            Map<Integer, List<Integer>> assignment = null;
+            if (isRackAware(brokerRacks, topic.getNumReplicas())) {
+                // Start the leaders of each topic from a different broker, so that they are balanced across the topics
+                int startIndex = Math.floorMod(topic.getTopicName().toString().hashCode(), brokerRacks.size());
+                assignment = ReplicaPlacement.assign(brokerRacks, topic.getNumPartitions(), topic.getNumReplicas(), startIndex);
+            }
+            NewTopic newTopic = TopicSerialization.toNewTopic(topic, assignment);
 
-        LOGGER.debug("Creating topic {}", newTopic);
-        KafkaFuture<Void> future = adminClient.createTopics(
-                Collections.singleton(newTopic)).values().get(newTopic.name());
-        queueWork(new UniWork<>("createTopic", future, handler));
+            LOGGER.debug("Creating topic {}", newTopic);
+            KafkaFuture<Void> future = adminClient.createTopics(
+                    Collections.singleton(newTopic)).values().get(newTopic.name());
+            queueWork(new UniWork<>("createTopic", future, handler));
+        }));
     }
 
     @Override
@@ -83,7 +112,7 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
         LOGGER.info("Changing replication factor of topic {} to {}", topic.getTopicName(), topic.getNumReplicas());
 
         final String zookeeper = config.get(Config.ZOOKEEPER_CONNECT);
-        Future<File> generateFuture = Future.future();
+        Future<Reassignment> generateFuture = Future.future();
 
         // generate a reassignment
         vertx.executeBlocking(fut -> {
@@ -95,24 +124,27 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
                 try (Writer w = new OutputStreamWriter(new FileOutputStream(reassignmentJsonFile), StandardCharsets.UTF_8)) {
                     w.write(reassignment);
                 }
-                fut.complete(reassignmentJsonFile);
+                fut.complete(new Reassignment(reassignmentJsonFile, replicationThrottle(topic, reassignment)));
             } catch (Exception e) {
                 fut.fail(e);
             }
         },
             generateFuture.completer());
 
-        Future<File> executeFuture = Future.future();
+        Future<Reassignment> executeFuture = Future.future();
 
-        generateFuture.compose(reassignmentJsonFile -> {
-            // execute the reassignment
+        generateFuture.compose(reassignment -> {
+            // throttle the replication, then execute the reassignment
             vertx.executeBlocking(fut -> {
-                final Long throttle = config.get(Config.REASSIGN_THROTTLE);
                 try {
-                    LOGGER.debug("Starting reassignment for topic {} with throttle {}", topic.getTopicName(), throttle);
-                    executeReassignment(reassignmentJsonFile, zookeeper, throttle);
-                    fut.complete(reassignmentJsonFile);
+                    if (reassignment.throttle != null) {
+                        reassignment.throttle.start();
+                    }
+                    LOGGER.debug("Starting reassignment for topic {}", topic.getTopicName());
+                    executeReassignment(reassignment.jsonFile, zookeeper);
+                    fut.complete(reassignment);
                 } catch (Exception e) {
+                    clearThrottle(reassignment);
                     fut.fail(e);
                 }
             },
@@ -122,9 +154,10 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
         Future<Void> periodicFuture = Future.future();
         Future<Void> reassignmentFinishedFuture = Future.future();
 
-        executeFuture.compose(reassignmentJsonFile -> {
-            // Poll repeatedly, calling --verify to remove the throttle
-            long timeout = 10_000;
+        executeFuture.compose(reassignment -> {
+            // Poll repeatedly, calling --verify to follow the progress and adapt or remove the throttle.
+            // The reassignment goes on after the timeout, so it is still followed until its throttle is removed.
+            final Long timeout = config.get(Config.REASSIGN_VERIFY_TIMEOUT_MS);
             long first = System.currentTimeMillis();
             final Long periodMs = config.get(Config.REASSIGN_VERIFY_INTERVAL_MS);
             LOGGER.debug("Verifying reassignment every {} seconds", TimeUnit.SECONDS.convert(periodMs, TimeUnit.MILLISECONDS));
@@ -132,30 +165,34 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
                 vertx.<Boolean>executeBlocking(fut -> {
                     LOGGER.debug(String.format("Verifying reassignment for topic {} (timer id=%s)", topic.getTopicName(), timerId));
 
-                    final Long throttle = config.get(Config.REASSIGN_THROTTLE);
-                    final boolean reassignmentComplete;
+                    final Set<Integer> inProgress;
                     try {
-                        reassignmentComplete = verifyReassignment(reassignmentJsonFile, zookeeper, throttle);
+                        inProgress = verifyReassignment(reassignment.jsonFile, zookeeper);
+                        if (reassignment.throttle != null) {
+                            if (inProgress.isEmpty()) {
+                                reassignment.throttle.clear();
+                            } else {
+                                updateThrottle(reassignment, inProgress);
+                            }
+                        }
                     } catch (Exception e) {
                         fut.fail(e);
                         return;
                     }
-                    fut.complete(reassignmentComplete);
+                    fut.complete(inProgress.isEmpty());
                 },
                     ar -> {
                         if (ar.succeeded()) {
                             if (ar.result()) {
                                 LOGGER.info("Reassignment complete");
-                                ProcessHelper.delete(reassignmentJsonFile);
+                                ProcessHelper.delete(reassignment.jsonFile);
                                 LOGGER.debug("Cancelling timer " + timerId);
                                 vertx.cancelTimer(timerId);
-                                reassignmentFinishedFuture.complete();
-                            } else if (System.currentTimeMillis() - first > timeout) {
-                                LOGGER.error("Reassignment timed out");
-                                ProcessHelper.delete(reassignmentJsonFile);
-                                LOGGER.debug("Cancelling timer " + timerId);
-                                vertx.cancelTimer(timerId);
-                                reassignmentFinishedFuture.fail("Timeout");
+                                reassignmentFinishedFuture.tryComplete();
+                            } else if (System.currentTimeMillis() - first > timeout
+                                    && reassignmentFinishedFuture.tryFail("Timeout")) {
+                                LOGGER.error("Reassignment of topic {} timed out, it is still verified until it completes",
+                                        topic.getTopicName());
                             }
                         } else {
                             //reassignmentFinishedFuture.fail(ar.cause());
@@ -185,9 +222,118 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
 
 
 
+    /**
+     * Gets the metadata of the topic without the throttled replicas which the operator set for a reassignment,
+     * since they are not part of the topic's configuration. Those declared by the KafkaTopic are kept.
+     */
+    @Override
+    public void topicMetadata(TopicName topicName, Handler<AsyncResult<TopicMetadata>> handler) {
+        super.topicMetadata(topicName, ar -> handler.handle(ar.map(this::withoutOperatorThrottle)));
+    }
+
+    @Override
+    public void topicsMetadata(Set<TopicName> topicNames, Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler) {
+        super.topicsMetadata(topicNames, ar -> handler.handle(ar.map(metadata -> {
+            Map<TopicName, TopicMetadata> result = new HashMap<>(metadata.size());
+            metadata.forEach((topicName, meta) -> result.put(topicName, withoutOperatorThrottle(meta)));
+            return result;
+        })));
+    }
+
+    private TopicMetadata withoutOperatorThrottle(TopicMetadata meta) {
+        if (meta == null) {
+            return null;
+        }
+        Map<String, String> throttle = throttles.topicThrottle(meta.getDescription().name());
+        if (throttle.isEmpty()) {
+            return meta;
+        }
+        List<ConfigEntry> entries = new ArrayList<>();
+        for (ConfigEntry entry : meta.getConfig().entries()) {
+            if (!throttle.containsKey(entry.name())) {
+                entries.add(entry);
+            }
+        }
+        return new TopicMetadata(meta.getDescription(), new org.apache.kafka.clients.admin.Config(entries));
+    }
+
+    /**
+     * Updates the configuration of the topic, keeping the throttled replicas which the operator set for a reassignment
+     * of the topic, since the update replaces the whole configuration.
+     */
+    @Override
+    public void updateTopicConfig(Topic topic, Handler<AsyncResult<Void>> handler) {
+        Map<String, String> throttle = throttles.topicThrottle(topic.getTopicName().toString());
+        if (throttle.isEmpty()) {
+            super.updateTopicConfig(topic, handler);
+        } else {
+            Map<String, String> config = new HashMap<>(topic.getConfig());
+            config.putAll(throttle);
+            super.updateTopicConfig(new Topic.Builder(topic).withConfig(config).build(), handler);
+        }
+    }
+
+    /** A reassignment being executed, with the throttle of its replication (if any) */
+    private static class Reassignment {
+        final File jsonFile;
+        final ReplicationThrottle throttle;
+
+        Reassignment(File jsonFile, ReplicationThrottle throttle) {
+            this.jsonFile = jsonFile;
+            this.throttle = throttle;
+        }
+    }
+
+    /**
+     * The throttle of the given reassignment of the given topic,
+     * or null when {@link Config#REASSIGN_THROTTLE} is not set (or when the reassignment doesn't move anything).
+     */
+    private ReplicationThrottle replicationThrottle(Topic topic, String reassignmentJson) throws IOException, InterruptedException, ExecutionException {
+        final Long rate = config.get(Config.REASSIGN_THROTTLE);
+        if (rate == null || rate == Long.MAX_VALUE) {
+            return null;
+        }
+        String topicName = topic.getTopicName().toString();
+        Map<Integer, List<Integer>> current = currentReplicas(topicName);
+        Map<Integer, List<Integer>> proposed = proposedReplicas(topicName, reassignmentJson);
+        if (ReplicationThrottle.movingPartitions(current, proposed).isEmpty()) {
+            return null;
+        }
+        return new ReplicationThrottle(adminClient, throttles, topicName, current, proposed, rate);
+    }
+
+    private void updateThrottle(Reassignment reassignment, Set<Integer> inProgress) {
+        try {
+            reassignment.throttle.update(inProgress);
+        } catch (Exception e) {
+            // The throttle is left as it is until the next verification
+            LOGGER.warn("Error while updating the replication throttle", e);
+        }
+    }
+
+    private void clearThrottle(Reassignment reassignment) {
+        if (reassignment.throttle != null) {
+            try {
+                reassignment.throttle.clear();
+            } catch (Exception e) {
+                LOGGER.error("Error while removing the replication throttle, it will be removed when the operator restarts", e);
+            }
+        }
+    }
+
+    /**
+     * Removes the replication throttles which a previous run of the operator set and recorded in ZooKeeper,
+     * such as those left by a reassignment which was interrupted by a restart of the operator.
+     * This blocks, so it has to be called from a worker thread.
+     */
+    public void clearReplicationThrottles() throws InterruptedException, ExecutionException {
+        throttles.clearRecorded(adminClient);
+    }
+
     private static class VerifyLineParser implements Function<String, Void> {
+        private static final Pattern IN_PROGRESS = Pattern.compile("Reassignment of partition .*-([0-9]+) is still in progress");
         int complete = 0;
-        int inProgress = 0;
+        final Set<Integer> inProgress = new TreeSet<>();
 
         @Override
         public Void apply(String line) {
@@ -196,8 +342,11 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
                 throw new OperatorException("Reassigment failed: " + line);
             } else if (Pattern.matches("Reassignment of partition .* completed successfully", line)) {
                 complete++;
-            } else if (Pattern.matches("Reassignment of partition .* is still in progress", line)) {
-                inProgress++;
+            } else {
+                Matcher matcher = IN_PROGRESS.matcher(line);
+                if (matcher.matches()) {
+                    inProgress.add(Integer.valueOf(matcher.group(1)));
+                }
             }
             return null;
         }
@@ -221,34 +370,31 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
         }
     }
 
-    private boolean verifyReassignment(File reassignmentJsonFile, String zookeeper, Long throttle) throws IOException, InterruptedException {
+    /** The partitions whose reassignment is still in progress */
+    private Set<Integer> verifyReassignment(File reassignmentJsonFile, String zookeeper) throws IOException, InterruptedException {
         List<String> verifyArgs = new ArrayList<>();
         addJavaArgs(verifyArgs);
         // command args
         verifyArgs.add("--zookeeper");
         verifyArgs.add(zookeeper);
-        if (throttle != null) {
-            verifyArgs.add("--throttle");
-            verifyArgs.add(Long.toString(throttle));
-        }
         verifyArgs.add("--reassignment-json-file");
         verifyArgs.add(reassignmentJsonFile.toString());
         verifyArgs.add("--verify");
         VerifyLineParser verifyLineParser = new VerifyLineParser();
         forEachLineStdout(ProcessHelper.executeSubprocess(verifyArgs),
                 verifyLineParser);
-        return verifyLineParser.inProgress == 0;
+        return verifyLineParser.inProgress;
     }
 
-    private void executeReassignment(File reassignmentJsonFile, String zookeeper, Long throttle) throws IOException, InterruptedException {
+    /**
+     * Starts the reassignment. It is not given a {@code --throttle}, since the throttle is set by
+     * {@link ReplicationThrottle}, and the tool would replace it.
+     */
+    private void executeReassignment(File reassignmentJsonFile, String zookeeper) throws IOException, InterruptedException {
         List<String> executeArgs = new ArrayList<>();
         addJavaArgs(executeArgs);
         executeArgs.add("--zookeeper");
         executeArgs.add(zookeeper);
-        if (throttle != null) {
-            executeArgs.add("--throttle");
-            executeArgs.add(Long.toString(throttle));
-        }
         executeArgs.add("--reassignment-json-file");
         executeArgs.add(reassignmentJsonFile.toString());
         executeArgs.add("--execute");
@@ -269,6 +415,21 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
     }
 
     private String generateReassignment(Topic topic, String zookeeper) throws IOException, InterruptedException, ExecutionException {
+        Collection<Node> nodes = adminClient.describeCluster().nodes().get();
+        Map<Integer, String> brokerRacks = brokerRacks(nodes);
+        if (isRackAware(brokerRacks, topic.getNumReplicas())) {
+            String topicName = topic.getTopicName().toString();
+            Map<Integer, List<Integer>> current = currentReplicas(topicName);
+            Map<Integer, List<Integer>> assignment;
+            try {
+                assignment = ReplicaPlacement.reassign(brokerRacks, current, topic.getNumReplicas());
+            } catch (IllegalArgumentException e) {
+                // A broker with a replica of the topic isn't in the cluster right now: try again later
+                throw new TransientOperatorException(e);
+            }
+            return reassignmentJson(topicName, assignment);
+        }
+
         JsonFactory factory = new JsonFactory();
 
         File topicsToMove = ProcessHelper.createTmpFile("-topics-to-move.json");
@@ -291,7 +452,7 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
         executeArgs.add("--topics-to-move-json-file");
         executeArgs.add(topicsToMove.toString());
         executeArgs.add("--broker-list");
-        executeArgs.add(brokerList());
+        executeArgs.add(brokerList(nodes));
         executeArgs.add("--generate");
 
         final ProcessHelper.ProcessResult processResult = ProcessHelper.executeSubprocess(executeArgs);
@@ -301,10 +462,82 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
 
     }
 
-    /** Use the AdminClient to get a comma-separated list of the broker ids in the Kafka cluster */
-    private String brokerList() throws InterruptedException, ExecutionException {
+    /** The current replicas of each partition of the given topic */
+    private Map<Integer, List<Integer>> currentReplicas(String topicName) throws InterruptedException, ExecutionException {
+        TopicDescription description = adminClient.describeTopics(Collections.singleton(topicName))
+                .values().get(topicName).get();
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        for (TopicPartitionInfo partition : description.partitions()) {
+            List<Integer> replicas = new ArrayList<>(partition.replicas().size());
+            for (Node replica : partition.replicas()) {
+                replicas.add(replica.id());
+            }
+            current.put(partition.partition(), replicas);
+        }
+        return current;
+    }
+
+    /** The replicas of each partition of the given topic in the given reassignment JSON */
+    static Map<Integer, List<Integer>> proposedReplicas(String topicName, String reassignmentJson) throws IOException {
+        Map<Integer, List<Integer>> proposed = new HashMap<>();
+        for (JsonNode partition : new ObjectMapper().readTree(reassignmentJson).path("partitions")) {
+            if (topicName.equals(partition.path("topic").asText())) {
+                List<Integer> replicas = new ArrayList<>();
+                for (JsonNode replica : partition.path("replicas")) {
+                    replicas.add(replica.asInt());
+                }
+                proposed.put(partition.path("partition").asInt(), replicas);
+            }
+        }
+        return proposed;
+    }
+
+    /** The reassignment JSON of the given partitions of the given topic, as expected by the ReassignPartitionsCommand */
+    private static String reassignmentJson(String topicName, Map<Integer, List<Integer>> assignment) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator gen = new JsonFactory().createGenerator(json)) {
+            gen.writeStartObject();
+            gen.writeNumberField("version", 1);
+            gen.writeArrayFieldStart("partitions");
+            for (Map.Entry<Integer, List<Integer>> partition : assignment.entrySet()) {
+                gen.writeStartObject();
+                gen.writeStringField("topic", topicName);
+                gen.writeNumberField("partition", partition.getKey());
+                gen.writeArrayFieldStart("replicas");
+                for (Integer replica : partition.getValue()) {
+                    gen.writeNumber(replica);
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        return json.toString();
+    }
+
+    /** The rack of each of the given brokers, null for the brokers without one */
+    private static Map<Integer, String> brokerRacks(Collection<Node> nodes) {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        for (Node node : nodes) {
+            brokerRacks.put(node.id(), node.rack());
+        }
+        return brokerRacks;
+    }
+
+    /**
+     * Whether the replicas are assigned by {@link ReplicaPlacement}: when the brokers have racks
+     * and there are enough of them for the replicas, otherwise Kafka reports the error.
+     */
+    private static boolean isRackAware(Map<Integer, String> brokerRacks, int replicationFactor) {
+        return brokerRacks.values().stream().anyMatch(rack -> rack != null)
+                && replicationFactor >= 1 && replicationFactor <= brokerRacks.size();
+    }
+
+    /** A comma-separated list of the ids of the given brokers */
+    private static String brokerList(Collection<Node> nodes) {
         StringBuilder sb = new StringBuilder();
-        for (Node node: adminClient.describeCluster().nodes().get()) {
+        for (Node node: nodes) {
             if (sb.length() != 0) {
                 sb.append(",");
             }
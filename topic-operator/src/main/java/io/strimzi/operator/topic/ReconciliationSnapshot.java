@@ -0,0 +1,339 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.operator.topic.zk.AclBuilder;
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import org.I0Itec.zkclient.exception.ZkNoNodeException;
+import org.I0Itec.zkclient.exception.ZkNodeExistsException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.data.ACL;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The topics which were in sync the last time they were reconciled: for each of them, the resourceVersion
+ * of its KafkaTopic and a hash of its Kafka topic at the time all three of the KafkaTopic, the Kafka topic and
+ * the topic in the {@link TopicStore} were found identical.
+ * As long as neither the KafkaTopic nor the Kafka topic has changed since, the topic doesn't need to be reconciled:
+ * the topic store is only changed by the operator when one of the two others has changed.
+ * <p>
+ * The snapshot is persisted in ZooKeeper, so that a restarted operator can skip the unchanged topics
+ * in its initial reconciliation. It is compressed and split into chunks, since the snapshot of a large
+ * cluster would not fit in a single znode.
+ */
+class ReconciliationSnapshot {
+
+    private final static Logger LOGGER = LogManager.getLogger(ReconciliationSnapshot.class);
+
+    static final String SNAPSHOT_PATH = "/strimzi/snapshot";
+
+    /** The size of the chunks, well below the 1MB limit of the size of a znode */
+    static final int CHUNK_SIZE = 512 * 1024;
+
+    private static final byte VERSION = 1;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** The state of a topic which was in sync */
+    private static final class State {
+        private final String resourceVersion;
+        private final long kafkaHash;
+
+        State(String resourceVersion, long kafkaHash) {
+            this.resourceVersion = Objects.requireNonNull(resourceVersion);
+            this.kafkaHash = kafkaHash;
+        }
+    }
+
+    private final ConcurrentHashMap<TopicName, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a hash of the given Kafka topic (as obtained by {@link TopicSerialization#fromTopicMetadata(TopicMetadata)}),
+     * which is the same in any JVM, since it is persisted.
+     */
+    static long kafkaHash(Topic kafkaTopic) {
+        long hash = hash(FNV_OFFSET_BASIS, kafkaTopic.getTopicName().toString());
+        hash = hash(hash, kafkaTopic.getNumPartitions());
+        hash = hash(hash, kafkaTopic.getNumReplicas());
+        // The config is sorted by key
+        for (Map.Entry<String, String> entry : kafkaTopic.getConfig().entrySet()) {
+            hash = hash(hash, entry.getKey());
+            hash = entry.getValue() != null ? hash(hash, entry.getValue()) : hash(hash, -1);
+        }
+        return hash;
+    }
+
+    /** FNV-1a over the chars of the given string, followed by its length so that concatenations differ */
+    private static long hash(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return hash(hash, s.length());
+    }
+
+    private static long hash(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Records that the given topic is in sync with the given KafkaTopic resourceVersion and Kafka topic.
+     */
+    void put(TopicName topicName, String resourceVersion, Topic kafkaTopic) {
+        if (resourceVersion != null) {
+            states.put(topicName, new State(resourceVersion, kafkaHash(kafkaTopic)));
+        } else {
+            states.remove(topicName);
+        }
+    }
+
+    /**
+     * Forgets the given topic, whose reconciliation is going to change it.
+     */
+    void remove(TopicName topicName) {
+        states.remove(topicName);
+    }
+
+    /**
+     * Whether the given topic is still in sync, its KafkaTopic resourceVersion and Kafka topic being unchanged.
+     */
+    boolean isUnchanged(TopicName topicName, String resourceVersion, Topic kafkaTopic) {
+        State state = states.get(topicName);
+        return state != null && resourceVersion != null && kafkaTopic != null
+                && state.resourceVersion.equals(resourceVersion) && state.kafkaHash == kafkaHash(kafkaTopic);
+    }
+
+    boolean contains(TopicName topicName) {
+        return states.containsKey(topicName);
+    }
+
+    boolean isEmpty() {
+        return states.isEmpty();
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    /**
+     * Returns the gzipped binary encoding of this snapshot.
+     */
+    byte[] toBytes() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(baos))) {
+            out.writeByte(VERSION);
+            // The states can change while they are written, so they are copied first
+            List<Map.Entry<TopicName, State>> entries = new ArrayList<>(states.entrySet());
+            out.writeInt(entries.size());
+            for (Map.Entry<TopicName, State> entry : entries) {
+                out.writeUTF(entry.getKey().toString());
+                out.writeUTF(entry.getValue().resourceVersion);
+                out.writeLong(entry.getValue().kafkaHash);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Returns the snapshot encoded by {@link #toBytes()}.
+     */
+    static ReconciliationSnapshot fromBytes(byte[] bytes) {
+        ReconciliationSnapshot snapshot = new ReconciliationSnapshot();
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version " + version);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                TopicName topicName = new TopicName(in.readUTF());
+                String resourceVersion = in.readUTF();
+                snapshot.states.put(topicName, new State(resourceVersion, in.readLong()));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupted snapshot", e);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Splits the given bytes into chunks of at most {@code chunkSize} bytes, each with a header made of the
+     * given id, its index and the number of chunks, so that the chunks of different snapshots can't be mixed.
+     */
+    static List<byte[]> chunks(byte[] bytes, long id, int chunkSize) {
+        int count = Math.max(1, (bytes.length + chunkSize - 1) / chunkSize);
+        List<byte[]> chunks = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            int from = index * chunkSize;
+            int length = Math.min(chunkSize, bytes.length - from);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(16 + length);
+            try (DataOutputStream out = new DataOutputStream(baos)) {
+                out.writeLong(id);
+                out.writeInt(index);
+                out.writeInt(count);
+                out.write(bytes, from, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunks.add(baos.toByteArray());
+        }
+        return chunks;
+    }
+
+    /**
+     * Joins the chunks made by {@link #chunks(byte[], long, int)}, in any order.
+     * @throws IllegalArgumentException If some chunks are missing or belong to another snapshot.
+     */
+    static byte[] join(List<byte[]> chunks) {
+        if (chunks.isEmpty()) {
+            throw new IllegalArgumentException("No chunks");
+        }
+        byte[][] ordered = null;
+        long id = 0;
+        int total = 0;
+        try {
+            for (byte[] chunk : chunks) {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(chunk));
+                long chunkId = in.readLong();
+                int index = in.readInt();
+                int count = in.readInt();
+                if (ordered == null) {
+                    ordered = new byte[count][];
+                    id = chunkId;
+                }
+                if (chunkId != id || count != ordered.length || index < 0 || index >= count || ordered[index] != null) {
+                    throw new IllegalArgumentException("Chunk " + index + " does not belong to the snapshot " + id);
+                }
+                ordered[index] = Arrays.copyOfRange(chunk, 16, chunk.length);
+                total += ordered[index].length;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupted chunk", e);
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(total);
+        for (int index = 0; index < ordered.length; index++) {
+            if (ordered[index] == null) {
+                throw new IllegalArgumentException("Chunk " + index + " of the snapshot " + id + " is missing");
+            }
+            baos.write(ordered[index], 0, ordered[index].length);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Asynchronously reads the snapshot persisted in ZooKeeper.
+     * The result is an empty snapshot if none was persisted.
+     */
+    static void load(Zk zk, Handler<AsyncResult<ReconciliationSnapshot>> handler) {
+        zk.children(SNAPSHOT_PATH, childrenResult -> {
+            if (childrenResult.failed()) {
+                if (childrenResult.cause() instanceof ZkNoNodeException) {
+                    handler.handle(Future.succeededFuture(new ReconciliationSnapshot()));
+                } else {
+                    handler.handle(Future.failedFuture(childrenResult.cause()));
+                }
+                return;
+            }
+            List<Future> dataFutures = new ArrayList<>();
+            for (String child : childrenResult.result()) {
+                Future<byte[]> data = Future.future();
+                zk.getData(SNAPSHOT_PATH + "/" + child, data.completer());
+                dataFutures.add(data);
+            }
+            if (dataFutures.isEmpty()) {
+                handler.handle(Future.succeededFuture(new ReconciliationSnapshot()));
+                return;
+            }
+            CompositeFuture.all(dataFutures).setHandler(dataResult -> {
+                if (dataResult.succeeded()) {
+                    try {
+                        ReconciliationSnapshot snapshot = fromBytes(join(dataResult.result().list()));
+                        LOGGER.debug("Read the snapshot of {} topics", snapshot.size());
+                        handler.handle(Future.succeededFuture(snapshot));
+                    } catch (RuntimeException e) {
+                        handler.handle(Future.failedFuture(e));
+                    }
+                } else {
+                    handler.handle(Future.failedFuture(dataResult.cause()));
+                }
+            });
+        });
+    }
+
+    /**
+     * Asynchronously persists this snapshot in ZooKeeper, replacing the previous one.
+     * If the operator stops half way, the chunks of both are mixed, and {@link #load(Zk, Handler)} fails.
+     */
+    void save(Zk zk, Handler<AsyncResult<Void>> handler) {
+        List<ACL> acl = new AclBuilder().setWorld(AclBuilder.Permission.values()).build();
+        List<byte[]> chunks = chunks(toBytes(), System.currentTimeMillis(), CHUNK_SIZE);
+        zk.create(SNAPSHOT_PATH, null, acl, CreateMode.PERSISTENT, createResult -> {
+            if (createResult.failed() && !(createResult.cause() instanceof ZkNodeExistsException)) {
+                handler.handle(createResult);
+                return;
+            }
+            zk.children(SNAPSHOT_PATH, childrenResult -> {
+                if (childrenResult.failed()) {
+                    handler.handle(Future.failedFuture(childrenResult.cause()));
+                    return;
+                }
+                Set<String> existing = new HashSet<>(childrenResult.result());
+                List<Future> writeFutures = new ArrayList<>();
+                for (int index = 0; index < chunks.size(); index++) {
+                    String child = String.valueOf(index);
+                    Future<Void> write = Future.future();
+                    if (existing.remove(child)) {
+                        zk.setData(SNAPSHOT_PATH + "/" + child, chunks.get(index), -1, write.completer());
+                    } else {
+                        zk.create(SNAPSHOT_PATH + "/" + child, chunks.get(index), acl, CreateMode.PERSISTENT, write.completer());
+                    }
+                    writeFutures.add(write);
+                }
+                CompositeFuture.all(writeFutures).compose(written -> {
+                    // The chunks of a previous and larger snapshot
+                    List<Future> deleteFutures = new ArrayList<>();
+                    for (String child : existing) {
+                        Future<Void> delete = Future.future();
+                        zk.delete(SNAPSHOT_PATH + "/" + child, -1, delete.completer());
+                        deleteFutures.add(delete);
+                    }
+                    return CompositeFuture.all(deleteFutures);
+                }).setHandler(ar -> {
+                    if (ar.succeeded()) {
+                        LOGGER.debug("Wrote the snapshot of {} topics in {} chunks", size(), chunks.size());
+                    }
+                    handler.handle(ar.map((Void) null));
+                });
+            });
+        });
+    }
+}
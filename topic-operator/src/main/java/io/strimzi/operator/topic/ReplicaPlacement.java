@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Computes the assignments of the replicas of a topic's partitions to the brokers, so that the replicas of each
+ * partition are spread across the racks of the brokers and the leaders of the partitions across the brokers.
+ * <p>
+ * The placement only depends on its arguments, so it can be tested and benchmarked without a Kafka cluster.
+ * The brokers are given as a map from their id to their rack, where the brokers without a rack share the null rack.
+ */
+public class ReplicaPlacement {
+
+    private ReplicaPlacement() { }
+
+    /**
+     * Assigns the replicas of the partitions of a new topic.
+     * The leaders (the first replica of each partition) go round the brokers from the given start index,
+     * alternating between the racks, and each follower goes to a rack which doesn't have a replica of the
+     * partition yet, while there is one.
+     *
+     * @param brokerRacks The rack of each broker.
+     * @param partitions The number of partitions.
+     * @param replicationFactor The number of replicas of each partition.
+     * @param startIndex The index of the leader of the first partition, so that the leaders of different topics
+     *                   start from different brokers.
+     * @return The replicas of each partition, in the order of the partitions.
+     * @throws IllegalArgumentException If the replication factor is not between 1 and the number of brokers.
+     */
+    public static Map<Integer, List<Integer>> assign(Map<Integer, String> brokerRacks, int partitions,
+                                                     int replicationFactor, int startIndex) {
+        validate(brokerRacks, replicationFactor);
+        List<Integer> brokers = rackAlternatedBrokers(brokerRacks);
+        int numBrokers = brokers.size();
+        int numRacks = new HashSet<>(brokerRacks.values()).size();
+        Map<Integer, List<Integer>> assignment = new LinkedHashMap<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            int leaderIndex = Math.floorMod(startIndex + partition, numBrokers);
+            // Shift the followers each time the leaders have gone round the brokers,
+            // so that the same leaders don't always have the same followers
+            int shift = numBrokers > 1 ? partition / numBrokers % (numBrokers - 1) : 0;
+
+            List<Integer> replicas = new ArrayList<>(replicationFactor);
+            Set<String> racks = new HashSet<>();
+            int leader = brokers.get(leaderIndex);
+            replicas.add(leader);
+            racks.add(brokerRacks.get(leader));
+            while (replicas.size() < replicationFactor) {
+                boolean added = false;
+                for (int i = 0; i < numBrokers - 1 && replicas.size() < replicationFactor; i++) {
+                    int broker = brokers.get((leaderIndex + 1 + (shift + i) % (numBrokers - 1)) % numBrokers);
+                    if (replicas.contains(broker)) {
+                        continue;
+                    }
+                    if (racks.size() == numRacks) {
+                        // Every rack has a replica: start another round of the racks
+                        racks.clear();
+                    }
+                    if (racks.add(brokerRacks.get(broker))) {
+                        replicas.add(broker);
+                        added = true;
+                    }
+                }
+                if (!added) {
+                    // The racks are uneven: the remaining brokers are all on racks of this round,
+                    // so start another round, in which the next remaining broker is added
+                    racks.clear();
+                }
+            }
+            assignment.put(partition, replicas);
+        }
+        return assignment;
+    }
+
+    /**
+     * Changes the replication factor of the partitions of an existing topic, moving as few replicas as possible:
+     * the current replicas are kept in their order (so the preferred leaders don't change), the replicas to remove are those on racks which have another replica of the partition, and the replicas
+     * to add go to the racks without a replica of the partition, on the brokers with the fewest replicas.
+     *
+     * @param brokerRacks The rack of each broker, which must include every broker with a current replica.
+     * @param current The current replicas of each partition.
+     * @param replicationFactor The new number of replicas of each partition.
+     * @return The new replicas of each partition, in the order of the partitions.
+     * @throws IllegalArgumentException If the replication factor is not between 1 and the number of brokers,
+     *                                  or if a current replica is on a broker which isn't in brokerRacks
+     *                                  (for example because it is offline), since its replica would be lost.
+     */
+    public static Map<Integer, List<Integer>> reassign(Map<Integer, String> brokerRacks,
+                                                       Map<Integer, List<Integer>> current, int replicationFactor) {
+        validate(brokerRacks, replicationFactor);
+        int numRacks = new HashSet<>(brokerRacks.values()).size();
+        Map<Integer, Integer> load = new HashMap<>();
+        for (Integer broker : brokerRacks.keySet()) {
+            load.put(broker, 0);
+        }
+        SortedMap<Integer, List<Integer>> sorted = new TreeMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : current.entrySet()) {
+            List<Integer> replicas = new ArrayList<>(Math.max(replicationFactor, entry.getValue().size()));
+            for (Integer broker : entry.getValue()) {
+                if (!brokerRacks.containsKey(broker)) {
+                    throw new IllegalArgumentException("Partition " + entry.getKey() + " has a replica on broker "
+                            + broker + ", which is not one of the brokers " + brokerRacks.keySet());
+                }
+                if (!replicas.contains(broker)) {
+                    replicas.add(broker);
+                    load.merge(broker, 1, Integer::sum);
+                }
+            }
+            sorted.put(entry.getKey(), replicas);
+        }
+
+        Map<Integer, List<Integer>> assignment = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : sorted.entrySet()) {
+            List<Integer> replicas = entry.getValue();
+            while (replicas.size() > replicationFactor) {
+                int removed = replicas.remove(followerToRemove(brokerRacks, replicas));
+                load.merge(removed, -1, Integer::sum);
+            }
+            while (replicas.size() < replicationFactor) {
+                int added = brokerToAdd(brokerRacks, numRacks, load, replicas);
+                replicas.add(added);
+                load.merge(added, 1, Integer::sum);
+            }
+            assignment.put(entry.getKey(), replicas);
+        }
+        return assignment;
+    }
+
+    private static void validate(Map<Integer, String> brokerRacks, int replicationFactor) {
+        if (replicationFactor < 1 || replicationFactor > brokerRacks.size()) {
+            throw new IllegalArgumentException("The replication factor " + replicationFactor
+                    + " must be between 1 and the number of brokers " + brokerRacks.size());
+        }
+    }
+
+    /**
+     * Returns the brokers ordered so that consecutive brokers are on different racks:
+     * the first broker of each rack, then the second broker of each rack, and so on.
+     */
+    static List<Integer> rackAlternatedBrokers(Map<Integer, String> brokerRacks) {
+        SortedMap<String, List<Integer>> brokersByRack = new TreeMap<>();
+        for (Integer broker : new TreeMap<>(brokerRacks).keySet()) {
+            String rack = brokerRacks.get(broker);
+            brokersByRack.computeIfAbsent(rack == null ? "" : rack, r -> new ArrayList<>()).add(broker);
+        }
+        List<Integer> brokers = new ArrayList<>(brokerRacks.size());
+        for (int i = 0; brokers.size() < brokerRacks.size(); i++) {
+            for (List<Integer> rackBrokers : brokersByRack.values()) {
+                if (i < rackBrokers.size()) {
+                    brokers.add(rackBrokers.get(i));
+                }
+            }
+        }
+        return brokers;
+    }
+
+    /**
+     * Returns the index of the last follower on a rack which has another replica, or of the last follower.
+     */
+    private static int followerToRemove(Map<Integer, String> brokerRacks, List<Integer> replicas) {
+        for (int i = replicas.size() - 1; i > 0; i--) {
+            String rack = brokerRacks.get(replicas.get(i));
+            for (int j = 0; j < replicas.size(); j++) {
+                if (j != i && equals(rack, brokerRacks.get(replicas.get(j)))) {
+                    return i;
+                }
+            }
+        }
+        return replicas.size() - 1;
+    }
+
+    /**
+     * Returns the broker with the fewest replicas (and then the lowest id) among those which don't have
+     * a replica of the partition, preferring the racks which don't have one either.
+     */
+    private static int brokerToAdd(Map<Integer, String> brokerRacks, int numRacks, Map<Integer, Integer> load,
+                                   List<Integer> replicas) {
+        Set<String> racks = new HashSet<>();
+        for (Integer replica : replicas) {
+            racks.add(brokerRacks.get(replica));
+        }
+        boolean newRackOnly = racks.size() < numRacks;
+        Integer best = null;
+        for (Map.Entry<Integer, String> entry : brokerRacks.entrySet()) {
+            Integer broker = entry.getKey();
+            if (replicas.contains(broker) || (newRackOnly && racks.contains(entry.getValue()))) {
+                continue;
+            }
+            if (best == null || load.get(broker) < load.get(best)
+                    || (load.get(broker).equals(load.get(best)) && broker < best)) {
+                best = broker;
+            }
+        }
+        if (best == null) {
+            // Not expected, since a rack without a replica has a broker without one, but any broker will do
+            for (Integer broker : new TreeMap<>(brokerRacks).keySet()) {
+                if (!replicas.contains(broker)) {
+                    return broker;
+                }
+            }
+            throw new IllegalArgumentException("Every broker already has a replica of the partition");
+        }
+        return best;
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
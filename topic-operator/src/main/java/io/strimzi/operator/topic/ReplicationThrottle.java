@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.requests.DescribeLogDirsResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Throttles the replication traffic of the reassignment of the partitions of a topic through the Kafka AdminClient,
+ * rather than leaving it to the {@code --throttle} option of the ReassignPartitionsCommand.
+ * <p>
+ * The leader throttle applies to the current replicas of the moving partitions and the follower throttle to their
+ * new replicas, and the rate is set on the brokers which have one of those replicas (see {@link ThrottleRegistry}
+ * for how the throttles are shared with the other reassignments and with throttles set by someone else).
+ * As the reassignment progresses the throttle is narrowed to the partitions which are still moving,
+ * and when the lag of the new replicas doesn't go down between two updates the rate is doubled,
+ * so that a reassignment whose followers cannot catch up with the throttled rate still completes.
+ * <p>
+ * The Kafka 2.0 AdminClient replaces the whole dynamic configuration of a resource, so the other dynamic options
+ * of the brokers and topics are read back and kept. The methods block, so they have to be called from a worker thread.
+ */
+class ReplicationThrottle {
+
+    private final static Logger LOGGER = LogManager.getLogger(ReplicationThrottle.class);
+
+    static final String LEADER_RATE = "leader.replication.throttled.rate";
+    static final String FOLLOWER_RATE = "follower.replication.throttled.rate";
+    static final String LEADER_REPLICAS = "leader.replication.throttled.replicas";
+    static final String FOLLOWER_REPLICAS = "follower.replication.throttled.replicas";
+
+    private static final List<String> RATE_CONFIGS = Arrays.asList(LEADER_RATE, FOLLOWER_RATE);
+    private static final List<String> REPLICAS_CONFIGS = Arrays.asList(LEADER_REPLICAS, FOLLOWER_REPLICAS);
+
+    private final AdminClient adminClient;
+    private final ThrottleRegistry registry;
+    private final String topicName;
+    private final Map<Integer, List<Integer>> current;
+    private final Map<Integer, List<Integer>> proposed;
+    private long rate;
+    private long lag = Long.MAX_VALUE;
+
+    /**
+     * @param adminClient The AdminClient.
+     * @param registry The throttles shared with the other reassignments.
+     * @param topicName The topic whose partitions are reassigned.
+     * @param current The current replicas of each partition.
+     * @param proposed The new replicas of the reassigned partitions.
+     * @param rate The initial rate, in bytes per second.
+     */
+    ReplicationThrottle(AdminClient adminClient, ThrottleRegistry registry, String topicName,
+                        Map<Integer, List<Integer>> current, Map<Integer, List<Integer>> proposed, long rate) {
+        this.adminClient = adminClient;
+        this.registry = registry;
+        this.topicName = topicName;
+        this.current = current;
+        this.proposed = proposed;
+        this.rate = rate;
+    }
+
+    /**
+     * Throttles all the moving partitions, before the reassignment is started.
+     */
+    void start() throws InterruptedException, ExecutionException {
+        Set<Integer> partitions = movingPartitions(current, proposed);
+        LOGGER.debug("Throttling the replication of partitions {} of topic {} to {} bytes/s", partitions, topicName, rate);
+        apply(partitions);
+    }
+
+    /**
+     * Narrows the throttle to the given partitions which are still moving, and adapts its rate to the lag of their
+     * new replicas.
+     *
+     * @param inProgress The partitions whose reassignment is still in progress.
+     */
+    void update(Set<Integer> inProgress) throws InterruptedException, ExecutionException {
+        Set<Integer> partitions = new TreeSet<>(inProgress);
+        partitions.retainAll(movingPartitions(current, proposed));
+        long previousLag = lag;
+        lag = lag(replicaSizes(brokers(current, proposed, partitions)), current, proposed, partitions);
+        long previousRate = rate;
+        rate = adaptRate(rate, previousLag, lag);
+        if (rate != previousRate) {
+            LOGGER.info("The lag of the reassignment of topic {} did not go down from {} bytes, increasing the throttle to {} bytes/s",
+                    topicName, previousLag, rate);
+        }
+        apply(partitions);
+    }
+
+    /**
+     * Removes the throttle, once the reassignment is complete or when it is given up.
+     */
+    void clear() throws InterruptedException, ExecutionException {
+        LOGGER.debug("Removing the replication throttle of topic {}", topicName);
+        apply(Collections.emptySet());
+    }
+
+    private void apply(Set<Integer> partitions) throws InterruptedException, ExecutionException {
+        Map<String, String> topicThrottle = new HashMap<>();
+        if (!partitions.isEmpty()) {
+            topicThrottle.put(LEADER_REPLICAS, leaderThrottledReplicas(current, partitions));
+            topicThrottle.put(FOLLOWER_REPLICAS, followerThrottledReplicas(current, proposed, partitions));
+        }
+        registry.apply(adminClient, topicName, topicThrottle, brokers(current, proposed, partitions), rate);
+    }
+
+    /** Whether the given option of the given resource is a throttle option */
+    static boolean isThrottle(ConfigResource resource, String name) {
+        return (resource.type() == ConfigResource.Type.BROKER ? RATE_CONFIGS : REPLICAS_CONFIGS).contains(name);
+    }
+
+    /**
+     * The dynamic configuration of the given resource with the given throttle,
+     * or null if it has it already or its configuration cannot be kept.
+     */
+    static Config alteredConfig(ConfigResource resource, Config config, Map<String, String> throttle) {
+        boolean broker = resource.type() == ConfigResource.Type.BROKER;
+        ConfigEntry.ConfigSource dynamicSource = broker
+                ? ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG : ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG;
+        List<ConfigEntry> entries = new ArrayList<>();
+        Map<String, String> currentThrottle = new HashMap<>();
+        for (ConfigEntry entry : config.entries()) {
+            if (entry.source() != dynamicSource) {
+                continue;
+            }
+            if (isThrottle(resource, entry.name())) {
+                currentThrottle.put(entry.name(), entry.value());
+            } else if (entry.value() == null) {
+                // A password, which is not returned, so it would be lost
+                LOGGER.warn("Cannot change the replication throttle of {}, which has the sensitive option {}",
+                        resource, entry.name());
+                return null;
+            } else {
+                entries.add(new ConfigEntry(entry.name(), entry.value()));
+            }
+        }
+        if (currentThrottle.equals(throttle)) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : throttle.entrySet()) {
+            entries.add(new ConfigEntry(entry.getKey(), entry.getValue()));
+        }
+        return new Config(entries);
+    }
+
+    /** The size of the replicas of the topic on each of the given brokers, by partition */
+    private Map<Integer, Map<Integer, Long>> replicaSizes(Set<Integer> brokers) throws InterruptedException, ExecutionException {
+        Map<Integer, Map<Integer, Long>> sizes = new HashMap<>();
+        if (brokers.isEmpty()) {
+            return sizes;
+        }
+        Map<Integer, Map<String, DescribeLogDirsResponse.LogDirInfo>> logDirs = adminClient.describeLogDirs(brokers).all().get();
+        for (Map.Entry<Integer, Map<String, DescribeLogDirsResponse.LogDirInfo>> brokerLogDirs : logDirs.entrySet()) {
+            Map<Integer, Long> brokerSizes = new HashMap<>();
+            for (DescribeLogDirsResponse.LogDirInfo logDir : brokerLogDirs.getValue().values()) {
+                for (Map.Entry<TopicPartition, DescribeLogDirsResponse.ReplicaInfo> replica : logDir.replicaInfos.entrySet()) {
+                    if (replica.getKey().topic().equals(topicName)) {
+                        // A replica moving between the log dirs of a broker is in both, count the bigger one
+                        brokerSizes.merge(replica.getKey().partition(), replica.getValue().size, Math::max);
+                    }
+                }
+            }
+            sizes.put(brokerLogDirs.getKey(), brokerSizes);
+        }
+        return sizes;
+    }
+
+    /** The partitions whose replicas change */
+    static Set<Integer> movingPartitions(Map<Integer, List<Integer>> current, Map<Integer, List<Integer>> proposed) {
+        Set<Integer> partitions = new TreeSet<>();
+        for (Map.Entry<Integer, List<Integer>> entry : proposed.entrySet()) {
+            List<Integer> replicas = current.get(entry.getKey());
+            if (replicas == null || !new HashSet<>(replicas).equals(new HashSet<>(entry.getValue()))) {
+                partitions.add(entry.getKey());
+            }
+        }
+        return partitions;
+    }
+
+    /** The replicas of the given partitions which may lead while they move, that is their current replicas */
+    static String leaderThrottledReplicas(Map<Integer, List<Integer>> current, Collection<Integer> partitions) {
+        StringBuilder sb = new StringBuilder();
+        for (Integer partition : new TreeSet<>(partitions)) {
+            for (Integer replica : current.getOrDefault(partition, Collections.emptyList())) {
+                appendReplica(sb, partition, replica);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** The replicas of the given partitions which are added by the reassignment */
+    static String followerThrottledReplicas(Map<Integer, List<Integer>> current, Map<Integer, List<Integer>> proposed,
+                                            Collection<Integer> partitions) {
+        StringBuilder sb = new StringBuilder();
+        for (Integer partition : new TreeSet<>(partitions)) {
+            for (Integer replica : addedReplicas(current, proposed, partition)) {
+                appendReplica(sb, partition, replica);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendReplica(StringBuilder sb, int partition, int replica) {
+        if (sb.length() != 0) {
+            sb.append(",");
+        }
+        sb.append(partition).append(":").append(replica);
+    }
+
+    private static List<Integer> addedReplicas(Map<Integer, List<Integer>> current, Map<Integer, List<Integer>> proposed,
+                                               int partition) {
+        List<Integer> added = new ArrayList<>(proposed.getOrDefault(partition, Collections.emptyList()));
+        added.removeAll(current.getOrDefault(partition, Collections.emptyList()));
+        return added;
+    }
+
+    /** The brokers with a current or a new replica of one of the given partitions */
+    static Set<Integer> brokers(Map<Integer, List<Integer>> current, Map<Integer, List<Integer>> proposed,
+                                Collection<Integer> partitions) {
+        Set<Integer> brokers = new TreeSet<>();
+        for (Integer partition : partitions) {
+            brokers.addAll(current.getOrDefault(partition, Collections.emptyList()));
+            brokers.addAll(proposed.getOrDefault(partition, Collections.emptyList()));
+        }
+        return brokers;
+    }
+
+    /**
+     * The number of bytes the new replicas of the given partitions still have to copy: for each of them,
+     * how much smaller it is than the biggest current replica of its partition.
+     *
+     * @param sizes The size of the replicas on each broker, by partition. A missing replica is empty.
+     */
+    static long lag(Map<Integer, Map<Integer, Long>> sizes, Map<Integer, List<Integer>> current,
+                    Map<Integer, List<Integer>> proposed, Collection<Integer> partitions) {
+        long lag = 0;
+        for (Integer partition : partitions) {
+            long leaderSize = 0;
+            for (Integer replica : current.getOrDefault(partition, Collections.emptyList())) {
+                leaderSize = Math.max(leaderSize, size(sizes, replica, partition));
+            }
+            for (Integer replica : addedReplicas(current, proposed, partition)) {
+                lag += Math.max(0L, leaderSize - size(sizes, replica, partition));
+            }
+        }
+        return lag;
+    }
+
+    private static long size(Map<Integer, Map<Integer, Long>> sizes, int broker, int partition) {
+        return sizes.getOrDefault(broker, Collections.emptyMap()).getOrDefault(partition, 0L);
+    }
+
+    /**
+     * The rate to use after an update: the same while the lag goes down, or twice the rate when it doesn't,
+     * since the followers are then not catching up with the leaders.
+     */
+    static long adaptRate(long rate, long previousLag, long lag) {
+        if (lag > 0 && lag >= previousLag) {
+            return rate > Long.MAX_VALUE / 2 ? Long.MAX_VALUE : rate * 2;
+        }
+        return rate;
+    }
+}
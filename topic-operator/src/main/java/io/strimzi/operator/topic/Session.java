@@ -10,13 +10,18 @@ import io.strimzi.api.kafka.Crds;
 import io.strimzi.api.kafka.KafkaTopicList;
 import io.strimzi.api.kafka.model.DoneableKafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopic;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.topic.zk.Zk;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
 import org.apache.kafka.common.config.SslConfigs;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -29,6 +34,14 @@ public class Session extends AbstractVerticle {
     private final static Logger LOGGER = LogManager.getLogger(Session.class);
 
     private static final int HEALTH_SERVER_PORT = 8080;
+    /** The interval of the event loop heartbeat and of the Kafka connection check */
+    private static final long HEALTH_CHECK_INTERVAL_MS = 5_000L;
+    /**
+     * The event loop is considered blocked once its heartbeat is late by more than the time after which
+     * the Vert.x blocked thread checker warns about it.
+     */
+    private static final long MAX_HEARTBEAT_DELAY_MS = HEALTH_CHECK_INTERVAL_MS
+            + TimeUnit.NANOSECONDS.toMillis(VertxOptions.DEFAULT_MAX_EVENT_LOOP_EXECUTE_TIME);
 
     private final Config config;
     private final KubernetesClient kubeClient;
@@ -36,7 +49,7 @@ public class Session extends AbstractVerticle {
     OperatorAssignedKafkaImpl kafka;
     AdminClient adminClient;
     K8sImpl k8s;
-    TopicOperator topicOperator;
+    volatile TopicOperator topicOperator;
     Watch topicWatch;
     ZkTopicsWatcher topicsWatcher;
     TopicConfigsWatcher topicConfigsWatcher;
@@ -44,8 +57,16 @@ public class Session extends AbstractVerticle {
     /** The id of the periodic reconciliation timer. This is null during a periodic reconciliation. */
     private volatile Long timerId;
     private volatile boolean stopped = false;
-    private Zk zk;
+    Zk zk;
     private volatile HttpServer healthServer;
+    private volatile Long healthCheckTimerId;
+    /** Whether the first full reconciliation has succeeded: until then Kafka and Kubernetes can be out of sync */
+    private volatile boolean initialReconciliationDone = false;
+    /** The {@link System#nanoTime()} of the last run of the health check on the event loop of this verticle */
+    volatile long heartbeat = System.nanoTime();
+    /** The topics in sync before the operator started, which the initial reconciliation can skip */
+    private volatile ReconciliationSnapshot startupSnapshot = new ReconciliationSnapshot();
+    private volatile boolean kafkaConnected = false;
 
     public Session(KubernetesClient kubeClient, Config config) {
         this.kubeClient = kubeClient;
@@ -67,6 +88,10 @@ public class Session extends AbstractVerticle {
         if (timerId != null) {
             vertx.cancelTimer(timerId);
         }
+        Long healthCheckTimerId = this.healthCheckTimerId;
+        if (healthCheckTimerId != null) {
+            vertx.cancelTimer(healthCheckTimerId);
+        }
         vertx.executeBlocking(blockingResult -> {
             long t0 = System.currentTimeMillis();
             long timeout = 120_000L;
@@ -110,6 +135,22 @@ public class Session extends AbstractVerticle {
         }, stopFuture);
     }
 
+    /**
+     * The number of topics with in-flight reconciliation work, 0 until the session has started.
+     */
+    int inFlightCount() {
+        TopicOperator topicOperator = this.topicOperator;
+        return topicOperator != null ? topicOperator.inFlightCount() : 0;
+    }
+
+    /**
+     * The age in milliseconds of the oldest in-flight reconciliation work, 0 until the session has started.
+     */
+    long oldestInFlightAgeMs() {
+        TopicOperator topicOperator = this.topicOperator;
+        return topicOperator != null ? topicOperator.oldestInFlightAgeMs() : 0;
+    }
+
     @Override
     public void start() {
         LOGGER.info("Starting");
@@ -127,8 +168,26 @@ public class Session extends AbstractVerticle {
 
         this.adminClient = AdminClient.create(adminClientProps);
         LOGGER.debug("Using AdminClient {}", adminClient);
-        this.kafka = new OperatorAssignedKafkaImpl(adminClient, vertx, config);
+        this.zk = Zk.create(vertx, config.get(Config.ZOOKEEPER_CONNECT),
+                this.config.get(Config.ZOOKEEPER_SESSION_TIMEOUT_MS).intValue(),
+                this.config.get(Config.ZOOKEEPER_CONNECTION_TIMEOUT_MS).intValue());
+        LOGGER.debug("Using ZooKeeper {}", zk);
+
+        this.kafka = new OperatorAssignedKafkaImpl(adminClient, vertx, config, zk);
         LOGGER.debug("Using Kafka {}", kafka);
+        // A reassignment interrupted by a restart is not followed any more, so its throttle would never be removed
+        vertx.executeBlocking(fut -> {
+            try {
+                kafka.clearReplicationThrottles();
+                fut.complete();
+            } catch (Exception e) {
+                fut.fail(e);
+            }
+        }, ar -> {
+            if (ar.failed()) {
+                LOGGER.warn("Error while removing the replication throttles", ar.cause());
+            }
+        });
         LabelPredicate resourcePredicate = config.get(Config.LABELS);
 
         String namespace = config.get(Config.NAMESPACE);
@@ -136,12 +195,7 @@ public class Session extends AbstractVerticle {
         this.k8s = new K8sImpl(vertx, kubeClient, resourcePredicate, namespace);
         LOGGER.debug("Using k8s {}", k8s);
 
-        this.zk = Zk.create(vertx, config.get(Config.ZOOKEEPER_CONNECT),
-                this.config.get(Config.ZOOKEEPER_SESSION_TIMEOUT_MS).intValue(),
-                this.config.get(Config.ZOOKEEPER_CONNECTION_TIMEOUT_MS).intValue());
-        LOGGER.debug("Using ZooKeeper {}", zk);
-
-        ZkTopicStore topicStore = new ZkTopicStore(zk);
+        ZkTopicStore topicStore = new ZkTopicStore(zk, Boolean.valueOf(config.get(Config.TOPIC_STORE_BINARY)));
         LOGGER.debug("Using TopicStore {}", topicStore);
 
         this.topicOperator = new TopicOperator(vertx, kafka, k8s, topicStore, resourcePredicate, namespace, config);
@@ -168,12 +222,28 @@ public class Session extends AbstractVerticle {
         resourceThread.start();
 
         final Long interval = config.get(Config.FULL_RECONCILIATION_INTERVAL_MS);
+        final boolean useSnapshot = Boolean.valueOf(config.get(Config.RECONCILIATION_SNAPSHOT));
         Handler<Long> periodic = new Handler<Long>() {
             @Override
             public void handle(Long oldTimerId) {
                 if (!stopped) {
                     timerId = null;
-                    topicOperator.reconcileAllTopics("periodic").setHandler(result -> {
+                    // Only the initial reconciliation can skip the topics in sync before the operator started
+                    ReconciliationSnapshot previous = startupSnapshot;
+                    startupSnapshot = new ReconciliationSnapshot();
+                    topicOperator.reconcileAllTopics(initialReconciliationDone ? "periodic" : "initial", previous).setHandler(result -> {
+                        if (!initialReconciliationDone && result.failed()) {
+                            // The next attempt is the initial reconciliation again
+                            startupSnapshot = previous;
+                        }
+                        fullReconciliationEnded(result);
+                        if (useSnapshot) {
+                            topicOperator.snapshot().save(zk, saveResult -> {
+                                if (saveResult.failed()) {
+                                    LOGGER.warn("Error saving the reconciliation snapshot", saveResult.cause());
+                                }
+                            });
+                        }
                         if (!stopped) {
                             timerId = vertx.setTimer(interval, this);
                         }
@@ -181,24 +251,90 @@ public class Session extends AbstractVerticle {
                 }
             }
         };
-        periodic.handle(null);
+        if (useSnapshot) {
+            ReconciliationSnapshot.load(zk, loadResult -> {
+                if (loadResult.succeeded()) {
+                    startupSnapshot = loadResult.result();
+                } else {
+                    LOGGER.warn("Error loading the reconciliation snapshot, reconciling all the topics", loadResult.cause());
+                }
+                periodic.handle(null);
+            });
+        } else {
+            periodic.handle(null);
+        }
+
+        checkHealth();
+        healthCheckTimerId = vertx.setPeriodic(HEALTH_CHECK_INTERVAL_MS, ignored -> checkHealth());
         LOGGER.info("Started");
     }
 
+    /**
+     * Records the end of a full reconciliation: the operator is ready once one has succeeded.
+     */
+    void fullReconciliationEnded(AsyncResult<?> result) {
+        if (initialReconciliationDone) {
+            return;
+        }
+        if (result.succeeded()) {
+            LOGGER.info("Initial reconciliation done");
+            initialReconciliationDone = true;
+        } else {
+            LOGGER.warn("Initial reconciliation failed, the operator is not ready until it succeeds", result.cause());
+        }
+    }
+
+    /**
+     * Records a heartbeat of the event loop, and checks the connection to Kafka in the background.
+     */
+    void checkHealth() {
+        heartbeat = System.nanoTime();
+        adminClient.describeCluster(new DescribeClusterOptions().timeoutMs((int) HEALTH_CHECK_INTERVAL_MS))
+                .nodes().whenComplete((nodes, error) -> {
+                    boolean connected = error == null && !nodes.isEmpty();
+                    if (connected != kafkaConnected) {
+                        LOGGER.info("{} to Kafka", connected ? "Connected" : "Disconnected");
+                    }
+                    kafkaConnected = connected;
+                });
+    }
+
+    /**
+     * @return Whether the event loop of this verticle ran the health check recently, i.e. it is not blocked.
+     */
+    boolean isHealthy() {
+        long delayMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - heartbeat);
+        if (delayMs > MAX_HEARTBEAT_DELAY_MS) {
+            LOGGER.warn("The event loop did not run the health check for {}ms", delayMs);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether a full reconciliation has succeeded and the connections to ZooKeeper and Kafka are live.
+     */
+    boolean isReady() {
+        return initialReconciliationDone && zk.isConnected() && kafkaConnected;
+    }
+
     /**
      * Start an HTTP health server
      */
     private HttpServer startHealthServer() {
 
         return this.vertx.createHttpServer()
-                .requestHandler(request -> {
-
-                    if (request.path().equals("/healthy")) {
-                        request.response().setStatusCode(200).end();
-                    } else if (request.path().equals("/ready")) {
-                        request.response().setStatusCode(200).end();
-                    }
-                })
+                .requestHandler(this::handleHealthRequest)
                 .listen(HEALTH_SERVER_PORT);
     }
+
+    void handleHealthRequest(HttpServerRequest request) {
+        if (request.path().equals("/healthy")) {
+            request.response().setStatusCode(isHealthy() ? 200 : 503).end();
+        } else if (request.path().equals("/ready")) {
+            request.response().setStatusCode(isReady() ? 200 : 503).end();
+        } else if (request.path().equals(OperatorMetrics.METRICS_PATH)) {
+            OperatorMetrics.handleRequest(request);
+        }
+    }
 }
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.operator.topic.zk.AclBuilder;
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import org.I0Itec.zkclient.exception.ZkNoNodeException;
+import org.I0Itec.zkclient.exception.ZkNodeExistsException;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.data.ACL;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * The replication throttles set by the operator, shared by the reassignments in progress.
+ * <p>
+ * The rate of a broker is shared by all the reassignments which move one of its replicas: it is the highest of
+ * their rates, and it is removed only once none of them moves a replica of the broker any more.
+ * The throttles which someone else set on a broker or a topic (such as an administrator, or a KafkaTopic declaring
+ * its throttled replicas) are neither overwritten nor removed.
+ * <p>
+ * The brokers and topics whose throttle the operator set are recorded in ZooKeeper, so that a restarted operator
+ * removes the throttles of the reassignments it doesn't follow any more, and only those.
+ * The methods block, so they have to be called from a worker thread.
+ */
+class ThrottleRegistry {
+
+    private final static Logger LOGGER = LogManager.getLogger(ThrottleRegistry.class);
+
+    static final String THROTTLES_PATH = "/strimzi/throttles";
+
+    private final Zk zk;
+
+    /** The rate of each reassignment (by topic) moving a replica of the broker, by broker */
+    private final Map<Integer, Map<String, Long>> brokerRates = new HashMap<>();
+
+    /**
+     * The brokers and topics whose throttle the operator set, with that throttle.
+     * Changed only with the lock held, but read without it by {@link #topicThrottle(String)}.
+     */
+    private final Map<ConfigResource, Map<String, String>> owned = new ConcurrentHashMap<>();
+
+    /** The brokers and topics in use by a reassignment, which were already throttled by someone else */
+    private final Set<ConfigResource> foreign = new HashSet<>();
+
+    ThrottleRegistry(Zk zk) {
+        this.zk = zk;
+    }
+
+    /**
+     * Sets the throttle of the reassignment of the given topic: the given throttled replicas on the topic
+     * (none to remove them), and the given rate on the given brokers (none once the reassignment is done).
+     * The brokers the reassignment used before and doesn't use any more are released.
+     */
+    synchronized void apply(AdminClient adminClient, String topic, Map<String, String> topicThrottle,
+                            Set<Integer> brokers, long rate) throws InterruptedException, ExecutionException {
+        Map<ConfigResource, Map<String, String>> throttles = new HashMap<>();
+        throttles.put(topicResource(topic), topicThrottle);
+        Set<Integer> affected = new TreeSet<>(brokers);
+        for (Map.Entry<Integer, Map<String, Long>> entry : brokerRates.entrySet()) {
+            if (entry.getValue().containsKey(topic)) {
+                affected.add(entry.getKey());
+            }
+        }
+        for (Integer broker : affected) {
+            Map<String, Long> rates = brokerRates.computeIfAbsent(broker, b -> new HashMap<>());
+            if (brokers.contains(broker)) {
+                rates.put(topic, rate);
+            } else {
+                rates.remove(topic);
+            }
+            if (rates.isEmpty()) {
+                brokerRates.remove(broker);
+            }
+            throttles.put(brokerResource(broker), brokerThrottle(rates));
+        }
+        alterThrottles(adminClient, throttles);
+    }
+
+    /**
+     * Sets the given throttle options of each resource, unless someone else throttles it,
+     * and records the resources whose throttle the operator set.
+     */
+    private void alterThrottles(AdminClient adminClient, Map<ConfigResource, Map<String, String>> throttles)
+            throws InterruptedException, ExecutionException {
+        Map<ConfigResource, Config> described = adminClient.describeConfigs(throttles.keySet()).all().get();
+        Map<ConfigResource, Config> altered = new HashMap<>();
+        Set<ConfigResource> acquired = new HashSet<>();
+        Set<ConfigResource> released = new HashSet<>();
+        for (Map.Entry<ConfigResource, Map<String, String>> entry : throttles.entrySet()) {
+            ConfigResource resource = entry.getKey();
+            Map<String, String> throttle = entry.getValue();
+            if (!owned.containsKey(resource)) {
+                if (throttle.isEmpty()) {
+                    foreign.remove(resource);
+                    continue;
+                } else if (foreign.contains(resource) || hasThrottle(resource, described.get(resource))) {
+                    if (foreign.add(resource)) {
+                        LOGGER.info("{} already has a replication throttle, which is left as it is", resource);
+                    }
+                    continue;
+                }
+                acquired.add(resource);
+            } else if (throttle.isEmpty()) {
+                released.add(resource);
+            }
+            Config config = ReplicationThrottle.alteredConfig(resource, described.get(resource), throttle);
+            if (config != null) {
+                altered.put(resource, config);
+            }
+        }
+        if (!acquired.isEmpty()) {
+            // Recorded before being set, so that a restart in between doesn't leave them behind
+            Set<ConfigResource> recorded = new HashSet<>(owned.keySet());
+            recorded.addAll(acquired);
+            record(recorded);
+        }
+        if (!altered.isEmpty()) {
+            LOGGER.debug("Altering the replication throttle of {}", altered.keySet());
+            adminClient.alterConfigs(altered).all().get();
+        }
+        for (Map.Entry<ConfigResource, Map<String, String>> entry : throttles.entrySet()) {
+            if (acquired.contains(entry.getKey()) || owned.containsKey(entry.getKey()) && !released.contains(entry.getKey())) {
+                owned.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!released.isEmpty()) {
+            owned.keySet().removeAll(released);
+            record(owned.keySet());
+        }
+    }
+
+    /**
+     * Removes the throttles recorded in ZooKeeper by a previous run of the operator,
+     * such as those of a reassignment which was interrupted by a restart.
+     */
+    synchronized void clearRecorded(AdminClient adminClient) throws InterruptedException, ExecutionException {
+        Set<ConfigResource> recorded;
+        try {
+            recorded = parse(await(handler -> zk.getData(THROTTLES_PATH, handler)));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ZkNoNodeException) {
+                return;
+            }
+            throw e;
+        }
+        // The reassignments started since are still followed
+        recorded.removeAll(owned.keySet());
+        recorded.removeAll(foreign);
+        if (recorded.isEmpty()) {
+            return;
+        }
+        LOGGER.info("Removing the replication throttles left on {}", recorded);
+        Map<ConfigResource, Config> altered = new HashMap<>();
+        for (Map.Entry<ConfigResource, KafkaFuture<Config>> entry : adminClient.describeConfigs(recorded).values().entrySet()) {
+            Config config;
+            try {
+                config = entry.getValue().get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                    // The topic has been deleted since
+                    continue;
+                }
+                throw e;
+            }
+            Config alteredConfig = ReplicationThrottle.alteredConfig(entry.getKey(), config, Collections.emptyMap());
+            if (alteredConfig != null) {
+                altered.put(entry.getKey(), alteredConfig);
+            }
+        }
+        if (!altered.isEmpty()) {
+            adminClient.alterConfigs(altered).all().get();
+        }
+        record(owned.keySet());
+    }
+
+    /**
+     * The throttle options the operator set on the given topic, which are not part of the topic's configuration.
+     * This doesn't block.
+     */
+    Map<String, String> topicThrottle(String topic) {
+        return owned.getOrDefault(topicResource(topic), Collections.emptyMap());
+    }
+
+    /** The throttle of a broker used by reassignments with the given rates: the highest of them, none if none */
+    static Map<String, String> brokerThrottle(Map<String, Long> rates) {
+        if (rates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String rate = Long.toString(Collections.max(rates.values()));
+        Map<String, String> throttle = new HashMap<>();
+        throttle.put(ReplicationThrottle.LEADER_RATE, rate);
+        throttle.put(ReplicationThrottle.FOLLOWER_RATE, rate);
+        return throttle;
+    }
+
+    /** Whether the given dynamic configuration of the given resource has a throttle option */
+    static boolean hasThrottle(ConfigResource resource, Config config) {
+        ConfigEntry.ConfigSource dynamicSource = resource.type() == ConfigResource.Type.BROKER
+                ? ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG : ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG;
+        for (ConfigEntry entry : config.entries()) {
+            if (entry.source() == dynamicSource && ReplicationThrottle.isThrottle(resource, entry.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(Collection<ConfigResource> resources) throws InterruptedException, ExecutionException {
+        byte[] data = format(resources);
+        try {
+            ThrottleRegistry.<Void>await(handler -> zk.setData(THROTTLES_PATH, data, -1, handler));
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof ZkNoNodeException)) {
+                throw e;
+            }
+            createIfAbsent("/strimzi", null);
+            if (!createIfAbsent(THROTTLES_PATH, data)) {
+                ThrottleRegistry.<Void>await(handler -> zk.setData(THROTTLES_PATH, data, -1, handler));
+            }
+        }
+    }
+
+    /** Creates the given znode, returning false if it exists already */
+    private boolean createIfAbsent(String path, byte[] data) throws InterruptedException, ExecutionException {
+        List<ACL> acl = new AclBuilder().setWorld(AclBuilder.Permission.values()).build();
+        try {
+            ThrottleRegistry.<Void>await(handler -> zk.create(path, data, acl, CreateMode.PERSISTENT, handler));
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ZkNodeExistsException) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /** One resource per line, such as {@code broker 0} or {@code topic my-topic} */
+    static byte[] format(Collection<ConfigResource> resources) {
+        StringBuilder sb = new StringBuilder();
+        for (ConfigResource resource : resources) {
+            sb.append(resource.type() == ConfigResource.Type.BROKER ? "broker " : "topic ")
+                    .append(resource.name()).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Set<ConfigResource> parse(byte[] data) {
+        Set<ConfigResource> resources = new HashSet<>();
+        if (data == null) {
+            return resources;
+        }
+        for (String line : new String(data, StandardCharsets.UTF_8).split("\n")) {
+            if (line.startsWith("broker ")) {
+                resources.add(new ConfigResource(ConfigResource.Type.BROKER, line.substring("broker ".length())));
+            } else if (line.startsWith("topic ")) {
+                resources.add(new ConfigResource(ConfigResource.Type.TOPIC, line.substring("topic ".length())));
+            }
+        }
+        return resources;
+    }
+
+    private static <T> T await(Consumer<Handler<AsyncResult<T>>> operation) throws InterruptedException, ExecutionException {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        operation.accept(ar -> {
+            if (ar.succeeded()) {
+                future.complete(ar.result());
+            } else {
+                future.completeExceptionally(ar.cause());
+            }
+        });
+        return future.get();
+    }
+
+    static ConfigResource brokerResource(int broker) {
+        return new ConfigResource(ConfigResource.Type.BROKER, Integer.toString(broker));
+    }
+
+    static ConfigResource topicResource(String topic) {
+        return new ConfigResource(ConfigResource.Type.TOPIC, topic);
+    }
+}
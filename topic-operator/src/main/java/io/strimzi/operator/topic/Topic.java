@@ -6,7 +6,6 @@ package io.strimzi.operator.topic;
 
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -176,6 +175,9 @@ public class Topic {
         return numReplicas;
     }
 
+    /**
+     * The config of the topic, an immutable map whose keys are in order.
+     */
     public Map<String, String> getConfig() {
         return config;
     }
@@ -189,7 +191,7 @@ public class Topic {
         this.resourceName = resourceName;
         this.numPartitions = numPartitions;
         this.numReplicas = numReplicas;
-        this.config = Collections.unmodifiableMap(config);
+        this.config = TopicConfigMap.of(config);
         this.metadata = metadata;
     }
 
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The immutable config of a {@link Topic}: its keys sorted in an array, and their values in another one.
+ * <p>
+ * An operator of a large cluster holds many topics with mostly the same few config keys and values, so the keys
+ * and the values are interned, which makes the topics share them, and the arrays use a fraction of the memory
+ * of a {@code HashMap} with its table and an entry object per key.
+ * A lookup is a binary search, which is fast enough for the tens of config keys a topic can have.
+ */
+final class TopicConfigMap extends AbstractMap<String, String> {
+
+    static final TopicConfigMap EMPTY = new TopicConfigMap(new String[0], new String[0]);
+
+    /** The longest value which is interned: longer ones are unlikely to be shared by several topics */
+    private static final int MAX_INTERNED_VALUE_LENGTH = 64;
+
+    private final String[] keys;
+    private final String[] values;
+
+    private TopicConfigMap(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Returns the compact copy of the given config.
+     */
+    static TopicConfigMap of(Map<String, String> config) {
+        if (config instanceof TopicConfigMap) {
+            return (TopicConfigMap) config;
+        } else if (config.isEmpty()) {
+            return EMPTY;
+        }
+        String[] keys = new String[config.size()];
+        int i = 0;
+        for (String key : config.keySet()) {
+            keys[i++] = Objects.requireNonNull(key).intern();
+        }
+        Arrays.sort(keys);
+        String[] values = new String[keys.length];
+        for (i = 0; i < keys.length; i++) {
+            values[i] = intern(config.get(keys[i]));
+        }
+        return new TopicConfigMap(keys, values);
+    }
+
+    private static String intern(String value) {
+        return value != null && value.length() <= MAX_INTERNED_VALUE_LENGTH ? value.intern() : value;
+    }
+
+    /**
+     * Receives the differences between two configs.
+     */
+    interface DifferenceVisitor {
+        /** The key is in the source config but not in the target one */
+        void removed(String key);
+
+        /** The key is only in the target config, or it has a different value in it */
+        void changed(String key, String targetValue);
+    }
+
+    /**
+     * Visits the differences between the given configs, in the order of their keys,
+     * in a single pass over both (their keys being sorted).
+     */
+    static void diff(TopicConfigMap source, TopicConfigMap target, DifferenceVisitor visitor) {
+        int s = 0;
+        int t = 0;
+        while (s < source.keys.length || t < target.keys.length) {
+            int cmp = s == source.keys.length ? 1
+                    : t == target.keys.length ? -1
+                    : source.keys[s].compareTo(target.keys[t]);
+            if (cmp < 0) {
+                visitor.removed(source.keys[s++]);
+            } else if (cmp > 0) {
+                visitor.changed(target.keys[t], target.values[t]);
+                t++;
+            } else {
+                if (!Objects.equals(source.values[s], target.values[t])) {
+                    visitor.changed(target.keys[t], target.values[t]);
+                }
+                s++;
+                t++;
+            }
+        }
+    }
+
+    private int indexOf(Object key) {
+        return key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof TopicConfigMap) {
+            TopicConfigMap other = (TopicConfigMap) o;
+            return Arrays.equals(keys, other.keys) && Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
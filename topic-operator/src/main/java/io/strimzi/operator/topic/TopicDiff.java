@@ -231,31 +231,20 @@ public class TopicDiff {
             NumReplicasDifference numReplicasDifference = new NumReplicasDifference(target.getNumReplicas());
             differences.put(numReplicasDifference.address(), numReplicasDifference);
         }
-        if (!source.getConfig().equals(target.getConfig())) {
-            //Removed keys
-            HashSet<String> removed = new HashSet<>(source.getConfig().keySet());
-            removed.removeAll(target.getConfig().keySet());
-            for (String removedKey : removed) {
-                RemovedConfigEntry removedConfigEntry = new RemovedConfigEntry(removedKey);
-                differences.put(removedConfigEntry.address(), removedConfigEntry);
-            }
-            //Added keys
-            HashSet<String> added = new HashSet<>(target.getConfig().keySet());
-            added.removeAll(source.getConfig().keySet());
-            for (String addedKey : added) {
-                AddedConfigEntry addedConfigEntry = new AddedConfigEntry(addedKey, target.getConfig().get(addedKey));
-                differences.put(addedConfigEntry.address(), addedConfigEntry);
-            }
-            //Changed values
-            HashSet<String> retained = new HashSet<>(source.getConfig().keySet());
-            retained.retainAll(target.getConfig().keySet());
-            for (String retainedKey : retained) {
-                if (!source.getConfig().get(retainedKey).equals(target.getConfig().get(retainedKey))) {
-                    AddedConfigEntry addedConfigEntry = new AddedConfigEntry(retainedKey, target.getConfig().get(retainedKey));
+        TopicConfigMap.diff(TopicConfigMap.of(source.getConfig()), TopicConfigMap.of(target.getConfig()),
+            new TopicConfigMap.DifferenceVisitor() {
+                @Override
+                public void removed(String key) {
+                    RemovedConfigEntry removedConfigEntry = new RemovedConfigEntry(key);
+                    differences.put(removedConfigEntry.address(), removedConfigEntry);
+                }
+
+                @Override
+                public void changed(String key, String targetValue) {
+                    AddedConfigEntry addedConfigEntry = new AddedConfigEntry(key, targetValue);
                     differences.put(addedConfigEntry.address(), addedConfigEntry);
                 }
-            }
-        }
+            });
         return new TopicDiff(differences, target.getMetadata());
     }
 
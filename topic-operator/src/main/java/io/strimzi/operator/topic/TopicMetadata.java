@@ -5,21 +5,27 @@
 package io.strimzi.operator.topic;
 
 import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.TopicDescription;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Pairs a {@code org.apache.kafka.clients.admin.TopicDescription} with a
  * topic {@code org.apache.kafka.clients.admin.Config}, to capture
  * complete information about a Kafka topic.
  * This is necessary because the Kafka AdminClient doesn't have an API for
  * getting this information in one go.
+ * Only the config entries which are not defaults are kept, since they are the ones the operator uses,
+ * and a topic has hundreds of default entries.
  */
 public class TopicMetadata {
     private final Config config;
     private final TopicDescription description;
 
     public TopicMetadata(TopicDescription description, Config config) {
-        this.config = config;
+        this.config = overrides(config);
         this.description = description;
     }
 
@@ -30,4 +36,14 @@ public class TopicMetadata {
     public TopicDescription getDescription() {
         return description;
     }
+
+    private static Config overrides(Config config) {
+        List<ConfigEntry> overrides = new ArrayList<>();
+        for (ConfigEntry entry : config.entries()) {
+            if (!entry.isDefault()) {
+                overrides.add(entry);
+            }
+        }
+        return overrides.size() == config.entries().size() ? config : new Config(overrides);
+    }
 }
@@ -19,7 +19,9 @@ import org.apache.logging.log4j.Logger;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,6 +41,8 @@ public class TopicOperator {
     private TopicStore topicStore;
     private final InFlight<TopicName> inFlight;
     private final Config config;
+    /** The topics found in sync by their last reconciliation */
+    private final ReconciliationSnapshot snapshot = new ReconciliationSnapshot();
 
     enum EventType {
         INFO("Info"),
@@ -417,6 +421,10 @@ public class TopicOperator {
         {
             TopicName topicName = k8sTopic != null ? k8sTopic.getTopicName() : kafkaTopic != null ? kafkaTopic.getTopicName() : privateTopic != null ? privateTopic.getTopicName() : null;
             LOGGER.info("Reconciling topic {}, k8sTopic:{}, kafkaTopic:{}, privateTopic:{}", topicName, k8sTopic == null ? "null" : "nonnull", kafkaTopic == null ? "null" : "nonnull", privateTopic == null ? "null" : "nonnull");
+            if (topicName != null) {
+                // Unless all three are found identical, the reconciliation may change them
+                snapshot.remove(topicName);
+            }
         }
         if (privateTopic == null) {
             if (k8sTopic == null) {
@@ -557,6 +565,9 @@ public class TopicOperator {
             LOGGER.debug("Diffs do not conflict, merged diff: {}", merged);
             if (merged.isEmpty()) {
                 LOGGER.info("All three topics are identical");
+                if (involvedObject != null && involvedObject.getMetadata() != null) {
+                    snapshot.put(kafkaTopic.getTopicName(), involvedObject.getMetadata().getResourceVersion(), kafkaTopic);
+                }
                 reconciliationResultHandler.handle(Future.succeededFuture());
             } else {
                 Topic result = merged.apply(privateTopic);
@@ -930,10 +941,31 @@ public class TopicOperator {
         }
     }
 
+    /**
+     * @return The topics found in sync by their last reconciliation.
+     */
+    ReconciliationSnapshot snapshot() {
+        return snapshot;
+    }
+
     public boolean isWorkInflight() {
         return inFlight.size() > 0;
     }
 
+    /**
+     * The number of topics with in-flight reconciliation work.
+     */
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * The time in milliseconds since the oldest in-flight reconciliation work was enqueued, or 0 if there is none.
+     */
+    long oldestInFlightAgeMs() {
+        return inFlight.oldestAgeMs();
+    }
+
     /**
      * @return a new instance of BackOff with configured topic metadata max attempts
      */
@@ -950,57 +982,29 @@ public class TopicOperator {
     }
 
     Future<?> reconcileAllTopics(String reconciliationType) {
+        return reconcileAllTopics(reconciliationType, new ReconciliationSnapshot());
+    }
+
+    /**
+     * Reconciles all the topics, except those whose KafkaTopic and Kafka topic are unchanged since the given
+     * snapshot was taken: they were in sync then, so they still are.
+     */
+    Future<?> reconcileAllTopics(String reconciliationType, ReconciliationSnapshot previous) {
         Future topicsJoin = Future.future();
         Future mapsJoin = Future.future();
         LOGGER.info("Starting {} reconciliation", reconciliationType);
         kafka.listTopics(topicsListResult -> {
             if (topicsListResult.succeeded()) {
                 Set<String> kafkaTopics = topicsListResult.result();
-                LOGGER.debug("Reconciling kafka topics {}", kafkaTopics);
-                // First reconcile the topics in kafka
-                List<Future> topicFutures = new ArrayList<>();
-                for (String name : kafkaTopics) {
-                    LOGGER.debug("{} reconciliation of topic {}", reconciliationType, name);
-                    TopicName topicName = new TopicName(name);
-                    Future topicFuture = Future.future();
-                    topicFutures.add(topicFuture);
-                    k8s.getFromName(topicName.asMapName(), topicResult -> {
-                        if (topicResult.succeeded()) {
-                            KafkaTopic kafkaTopic = topicResult.result();
-                            reconcile(kafkaTopic, topicName).setHandler(topicFuture);
-                        } else {
-                            LOGGER.error("Error {} getting KafkaTopic {} for topic {}",
-                                    reconciliationType,
-                                    topicName.asMapName(), topicName, topicResult.cause());
-                            topicFuture.fail(new OperatorException("Error getting KafkaTopic " + topicName.asMapName() + " during " + reconciliationType + " reconciliation", topicResult.cause()));
-                        }
-                    });
-                }
-                CompositeFuture.join(topicFutures).setHandler(topicsJoin);
-                LOGGER.debug("Reconciling KafkaTopics");
-                // Then those in k8s which aren't in kafka
-                k8s.listMaps(resourcesListResult -> {
-                    List<Future> resourceFutures = new ArrayList<>();
-                    if (resourcesListResult.succeeded()) {
-                        List<KafkaTopic> resources = resourcesListResult.result();
-                        Map<String, KafkaTopic> resourcesMap = resources.stream().collect(Collectors.toMap(
-                            resource -> resource.getMetadata().getName(),
-                            resource -> resource));
-                        resourcesMap.keySet().removeAll(kafkaTopics);
-                        LOGGER.debug("Reconciling KafkaTopics: {}", resourcesMap.keySet());
-                        for (KafkaTopic resource : resourcesMap.values()) {
-                            LOGGER.debug("{} reconciliation of KafkaTopic {}", reconciliationType, resource.getMetadata().getName());
-
-                            TopicName topicName = new TopicName(resource);
-                            resourceFutures.add(reconcile(resource, topicName));
-                        }
-                        CompositeFuture.join(resourceFutures).setHandler(mapsJoin);
+                unchangedTopics(kafkaTopics, previous, unchangedResult -> {
+                    Set<String> unchanged;
+                    if (unchangedResult.succeeded()) {
+                        unchanged = unchangedResult.result();
                     } else {
-                        LOGGER.error("Unable to list KafkaTopics", resourcesListResult.cause());
-                        mapsJoin.fail(new OperatorException("Error listing existing KafkaTopics during " + reconciliationType + " reconciliation", resourcesListResult.cause()));
+                        LOGGER.warn("Error comparing the topics with the snapshot, reconciling all of them", unchangedResult.cause());
+                        unchanged = Collections.emptySet();
                     }
-                    // Finally those in private store which we've not dealt with so far...
-                    // TODO ^^
+                    reconcileTopics(reconciliationType, kafkaTopics, unchanged, topicsJoin, mapsJoin);
                 });
             } else {
                 LOGGER.error("Error performing {} reconciliation", reconciliationType, topicsListResult.cause());
@@ -1011,5 +1015,96 @@ public class TopicOperator {
         });
         return CompositeFuture.join(topicsJoin, mapsJoin);
     }
-}
 
+    /**
+     * Determines which of the given Kafka topics are unchanged since the given snapshot was taken,
+     * from a single listing of the KafkaTopics and a single batch of Kafka topic metadata,
+     * and records them in the current snapshot.
+     */
+    private void unchangedTopics(Set<String> kafkaTopics, ReconciliationSnapshot previous, Handler<AsyncResult<Set<String>>> handler) {
+        Set<TopicName> candidates = new HashSet<>();
+        for (String name : kafkaTopics) {
+            TopicName topicName = new TopicName(name);
+            if (previous.contains(topicName)) {
+                candidates.add(topicName);
+            }
+        }
+        if (candidates.isEmpty()) {
+            handler.handle(Future.succeededFuture(Collections.emptySet()));
+            return;
+        }
+        Future<List<KafkaTopic>> resourcesResult = Future.future();
+        Future<Map<TopicName, TopicMetadata>> metadataResult = Future.future();
+        k8s.listMaps(resourcesResult.completer());
+        kafka.topicsMetadata(candidates, metadataResult.completer());
+        CompositeFuture.all(resourcesResult, metadataResult).map(ignored -> {
+            Map<String, String> resourceVersions = new HashMap<>();
+            for (KafkaTopic resource : resourcesResult.result()) {
+                resourceVersions.put(resource.getMetadata().getName(), resource.getMetadata().getResourceVersion());
+            }
+            Set<String> unchanged = new HashSet<>();
+            for (TopicName topicName : candidates) {
+                String resourceVersion = resourceVersions.get(topicName.asMapName().toString());
+                Topic kafkaTopic = TopicSerialization.fromTopicMetadata(metadataResult.result().get(topicName));
+                if (previous.isUnchanged(topicName, resourceVersion, kafkaTopic)) {
+                    snapshot.put(topicName, resourceVersion, kafkaTopic);
+                    unchanged.add(topicName.toString());
+                }
+            }
+            LOGGER.info("{} of the {} topics are unchanged since the last reconciliation", unchanged.size(), kafkaTopics.size());
+            return unchanged;
+        }).setHandler(handler);
+    }
+
+    private void reconcileTopics(String reconciliationType, Set<String> kafkaTopics, Set<String> unchanged, Future topicsJoin, Future mapsJoin) {
+        LOGGER.debug("Reconciling kafka topics {}", kafkaTopics);
+        // First reconcile the topics in kafka
+        List<Future> topicFutures = new ArrayList<>();
+        for (String name : kafkaTopics) {
+            if (unchanged.contains(name)) {
+                continue;
+            }
+            LOGGER.debug("{} reconciliation of topic {}", reconciliationType, name);
+            TopicName topicName = new TopicName(name);
+            Future topicFuture = Future.future();
+            topicFutures.add(topicFuture);
+            k8s.getFromName(topicName.asMapName(), topicResult -> {
+                if (topicResult.succeeded()) {
+                    KafkaTopic kafkaTopic = topicResult.result();
+                    reconcile(kafkaTopic, topicName).setHandler(topicFuture);
+                } else {
+                    LOGGER.error("Error {} getting KafkaTopic {} for topic {}",
+                            reconciliationType,
+                            topicName.asMapName(), topicName, topicResult.cause());
+                    topicFuture.fail(new OperatorException("Error getting KafkaTopic " + topicName.asMapName() + " during " + reconciliationType + " reconciliation", topicResult.cause()));
+                }
+            });
+        }
+        CompositeFuture.join(topicFutures).setHandler(topicsJoin);
+        LOGGER.debug("Reconciling KafkaTopics");
+        // Then those in k8s which aren't in kafka
+        k8s.listMaps(resourcesListResult -> {
+            List<Future> resourceFutures = new ArrayList<>();
+            if (resourcesListResult.succeeded()) {
+                List<KafkaTopic> resources = resourcesListResult.result();
+                Map<String, KafkaTopic> resourcesMap = resources.stream().collect(Collectors.toMap(
+                    resource -> resource.getMetadata().getName(),
+                    resource -> resource));
+                resourcesMap.keySet().removeAll(kafkaTopics);
+                LOGGER.debug("Reconciling KafkaTopics: {}", resourcesMap.keySet());
+                for (KafkaTopic resource : resourcesMap.values()) {
+                    LOGGER.debug("{} reconciliation of KafkaTopic {}", reconciliationType, resource.getMetadata().getName());
+
+                    TopicName topicName = new TopicName(resource);
+                    resourceFutures.add(reconcile(resource, topicName));
+                }
+                CompositeFuture.join(resourceFutures).setHandler(mapsJoin);
+            } else {
+                LOGGER.error("Unable to list KafkaTopics", resourcesListResult.cause());
+                mapsJoin.fail(new OperatorException("Error listing existing KafkaTopics during " + reconciliationType + " reconciliation", resourcesListResult.cause()));
+            }
+            // Finally those in private store which we've not dealt with so far...
+            // TODO ^^
+        });
+    }
+}
@@ -4,10 +4,12 @@
  */
 package io.strimzi.operator.topic;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonToken;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.strimzi.api.kafka.model.KafkaTopic;
@@ -17,7 +19,10 @@ import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.common.config.ConfigResource;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
@@ -41,10 +46,19 @@ public class TopicSerialization {
     public static final String JSON_KEY_REPLICAS = "replicas";
     public static final String JSON_KEY_CONFIG = "config";
 
-    @SuppressWarnings("unchecked")
-    private static Map<String, String> topicConfigFromTopicConfig(KafkaTopic kafkaTopic) {
+    /** The first byte of the binary encoding of a topic */
+    static final byte BINARY_MAGIC = 0;
+    static final byte BINARY_VERSION = 1;
+
+    /** The factory is thread-safe, so it is shared by all the (de)serializations */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .configure(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION, false);
+
+    /**
+     * Adds the config of the given KafkaTopic to the builder, straight into its config map.
+     */
+    private static void addTopicConfig(Topic.Builder builder, KafkaTopic kafkaTopic) {
         if (kafkaTopic.getSpec().getConfig() != null) {
-            Map<String, String> result = new HashMap<>(kafkaTopic.getSpec().getConfig().size());
             for (Map.Entry<String, Object> entry : kafkaTopic.getSpec().getConfig().entrySet()) {
                 String key = entry.getKey();
                 Object v = entry.getValue();
@@ -56,7 +70,7 @@ public class TopicSerialization {
                 if (v instanceof String
                         || isNumberType
                         || v instanceof Boolean) {
-                    result.put(key, v.toString());
+                    builder.withConfigEntry(key, v.toString());
                 } else {
                     String msg = "The value corresponding to the key must have a string, number or boolean value";
                     if (v == null) {
@@ -68,9 +82,6 @@ public class TopicSerialization {
                             "The key '" + key + "' of the topic config is invalid: " + msg);
                 }
             }
-            return result;
-        } else {
-            return Collections.EMPTY_MAP;
         }
     }
 
@@ -88,8 +99,8 @@ public class TopicSerialization {
                 .withTopicName(getTopicName(kafkaTopic))
                 .withNumPartitions(getPartitions(kafkaTopic))
                 .withNumReplicas(getReplicas(kafkaTopic))
-                .withConfig(topicConfigFromTopicConfig(kafkaTopic))
                 .withMetadata(kafkaTopic.getMetadata());
+        addTopicConfig(builder, kafkaTopic);
         return builder.build();
     }
 
@@ -234,22 +245,20 @@ public class TopicSerialization {
      * This is what is stored in the znodes owned by the {@link ZkTopicStore}.
      */
     public static byte[] toJson(Topic topic) {
-        ObjectMapper mapper = objectMapper();
-        ObjectNode root = mapper.createObjectNode();
-        // TODO Do we store the k8s uid here?
-        root.put(JSON_KEY_MAP_NAME, topic.getOrAsMapName().toString());
-        root.put(JSON_KEY_TOPIC_NAME, topic.getTopicName().toString());
-        root.put(JSON_KEY_PARTITIONS, topic.getNumPartitions());
-        root.put(JSON_KEY_REPLICAS, topic.getNumReplicas());
-
-        ObjectNode config = mapper.createObjectNode();
-        for (Map.Entry<String, String> entry : topic.getConfig().entrySet()) {
-            config.put(entry.getKey(), entry.getValue());
-        }
-        root.set(JSON_KEY_CONFIG, config);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try {
-            mapper.writeValue(baos, root);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(baos, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            // TODO Do we store the k8s uid here?
+            generator.writeStringField(JSON_KEY_MAP_NAME, topic.getOrAsMapName().toString());
+            generator.writeStringField(JSON_KEY_TOPIC_NAME, topic.getTopicName().toString());
+            generator.writeNumberField(JSON_KEY_PARTITIONS, topic.getNumPartitions());
+            generator.writeNumberField(JSON_KEY_REPLICAS, topic.getNumReplicas());
+            generator.writeObjectFieldStart(JSON_KEY_CONFIG);
+            for (Map.Entry<String, String> entry : topic.getConfig().entrySet()) {
+                generator.writeStringField(entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -260,31 +269,119 @@ public class TopicSerialization {
      * Returns the Topic represented by the given UTF-8 encoded JSON.
      * This is what is stored in the znodes owned by the {@link ZkTopicStore}.
      */
-    @SuppressWarnings("unchecked")
     public static Topic fromJson(byte[] json) {
-        ObjectMapper mapper = objectMapper();
-        Map<String, Object> root = null;
-        try {
-            root = mapper.readValue(json, Map.class);
+        Topic.Builder builder = new Topic.Builder();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            expect(parser, JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case JSON_KEY_TOPIC_NAME:
+                        builder.withTopicName(parser.getValueAsString());
+                        break;
+                    case JSON_KEY_MAP_NAME:
+                        builder.withMapName(parser.getValueAsString());
+                        break;
+                    case JSON_KEY_PARTITIONS:
+                        builder.withNumPartitions(parser.getIntValue());
+                        break;
+                    case JSON_KEY_REPLICAS:
+                        builder.withNumReplicas(parser.getShortValue());
+                        break;
+                    case JSON_KEY_CONFIG:
+                        expect(parser, JsonToken.START_OBJECT, parser.getCurrentToken());
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String key = parser.getCurrentName();
+                            parser.nextToken();
+                            builder.withConfigEntry(key, parser.getValueAsString());
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return builder.build();
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected) throws IOException {
+        expect(parser, expected, parser.nextToken());
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected, JsonToken token) throws IOException {
+        if (token != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but got " + token);
+        }
+    }
+
+    /**
+     * Returns the compact binary encoding of the given Topic, which the {@link ZkTopicStore} can store
+     * instead of the JSON. It starts with {@link #BINARY_MAGIC}, which a JSON document cannot start with,
+     * followed by the format version, the map name, topic name, partitions, replicas and config entries.
+     */
+    public static byte[] toBinary(Topic topic) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeByte(BINARY_MAGIC);
+            out.writeByte(BINARY_VERSION);
+            out.writeUTF(topic.getOrAsMapName().toString());
+            out.writeUTF(topic.getTopicName().toString());
+            out.writeInt(topic.getNumPartitions());
+            out.writeShort(topic.getNumReplicas());
+            out.writeInt(topic.getConfig().size());
+            for (Map.Entry<String, String> entry : topic.getConfig().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeBoolean(entry.getValue() != null);
+                if (entry.getValue() != null) {
+                    out.writeUTF(entry.getValue());
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Returns the Topic represented by the given binary encoding (see {@link #toBinary(Topic)}).
+     */
+    public static Topic fromBinary(byte[] bytes) {
         Topic.Builder builder = new Topic.Builder();
-        builder.withTopicName((String) root.get(JSON_KEY_TOPIC_NAME))
-                .withMapName((String) root.get(JSON_KEY_MAP_NAME))
-                .withNumPartitions((Integer) root.get(JSON_KEY_PARTITIONS))
-                .withNumReplicas(((Integer) root.get(JSON_KEY_REPLICAS)).shortValue());
-        Map<String, String> config = (Map) root.get(JSON_KEY_CONFIG);
-        for (Map.Entry<String, String> entry : config.entrySet()) {
-            builder.withConfigEntry(entry.getKey(), entry.getValue());
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != BINARY_MAGIC) {
+                throw new IOException("Not a binary encoded topic");
+            }
+            byte version = in.readByte();
+            if (version != BINARY_VERSION) {
+                throw new IOException("Unsupported version " + version + " of the binary encoding of a topic");
+            }
+            builder.withMapName(in.readUTF())
+                    .withTopicName(in.readUTF())
+                    .withNumPartitions(in.readInt())
+                    .withNumReplicas(in.readShort());
+            int configSize = in.readInt();
+            for (int i = 0; i < configSize; i++) {
+                String key = in.readUTF();
+                builder.withConfigEntry(key, in.readBoolean() ? in.readUTF() : null);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
         return builder.build();
     }
 
-    private static ObjectMapper objectMapper() {
-        JsonFactory jf = new JsonFactory();
-        jf.configure(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION, false);
-        return new ObjectMapper(jf);
+    /**
+     * Returns the Topic represented by the given znode data of the {@link ZkTopicStore},
+     * whether it is JSON (see {@link #toJson(Topic)}) or binary (see {@link #toBinary(Topic)}).
+     */
+    public static Topic fromZkData(byte[] data) {
+        if (data.length > 0 && data[0] == BINARY_MAGIC) {
+            return fromBinary(data);
+        }
+        return fromJson(data);
     }
 
 }
@@ -20,6 +20,8 @@ import java.util.List;
 
 /**
  * Implementation of {@link TopicStore} that stores the topic state in ZooKeeper.
+ * The topics are written as JSON, or in the binary encoding of {@link TopicSerialization#toBinary(Topic)},
+ * and either is read.
  */
 public class ZkTopicStore implements TopicStore {
 
@@ -30,8 +32,15 @@ public class ZkTopicStore implements TopicStore {
 
     private final List<ACL> acl;
 
+    private final boolean binary;
+
     public ZkTopicStore(Zk zk) {
+        this(zk, false);
+    }
+
+    public ZkTopicStore(Zk zk, boolean binary) {
         this.zk = zk;
+        this.binary = binary;
         acl = new AclBuilder().setWorld(AclBuilder.Permission.values()).build();
         createStrimziTopicsPath();
     }
@@ -60,13 +69,17 @@ public class ZkTopicStore implements TopicStore {
         return TOPICS_PATH + "/" + name;
     }
 
+    private byte[] serialize(Topic topic) {
+        return binary ? TopicSerialization.toBinary(topic) : TopicSerialization.toJson(topic);
+    }
+
     @Override
     public void read(TopicName topicName, Handler<AsyncResult<Topic>> handler) {
         String topicPath = getTopicPath(topicName);
         zk.getData(topicPath, result -> {
             final AsyncResult<Topic> fut;
             if (result.succeeded()) {
-                fut = Future.succeededFuture(TopicSerialization.fromJson(result.result()));
+                fut = Future.succeededFuture(TopicSerialization.fromZkData(result.result()));
             } else {
                 if (result.cause() instanceof ZkNoNodeException) {
                     fut = Future.succeededFuture(null);
@@ -80,7 +93,7 @@ public class ZkTopicStore implements TopicStore {
 
     @Override
     public void create(Topic topic, Handler<AsyncResult<Void>> handler) {
-        byte[] data = TopicSerialization.toJson(topic);
+        byte[] data = serialize(topic);
         String topicPath = getTopicPath(topic.getTopicName());
         LOGGER.debug("create znode {}", topicPath);
         zk.create(topicPath, data, acl, CreateMode.PERSISTENT, result -> {
@@ -94,7 +107,7 @@ public class ZkTopicStore implements TopicStore {
 
     @Override
     public void update(Topic topic, Handler<AsyncResult<Void>> handler) {
-        byte[] data = TopicSerialization.toJson(topic);
+        byte[] data = serialize(topic);
         // TODO pass a non-zero version
         String topicPath = getTopicPath(topic.getTopicName());
         LOGGER.debug("update znode {}", topicPath);
@@ -26,6 +26,11 @@ public interface Zk {
      */
     Zk disconnect(Handler<AsyncResult<Void>> handler);
 
+    /**
+     * Whether the client is currently connected to a ZooKeeper server.
+     */
+    boolean isConnected();
+
     /**
      * Asynchronously create the znode at the given path and with the given data and ACL, using the
      * given createMode, then invoke the given handler with the result.
@@ -11,12 +11,14 @@ import io.vertx.core.Vertx;
 import io.vertx.core.WorkerExecutor;
 import org.I0Itec.zkclient.IZkChildListener;
 import org.I0Itec.zkclient.IZkDataListener;
+import org.I0Itec.zkclient.IZkStateListener;
 import org.I0Itec.zkclient.ZkClient;
 import org.I0Itec.zkclient.exception.ZkNoNodeException;
 import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.Watcher;
 import org.apache.zookeeper.data.ACL;
 
 import java.util.List;
@@ -35,6 +37,7 @@ public class ZkImpl implements Zk {
     }
     private final Vertx vertx;
     private final ZkClient zookeeper;
+    private volatile boolean connected;
 
     // Only accessed on the vertx context.
 
@@ -44,6 +47,32 @@ public class ZkImpl implements Zk {
     public ZkImpl(Vertx vertx, String zkConnectionString, int sessionTimeout, int connectionTimeout) {
         this.vertx = vertx;
         this.zookeeper = new ZkClient(zkConnectionString, sessionTimeout, connectionTimeout, new BytesPushThroughSerializer());
+        // The constructor returns once connected
+        this.connected = true;
+        zookeeper.subscribeStateChanges(new IZkStateListener() {
+            @Override
+            public void handleStateChanged(Watcher.Event.KeeperState state) {
+                LOGGER.debug("ZooKeeper state changed to {}", state);
+                connected = state == Watcher.Event.KeeperState.SyncConnected
+                        || state == Watcher.Event.KeeperState.ConnectedReadOnly;
+            }
+
+            @Override
+            public void handleNewSession() {
+                connected = true;
+            }
+
+            @Override
+            public void handleSessionEstablishmentError(Throwable error) {
+                LOGGER.warn("Error establishing a ZooKeeper session", error);
+                connected = false;
+            }
+        });
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
     }
 
 
@@ -4,6 +4,7 @@
  */
 package io.strimzi.operator.topic;
 
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -116,6 +117,27 @@ public class InFlightTest {
         });
     }
 
+    @Test
+    public void testOldestAge(TestContext context) throws InterruptedException {
+        InFlight<String> inflight = new InFlight<>(vertx);
+        context.assertEquals(0L, inflight.oldestAgeMs());
+        Future<Void> first = Future.future();
+        inflight.enqueue("test", fut -> first.setHandler(fut.completer()), ignored -> { });
+        inflight.enqueue("test", fut -> fut.complete(), ignored -> { });
+        Thread.sleep(100);
+        // The second action is as late as the first one it waits for
+        context.assertTrue(inflight.oldestAgeMs() >= 100L);
+        vertx.runOnContext(ignored -> first.complete());
+        Async empty = context.async();
+        vertx.setPeriodic(100, timerId -> {
+            if (inflight.size() == 0) {
+                vertx.cancelTimer(timerId);
+                context.assertEquals(0L, inflight.oldestAgeMs());
+                empty.complete();
+            }
+        });
+    }
+
     @Test
     public void test0(TestContext context) {
         testSingleTask(context);
@@ -29,6 +29,28 @@ public class MockK8s implements K8s {
     private Function<ResourceName, AsyncResult<Void>> deleteResponse = n -> Future.failedFuture("Unexpected. ");
     private Supplier<AsyncResult<List<KafkaTopic>>> listResponse = () -> Future.succeededFuture(new ArrayList(byName.values().stream().filter(ar -> ar.succeeded()).map(ar -> ar.result()).collect(Collectors.toList())));
 
+    private MockLatency latency = MockLatency.NONE;
+
+    public MockK8s setLatency(MockLatency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public MockK8s setCreateResponse(Function<ResourceName, AsyncResult<Void>> createResponse) {
+        this.createResponse = createResponse;
+        return this;
+    }
+
+    public MockK8s setModifyResponse(Function<ResourceName, AsyncResult<Void>> modifyResponse) {
+        this.modifyResponse = modifyResponse;
+        return this;
+    }
+
+    public MockK8s setDeleteResponse(Function<ResourceName, AsyncResult<Void>> deleteResponse) {
+        this.deleteResponse = deleteResponse;
+        return this;
+    }
+
     public MockK8s setCreateResponse(ResourceName resourceName, Exception exception) {
         Function<ResourceName, AsyncResult<Void>> old = createResponse;
         createResponse = n -> {
@@ -80,11 +102,11 @@ public class MockK8s implements K8s {
         if (response.succeeded()) {
             AsyncResult<KafkaTopic> old = byName.put(new ResourceName(topicResource), Future.succeededFuture(topicResource));
             if (old != null) {
-                handler.handle(Future.failedFuture("resource already existed: " + topicResource.getMetadata().getName()));
+                latency.respond(handler, Future.failedFuture("resource already existed: " + topicResource.getMetadata().getName()));
                 return;
             }
         }
-        handler.handle(response);
+        latency.respond(handler, response);
     }
 
     @Override
@@ -93,11 +115,11 @@ public class MockK8s implements K8s {
         if (response.succeeded()) {
             AsyncResult<KafkaTopic> old = byName.put(new ResourceName(topicResource), Future.succeededFuture(topicResource));
             if (old == null) {
-                handler.handle(Future.failedFuture("resource does not exist, cannot be updated: " + topicResource.getMetadata().getName()));
+                latency.respond(handler, Future.failedFuture("resource does not exist, cannot be updated: " + topicResource.getMetadata().getName()));
                 return;
             }
         }
-        handler.handle(response);
+        latency.respond(handler, response);
     }
 
     @Override
@@ -105,16 +127,16 @@ public class MockK8s implements K8s {
         AsyncResult<Void> response = deleteResponse.apply(resourceName);
         if (response.succeeded()) {
             if (byName.remove(resourceName) == null) {
-                handler.handle(Future.failedFuture("resource does not exist, cannot be deleted: " + resourceName));
+                latency.respond(handler, Future.failedFuture("resource does not exist, cannot be deleted: " + resourceName));
                 return;
             }
         }
-        handler.handle(response);
+        latency.respond(handler, response);
     }
 
     @Override
     public void listMaps(Handler<AsyncResult<List<KafkaTopic>>> handler) {
-        handler.handle(listResponse.get());
+        latency.respond(handler, listResponse.get());
     }
 
     public void setListMapsResult(Supplier<AsyncResult<List<KafkaTopic>>> response) {
@@ -124,13 +146,13 @@ public class MockK8s implements K8s {
     @Override
     public void getFromName(ResourceName resourceName, Handler<AsyncResult<KafkaTopic>> handler) {
         AsyncResult<KafkaTopic> resourceFuture = byName.get(resourceName);
-        handler.handle(resourceFuture != null ? resourceFuture : Future.succeededFuture());
+        latency.respond(handler, resourceFuture != null ? resourceFuture : Future.succeededFuture());
     }
 
     @Override
     public void createEvent(Event event, Handler<AsyncResult<Void>> handler) {
         events.add(event);
-        handler.handle(Future.succeededFuture());
+        latency.respond(handler, Future.succeededFuture());
     }
 
     public void assertExists(TestContext context, ResourceName resourceName) {
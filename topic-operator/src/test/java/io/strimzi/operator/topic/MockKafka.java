@@ -34,6 +34,13 @@ public class MockKafka implements Kafka {
     private Function<TopicName, AsyncResult<Void>> updateTopicResponse =
         t -> failedFuture("Unexpected. Your test probably need to configure the MockKafka with a updateTopicResponse.");
 
+    private MockLatency latency = MockLatency.NONE;
+
+    public MockKafka setLatency(MockLatency latency) {
+        this.latency = latency;
+        return this;
+    }
+
     public MockKafka setTopicsListResponse(AsyncResult<Set<String>> topicsListResponse) {
         this.topicsListResponse = topicsListResponse;
         return this;
@@ -127,7 +134,7 @@ public class MockKafka implements Kafka {
             Topic topic = topicBuilder.build();
             topics.put(topic.getTopicName(), topic);
         }
-        handler.handle(event);
+        latency.respond(handler, event);
     }
 
     @Override
@@ -136,7 +143,7 @@ public class MockKafka implements Kafka {
         if (event.succeeded()) {
             topics.remove(topicName);
         }
-        handler.handle(event);
+        latency.respond(handler, event);
     }
 
     public MockKafka setUpdateTopicResponse(Function<TopicName, AsyncResult<Void>> updateTopicResponse) {
@@ -155,7 +162,7 @@ public class MockKafka implements Kafka {
             t = new Topic.Builder(t).withConfig(topic.getConfig()).build();
             topics.put(topic.getTopicName(), t);
         }
-        handler.handle(event);
+        latency.respond(handler, event);
     }
 
     @Override
@@ -169,7 +176,7 @@ public class MockKafka implements Kafka {
             t = new Topic.Builder(t).withNumPartitions(topic.getNumPartitions()).build();
             topics.put(topic.getTopicName(), t);
         }
-        handler.handle(event);
+        latency.respond(handler, event);
     }
 
     @Override
@@ -183,17 +190,17 @@ public class MockKafka implements Kafka {
             t = new Topic.Builder(t).withNumReplicas(topic.getNumReplicas()).build();
             topics.put(topic.getTopicName(), t);
         }
-        handler.handle(event);
+        latency.respond(handler, event);
     }
 
     @Override
     public void topicMetadata(TopicName topicName, Handler<AsyncResult<TopicMetadata>> handler) {
-        handler.handle(topicMetadataRespose.apply(topicName));
+        latency.respond(handler, topicMetadataRespose.apply(topicName));
     }
 
     @Override
     public void listTopics(Handler<AsyncResult<Set<String>>> handler) {
-        handler.handle(topicsListResponse);
+        latency.respond(handler, topicsListResponse);
     }
 
     public void assertExists(TestContext context, TopicName topicName) {
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Latency injected into the responses of the mocks, to simulate the round trips to the real services.
+ * With no latency the mocks respond synchronously, which is what the unit tests expect.
+ */
+class MockLatency {
+
+    static final MockLatency NONE = new MockLatency(null, 0);
+
+    private final Vertx vertx;
+    private final long millis;
+
+    /**
+     * @param vertx The Vert.x instance whose timers delay the responses
+     * @param millis The latency in milliseconds, 0 for none
+     */
+    MockLatency(Vertx vertx, long millis) {
+        this.vertx = vertx;
+        this.millis = millis;
+    }
+
+    <T> void respond(Handler<AsyncResult<T>> handler, AsyncResult<T> result) {
+        if (millis <= 0) {
+            handler.handle(result);
+        } else {
+            vertx.setTimer(millis, timerId -> handler.handle(result));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return millis + "ms";
+    }
+}
@@ -20,10 +20,17 @@ public class MockTopicStore implements TopicStore {
     private Function<TopicName, AsyncResult<Void>> deleteTopicResponse = t -> Future.failedFuture("Unexpected. Your test's MockTopicStore probably nees a deleteTopicResponse configured.");
     private Function<TopicName, AsyncResult<Void>> updateTopicResponse = t -> Future.failedFuture("Unexpected. Your test's MockTopicStore probably nees a updateTopicResponse configured.");
 
+    private MockLatency latency = MockLatency.NONE;
+
+    public MockTopicStore setLatency(MockLatency latency) {
+        this.latency = latency;
+        return this;
+    }
+
     @Override
     public void read(TopicName name, Handler<AsyncResult<Topic>> handler) {
         Topic result = topics.get(name);
-        handler.handle(Future.succeededFuture(result));
+        latency.respond(handler, Future.succeededFuture(result));
     }
 
     @Override
@@ -32,19 +39,19 @@ public class MockTopicStore implements TopicStore {
         if (response.succeeded()) {
             Topic old = topics.put(topic.getTopicName(), topic);
             if (old != null) {
-                handler.handle(Future.failedFuture(new TopicStore.EntityExistsException()));
+                latency.respond(handler, Future.failedFuture(new TopicStore.EntityExistsException()));
             }
         }
-        handler.handle(response);
+        latency.respond(handler, response);
     }
 
     @Override
     public void update(Topic topic, Handler<AsyncResult<Void>> handler) {
         Topic old = topics.put(topic.getTopicName(), topic);
         if (old != null) {
-            handler.handle(Future.succeededFuture());
+            latency.respond(handler, Future.succeededFuture());
         } else {
-            handler.handle(Future.failedFuture(new TopicStore.NoSuchEntityExistsException()));
+            latency.respond(handler, Future.failedFuture(new TopicStore.NoSuchEntityExistsException()));
         }
     }
 
@@ -54,10 +61,10 @@ public class MockTopicStore implements TopicStore {
         if (response.succeeded()) {
             Topic topic = topics.remove(topicName);
             if (topic == null) {
-                handler.handle(Future.failedFuture(new TopicStore.NoSuchEntityExistsException()));
+                latency.respond(handler, Future.failedFuture(new TopicStore.NoSuchEntityExistsException()));
             }
         }
-        handler.handle(response);
+        latency.respond(handler, response);
     }
 
     public void assertExists(TestContext context, TopicName topicName) {
@@ -72,6 +79,16 @@ public class MockTopicStore implements TopicStore {
         context.assertEquals(topic, topics.get(topic.getTopicName()));
     }
 
+    public MockTopicStore setCreateTopicResponse(Function<TopicName, AsyncResult<Void>> createTopicResponse) {
+        this.createTopicResponse = createTopicResponse;
+        return this;
+    }
+
+    public MockTopicStore setDeleteTopicResponse(Function<TopicName, AsyncResult<Void>> deleteTopicResponse) {
+        this.deleteTopicResponse = deleteTopicResponse;
+        return this;
+    }
+
     public MockTopicStore setCreateTopicResponse(TopicName createTopic, Exception exception) {
         Function<TopicName, AsyncResult<Void>> old = this.createTopicResponse;
         this.createTopicResponse = t -> {
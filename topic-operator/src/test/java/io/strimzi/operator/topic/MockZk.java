@@ -21,6 +21,8 @@ class MockZk implements Zk {
     public AsyncResult<Void> setDataResult = Future.failedFuture("Unexpected mock interaction. Configure " + getClass().getSimpleName() + ".setDataResult");
     public AsyncResult<List<String>> childrenResult = Future.failedFuture("Unexpected mock interaction. Configure " + getClass().getSimpleName() + ".childrenResult");
     public AsyncResult<byte[]> dataResult = Future.failedFuture("Unexpected mock interaction. Configure " + getClass().getSimpleName() + ".dataResult");
+    public MockLatency latency = MockLatency.NONE;
+    public boolean connected = true;
     private Handler<AsyncResult<List<String>>> childrenHandler;
     private Map<String, Handler<AsyncResult<byte[]>>> dataHandlers = new HashMap<>();
 
@@ -40,25 +42,30 @@ class MockZk implements Zk {
 
     @Override
     public Zk disconnect(Handler<AsyncResult<Void>> handler) {
-        handler.handle(Future.succeededFuture());
+        latency.respond(handler, Future.succeededFuture());
         return this;
     }
 
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
     @Override
     public Zk create(String path, byte[] data, List<ACL> acls, CreateMode createMode, Handler<AsyncResult<Void>> handler) {
-        handler.handle(createResult);
+        latency.respond(handler, createResult);
         return this;
     }
 
     @Override
     public Zk setData(String path, byte[] data, int version, Handler<AsyncResult<Void>> handler) {
-        handler.handle(setDataResult);
+        latency.respond(handler, setDataResult);
         return this;
     }
 
     @Override
     public Zk children(String path, Handler<AsyncResult<List<String>>> handler) {
-        handler.handle(childrenResult);
+        latency.respond(handler, childrenResult);
         return this;
     }
 
@@ -76,7 +83,7 @@ class MockZk implements Zk {
 
     @Override
     public Zk getData(String path, Handler<AsyncResult<byte[]>> handler) {
-        handler.handle(dataResult);
+        latency.respond(handler, dataResult);
         return this;
     }
 
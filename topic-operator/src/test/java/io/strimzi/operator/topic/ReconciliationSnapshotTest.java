@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReconciliationSnapshotTest {
+
+    private final TopicName topicName = new TopicName("my-topic");
+
+    private static Topic kafkaTopic(String name, int numPartitions, String... keysAndValues) {
+        Map<String, String> config = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            config.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return new Topic.Builder(name, numPartitions, (short) 3, config).build();
+    }
+
+    @Test
+    public void testKafkaHash() {
+        long hash = ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic", 2, "cleanup.policy", "compact", "retention.ms", "1000"));
+        // The hash is persisted, so it must never change
+        assertEquals(0xbb284a77fb95b49L, hash);
+        assertEquals(hash, ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic", 2, "retention.ms", "1000", "cleanup.policy", "compact")));
+        assertNotEquals(hash, ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic2", 2, "cleanup.policy", "compact", "retention.ms", "1000")));
+        assertNotEquals(hash, ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic", 3, "cleanup.policy", "compact", "retention.ms", "1000")));
+        assertNotEquals(hash, ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic", 2, "cleanup.policy", "compact", "retention.ms", "100")));
+        assertNotEquals(hash, ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic", 2, "cleanup.policy", "compact")));
+        // The entries are delimited
+        assertNotEquals(ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic", 2, "a", "bc")),
+                ReconciliationSnapshot.kafkaHash(kafkaTopic("my-topic", 2, "ab", "c")));
+    }
+
+    @Test
+    public void testIsUnchanged() {
+        Topic kafkaTopic = kafkaTopic("my-topic", 2, "cleanup.policy", "compact");
+        ReconciliationSnapshot snapshot = new ReconciliationSnapshot();
+        assertFalse(snapshot.isUnchanged(topicName, "1", kafkaTopic));
+
+        snapshot.put(topicName, "1", kafkaTopic);
+        assertTrue(snapshot.contains(topicName));
+        assertTrue(snapshot.isUnchanged(topicName, "1", kafkaTopic));
+        assertFalse(snapshot.isUnchanged(topicName, "2", kafkaTopic));
+        assertFalse(snapshot.isUnchanged(topicName, null, kafkaTopic));
+        assertFalse(snapshot.isUnchanged(topicName, "1", kafkaTopic("my-topic", 2, "cleanup.policy", "delete")));
+        assertFalse(snapshot.isUnchanged(topicName, "1", null));
+
+        // A topic without KafkaTopic is never in sync
+        snapshot.put(topicName, null, kafkaTopic);
+        assertFalse(snapshot.contains(topicName));
+
+        snapshot.put(topicName, "1", kafkaTopic);
+        snapshot.remove(topicName);
+        assertTrue(snapshot.isEmpty());
+    }
+
+    @Test
+    public void testBytes() {
+        Topic kafkaTopic = kafkaTopic("my-topic", 2, "cleanup.policy", "compact");
+        Topic otherTopic = kafkaTopic("other-topic", 1);
+        ReconciliationSnapshot snapshot = new ReconciliationSnapshot();
+        snapshot.put(topicName, "12", kafkaTopic);
+        snapshot.put(new TopicName("other-topic"), "34", otherTopic);
+
+        ReconciliationSnapshot read = ReconciliationSnapshot.fromBytes(snapshot.toBytes());
+        assertEquals(2, read.size());
+        assertTrue(read.isUnchanged(topicName, "12", kafkaTopic));
+        assertTrue(read.isUnchanged(new TopicName("other-topic"), "34", otherTopic));
+        assertTrue(ReconciliationSnapshot.fromBytes(new ReconciliationSnapshot().toBytes()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCorruptedBytes() {
+        ReconciliationSnapshot.fromBytes(new byte[] {1, 2, 3});
+    }
+
+    @Test
+    public void testChunks() {
+        byte[] bytes = new byte[10];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        List<byte[]> chunks = ReconciliationSnapshot.chunks(bytes, 42L, 3);
+        assertEquals(4, chunks.size());
+        List<byte[]> shuffled = new ArrayList<>(chunks);
+        Collections.reverse(shuffled);
+        assertArrayEquals(bytes, ReconciliationSnapshot.join(shuffled));
+
+        assertEquals(1, ReconciliationSnapshot.chunks(new byte[0], 42L, 3).size());
+        assertArrayEquals(new byte[0], ReconciliationSnapshot.join(ReconciliationSnapshot.chunks(new byte[0], 42L, 3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingChunk() {
+        List<byte[]> chunks = ReconciliationSnapshot.chunks(new byte[10], 42L, 3);
+        chunks.remove(2);
+        ReconciliationSnapshot.join(chunks);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunksOfDifferentSnapshots() {
+        // A snapshot was partly overwritten by a smaller one
+        List<byte[]> chunks = new ArrayList<>(ReconciliationSnapshot.chunks(new byte[4], 43L, 3));
+        chunks.addAll(ReconciliationSnapshot.chunks(new byte[10], 42L, 3).subList(2, 4));
+        ReconciliationSnapshot.join(chunks);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicaPlacementTest {
+
+    /** Brokers 0 to numBrokers - 1, broker i being on rack "rack-(i % numRacks)" */
+    private static Map<Integer, String> brokerRacks(int numBrokers, int numRacks) {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        for (int broker = 0; broker < numBrokers; broker++) {
+            brokerRacks.put(broker, "rack-" + broker % numRacks);
+        }
+        return brokerRacks;
+    }
+
+    private static Set<String> racks(Map<Integer, String> brokerRacks, List<Integer> replicas) {
+        Set<String> racks = new HashSet<>();
+        for (Integer replica : replicas) {
+            racks.add(brokerRacks.get(replica));
+        }
+        return racks;
+    }
+
+    private static void assertBalanced(Map<Integer, Integer> counts, int numBrokers) {
+        assertEquals(numBrokers, counts.size());
+        int min = Collections.min(counts.values());
+        int max = Collections.max(counts.values());
+        assertTrue("Unbalanced: " + counts, max - min <= 1);
+    }
+
+    @Test
+    public void testRackAlternatedBrokers() {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        brokerRacks.put(0, "a");
+        brokerRacks.put(1, "a");
+        brokerRacks.put(2, "b");
+        brokerRacks.put(3, "b");
+        brokerRacks.put(4, "c");
+        assertEquals(asList(0, 2, 4, 1, 3), ReplicaPlacement.rackAlternatedBrokers(brokerRacks));
+    }
+
+    @Test
+    public void testAssignSpreadsReplicasAcrossRacks() {
+        Map<Integer, String> brokerRacks = brokerRacks(6, 3);
+        Map<Integer, List<Integer>> assignment = ReplicaPlacement.assign(brokerRacks, 60, 3, 0);
+
+        assertEquals(60, assignment.size());
+        Map<Integer, Integer> leaders = new HashMap<>();
+        Map<Integer, Integer> replicas = new HashMap<>();
+        for (int partition = 0; partition < 60; partition++) {
+            List<Integer> partitionReplicas = assignment.get(partition);
+            assertEquals(3, partitionReplicas.size());
+            assertEquals(3, new HashSet<>(partitionReplicas).size());
+            assertEquals(3, racks(brokerRacks, partitionReplicas).size());
+            leaders.merge(partitionReplicas.get(0), 1, Integer::sum);
+            for (Integer replica : partitionReplicas) {
+                replicas.merge(replica, 1, Integer::sum);
+            }
+        }
+        assertBalanced(leaders, 6);
+        assertBalanced(replicas, 6);
+    }
+
+    @Test
+    public void testAssignWithMoreReplicasThanRacks() {
+        Map<Integer, String> brokerRacks = brokerRacks(6, 2);
+        for (List<Integer> replicas : ReplicaPlacement.assign(brokerRacks, 12, 4, 3).values()) {
+            assertEquals(4, new HashSet<>(replicas).size());
+            assertEquals(2, racks(brokerRacks, replicas).size());
+        }
+    }
+
+    @Test
+    public void testAssignWithoutRacks() {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        brokerRacks.put(0, null);
+        brokerRacks.put(1, null);
+        brokerRacks.put(2, null);
+        Map<Integer, List<Integer>> assignment = ReplicaPlacement.assign(brokerRacks, 3, 3, 1);
+        assertEquals(asList(1, 2, 0), assignment.get(0));
+        assertEquals(asList(2, 0, 1), assignment.get(1));
+        assertEquals(asList(0, 1, 2), assignment.get(2));
+    }
+
+    /** Brokers 0, 1 and 2 on rack a and broker 3 on rack b */
+    private static Map<Integer, String> unevenBrokerRacks() {
+        Map<Integer, String> brokerRacks = new HashMap<>();
+        brokerRacks.put(0, "a");
+        brokerRacks.put(1, "a");
+        brokerRacks.put(2, "a");
+        brokerRacks.put(3, "b");
+        return brokerRacks;
+    }
+
+    @Test(timeout = 10_000)
+    public void testAssignWithUnevenRacks() {
+        Map<Integer, String> brokerRacks = unevenBrokerRacks();
+        for (int startIndex = 0; startIndex < 4; startIndex++) {
+            Map<Integer, List<Integer>> assignment = ReplicaPlacement.assign(brokerRacks, 4, 4, startIndex);
+            assertEquals(4, assignment.size());
+            for (List<Integer> replicas : assignment.values()) {
+                assertEquals(new HashSet<>(asList(0, 1, 2, 3)), new HashSet<>(replicas));
+            }
+            for (List<Integer> replicas : ReplicaPlacement.assign(brokerRacks, 4, 3, startIndex).values()) {
+                assertEquals(3, new HashSet<>(replicas).size());
+                assertEquals(2, racks(brokerRacks, replicas).size());
+            }
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testAssignWithUnevenRacksAndMoreReplicasThanRacks() {
+        // Racks a and b have 4 brokers each, rack c only one
+        Map<Integer, String> brokerRacks = brokerRacks(8, 2);
+        brokerRacks.put(8, "c");
+        for (int replicationFactor = 1; replicationFactor <= 9; replicationFactor++) {
+            for (List<Integer> replicas : ReplicaPlacement.assign(brokerRacks, 18, replicationFactor, 0).values()) {
+                assertEquals(replicationFactor, new HashSet<>(replicas).size());
+                assertEquals(Math.min(replicationFactor, 3), racks(brokerRacks, replicas).size());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAssignWithMoreReplicasThanBrokers() {
+        ReplicaPlacement.assign(brokerRacks(3, 3), 1, 4, 0);
+    }
+
+    @Test
+    public void testReassignIncreasesReplicationFactor() {
+        Map<Integer, String> brokerRacks = brokerRacks(6, 3);
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        for (int partition = 0; partition < 12; partition++) {
+            current.put(partition, new ArrayList<>(asList(partition % 6, (partition + 1) % 6)));
+        }
+        Map<Integer, List<Integer>> assignment = ReplicaPlacement.reassign(brokerRacks, current, 3);
+
+        Map<Integer, Integer> replicas = new HashMap<>();
+        for (int partition = 0; partition < 12; partition++) {
+            List<Integer> partitionReplicas = assignment.get(partition);
+            // The current replicas and the preferred leader are kept
+            assertEquals(current.get(partition), partitionReplicas.subList(0, 2));
+            assertEquals(3, racks(brokerRacks, partitionReplicas).size());
+            for (Integer replica : partitionReplicas) {
+                replicas.merge(replica, 1, Integer::sum);
+            }
+        }
+        assertBalanced(replicas, 6);
+    }
+
+    @Test
+    public void testReassignDecreasesReplicationFactor() {
+        Map<Integer, String> brokerRacks = brokerRacks(6, 3);
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        // Brokers 0 and 3 are on the same rack
+        current.put(0, asList(0, 3, 1));
+        current.put(1, asList(1, 2, 5));
+        Map<Integer, List<Integer>> assignment = ReplicaPlacement.reassign(brokerRacks, current, 2);
+        assertEquals(asList(0, 1), assignment.get(0));
+        assertEquals(asList(1, 2), assignment.get(1));
+    }
+
+    @Test(timeout = 10_000)
+    public void testReassignWithUnevenRacks() {
+        Map<Integer, String> brokerRacks = unevenBrokerRacks();
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0));
+        current.put(1, asList(3, 1));
+        Map<Integer, List<Integer>> assignment = ReplicaPlacement.reassign(brokerRacks, current, 4);
+        assertEquals(new HashSet<>(asList(0, 1, 2, 3)), new HashSet<>(assignment.get(0)));
+        assertEquals(asList(3, 1), assignment.get(1).subList(0, 2));
+        assertEquals(new HashSet<>(asList(0, 1, 2, 3)), new HashSet<>(assignment.get(1)));
+
+        assignment = ReplicaPlacement.reassign(brokerRacks, current, 3);
+        assertEquals(0, (int) assignment.get(0).get(0));
+        assertEquals(2, racks(brokerRacks, assignment.get(0)).size());
+        assertEquals(3, new HashSet<>(assignment.get(0)).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReassignWithReplicaOnUnknownBroker() {
+        // Broker 5 isn't one of the given brokers, e.g. because it is offline: its replica mustn't be dropped
+        Map<Integer, String> brokerRacks = brokerRacks(3, 3);
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(5, 1));
+        ReplicaPlacement.reassign(brokerRacks, current, 2);
+    }
+}
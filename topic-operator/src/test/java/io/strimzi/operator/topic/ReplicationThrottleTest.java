@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.common.config.ConfigResource;
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReplicationThrottleTest {
+
+    private static final ConfigResource TOPIC = new ConfigResource(ConfigResource.Type.TOPIC, "my-topic");
+    private static final ConfigResource BROKER = new ConfigResource(ConfigResource.Type.BROKER, "0");
+
+    /** Partition 0 stays on 0,1, partition 1 moves from 1,2 to 1,3 and partition 2 goes from 2 to 2,0 */
+    private static Map<Integer, List<Integer>> current() {
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0, 1));
+        current.put(1, asList(1, 2));
+        current.put(2, asList(2));
+        return current;
+    }
+
+    private static Map<Integer, List<Integer>> proposed() {
+        Map<Integer, List<Integer>> proposed = new HashMap<>();
+        proposed.put(0, asList(1, 0));
+        proposed.put(1, asList(1, 3));
+        proposed.put(2, asList(2, 0));
+        return proposed;
+    }
+
+    /** An entry with the given source, whose constructor is not public in Kafka 2.0. A null value is sensitive. */
+    static ConfigEntry entry(String name, String value, ConfigEntry.ConfigSource source) {
+        try {
+            Constructor<ConfigEntry> ctor = ConfigEntry.class.getDeclaredConstructor(String.class, String.class,
+                    ConfigEntry.ConfigSource.class, boolean.class, boolean.class, List.class);
+            ctor.setAccessible(true);
+            return ctor.newInstance(name, value, source, value == null, false, emptyList());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Map<String, String> options(Config config) {
+        Map<String, String> options = new HashMap<>();
+        for (ConfigEntry entry : config.entries()) {
+            options.put(entry.name(), entry.value());
+        }
+        return options;
+    }
+
+    @Test
+    public void testMovingPartitions() {
+        // Changing the preferred leader only is not a move
+        assertEquals(asList(1, 2), asList(ReplicationThrottle.movingPartitions(current(), proposed()).toArray()));
+    }
+
+    @Test
+    public void testThrottledReplicas() {
+        List<Integer> partitions = asList(2, 1);
+        assertEquals("1:1,1:2,2:2", ReplicationThrottle.leaderThrottledReplicas(current(), partitions));
+        assertEquals("1:3,2:0", ReplicationThrottle.followerThrottledReplicas(current(), proposed(), partitions));
+        assertEquals(asList(0, 1, 2, 3), asList(ReplicationThrottle.brokers(current(), proposed(), partitions).toArray()));
+        // Once partition 1 is done, brokers 1 and 3 don't need to be throttled any more
+        assertEquals(asList(0, 2), asList(ReplicationThrottle.brokers(current(), proposed(), asList(2)).toArray()));
+        assertEquals("", ReplicationThrottle.followerThrottledReplicas(current(), proposed(), emptyList()));
+    }
+
+    @Test
+    public void testLag() {
+        Map<Integer, Map<Integer, Long>> sizes = new HashMap<>();
+        sizes.put(1, singletonMap(1, 1000L));
+        sizes.put(2, new HashMap<>());
+        sizes.get(2).put(1, 900L);
+        sizes.get(2).put(2, 500L);
+        sizes.put(3, singletonMap(1, 400L));
+        // Partition 1 lags 1000 - 400 bytes on broker 3, and partition 2 500 bytes on broker 0 which has nothing yet
+        assertEquals(1100L, ReplicationThrottle.lag(sizes, current(), proposed(), asList(1, 2)));
+        assertEquals(600L, ReplicationThrottle.lag(sizes, current(), proposed(), asList(1)));
+    }
+
+    @Test
+    public void testAdaptRate() {
+        assertEquals(100L, ReplicationThrottle.adaptRate(100L, Long.MAX_VALUE, 1000L));
+        assertEquals(100L, ReplicationThrottle.adaptRate(100L, 1000L, 900L));
+        assertEquals(200L, ReplicationThrottle.adaptRate(100L, 1000L, 1000L));
+        assertEquals(200L, ReplicationThrottle.adaptRate(100L, 1000L, 1200L));
+        assertEquals(100L, ReplicationThrottle.adaptRate(100L, 0L, 0L));
+        assertEquals(Long.MAX_VALUE, ReplicationThrottle.adaptRate(Long.MAX_VALUE - 1, 10L, 10L));
+    }
+
+    @Test
+    public void testAlteredConfigKeepsTheOtherDynamicOptions() {
+        Config config = new Config(asList(
+                entry("retention.ms", "1000", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG),
+                entry("segment.ms", "2000", ConfigEntry.ConfigSource.DEFAULT_CONFIG),
+                entry(ReplicationThrottle.FOLLOWER_REPLICAS, "0:1", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)));
+        Map<String, String> throttle = singletonMap(ReplicationThrottle.LEADER_REPLICAS, "0:0");
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("retention.ms", "1000");
+        expected.put(ReplicationThrottle.LEADER_REPLICAS, "0:0");
+        assertEquals(expected, options(ReplicationThrottle.alteredConfig(TOPIC, config, throttle)));
+        assertEquals(singletonMap("retention.ms", "1000"), options(ReplicationThrottle.alteredConfig(TOPIC, config, emptyMap())));
+    }
+
+    @Test
+    public void testAlteredConfigWithTheSameThrottle() {
+        Config config = new Config(asList(
+                entry(ReplicationThrottle.LEADER_RATE, "100", ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG),
+                entry(ReplicationThrottle.FOLLOWER_RATE, "100", ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG)));
+        Map<String, String> throttle = new HashMap<>();
+        throttle.put(ReplicationThrottle.LEADER_RATE, "100");
+        throttle.put(ReplicationThrottle.FOLLOWER_RATE, "100");
+        assertNull(ReplicationThrottle.alteredConfig(BROKER, config, throttle));
+        assertNull(ReplicationThrottle.alteredConfig(BROKER, new Config(emptyList()), emptyMap()));
+    }
+
+    @Test
+    public void testAlteredConfigWithASensitiveOption() {
+        Config config = new Config(asList(
+                entry("ssl.keystore.password", null, ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG),
+                entry(ReplicationThrottle.LEADER_RATE, "100", ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG)));
+        assertNull(ReplicationThrottle.alteredConfig(BROKER, config, emptyMap()));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(VertxUnitRunner.class)
+public class SessionTest {
+
+    private static final Map<String, String> MANDATORY_CONFIG = new HashMap<>();
+
+    static {
+        MANDATORY_CONFIG.put(Config.ZOOKEEPER_CONNECT.key, "localhost:2181");
+        MANDATORY_CONFIG.put(Config.KAFKA_BOOTSTRAP_SERVERS.key, "localhost:9092");
+        MANDATORY_CONFIG.put(Config.NAMESPACE.key, "default");
+    }
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient client;
+    private Session session;
+    private MockZk mockZk;
+
+    @Before
+    public void setup(TestContext context) {
+        vertx = Vertx.vertx();
+        mockZk = new MockZk();
+        session = new Session(null, new Config(new HashMap<>(MANDATORY_CONFIG)));
+        session.init(vertx, vertx.getOrCreateContext());
+        session.zk = mockZk;
+        session.adminClient = adminClient(true);
+        client = vertx.createHttpClient();
+        server = vertx.createHttpServer()
+                .requestHandler(session::handleHealthRequest)
+                .listen(0, context.asyncAssertSuccess());
+    }
+
+    @After
+    public void teardown(TestContext context) {
+        vertx.close(context.asyncAssertSuccess());
+    }
+
+    /** An AdminClient which is connected to Kafka or not */
+    private static AdminClient adminClient(boolean connected) {
+        KafkaFutureImpl<Collection<Node>> nodes = new KafkaFutureImpl<>();
+        if (connected) {
+            nodes.complete(singletonList(new Node(0, "localhost", 9092)));
+        } else {
+            nodes.completeExceptionally(new TimeoutException("Timed out waiting for a node assignment"));
+        }
+        DescribeClusterResult result = mock(DescribeClusterResult.class);
+        when(result.nodes()).thenReturn(nodes);
+        AdminClient adminClient = mock(AdminClient.class);
+        when(adminClient.describeCluster(any())).thenReturn(result);
+        return adminClient;
+    }
+
+    private Future<Integer> status(String path) {
+        Future<Integer> result = Future.future();
+        client.getNow(server.actualPort(), "localhost", path, response -> result.complete(response.statusCode()));
+        return result;
+    }
+
+    @Test
+    public void testNotReadyUntilTheInitialReconciliationSucceeds(TestContext context) {
+        Async async = context.async();
+        session.checkHealth();
+        status("/ready").compose(ready -> {
+            context.assertEquals(503, ready);
+            session.fullReconciliationEnded(Future.failedFuture("Reconciliation failed"));
+            return status("/ready");
+        }).compose(ready -> {
+            context.assertEquals(503, ready);
+            session.fullReconciliationEnded(Future.succeededFuture());
+            return status("/ready");
+        }).compose(ready -> {
+            context.assertEquals(200, ready);
+            // A later failed reconciliation doesn't make the operator unready
+            session.fullReconciliationEnded(Future.failedFuture("Reconciliation failed"));
+            return status("/ready");
+        }).setHandler(context.asyncAssertSuccess(ready -> {
+            context.assertEquals(200, ready);
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testNotReadyWithoutZookeeperOrKafka(TestContext context) {
+        Async async = context.async();
+        session.checkHealth();
+        session.fullReconciliationEnded(Future.succeededFuture());
+        mockZk.connected = false;
+        status("/ready").compose(ready -> {
+            context.assertEquals(503, ready);
+            mockZk.connected = true;
+            session.adminClient = adminClient(false);
+            session.checkHealth();
+            return status("/ready");
+        }).compose(ready -> {
+            context.assertEquals(503, ready);
+            session.adminClient = adminClient(true);
+            session.checkHealth();
+            return status("/ready");
+        }).setHandler(context.asyncAssertSuccess(ready -> {
+            context.assertEquals(200, ready);
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testUnhealthyWhenTheEventLoopIsBlocked(TestContext context) {
+        Async async = context.async();
+        session.checkHealth();
+        status("/healthy").compose(healthy -> {
+            context.assertEquals(200, healthy);
+            // The heartbeat of the health check is late, as when the event loop is blocked
+            session.heartbeat = System.nanoTime() - TimeUnit.MINUTES.toNanos(1);
+            return status("/healthy");
+        }).compose(healthy -> {
+            context.assertEquals(503, healthy);
+            session.checkHealth();
+            return status("/healthy");
+        }).setHandler(context.asyncAssertSuccess(healthy -> {
+            context.assertEquals(200, healthy);
+            async.complete();
+        }));
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import org.I0Itec.zkclient.exception.ZkNoNodeException;
+import org.I0Itec.zkclient.exception.ZkNodeExistsException;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AlterConfigsResult;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.data.ACL;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.strimzi.operator.topic.ThrottleRegistry.brokerResource;
+import static io.strimzi.operator.topic.ThrottleRegistry.topicResource;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ThrottleRegistryTest {
+
+    /** The dynamic configuration of the brokers and topics of the mocked AdminClient */
+    private final Map<ConfigResource, Map<String, String>> dynamicConfigs = new HashMap<>();
+    private final Map<String, byte[]> znodes = new HashMap<>();
+    private AdminClient adminClient;
+    private ThrottleRegistry registry;
+
+    /** A Zk keeping the data of the znodes in memory */
+    private class DataZk extends MockZk {
+        @Override
+        public Zk create(String path, byte[] data, List<ACL> acls, CreateMode createMode, Handler<AsyncResult<Void>> handler) {
+            if (znodes.containsKey(path)) {
+                handler.handle(Future.failedFuture(new ZkNodeExistsException(path)));
+            } else {
+                znodes.put(path, data);
+                handler.handle(Future.succeededFuture());
+            }
+            return this;
+        }
+
+        @Override
+        public Zk setData(String path, byte[] data, int version, Handler<AsyncResult<Void>> handler) {
+            if (znodes.containsKey(path)) {
+                znodes.put(path, data);
+                handler.handle(Future.succeededFuture());
+            } else {
+                handler.handle(Future.failedFuture(new ZkNoNodeException(path)));
+            }
+            return this;
+        }
+
+        @Override
+        public Zk getData(String path, Handler<AsyncResult<byte[]>> handler) {
+            if (znodes.containsKey(path)) {
+                handler.handle(Future.succeededFuture(znodes.get(path)));
+            } else {
+                handler.handle(Future.failedFuture(new ZkNoNodeException(path)));
+            }
+            return this;
+        }
+    }
+
+    @Before
+    public void setup() {
+        dynamicConfigs.put(topicResource("topic-a"), new HashMap<>());
+        dynamicConfigs.put(topicResource("topic-b"), new HashMap<>());
+        for (int broker = 0; broker < 4; broker++) {
+            dynamicConfigs.put(brokerResource(broker), new HashMap<>());
+        }
+        adminClient = mock(AdminClient.class);
+        when(adminClient.describeConfigs(any())).thenAnswer(invocation -> describeConfigs(invocation.getArgument(0)));
+        when(adminClient.alterConfigs(any())).thenAnswer(invocation -> alterConfigs(invocation.getArgument(0)));
+        registry = new ThrottleRegistry(new DataZk());
+    }
+
+    private DescribeConfigsResult describeConfigs(Collection<ConfigResource> resources) {
+        Map<ConfigResource, KafkaFuture<Config>> values = new HashMap<>();
+        Map<ConfigResource, Config> all = new HashMap<>();
+        KafkaFutureImpl<Map<ConfigResource, Config>> allFuture = new KafkaFutureImpl<>();
+        for (ConfigResource resource : resources) {
+            KafkaFutureImpl<Config> future = new KafkaFutureImpl<>();
+            Map<String, String> options = dynamicConfigs.get(resource);
+            if (options == null) {
+                future.completeExceptionally(new UnknownTopicOrPartitionException(resource.name()));
+                allFuture.completeExceptionally(new UnknownTopicOrPartitionException(resource.name()));
+            } else {
+                ConfigEntry.ConfigSource source = resource.type() == ConfigResource.Type.BROKER
+                        ? ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG : ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG;
+                List<ConfigEntry> entries = new ArrayList<>();
+                options.forEach((name, value) -> entries.add(ReplicationThrottleTest.entry(name, value, source)));
+                Config config = new Config(entries);
+                future.complete(config);
+                all.put(resource, config);
+            }
+            values.put(resource, future);
+        }
+        allFuture.complete(all);
+        DescribeConfigsResult result = mock(DescribeConfigsResult.class);
+        when(result.values()).thenReturn(values);
+        when(result.all()).thenReturn(allFuture);
+        return result;
+    }
+
+    private AlterConfigsResult alterConfigs(Map<ConfigResource, Config> configs) {
+        configs.forEach((resource, config) -> {
+            Map<String, String> options = new HashMap<>();
+            for (ConfigEntry entry : config.entries()) {
+                options.put(entry.name(), entry.value());
+            }
+            dynamicConfigs.put(resource, options);
+        });
+        KafkaFutureImpl<Void> future = new KafkaFutureImpl<>();
+        future.complete(null);
+        AlterConfigsResult result = mock(AlterConfigsResult.class);
+        when(result.all()).thenReturn(future);
+        return result;
+    }
+
+    private Map<String, String> config(ConfigResource resource) {
+        return dynamicConfigs.get(resource);
+    }
+
+    private static Map<String, String> rate(long rate) {
+        Map<String, String> throttle = new HashMap<>();
+        throttle.put(ReplicationThrottle.LEADER_RATE, Long.toString(rate));
+        throttle.put(ReplicationThrottle.FOLLOWER_RATE, Long.toString(rate));
+        return throttle;
+    }
+
+    private Set<ConfigResource> recorded() {
+        return ThrottleRegistry.parse(znodes.get(ThrottleRegistry.THROTTLES_PATH));
+    }
+
+    private static Set<Integer> brokers(Integer... brokers) {
+        return new HashSet<>(asList(brokers));
+    }
+
+    @Test
+    public void testBrokerThrottle() {
+        Map<String, Long> rates = new HashMap<>();
+        assertTrue(ThrottleRegistry.brokerThrottle(rates).isEmpty());
+        rates.put("topic-a", 100L);
+        rates.put("topic-b", 200L);
+        assertEquals(rate(200L), ThrottleRegistry.brokerThrottle(rates));
+    }
+
+    @Test
+    public void testFormatAndParse() {
+        Set<ConfigResource> resources = new HashSet<>(asList(brokerResource(1), topicResource("my-topic")));
+        assertEquals(resources, ThrottleRegistry.parse(ThrottleRegistry.format(resources)));
+        assertTrue(ThrottleRegistry.parse(ThrottleRegistry.format(emptySet())).isEmpty());
+    }
+
+    @Test
+    public void testSharedBrokerRateIsKeptUntilTheLastReassignmentIsDone() throws Exception {
+        Map<String, String> throttleA = singletonMap(ReplicationThrottle.LEADER_REPLICAS, "0:0");
+        Map<String, String> throttleB = singletonMap(ReplicationThrottle.LEADER_REPLICAS, "0:1");
+        registry.apply(adminClient, "topic-a", throttleA, brokers(0, 1), 100L);
+        registry.apply(adminClient, "topic-b", throttleB, brokers(1, 2), 200L);
+        assertEquals(rate(100L), config(brokerResource(0)));
+        assertEquals(rate(200L), config(brokerResource(1)));
+        assertEquals(rate(200L), config(brokerResource(2)));
+        assertEquals(throttleA, config(topicResource("topic-a")));
+        assertEquals(throttleA, registry.topicThrottle("topic-a"));
+        assertEquals(new HashSet<>(asList(brokerResource(0), brokerResource(1), brokerResource(2),
+                topicResource("topic-a"), topicResource("topic-b"))), recorded());
+
+        // Broker 1 is still used by the reassignment of topic-b
+        registry.apply(adminClient, "topic-a", emptyMap(), emptySet(), 100L);
+        assertEquals(emptyMap(), config(brokerResource(0)));
+        assertEquals(rate(200L), config(brokerResource(1)));
+        assertEquals(emptyMap(), config(topicResource("topic-a")));
+        assertEquals(emptyMap(), registry.topicThrottle("topic-a"));
+
+        registry.apply(adminClient, "topic-b", emptyMap(), emptySet(), 200L);
+        for (int broker = 0; broker < 4; broker++) {
+            assertEquals(emptyMap(), config(brokerResource(broker)));
+        }
+        assertTrue(recorded().isEmpty());
+    }
+
+    @Test
+    public void testForeignThrottlesAreLeftAlone() throws Exception {
+        config(brokerResource(0)).putAll(rate(50L));
+        config(topicResource("topic-a")).put(ReplicationThrottle.LEADER_REPLICAS, "*");
+        config(topicResource("topic-a")).put("retention.ms", "1000");
+
+        registry.apply(adminClient, "topic-a", singletonMap(ReplicationThrottle.LEADER_REPLICAS, "0:0"), brokers(0, 1), 100L);
+        assertEquals(rate(50L), config(brokerResource(0)));
+        assertEquals(rate(100L), config(brokerResource(1)));
+        assertEquals("*", config(topicResource("topic-a")).get(ReplicationThrottle.LEADER_REPLICAS));
+        assertEquals(emptyMap(), registry.topicThrottle("topic-a"));
+        assertEquals(singleton(brokerResource(1)), recorded());
+
+        registry.apply(adminClient, "topic-a", emptyMap(), emptySet(), 100L);
+        assertEquals(rate(50L), config(brokerResource(0)));
+        assertEquals(emptyMap(), config(brokerResource(1)));
+        assertEquals("*", config(topicResource("topic-a")).get(ReplicationThrottle.LEADER_REPLICAS));
+        assertEquals("1000", config(topicResource("topic-a")).get("retention.ms"));
+    }
+
+    @Test
+    public void testClearRecordedRemovesOnlyTheRecordedThrottles() throws Exception {
+        config(brokerResource(1)).putAll(rate(100L));
+        config(brokerResource(1)).put("log.cleaner.threads", "2");
+        config(brokerResource(2)).putAll(rate(70L));
+        config(topicResource("topic-a")).put(ReplicationThrottle.LEADER_REPLICAS, "0:1");
+        config(topicResource("topic-a")).put("retention.ms", "1000");
+        znodes.put(ThrottleRegistry.THROTTLES_PATH, ThrottleRegistry.format(asList(
+                brokerResource(1), topicResource("topic-a"), topicResource("deleted-topic"))));
+
+        registry.clearRecorded(adminClient);
+        assertEquals(singletonMap("log.cleaner.threads", "2"), config(brokerResource(1)));
+        assertEquals(rate(70L), config(brokerResource(2)));
+        assertEquals(singletonMap("retention.ms", "1000"), config(topicResource("topic-a")));
+        assertTrue(recorded().isEmpty());
+    }
+
+    @Test
+    public void testClearRecordedWithoutRecord() throws Exception {
+        config(brokerResource(2)).putAll(rate(70L));
+        registry.clearRecorded(adminClient);
+        assertEquals(rate(70L), config(brokerResource(2)));
+        assertFalse(znodes.containsKey(ThrottleRegistry.THROTTLES_PATH));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TopicConfigMapTest {
+
+    private static Map<String, String> config(String... keysAndValues) {
+        Map<String, String> config = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            config.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return config;
+    }
+
+    @Test
+    public void testMap() {
+        Map<String, String> config = config("retention.ms", "1000", "cleanup.policy", "compact", "segment.bytes", "1024");
+        TopicConfigMap map = TopicConfigMap.of(config);
+
+        assertEquals(config, map);
+        assertEquals(map, config);
+        assertEquals(config.hashCode(), map.hashCode());
+        assertEquals("compact", map.get("cleanup.policy"));
+        assertNull(map.get("foo"));
+        assertTrue(map.containsKey("segment.bytes"));
+        assertFalse(map.containsKey(1));
+        // The keys are in order
+        assertEquals(asList("cleanup.policy", "retention.ms", "segment.bytes"), new ArrayList<>(map.keySet()));
+        assertSame(map, TopicConfigMap.of(map));
+        assertSame(TopicConfigMap.EMPTY, TopicConfigMap.of(emptyMap()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        TopicConfigMap.of(config("retention.ms", "1000")).put("cleanup.policy", "compact");
+    }
+
+    @Test
+    public void testKeysAndValuesAreShared() {
+        TopicConfigMap a = TopicConfigMap.of(config(new String("cleanup.policy"), new String("compact")));
+        TopicConfigMap b = TopicConfigMap.of(config(new String("cleanup.policy"), new String("compact")));
+        assertSame(a.keySet().iterator().next(), b.keySet().iterator().next());
+        assertSame(a.get("cleanup.policy"), b.get("cleanup.policy"));
+    }
+
+    @Test
+    public void testDiff() {
+        TopicConfigMap source = TopicConfigMap.of(config("a", "1", "b", "2", "c", "3", "e", "5"));
+        TopicConfigMap target = TopicConfigMap.of(config("b", "2", "c", "4", "d", "4", "f", null));
+        List<String> differences = new ArrayList<>();
+        TopicConfigMap.diff(source, target, new TopicConfigMap.DifferenceVisitor() {
+            @Override
+            public void removed(String key) {
+                differences.add("-" + key);
+            }
+
+            @Override
+            public void changed(String key, String targetValue) {
+                differences.add(key + "=" + targetValue);
+            }
+        });
+        assertEquals(asList("-a", "c=4", "d=4", "-e", "f=null"), differences);
+    }
+}
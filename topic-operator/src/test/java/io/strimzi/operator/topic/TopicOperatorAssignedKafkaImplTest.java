@@ -10,17 +10,34 @@ import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.ClusterAuthorizationException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(VertxUnitRunner.class)
 public class TopicOperatorAssignedKafkaImplTest {
@@ -96,7 +113,7 @@ public class TopicOperatorAssignedKafkaImplTest {
         }
 
         public Subclass(AdminClient adminClient, Vertx vertx, Config config, String script, List<List<String>> args) {
-            super(adminClient, vertx, config);
+            super(adminClient, vertx, config, new MockZk());
             this.script = script;
             this.args = args;
         }
@@ -224,6 +241,45 @@ public class TopicOperatorAssignedKafkaImplTest {
         });
     }
 
+    /**
+     * Test the case where the reassignment takes longer than the timeout.
+     * We should fail the handler, but keep verifying the reassignment until it completes.
+     */
+    @Test
+    public void changeReplicationFactor_VerifyTimeout(TestContext context) {
+        Map<String, String> map = new HashMap<>();
+        map.put(Config.ZOOKEEPER_CONNECT.key, "localhost:2181");
+        map.put(Config.KAFKA_BOOTSTRAP_SERVERS.key, "localhost:9092");
+        map.put(Config.NAMESPACE.key, "default");
+        map.put(Config.REASSIGN_VERIFY_INTERVAL_MS.key, "1000");
+        map.put(Config.REASSIGN_VERIFY_TIMEOUT_MS.key, "1500");
+        MockAdminClient adminClient = new MockAdminClient();
+        Vertx vertx = Vertx.vertx();
+        Topic topic = new Topic.Builder("changeReplicationFactor", 2, (short) 2, emptyMap()).build();
+        String[] partitions = new String[]{"changeReplicationFactor-0", "changeReplicationFactor-1"};
+        Subclass sub = new Subclass(adminClient, vertx, new Config(map), asList(
+                Subclass.generate("{\"version\":1,\"partitions\":[{\"topic\":\"test-topic\",\"partition\":0,\"replicas\":[0],\"log_dirs\":[\"any\"]},{\"topic\":\"test-topic\",\"partition\":1,\"replicas\":[0],\"log_dirs\":[\"any\"]}]}",
+                        "{\"version\":1,\"partitions\":[{\"topic\":\"test-topic\",\"partition\":0,\"replicas\":[0],\"log_dirs\":[\"any\"]},{\"topic\":\"test-topic\",\"partition\":1,\"replicas\":[0],\"log_dirs\":[\"any\"]}]}"),
+                Subclass.executeStarted(),
+                Subclass.verifyInProgress(partitions),
+                Subclass.verifyInProgress(partitions),
+                Subclass.verifyInProgress(partitions),
+                Subclass.verifySuccess(partitions)));
+        Async failed = context.async();
+        Async verified = context.async();
+        sub.changeReplicationFactor(topic, ar -> {
+            context.assertFalse(ar.succeeded());
+            context.assertEquals("Timeout", ar.cause().getMessage());
+            failed.complete();
+            vertx.setPeriodic(100, timerId -> {
+                if (sub.i == 6) {
+                    vertx.cancelTimer(timerId);
+                    verified.complete();
+                }
+            });
+        });
+    }
+
     /**
      * Test the case where the --gexecute execution fails because a reassignment is currently running.
      * We should give up and fail the handler, on the basis that we will retry later as a result of
@@ -275,4 +331,85 @@ public class TopicOperatorAssignedKafkaImplTest {
         });
     }
 
+    /**
+     * An AdminClient describing the given topics, whose description and config fail with the given errors.
+     */
+    private static AdminClient describingAdminClient(Map<String, Throwable> errors) {
+        AdminClient adminClient = mock(AdminClient.class);
+        when(adminClient.describeTopics(any(Collection.class))).thenAnswer(invocation -> {
+            Map<String, KafkaFuture<TopicDescription>> values = new HashMap<>();
+            for (String name : (Collection<String>) invocation.getArgument(0)) {
+                KafkaFutureImpl<TopicDescription> future = new KafkaFutureImpl<>();
+                if (errors.containsKey(name)) {
+                    future.completeExceptionally(errors.get(name));
+                } else {
+                    future.complete(new TopicDescription(name, false, emptyList()));
+                }
+                values.put(name, future);
+            }
+            DescribeTopicsResult result = mock(DescribeTopicsResult.class);
+            when(result.values()).thenReturn(values);
+            return result;
+        });
+        when(adminClient.describeConfigs(any(Collection.class))).thenAnswer(invocation -> {
+            Map<ConfigResource, KafkaFuture<org.apache.kafka.clients.admin.Config>> values = new HashMap<>();
+            for (ConfigResource resource : (Collection<ConfigResource>) invocation.getArgument(0)) {
+                KafkaFutureImpl<org.apache.kafka.clients.admin.Config> future = new KafkaFutureImpl<>();
+                if (errors.containsKey(resource.name())) {
+                    future.completeExceptionally(errors.get(resource.name()));
+                } else {
+                    future.complete(new org.apache.kafka.clients.admin.Config(emptyList()));
+                }
+                values.put(resource, future);
+            }
+            DescribeConfigsResult result = mock(DescribeConfigsResult.class);
+            when(result.values()).thenReturn(values);
+            return result;
+        });
+        return adminClient;
+    }
+
+    @Test
+    public void topicsMetadata_DeletedTopicIsSkipped(TestContext context) {
+        Vertx vertx = Vertx.vertx();
+        OperatorAssignedKafkaImpl kafka = new OperatorAssignedKafkaImpl(
+                describingAdminClient(Collections.singletonMap("deleted-topic", new UnknownTopicOrPartitionException("deleted-topic"))),
+                vertx, config, new MockZk());
+        Set<TopicName> topicNames = new HashSet<>(asList(new TopicName("my-topic"), new TopicName("deleted-topic")));
+        Async async = context.async();
+        kafka.topicsMetadata(topicNames, ar -> {
+            context.assertTrue(ar.succeeded());
+            context.assertEquals(Collections.singleton(new TopicName("my-topic")), ar.result().keySet());
+            context.assertEquals("my-topic", ar.result().get(new TopicName("my-topic")).getDescription().name());
+            vertx.close();
+            async.complete();
+        });
+    }
+
+    @Test
+    public void topicsMetadata_OtherErrorFails(TestContext context) {
+        Vertx vertx = Vertx.vertx();
+        OperatorAssignedKafkaImpl kafka = new OperatorAssignedKafkaImpl(
+                describingAdminClient(Collections.singletonMap("denied-topic", new ClusterAuthorizationException("Denied"))),
+                vertx, config, new MockZk());
+        Set<TopicName> topicNames = new HashSet<>(asList(new TopicName("my-topic"), new TopicName("denied-topic")));
+        Async async = context.async();
+        kafka.topicsMetadata(topicNames, ar -> {
+            context.assertTrue(ar.failed());
+            context.assertTrue(ar.cause() instanceof ClusterAuthorizationException);
+            vertx.close();
+            async.complete();
+        });
+    }
+
+    @Test
+    public void proposedReplicas() throws Exception {
+        Map<Integer, List<Integer>> proposed = OperatorAssignedKafkaImpl.proposedReplicas("test-topic",
+                "{\"version\":1,\"partitions\":[{\"topic\":\"test-topic\",\"partition\":0,\"replicas\":[0,2],\"log_dirs\":[\"any\",\"any\"]},"
+                + "{\"topic\":\"other-topic\",\"partition\":0,\"replicas\":[1]},{\"topic\":\"test-topic\",\"partition\":1,\"replicas\":[1,0]}]}");
+        Map<Integer, List<Integer>> expected = new HashMap<>();
+        expected.put(0, asList(0, 2));
+        expected.put(1, asList(1, 0));
+        assertEquals(expected, proposed);
+    }
 }
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.api.kafka.model.KafkaTopic;
+import io.strimzi.api.kafka.model.KafkaTopicBuilder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <p>Scale test of the {@link TopicOperator} with thousands of topics, using the mock Kafka, Kubernetes,
+ * ZooKeeper and topic store with injected latencies. It goes through:</p>
+ * <ol>
+ *     <li>the startup: the ZooKeeper watches are set up and the initial reconciliation creates the private topic store,</li>
+ *     <li>a periodic reconciliation with nothing to do,</li>
+ *     <li>a burst of KafkaTopic watch events changing the config of every topic,</li>
+ *     <li>a burst of ZooKeeper watch events for newly created topics.</li>
+ * </ol>
+ * <p>For each of them it reports the throughput, the latency percentiles, the time the event loop was blocked
+ * and the heap used afterwards.</p>
+ *
+ * <p>It isn't run as part of the normal build, run it with the {@code scale-test} profile:
+ * {@code mvn test -pl topic-operator -Pscale-test -Dscale.topics=50000}.
+ * See the profile for the other properties.</p>
+ */
+public class TopicOperatorScaleHarness {
+
+    private static final int TOPICS = Integer.getInteger("scale.topics", 10_000);
+    private static final int NEW_TOPICS = Integer.getInteger("scale.new.topics", TOPICS / 10);
+    private static final int PARTITIONS = Integer.getInteger("scale.partitions", 12);
+    private static final long KAFKA_LATENCY_MS = Long.getLong("scale.kafka.latency.ms", 1);
+    private static final long K8S_LATENCY_MS = Long.getLong("scale.k8s.latency.ms", 2);
+    private static final long ZK_LATENCY_MS = Long.getLong("scale.zk.latency.ms", 1);
+    private static final long TIMEOUT_MS = Long.getLong("scale.timeout.ms", 600_000);
+    private static final long PROBE_INTERVAL_MS = 10;
+
+    private static final Map<String, String> MANDATORY_CONFIG = new HashMap<>();
+
+    static {
+        MANDATORY_CONFIG.put(Config.ZOOKEEPER_CONNECT.key, "localhost:2181");
+        MANDATORY_CONFIG.put(Config.KAFKA_BOOTSTRAP_SERVERS.key, "localhost:9092");
+        MANDATORY_CONFIG.put(Config.NAMESPACE.key, "default");
+    }
+
+    private final LabelPredicate resourcePredicate = LabelPredicate.fromString("app=strimzi");
+
+    private Vertx vertx;
+    private Context context;
+    private MockKafka mockKafka;
+    private MockK8s mockK8s;
+    private MockTopicStore mockTopicStore;
+    private MockZk mockZk;
+    private TimedTopicOperator topicOperator;
+    private ZkTopicsWatcher topicsWatcher;
+    private final AtomicInteger resourcesCreated = new AtomicInteger();
+
+    /**
+     * Records the latencies of the events of a phase and completes when all the expected events were recorded.
+     */
+    static class Latencies {
+        private final long[] nanos;
+        private final Future<Void> done = Future.future();
+        private int count;
+        private int failed;
+
+        Latencies(int expected) {
+            this.nanos = new long[expected];
+            if (expected == 0) {
+                done.complete();
+            }
+        }
+
+        synchronized void record(long startNanos, boolean succeeded) {
+            if (count < nanos.length) {
+                nanos[count++] = System.nanoTime() - startNanos;
+                if (!succeeded) {
+                    failed++;
+                }
+                if (count == nanos.length) {
+                    done.tryComplete();
+                }
+            }
+        }
+
+        Future<Void> done() {
+            return done;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized int failed() {
+            return failed;
+        }
+
+        synchronized double percentileMs(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            int index = Math.max(0, (int) Math.ceil(percentile / 100 * count) - 1);
+            return sorted[index] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Measures how long the event loop is blocked, by how late a periodic timer fires.
+     */
+    static class EventLoopProbe implements Handler<Long> {
+        private long last = System.nanoTime();
+        private long blockedNanos;
+        private long maxBlockedNanos;
+
+        @Override
+        public void handle(Long timerId) {
+            long now = System.nanoTime();
+            long late = now - last - TimeUnit.MILLISECONDS.toNanos(PROBE_INTERVAL_MS);
+            if (late > 0) {
+                blockedNanos += late;
+                maxBlockedNanos = Math.max(maxBlockedNanos, late);
+            }
+            last = now;
+        }
+
+        void reset() {
+            last = System.nanoTime();
+            blockedNanos = 0;
+            maxBlockedNanos = 0;
+        }
+    }
+
+    /**
+     * A TopicOperator recording the latencies of the reconciliations and of the handling of the ZooKeeper events.
+     */
+    class TimedTopicOperator extends TopicOperator {
+        private volatile Latencies latencies = new Latencies(0);
+
+        TimedTopicOperator() {
+            super(vertx, mockKafka, mockK8s, mockTopicStore, resourcePredicate, "default-namespace",
+                    new Config(new HashMap<>(MANDATORY_CONFIG)));
+        }
+
+        @Override
+        Future<Void> reconcile(KafkaTopic topicResource, TopicName topicName) {
+            long start = System.nanoTime();
+            Latencies latencies = this.latencies;
+            Future<Void> result = Future.future();
+            super.reconcile(topicResource, topicName).setHandler(ar -> {
+                latencies.record(start, ar.succeeded());
+                result.handle(ar);
+            });
+            return result;
+        }
+
+        @Override
+        void onTopicCreated(TopicName topicName, Handler<AsyncResult<Void>> resultHandler) {
+            long start = System.nanoTime();
+            Latencies latencies = this.latencies;
+            super.onTopicCreated(topicName, ar -> {
+                latencies.record(start, ar.succeeded());
+                resultHandler.handle(ar);
+            });
+        }
+    }
+
+    @Before
+    public void setup() throws InterruptedException {
+        vertx = Vertx.vertx();
+        context = vertx.getOrCreateContext();
+
+        mockKafka = new MockKafka();
+        mockKafka.setCreateTopicResponse(name -> Future.succeededFuture())
+                .setDeleteTopicResponse(name -> Future.succeededFuture())
+                .setUpdateTopicResponse(name -> Future.succeededFuture())
+                .setTopicMetadataResponse(name -> {
+                    Topic topic = mockKafka.getTopicState(name);
+                    return Future.succeededFuture(topic != null ? Utils.getTopicMetadata(topic) : null);
+                });
+        mockK8s = new MockK8s();
+        mockK8s.setCreateResponse(name -> {
+            resourcesCreated.incrementAndGet();
+            return Future.succeededFuture();
+        }).setModifyResponse(name -> Future.succeededFuture())
+                .setDeleteResponse(name -> Future.succeededFuture());
+        mockTopicStore = new MockTopicStore();
+        mockTopicStore.setCreateTopicResponse(name -> Future.succeededFuture())
+                .setDeleteTopicResponse(name -> Future.succeededFuture());
+        mockZk = new MockZk();
+        mockZk.createResult = Future.succeededFuture();
+        mockZk.setDataResult = Future.succeededFuture();
+        mockZk.dataResult = Future.succeededFuture(new byte[0]);
+
+        topicOperator = new TimedTopicOperator();
+        topicsWatcher = new ZkTopicsWatcher(topicOperator, new TopicConfigsWatcher(topicOperator), new ZkTopicWatcher(topicOperator));
+
+        onContext(() -> {
+            for (int i = 0; i < TOPICS; i++) {
+                Topic topic = topic("topic-" + i);
+                mockKafka.createTopic(topic, ar -> { });
+                mockK8s.createResource(TopicSerialization.toTopicResource(topic, resourcePredicate), ar -> { });
+            }
+            mockKafka.setTopicsList(topicNames(0, TOPICS));
+            mockZk.childrenResult = Future.succeededFuture(new ArrayList<>(topicNames(0, TOPICS)));
+        });
+        resourcesCreated.set(0);
+
+        mockKafka.setLatency(new MockLatency(vertx, KAFKA_LATENCY_MS));
+        mockK8s.setLatency(new MockLatency(vertx, K8S_LATENCY_MS));
+        mockTopicStore.setLatency(new MockLatency(vertx, ZK_LATENCY_MS));
+        mockZk.latency = new MockLatency(vertx, ZK_LATENCY_MS);
+    }
+
+    @After
+    public void teardown() {
+        topicsWatcher.stop();
+        vertx.close();
+    }
+
+    private Topic topic(String name) {
+        Map<String, String> config = new HashMap<>();
+        config.put("retention.ms", "604800000");
+        config.put("cleanup.policy", "delete");
+        return new Topic.Builder(name, PARTITIONS, (short) 3, config).build();
+    }
+
+    private static Set<String> topicNames(int from, int to) {
+        Set<String> names = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            names.add("topic-" + i);
+        }
+        return names;
+    }
+
+    /**
+     * Runs the given code on the context of the operator and waits for it.
+     */
+    private void onContext(Runnable runnable) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        context.runOnContext(v -> {
+            try {
+                runnable.run();
+            } finally {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Runs a phase of the test on the context of the operator, waits for it to complete and reports its measurements.
+     */
+    private void phase(String name, Latencies latencies, Handler<Future<Void>> action) throws InterruptedException {
+        topicOperator.latencies = latencies;
+        EventLoopProbe probe = new EventLoopProbe();
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        context.runOnContext(v -> {
+            probe.reset();
+            long probeTimer = vertx.setPeriodic(PROBE_INTERVAL_MS, probe);
+            Future<Void> result = Future.future();
+            result.setHandler(ar -> {
+                vertx.cancelTimer(probeTimer);
+                if (ar.failed()) {
+                    failure.set(ar.cause());
+                }
+                latch.countDown();
+            });
+            action.handle(result);
+        });
+        if (!latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            fail(name + " didn't complete within " + TIMEOUT_MS + "ms, " + latencies.count() + " events completed");
+        }
+        double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+        long heapMb = usedHeapMb();
+        System.out.printf("%s: %d events in %.0f ms (%.1f events/s), %d failed%n",
+                name, latencies.count(), elapsedMs, latencies.count() * 1000 / elapsedMs, latencies.failed());
+        System.out.printf("%s: latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                name, latencies.percentileMs(50), latencies.percentileMs(99), latencies.percentileMs(100));
+        System.out.printf("%s: event loop blocked %d ms in total, %d ms at most; heap used %d MB%n",
+                name, TimeUnit.NANOSECONDS.toMillis(probe.blockedNanos), TimeUnit.NANOSECONDS.toMillis(probe.maxBlockedNanos), heapMb);
+        if (failure.get() != null) {
+            throw new AssertionError(name + " failed", failure.get());
+        }
+    }
+
+    private static long usedHeapMb() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+
+    @Test
+    public void scale() throws InterruptedException {
+        System.out.printf("Scale test with %d topics (%d partitions each), %d new topics, latencies: Kafka %dms, Kubernetes %dms, ZooKeeper %dms; heap used %d MB%n",
+                TOPICS, PARTITIONS, NEW_TOPICS, KAFKA_LATENCY_MS, K8S_LATENCY_MS, ZK_LATENCY_MS, usedHeapMb());
+
+        phase("startup", new Latencies(TOPICS), result -> {
+            topicsWatcher.start(mockZk);
+            topicOperator.reconcileAllTopics("initial").setHandler(ar -> complete(result, ar));
+        });
+
+        phase("periodic reconciliation", new Latencies(TOPICS), result ->
+            topicOperator.reconcileAllTopics("periodic").setHandler(ar -> complete(result, ar)));
+
+        Latencies modified = new Latencies(TOPICS);
+        phase("KafkaTopic watch burst", modified, result -> {
+            for (int i = 0; i < TOPICS; i++) {
+                Topic topic = new Topic.Builder(topic("topic-" + i)).withConfigEntry("retention.ms", "3600000").build();
+                KafkaTopic resource = new KafkaTopicBuilder(TopicSerialization.toTopicResource(topic, resourcePredicate)).build();
+                long start = System.nanoTime();
+                topicOperator.onResourceModified(resource, ar -> modified.record(start, ar.succeeded()));
+            }
+            modified.done().setHandler(result);
+        });
+
+        onContext(() -> {
+            mockKafka.setLatency(MockLatency.NONE);
+            for (int i = TOPICS; i < TOPICS + NEW_TOPICS; i++) {
+                mockKafka.createTopic(topic("topic-" + i), ar -> { });
+            }
+            mockKafka.setLatency(new MockLatency(vertx, KAFKA_LATENCY_MS));
+        });
+        Latencies created = new Latencies(NEW_TOPICS);
+        phase("ZooKeeper watch burst", created, result -> {
+            List<String> children = new ArrayList<>(topicNames(0, TOPICS + NEW_TOPICS));
+            mockZk.triggerChildren(Future.succeededFuture(children));
+            created.done().setHandler(result);
+        });
+        assertTrue("Expected " + NEW_TOPICS + " KafkaTopics to be created, but were " + resourcesCreated.get(),
+                resourcesCreated.get() == NEW_TOPICS);
+    }
+
+    private static void complete(Future<Void> result, AsyncResult<?> ar) {
+        if (ar.succeeded()) {
+            result.complete();
+        } else {
+            result.fail(ar.cause());
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 
 @RunWith(VertxUnitRunner.class)
@@ -855,6 +856,53 @@ public class TopicOperatorTest {
         }));
     }
 
+    @Test
+    public void testReconcileAllTopics_skipsTopicsInSync(TestContext context) {
+        TopicMetadata topicMetadata = Utils.getTopicMetadata(topicName.toString(),
+                new org.apache.kafka.clients.admin.Config(Collections.emptyList()));
+        Topic kafkaTopic = TopicSerialization.fromTopicMetadata(topicMetadata);
+        metadata.setResourceVersion("1");
+        KafkaTopic resource = new KafkaTopicBuilder()
+                .withMetadata(metadata)
+                .withNewSpec()
+                    .withReplicas(3)
+                    .withPartitions(2)
+                .endSpec()
+            .build();
+        mockKafka.setTopicsList(singleton(topicName.toString()));
+        mockKafka.setTopicMetadataResponse(topicName, topicMetadata, null);
+        mockK8s.setGetFromNameResponse(resourceName, Future.succeededFuture(resource));
+        mockK8s.setListMapsResult(() -> Future.succeededFuture(singletonList(resource)));
+        mockTopicStore.setCreateTopicResponse(topicName, null);
+        mockTopicStore.create(TopicSerialization.fromTopicResource(resource), ignored -> { });
+
+        Async async = context.async();
+        topicOperator.reconcileAllTopics("periodic").setHandler(ar -> {
+            assertSucceeded(context, ar);
+            // All three are identical
+            ReconciliationSnapshot snapshot = topicOperator.snapshot();
+            context.assertTrue(snapshot.isUnchanged(topicName, "1", kafkaTopic));
+
+            // A restarted operator doesn't even get the KafkaTopic
+            mockK8s.setGetFromNameResponse(resourceName, Future.failedFuture(new RuntimeException("some failure")));
+            TopicOperator restarted = new TopicOperator(vertx, mockKafka, mockK8s, mockTopicStore, resourcePredicate, "default-namespace", config);
+            restarted.reconcileAllTopics("initial", snapshot).setHandler(ar2 -> {
+                assertSucceeded(context, ar2);
+                context.assertTrue(restarted.snapshot().isUnchanged(topicName, "1", kafkaTopic));
+
+                // Unless the KafkaTopic has changed
+                KafkaTopic modified = new KafkaTopicBuilder(resource)
+                        .withMetadata(new ObjectMetaBuilder(metadata).withResourceVersion("2").build()).build();
+                mockK8s.setListMapsResult(() -> Future.succeededFuture(singletonList(modified)));
+                new TopicOperator(vertx, mockKafka, mockK8s, mockTopicStore, resourcePredicate, "default-namespace", config)
+                        .reconcileAllTopics("initial", snapshot).setHandler(ar3 -> {
+                            assertFailed(context, ar3);
+                            async.complete();
+                        });
+            });
+        });
+    }
+
     // TODO tests for nasty races (e.g. create on both ends, update on one end and delete on the other)
     // I think in these cases we should seek to detect the concurrent modification
     // and perform a full reconciliation, possibly after a backoff time
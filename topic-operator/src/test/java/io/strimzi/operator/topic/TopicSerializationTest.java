@@ -29,6 +29,7 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class TopicSerializationTest {
@@ -85,6 +86,33 @@ public class TopicSerializationTest {
     }
 
 
+    @Test
+    public void testJsonWithUnknownFields() throws UnsupportedEncodingException {
+        byte[] json = ("{\"uid\":{\"a\":[1,2]},\"map-name\":\"bob\",\"topic-name\":\"tom\"," +
+                "\"partitions\":2,\"replicas\":1,\"config\":{\"foo\":\"bar\"}}").getBytes("UTF-8");
+        Topic readTopic = TopicSerialization.fromJson(json);
+        assertEquals(new TopicName("tom"), readTopic.getTopicName());
+        assertEquals(singletonMap("foo", "bar"), readTopic.getConfig());
+    }
+
+    @Test
+    public void testBinarySerializationRoundTrip() {
+        Topic wroteTopic = new Topic.Builder()
+                .withTopicName("tom")
+                .withMapName("bob")
+                .withNumReplicas((short) 3)
+                .withNumPartitions(12)
+                .withConfigEntry("foo", "bar")
+                .withConfigEntry("cleanup.policy", "compact")
+                .build();
+        byte[] bytes = TopicSerialization.toBinary(wroteTopic);
+        assertTrue(bytes.length < TopicSerialization.toJson(wroteTopic).length);
+        assertEquals(wroteTopic, TopicSerialization.fromBinary(bytes));
+        // The store reads both encodings
+        assertEquals(wroteTopic, TopicSerialization.fromZkData(bytes));
+        assertEquals(wroteTopic, TopicSerialization.fromZkData(TopicSerialization.toJson(wroteTopic)));
+    }
+
     @Test
     public void testToNewTopic() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         Topic topic = new Topic.Builder()
@@ -131,13 +159,18 @@ public class TopicSerializationTest {
     public void testFromTopicMetadata() {
         List<ConfigEntry> entries = new ArrayList<>();
         entries.add(new ConfigEntry("foo", "bar"));
+        // The throttled replicas can be declared by the KafkaTopic
+        entries.add(new ConfigEntry(ReplicationThrottle.LEADER_REPLICAS, "0:1,1:2"));
         Config topicConfig = new Config(entries);
         TopicMetadata meta = Utils.getTopicMetadata("test-topic", topicConfig);
         Topic topic = TopicSerialization.fromTopicMetadata(meta);
         assertEquals(new TopicName("test-topic"), topic.getTopicName());
         // Null map name because Kafka doesn't know about the map
         assertNull(topic.getResourceName());
-        assertEquals(singletonMap("foo", "bar"), topic.getConfig());
+        Map<String, String> expectedConfig = new HashMap<>();
+        expectedConfig.put("foo", "bar");
+        expectedConfig.put(ReplicationThrottle.LEADER_REPLICAS, "0:1,1:2");
+        assertEquals(expectedConfig, topic.getConfig());
         assertEquals(2, topic.getNumPartitions());
         assertEquals(3, topic.getNumReplicas());
     }
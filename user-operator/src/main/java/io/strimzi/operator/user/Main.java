@@ -10,7 +10,10 @@ import io.strimzi.api.kafka.Crds;
 import io.strimzi.api.kafka.model.DoneableKafkaUser;
 import io.strimzi.api.kafka.KafkaUserList;
 import io.strimzi.api.kafka.model.KafkaUser;
+import io.strimzi.certs.CertManager;
 import io.strimzi.certs.OpenSslCertManager;
+import io.strimzi.certs.PooledKeyCertManager;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
@@ -41,7 +44,7 @@ public class Main {
     public static void main(String[] args) {
         log.info("UserOperator {} is starting", Main.class.getPackage().getImplementationVersion());
         UserOperatorConfig config = UserOperatorConfig.fromMap(System.getenv());
-        Vertx vertx = Vertx.vertx();
+        Vertx vertx = Vertx.vertx(OperatorMetrics.vertxOptions());
         KubernetesClient client = new DefaultKubernetesClient();
         SimpleAclAuthorizer authorizer = createSimpleAclAuthorizer(config);
 
@@ -55,7 +58,7 @@ public class Main {
 
     static Future<String> run(Vertx vertx, KubernetesClient client, SimpleAclAuthorizer authorizer, UserOperatorConfig config) {
         printEnvInfo();
-        OpenSslCertManager certManager = new OpenSslCertManager();
+        CertManager certManager = createCertManager(config);
         SecretOperator secretOperations = new SecretOperator(vertx, client);
         CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperations = new CrdOperator<>(vertx, client, KafkaUser.class, KafkaUserList.class, DoneableKafkaUser.class);
         SimpleAclOperator aclOperations = new SimpleAclOperator(vertx, authorizer);
@@ -84,6 +87,24 @@ public class Main {
         return fut;
     }
 
+    private static CertManager createCertManager(UserOperatorConfig config) {
+        OpenSslCertManager certManager = new OpenSslCertManager();
+        if (config.getKeyPoolSize() > 0) {
+            log.info("Using a pool of {} pre-generated keys for user certificates", config.getKeyPoolSize());
+            PooledKeyCertManager pooledCertManager = new PooledKeyCertManager(certManager, config.getKeyPoolSize());
+            pooledCertManager.start();
+            OperatorMetrics.counter("key.pool.hits", "Certificates issued with a pre-generated key",
+                    pooledCertManager, PooledKeyCertManager::hits);
+            OperatorMetrics.counter("key.pool.misses", "Certificates issued with a key generated on demand because the key pool was empty",
+                    pooledCertManager, PooledKeyCertManager::misses);
+            OperatorMetrics.gauge("key.pool.size", "Pre-generated keys available in the key pool",
+                    pooledCertManager, PooledKeyCertManager::size);
+            return pooledCertManager;
+        } else {
+            return certManager;
+        }
+    }
+
     private static SimpleAclAuthorizer createSimpleAclAuthorizer(UserOperatorConfig config) {
         log.debug("Creating SimpleAclAuthorizer for Zookeeper {}", config.getZookeperConnect());
         Map authorizerConfig = new HashMap<String, Object>();
@@ -8,6 +8,7 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
 
@@ -119,6 +120,8 @@ public class UserOperator extends AbstractVerticle {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
                         request.response().setStatusCode(200).end();
+                    } else if (request.path().equals(OperatorMetrics.METRICS_PATH)) {
+                        OperatorMetrics.handleRequest(request);
                     }
                 })
                 .listen(HEALTH_SERVER_PORT, ar -> {
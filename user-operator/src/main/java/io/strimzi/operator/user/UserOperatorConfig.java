@@ -22,10 +22,12 @@ public class UserOperatorConfig {
     public static final String STRIMZI_CA_NAMESPACE = "STRIMZI_CA_NAMESPACE";
     public static final String STRIMZI_ZOOKEEPER_CONNECT = "STRIMZI_ZOOKEEPER_CONNECT";
     public static final String STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS = "STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS";
+    public static final String STRIMZI_KEY_POOL_SIZE = "STRIMZI_KEY_POOL_SIZE";
 
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final String DEFAULT_ZOOKEEPER_CONNECT = "localhost:2181";
     public static final long DEFAULT_ZOOKEEPER_SESSION_TIMEOUT_MS = 6_000;
+    public static final int DEFAULT_KEY_POOL_SIZE = 0;
 
     private final String namespace;
     private final long reconciliationIntervalMs;
@@ -35,6 +37,7 @@ public class UserOperatorConfig {
     private final String caCertSecretName;
     private final String caKeySecretName;
     private final String caNamespace;
+    private final int keyPoolSize;
 
     /**
      * Constructor
@@ -46,8 +49,9 @@ public class UserOperatorConfig {
      * @param labels    Map with labels which should be used to find the KafkaUser resources
      * @param caCertSecretName    Name of the secret containing the Certification Authority
      * @param caNamespace   Namespace with the CA secret
+     * @param keyPoolSize   Number of pre-generated private keys used for issuing user certificates (0 disables the pool)
      */
-    public UserOperatorConfig(String namespace, long reconciliationIntervalMs, String zookeperConnect, long zookeeperSessionTimeoutMs, Labels labels, String caCertSecretName, String caKeySecretName, String caNamespace) {
+    public UserOperatorConfig(String namespace, long reconciliationIntervalMs, String zookeperConnect, long zookeeperSessionTimeoutMs, Labels labels, String caCertSecretName, String caKeySecretName, String caNamespace, int keyPoolSize) {
         this.namespace = namespace;
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.zookeperConnect = zookeperConnect;
@@ -56,6 +60,7 @@ public class UserOperatorConfig {
         this.caCertSecretName = caCertSecretName;
         this.caKeySecretName = caKeySecretName;
         this.caNamespace = caNamespace;
+        this.keyPoolSize = keyPoolSize;
     }
 
     /**
@@ -112,7 +117,16 @@ public class UserOperatorConfig {
             caNamespace = namespace;
         }
 
-        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace);
+        int keyPoolSize = DEFAULT_KEY_POOL_SIZE;
+        String keyPoolSizeEnvVar = map.get(UserOperatorConfig.STRIMZI_KEY_POOL_SIZE);
+        if (keyPoolSizeEnvVar != null && !keyPoolSizeEnvVar.isEmpty()) {
+            keyPoolSize = Integer.parseInt(keyPoolSizeEnvVar);
+            if (keyPoolSize < 0) {
+                throw new InvalidConfigurationException(UserOperatorConfig.STRIMZI_KEY_POOL_SIZE + " cannot be negative");
+            }
+        }
+
+        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace, keyPoolSize);
     }
 
     /**
@@ -171,6 +185,13 @@ public class UserOperatorConfig {
         return zookeeperSessionTimeoutMs;
     }
 
+    /**
+     * @return  Number of pre-generated private keys used for issuing user certificates
+     */
+    public int getKeyPoolSize() {
+        return keyPoolSize;
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -181,6 +202,7 @@ public class UserOperatorConfig {
                 ",labels=" + labels +
                 ",caName=" + caCertSecretName +
                 ",caNamespace=" + caNamespace +
+                ",keyPoolSize=" + keyPoolSize +
                 ")";
     }
 }
@@ -31,13 +31,17 @@ import io.vertx.core.shareddata.Lock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -58,6 +62,8 @@ public class KafkaUserOperator {
     private final String caKeyName;
     private final String caNamespace;
     private final ScramShaCredentialsOperator scramShaCredentialOperator;
+    // The resourceVersion of the last event received by the watch in each namespace
+    private final Map<String, String> watchResourceVersions = new ConcurrentHashMap<>();
     private PasswordGenerator passwordGenerator = new PasswordGenerator(12,
             "abcdefghijklmnopqrstuvwxyz" +
                     "ABCDEFGHIJKLMNOPQRSTUVWXYZ" +
@@ -266,12 +272,17 @@ public class KafkaUserOperator {
                     // We use a latch so that callers (specifically, test callers) know when the reconciliation is complete
                     // Using futures would be more complex for no benefit
                     AtomicInteger counter = new AtomicInteger(desiredNames.size());
+                    int users = desiredNames.size();
+                    long start = System.nanoTime();
 
                     for (String name : desiredNames) {
                         Reconciliation reconciliation = new Reconciliation(trigger, ResourceType.USER, namespace, name);
                         reconcile(reconciliation, result -> {
                             handleResult(reconciliation, result);
-                            if (counter.getAndDecrement() == 0) {
+                            if (counter.decrementAndGet() == 0) {
+                                long millis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                                log.info("reconcileAll({}, {}): {} users reconciled in {}ms ({} users/s)",
+                                        RESOURCE_KIND, trigger, users, millis, users * 1000L / millis);
                                 outerLatch.countDown();
                             }
                         });
@@ -299,7 +310,9 @@ public class KafkaUserOperator {
     }
 
     /**
-     * Create Kubernetes watch for KafkaUser resources
+     * Create Kubernetes watch for KafkaUser resources.
+     * A watch created again in the same namespace after the previous one was closed resumes from the last event
+     * received, rather than reconciling every user again, unless the API server no longer has that event.
      *
      * @param namespace Namespace where to watch for users
      * @param selector  Labels which the Users should match
@@ -311,10 +324,17 @@ public class KafkaUserOperator {
         Future<Watch> result = Future.future();
         vertx.<Watch>executeBlocking(
             future -> {
-                Watch watch = crdOperator.watch(namespace, selector, new Watcher<KafkaUser>() {
+                String resourceVersion = watchResourceVersions.get(namespace);
+                if (resourceVersion != null) {
+                    log.info("Resuming the watch of {} in namespace {} from resourceVersion {}", RESOURCE_KIND, namespace, resourceVersion);
+                }
+                Watch watch = crdOperator.watch(namespace, selector, resourceVersion, new Watcher<KafkaUser>() {
                     @Override
                     public void eventReceived(Action action, KafkaUser crd) {
                         String name = crd.getMetadata().getName();
+                        if (crd.getMetadata().getResourceVersion() != null) {
+                            watchResourceVersions.put(namespace, crd.getMetadata().getResourceVersion());
+                        }
                         switch (action) {
                             case ADDED:
                             case DELETED:
@@ -337,6 +357,11 @@ public class KafkaUserOperator {
 
                     @Override
                     public void onClose(KubernetesClientException e) {
+                        if (e != null && e.getCode() == HttpURLConnection.HTTP_GONE) {
+                            // The events since the last resourceVersion are gone, so the next watch has to list everything again
+                            log.info("The resourceVersion of the watch of {} in namespace {} is too old", RESOURCE_KIND, namespace);
+                            watchResourceVersions.remove(namespace);
+                        }
                         onClose.accept(e);
                     }
                 });
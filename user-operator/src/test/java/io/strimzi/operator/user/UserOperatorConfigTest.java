@@ -26,6 +26,7 @@ public class UserOperatorConfigTest {
         envVars.put(UserOperatorConfig.STRIMZI_CA_NAMESPACE, "differentnamespace");
         envVars.put(UserOperatorConfig.STRIMZI_ZOOKEEPER_CONNECT, "somehost:2181");
         envVars.put(UserOperatorConfig.STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS, "6000");
+        envVars.put(UserOperatorConfig.STRIMZI_KEY_POOL_SIZE, "50");
 
         Map labels = new HashMap<>(2);
         labels.put("label1", "value1");
@@ -45,6 +46,7 @@ public class UserOperatorConfigTest {
         assertEquals(envVars.get(UserOperatorConfig.STRIMZI_CA_NAMESPACE), config.getCaNamespace());
         assertEquals(envVars.get(UserOperatorConfig.STRIMZI_ZOOKEEPER_CONNECT), config.getZookeperConnect());
         assertEquals(Long.parseLong(envVars.get(UserOperatorConfig.STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS)), config.getZookeeperSessionTimeoutMs());
+        assertEquals(Integer.parseInt(envVars.get(UserOperatorConfig.STRIMZI_KEY_POOL_SIZE)), config.getKeyPoolSize());
     }
 
     @Test(expected = InvalidConfigurationException.class)
@@ -105,4 +107,21 @@ public class UserOperatorConfigTest {
 
         UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
     }
+
+    @Test
+    public void testMissingKeyPoolSize()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.remove(UserOperatorConfig.STRIMZI_KEY_POOL_SIZE);
+
+        UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
+        assertEquals(UserOperatorConfig.DEFAULT_KEY_POOL_SIZE, config.getKeyPoolSize());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testNegativeKeyPoolSize()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_KEY_POOL_SIZE, "-1");
+
+        UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
+    }
 }
@@ -5,17 +5,26 @@
 package io.strimzi.operator.user.operator;
 
 import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.strimzi.api.kafka.Crds;
+import io.strimzi.api.kafka.KafkaUserList;
+import io.strimzi.api.kafka.model.DoneableKafkaUser;
 import io.strimzi.api.kafka.model.KafkaUser;
+import io.strimzi.api.kafka.model.KafkaUserBuilder;
 import io.strimzi.certs.CertManager;
 import io.strimzi.operator.common.Reconciliation;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.operator.common.operator.MockKube;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.strimzi.operator.user.ResourceUtils;
 import io.strimzi.operator.user.model.KafkaUserModel;
 import io.strimzi.operator.user.model.acl.SimpleAclRule;
+import io.strimzi.test.TestUtils;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -31,10 +40,13 @@ import org.mockito.ArgumentCaptor;
 
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -800,4 +812,69 @@ public class KafkaUserOperatorTest {
             async.complete();
         });
     }
+
+    private void modifyUser(KubernetesClient mockClient, KafkaUser user, String resourceVersion) {
+        Crds.kafkaUserOperation(mockClient).inNamespace(ResourceUtils.NAMESPACE).withName(ResourceUtils.NAME)
+                .patch(new KafkaUserBuilder(user).editMetadata().withResourceVersion(resourceVersion).endMetadata().build());
+    }
+
+    /** A watch closed with an exception resumes from the last event, without reconciling the users again */
+    @Test
+    public void testWatchResumesFromLastResourceVersion(TestContext context) {
+        KafkaUser user = ResourceUtils.createKafkaUserTls();
+        MockKube.MockedCrd mockUsers = new MockKube()
+                .withCustomResourceDefinition(Crds.kafkaUser(), KafkaUser.class, KafkaUserList.class, DoneableKafkaUser.class)
+                .withInitialInstances(Collections.singleton(user));
+        KubernetesClient mockClient = mockUsers.end().build();
+        CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOps =
+                new CrdOperator<>(vertx, mockClient, KafkaUser.class, KafkaUserList.class, DoneableKafkaUser.class);
+
+        AtomicInteger reconciliations = new AtomicInteger();
+        KafkaUserOperator op = new KafkaUserOperator(vertx, mockCertManager, crdOps, mock(SecretOperator.class),
+                mock(ScramShaCredentialsOperator.class), mock(SimpleAclOperator.class),
+                ResourceUtils.CA_CERT_NAME, ResourceUtils.CA_KEY_NAME, ResourceUtils.NAMESPACE) {
+            @Override
+            protected void createOrUpdate(Reconciliation reconciliation, KafkaUser kafkaUser, Secret clientsCaCert,
+                                          Secret clientsCaKey, Secret userSecret, Handler<AsyncResult<Void>> handler) {
+                reconciliations.incrementAndGet();
+                handler.handle(Future.succeededFuture());
+            }
+        };
+        Labels selector = Labels.fromMap(ResourceUtils.LABELS);
+        AtomicInteger watches = new AtomicInteger();
+        Consumer<KubernetesClientException> recreateWatch = new Consumer<KubernetesClientException>() {
+            @Override
+            public void accept(KubernetesClientException e) {
+                if (e != null) {
+                    op.createWatch(ResourceUtils.NAMESPACE, selector, this).setHandler(ar -> watches.incrementAndGet());
+                }
+            }
+        };
+
+        modifyUser(mockClient, user, "1");
+        Async watchAsync = context.async();
+        op.createWatch(ResourceUtils.NAMESPACE, selector, recreateWatch).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            watches.incrementAndGet();
+            watchAsync.complete();
+        });
+        watchAsync.await();
+        // The new watch receives an ADDED event for the existing user
+        TestUtils.waitFor("the user to be reconciled", 10, 10_000, () -> reconciliations.get() == 1);
+
+        modifyUser(mockClient, user, "2");
+        TestUtils.waitFor("the modified user to be reconciled", 10, 10_000, () -> reconciliations.get() == 2);
+
+        mockUsers.closeWatches(new KubernetesClientException("Connection reset"));
+        TestUtils.waitFor("the watch to be resumed", 10, 10_000, () -> watches.get() == 2);
+        modifyUser(mockClient, user, "3");
+        TestUtils.waitFor("the modified user to be reconciled", 10, 10_000, () -> reconciliations.get() == 3);
+        // Nothing else is reconciled, the resumed watch didn't replay the existing user
+        context.assertEquals(3, reconciliations.get());
+
+        // The API server no longer has the events since the resourceVersion, so everything is listed again
+        mockUsers.closeWatches(new KubernetesClientException(new StatusBuilder().withCode(410).withReason("Gone").build()));
+        TestUtils.waitFor("the watch to be recreated", 10, 10_000, () -> watches.get() == 3);
+        TestUtils.waitFor("the user to be reconciled again", 10, 10_000, () -> reconciliations.get() == 4);
+    }
 }